@@ -0,0 +1,47 @@
+package iceCube.uhe.propagation;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+<pre>
+   RowChannelTensorKernel with the row accumulation
+   running on the SIMD lanes of the Java Vector API (jdk.incubator.vector).
+   The module is still incubating, so this class is kept in the source root
+   sources-vector, apart from the other sources compiled without the flag,
+   and has to be compiled after them and run with
+
+       javac --add-modules jdk.incubator.vector -cp (classes) -d (classes) sources-vector/iceCube/uhe/propagation/*.java
+       java --add-modules jdk.incubator.vector
+
+   ChannelTensorKernel.getKernel(VECTOR_BACKEND) loads this class by its name
+   and falls back to RowChannelTensorKernel when it can not be loaded.
+   The multiply-add is fused, so the results differ from the scalar kernels
+   within the rounding errors.
+</pre>
+*/
+
+public class VectorChannelTensorKernel extends RowChannelTensorKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    public String getName( ){
+	return "vector(" + SPECIES.length( ) + " lanes)";
+    }
+
+    /** y[yOffset+n] += alpha*x[xOffset+n] for n &lt; length. */
+    protected void axpy(double[] y, int yOffset, double alpha,
+			double[] x, int xOffset, int length){
+	DoubleVector alphaV = DoubleVector.broadcast(SPECIES,alpha);
+	int upperBound = SPECIES.loopBound(length);
+	int n = 0;
+	for(;n<upperBound;n+=SPECIES.length( )){
+	    DoubleVector xV = DoubleVector.fromArray(SPECIES,x,xOffset+n);
+	    DoubleVector yV = DoubleVector.fromArray(SPECIES,y,yOffset+n);
+	    xV.fma(alphaV,yV).intoArray(y,yOffset+n);
+	}
+	for(;n<length;n++){ // tail shorter than a vector
+	    y[yOffset+n] += alpha*x[xOffset+n];
+	}
+    }
+}
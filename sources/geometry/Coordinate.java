@@ -258,6 +258,31 @@ public class Coordinate{
 	return a;
     }
 
+    /** Transform vector point J3Vector r represented 
+	in the external coordinate system to
+	the one in this coordinate and put it in the given vector.
+	The same as transformVectorToThisCoordinate(r, external)
+	without generating new vectors.
+	<pre>
+	J3Vector r :    point vector that will be transfomed to this corrdinate.
+	Coordinate external: the cordinate system that describes the vector r.
+	J3Vector a :    the transformed vector. It may be r itself.
+	</pre>
+    */ 
+    public void transformVectorToThisCoordinate(J3Vector r, Coordinate external, J3Vector a){
+
+	J3Vector externalOrigin = external.getOrigin();
+	double rx = r.getX() + (externalOrigin.getX() - origin.getX());
+	double ry = r.getY() + (externalOrigin.getY() - origin.getY());
+	double rz = r.getZ() + (externalOrigin.getZ() - origin.getZ());
+
+	double x = rx*ex.getX() + ry*ex.getY() + rz*ex.getZ();
+	double y = rx*ey.getX() + ry*ey.getY() + rz*ey.getZ();
+	double z = rx*ez.getX() + ry*ez.getY() + rz*ez.getZ();
+
+	a.setAll(x,y,z);
+    }
+
     /** Transform unit vector (direction) J3UnitVector n represented 
 	in the different coordinate system to
 	the one in this coordinate. Returns the transformed vector.
@@ -41,11 +41,9 @@ public class J3Line extends J3Vector {
     /** Configuration. The point vector components defined by
 	the gemetrical parameters are set.*/
     public void configure(){
-	J3Vector d = multipleFactor(axisLength,n);
-	J3Vector r = add(r0, d);
-	putVector(r);
-	r = null;
-	d = null;
+	setAll(r0.getX() + axisLength*n.getX(),
+	       r0.getY() + axisLength*n.getY(),
+	       r0.getZ() + axisLength*n.getZ());
     }
 
     /** set a new axis length l */
@@ -26,6 +26,7 @@ public class MuDecayBase extends MonteCarloBase {
     private int             dim; 
     private double          random;
     private double[]        cumulativeTable;
+    private GuideTable      cumulativeTableSearch;
 
 
     /** Constructor for making the tables of lifetime and cumulative table. */ 
@@ -41,6 +42,7 @@ public class MuDecayBase extends MonteCarloBase {
 	    }
 	    this.cumulativeTable = new double[dim];
 	    this.setCumulativeTable(muDecayMtx);
+	    cumulativeTableSearch = new GuideTable(cumulativeTable,dim);
 	}else{
             System.err.println("This particle " + 
 			       p.particleName(p.getFlavor(), p.getDoublet()) + 
@@ -83,6 +85,11 @@ public class MuDecayBase extends MonteCarloBase {
 
     }
 
+    /** The inverse of the mean path length of getPathLength(iLogE, rand). */
+    public double getInverseMeanPathLength(int iLogE) {
+	return 1.0/(muDecayMtx.getLifeTimeMatrix(iLogE)*PropagationMatrix.c);
+    }
+
     /** This is a dummy method because this class extends MonteCarloBase.class */
     public double getNeutrinoPathLength(int iLogE, RandomGenerator rand) {
 
@@ -104,12 +111,8 @@ public class MuDecayBase extends MonteCarloBase {
         double y = 0.0;            
 	double r = rand.GetRandomDouble();
 
-	for(int kLogY=0; kLogY<dim; kLogY++){
-            if(r<cumulativeTable[kLogY]){
-                y = (double )kLogY;
-                break;
-            }
-	}
+	int kLogY = cumulativeTableSearch.search(r);
+	if(kLogY>=0) y = (double )kLogY;
 
 	// value in a bin
 	r = rand.GetRandomDouble();
@@ -127,12 +130,8 @@ public class MuDecayBase extends MonteCarloBase {
 	double y = 0.0;            
 	double r = rand.GetRandomDouble();
 	
-	for(int kLogY=0; kLogY<dim; kLogY++){
-            if(r<cumulativeTable[kLogY]){
-                y = (double )kLogY;
-                break;
-            }
-	}
+	int kLogY = cumulativeTableSearch.search(r);
+	if(kLogY>=0) y = (double )kLogY;
 
 	// value in a bin
 	r = rand.GetRandomDouble();
@@ -180,5 +179,10 @@ public class MuDecayBase extends MonteCarloBase {
 
     }
 
+    /** get Kind Of Interaction */
+    public int getInteractionKind() {
+	return DECAY;
+    }
+
 }
 
@@ -30,6 +30,8 @@ public class TauDecayBase extends MonteCarloBase {
     private double[]        cumulativeTable;
     private double[]        cumTau2LeptonTable, cumTau2HadronTable; // one of them is choosed and copied
                                                                     //  to cumulativeTable[] in setDecayMode().
+    private GuideTable      cumulativeTableSearch;
+    private GuideTable      cumTau2LeptonSearch, cumTau2HadronSearch;
 
     /** Constructor for making the table of lifetime and cumulative table. */
     public TauDecayBase(TauDecayYMatrix tauDecayMtx) {
@@ -42,6 +44,8 @@ public class TauDecayBase extends MonteCarloBase {
 		tauDecayMtx.setLifeTimeMatrix(kLogE);
 	    }
 	    this.setCumulativeTable(tauDecayMtx);
+	    cumTau2LeptonSearch = new GuideTable(cumTau2LeptonTable,dim);
+	    cumTau2HadronSearch = new GuideTable(cumTau2HadronTable,dim);
 	    
         }else{
             System.err.println("This particle " + 
@@ -53,6 +57,20 @@ public class TauDecayBase extends MonteCarloBase {
 	
     }
 
+    /** Constructor of the copy sharing the lifetime and the cumulative tables,
+	which are not modified after they are made. The decay mode chosen by
+	getProducedEnergy( ) is kept in the object until getProducedFlavor( )
+	is called, so each thread running events needs its own TauDecayBase. */
+    public TauDecayBase(TauDecayBase base) {
+	this.p                   = base.p;
+	this.tauDecayMtx         = base.tauDecayMtx;
+	this.dim                 = base.dim;
+	this.cumTau2LeptonTable  = base.cumTau2LeptonTable;
+	this.cumTau2HadronTable  = base.cumTau2HadronTable;
+	this.cumTau2LeptonSearch = base.cumTau2LeptonSearch;
+	this.cumTau2HadronSearch = base.cumTau2HadronSearch;
+    }
+
     /** Make a cumulative table of differential cross section.
         The elements are normalized to branching ratio of tau decay. */
     public void setCumulativeTable(TauDecayYMatrix tauDecayMtx){
@@ -99,6 +117,11 @@ public class TauDecayBase extends MonteCarloBase {
 
     }
 
+    /** The inverse of the mean path length of getPathLength(iLogE, rand). */
+    public double getInverseMeanPathLength(int iLogE) {
+	return 1.0/(tauDecayMtx.getLifeTimeMatrix(iLogE)*PropagationMatrix.c);
+    }
+
     /** This is a dummy method because this class extends MonteCarloBase.class */
     public double getNeutrinoPathLength(int iLogE, RandomGenerator rand) {
 
@@ -123,13 +146,8 @@ public class TauDecayBase extends MonteCarloBase {
         double y = 0.0;            
 	double r = rand.GetRandomDouble();
 
-	for(int kLogY=0; kLogY<dim; kLogY++){
-
-            if(r<cumulativeTable[kLogY]){
-                y = (double )kLogY;
-                break;
-            }
-	}
+	int kLogY = cumulativeTableSearch.search(r);
+	if(kLogY>=0) y = (double )kLogY;
 
 	// value in a bin
 	r = rand.GetRandomDouble();
@@ -148,12 +166,8 @@ public class TauDecayBase extends MonteCarloBase {
         double y = 0.0;            
 	double r = rand.GetRandomDouble();
 	
-	for(int kLogY=0; kLogY<dim; kLogY++){
-            if(r<cumulativeTable[kLogY]){
-                y = (double)kLogY;
-                break;
-            }
-	}
+	int kLogY = cumulativeTableSearch.search(r);
+	if(kLogY>=0) y = (double )kLogY;
 
 	// value in a bin
 	r = rand.GetRandomDouble();
@@ -186,8 +200,13 @@ public class TauDecayBase extends MonteCarloBase {
 	    }
 	}
 
-	if(decayMode==0 || decayMode==1) cumulativeTable = cumTau2LeptonTable;
-	else if(decayMode==2) cumulativeTable = cumTau2HadronTable;
+	if(decayMode==0 || decayMode==1){
+	    cumulativeTable = cumTau2LeptonTable;
+	    cumulativeTableSearch = cumTau2LeptonSearch;
+	}else if(decayMode==2){
+	    cumulativeTable = cumTau2HadronTable;
+	    cumulativeTableSearch = cumTau2HadronSearch;
+	}
     }
 
 
@@ -238,5 +257,10 @@ public class TauDecayBase extends MonteCarloBase {
 
     }
 
+    /** get Kind Of Interaction */
+    public int getInteractionKind() {
+	return DECAY;
+    }
+
 }
 
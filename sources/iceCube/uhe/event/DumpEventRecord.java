@@ -0,0 +1,77 @@
+package iceCube.uhe.event;
+
+import iceCube.uhe.particles.*;
+
+import java.io.*;
+
+/**
+<pre>
+   Print the events of the binary file written by EventRecordWriter
+   in the text for debugging.
+
+       java iceCube.uhe.event.DumpEventRecord file [maximum number of events]
+
+   A line of the header, the tracks and the cascades of each event, as
+
+       event 0 primary Muon Neutrino 1.0E9 [GeV] final 3.2E8 [GeV] start 1.2E8 [cm] weight 1.0
+       event 0 start x y z end x y z [cm]
+       event 0 track Muon 3.2E8 [GeV] x y z
+       event 0 secondary Pion+ 1.1E7 [GeV] x y z kind 1
+
+   where kind is the interaction kind of MonteCarloBase.
+</pre>
+*/
+
+public class DumpEventRecord {
+
+    /** Print the event of the record. */
+    public static void printEvent(EventRecord record, PrintStream out){
+	long trial = record.getEventIndex( );
+	out.println("event " + trial + " primary " +
+		    Particle.particleName(record.getPrimaryFlavor( ),record.getPrimaryDoublet( )) +
+		    " " + record.getPrimaryEnergy( ) + " [GeV] final " +
+		    record.getFinalEnergy( ) + " [GeV] start " +
+		    record.getStartLocation( ) + " [cm] weight " + record.getWeight( ));
+	out.println("event " + trial + " start " + record.getStart(0) + " " +
+		    record.getStart(1) + " " + record.getStart(2) + " end " +
+		    record.getEnd(0) + " " + record.getEnd(1) + " " + record.getEnd(2) + " [cm]");
+
+	EventRecord.Entries tracks = record.getTracks( );
+	for(int i=0;i<tracks.size( );i++){
+	    out.println("event " + trial + " track " +
+			Particle.particleName(tracks.getFlavor(i),tracks.getDoublet(i)) + " " +
+			tracks.getEnergy(i) + " [GeV] " +
+			tracks.getX(i) + " " + tracks.getY(i) + " " + tracks.getZ(i));
+	}
+	EventRecord.Entries cascades = record.getCascades( );
+	for(int i=0;i<cascades.size( );i++){
+	    out.println("event " + trial + " secondary " +
+			Particle.particleName(cascades.getFlavor(i),cascades.getDoublet(i)) + " " +
+			cascades.getEnergy(i) + " [GeV] " +
+			cascades.getX(i) + " " + cascades.getY(i) + " " + cascades.getZ(i) +
+			" kind " + cascades.getInteractionKind(i));
+	}
+    }
+
+    public static void main(String[] args) throws IOException {
+
+	if(args.length<1){
+	    System.err.println("Usage: DumpEventRecord file [maximum number of events]");
+	    System.exit(0);
+	}
+	long maximumEvents = Long.MAX_VALUE;
+	if(args.length>1) maximumEvents = Long.valueOf(args[1]).longValue();
+
+	EventRecordReader reader = new EventRecordReader(new FileInputStream(args[0]));
+	EventRecord record = new EventRecord( );
+	PrintStream out = new PrintStream(new BufferedOutputStream(System.out));
+	long numberOfEvents = 0L;
+	while(numberOfEvents<maximumEvents && reader.readEvent(record)){
+	    printEvent(record,out);
+	    numberOfEvents++;
+	}
+	out.flush( );
+	reader.close( );
+	System.err.println(numberOfEvents + " events");
+    }
+}
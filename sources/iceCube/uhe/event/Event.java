@@ -57,6 +57,9 @@ public class Event {
     /** MonteCarloBase object currently in play */
     MonteCarloBase mcBaseInPlay = null;
 
+    /** The rates of the channels to sample them together */
+    InteractionRateTable rateTable;
+
     /** Cascade energy */
     private double cascadeEmgEnergy;
     private double cascadeHadronEnergy;
@@ -64,6 +67,14 @@ public class Event {
     /** Dimension of produced log energy */
     private int expandedDim;
 
+    /** Column depth [g/cm^2] the next interaction is forced in. 0 if not forced.
+	See forceNextInteraction( ). */
+    private double forcedColumnDepth = 0.0;
+
+    /** Weight of the event, the product of the probabilities
+	of the forced interactions. 1 if no interaction has been forced. */
+    private double weight = 1.0;
+
     /** Constructor. Allocating Lists to the MonteCarloBase,
 	and register the Particle and ParticlePoint classes. */
 
@@ -78,9 +89,70 @@ public class Event {
 
 	MonteCarloList = new LinkedList();
 	registerMonteCarloBase(mcBases);
+	rateTable = new InteractionRateTable(mcBases);
+
+    }
+
+    /** Constructor with the table of the rates of the channels made from mcBases,
+	which is kept by the caller over the events. */
+    public Event(MonteCarloBase[] mcBases, Particle p, ParticlePoint s,
+		 InteractionRateTable rateTable) {
+	this.propParticle = p;
+	this.point        = s;
+
+	cascadeEmgEnergy    = 0.0;
+	cascadeHadronEnergy = 0.0;
+
+	setMassNumber();
+
+	MonteCarloList = new LinkedList();
+	registerMonteCarloBase(mcBases);
+	this.rateTable = rateTable;
 
     }
 
+    /** Start a new event with the given Particle and ParticlePoint,
+	keeping the MonteCarloBase objects and the table of the rates.
+	The same as a new Event(mcBases, p, s, rateTable). */
+    public void reset(Particle p, ParticlePoint s){
+	this.propParticle = p;
+	this.point        = s;
+
+	cascadeEmgEnergy    = 0.0;
+	cascadeHadronEnergy = 0.0;
+	mcBaseInPlay        = null;
+	stepDx              = 0.0;
+	forcedColumnDepth   = 0.0;
+	weight              = 1.0;
+
+	setMassNumber();
+    }
+
+    /** Force the interaction (or decay) sampled by the next getPhysicalPathLength( )
+	to occur within the column depth [g/cm^2] from the current location.
+	<pre>
+	The path length of the channels sampled by their total rate R
+	is drawn from the exponential truncated to [0, columnDepth),
+
+	      X = -ln(1 - u*P)/R,   P = 1 - exp(-R*columnDepth),
+
+	and the weight of the event is multiplied by P, the probability
+	that the particle interacts within the column depth.
+	The channels sampled one by one (the Glashow resonance) are sampled as usual,
+	so the forcing is applied only when none of them is shorter than columnDepth.
+	The weight takes the place of the neutrino factor, which should be 1 in this mode.
+	Not applied if the particle has no channel in the InteractionRateTable.
+	</pre>
+    */
+    public void forceNextInteraction(double columnDepth){
+	forcedColumnDepth = (columnDepth>0.0) ? columnDepth : 0.0;
+    }
+
+    /** Weight of the event. 1 unless forceNextInteraction( ) has been applied. */
+    public double getWeight(){
+	return weight;
+    }
+
     /** Calculate the mass number in the current medium */
     void setMassNumber(){
 	massNumber = 0.0;
@@ -109,6 +181,10 @@ public class Event {
 	The shortest path length is picked up and returned.
 	The determined interaction is put in the class valuable
 	"mcBaseInPlay".
+
+	The channels with the exponential path length are sampled together
+	from their total rate in InteractionRateTable, which gives the same
+	distribution of the shortest path length and the channel.
     */
     public double getPhysicalPathLength(RandomGenerator rand){
 
@@ -119,6 +195,13 @@ public class Event {
 	                           propParticle.getDeltaLogEnergy());
 	if(iLogE<0) iLogE = 0;
 
+	InteractionRateTable.Channels channels = null;
+	if(rateTable != null && iLogE<rateTable.getDimension()){
+	    channels = rateTable.getChannels(propParticle.getFlavor(),propParticle.getDoublet());
+	}
+	if(channels != null) return getPhysicalPathLength(channels, iLogE, logEnergy, rand);
+	forcedColumnDepth = 0.0; // not forced without the total rate
+
 	double minPathLength = 1.0e25;
         mcBaseInPlay = null; // Initialization
 
@@ -158,6 +241,69 @@ public class Event {
 	return minPathLength;
     }
 
+    /** getPhysicalPathLength( ) by the total rate of the channels */
+    private double getPhysicalPathLength(InteractionRateTable.Channels channels, 
+					 int iLogE, double logEnergy, RandomGenerator rand){
+
+	double minPathLength = 1.0e25;
+        mcBaseInPlay = null; // Initialization
+
+	// The channels sampled one by one
+	for(int k=0; k<channels.sampled.length; k++){
+	    MonteCarloBase mcBase = channels.sampled[k];
+	    double pathLength = 0.0;
+	    if(mcBase.getTypeOfInteraction()==0) { // Interactions (not Decay)
+		if(mcBase.getPropDoublet()!=0) {  // Charged Lepton
+		    pathLength = massNumber/point.NA*mcBase.getPathLength(iLogE, rand);
+		}else {                            // Neutrino
+		    pathLength = mcBase.getNeutrinoPathLength(logEnergy, rand)/point.NA;
+		}
+	    }
+	    else if(mcBase.getTypeOfInteraction()==1){  // Decay
+		pathLength = point.getMediumDensity()*mcBase.getPathLength(iLogE,rand);
+	    }
+	    if(pathLength<minPathLength) {
+		minPathLength = pathLength;
+		mcBaseInPlay  = mcBase;
+	    }
+	}
+
+	// The rest by their total rate [1/(g/cm^2)]
+	double[] interactionCumulative = channels.interactionCumulative[iLogE];
+	double[] decayCumulative = channels.decayCumulative[iLogE];
+	double interactionScale = (propParticle.getDoublet()!=0) ? point.NA/massNumber : point.NA;
+	double decayScale = (decayCumulative.length>0) ? 1.0/point.getMediumDensity() : 0.0;
+	double interactionRate = (interactionCumulative.length>0) ?
+	    interactionCumulative[interactionCumulative.length-1]*interactionScale : 0.0;
+	double decayRate = (decayCumulative.length>0) ?
+	    decayCumulative[decayCumulative.length-1]*decayScale : 0.0;
+	double totalRate = interactionRate + decayRate;
+	double forcedDepth = forcedColumnDepth;
+	forcedColumnDepth = 0.0;
+	if(totalRate<=0.0) return minPathLength;
+
+	double pathLength;
+	if(forcedDepth>0.0 && minPathLength>=forcedDepth){ // forced within forcedDepth
+	    double probability = -Math.expm1(-totalRate*forcedDepth);
+	    pathLength = -Math.log1p(-rand.GetRandomDouble()*probability)/totalRate;
+	    weight *= probability;
+	}else{
+	    pathLength = -Math.log(1.0-rand.GetRandomDouble())/totalRate;
+	}
+	if(pathLength<minPathLength) {
+	    minPathLength = pathLength;
+	    double r = rand.GetRandomDouble()*totalRate;
+	    if(r<interactionRate || decayRate<=0.0){
+		mcBaseInPlay = channels.interaction[
+		    InteractionRateTable.searchChannel(interactionCumulative,r/interactionScale)];
+	    }else{
+		mcBaseInPlay = channels.decay[
+		    InteractionRateTable.searchChannel(decayCumulative,(r-interactionRate)/decayScale)];
+	    }
+	}
+	return minPathLength;
+    }
+
     /** Get the Interaction's name which has just interacted with your particle */
     public String interactionsNameInPlay(){
 	if(mcBaseInPlay!=null) return mcBaseInPlay.getInteractionName();
@@ -167,6 +313,13 @@ public class Event {
 	}
     }
 
+    /** Get the kind of the interaction which has just interacted with your particle
+	(see MonteCarloBase). -1 if no interaction has occured. */
+    public int getInteractionKindInPlay(){
+	if(mcBaseInPlay!=null) return mcBaseInPlay.getInteractionKind();
+	else return -1;
+    }
+
     /** Get the produced particle's Flavor */
     public int getFlavorByInteractionsInPlay(){
 	if(mcBaseInPlay!=null) return mcBaseInPlay.getProducedFlavor();
@@ -208,10 +361,12 @@ public class Event {
     }
 
 	// Flag for checking Neutrino interactions
-	boolean compareNC = mcBaseInPlay.getInteractionName().startsWith("Neutrino-Nuclen Neutraled ");
-	boolean compareCC = mcBaseInPlay.getInteractionName().startsWith("Neutrino-Nuclen Charged ");
+	int     kind      = mcBaseInPlay.getInteractionKind();
+	boolean compareNC = (kind == MonteCarloBase.NEUTRAL_CURRENT);
+	boolean compareCC = (kind == MonteCarloBase.CHARGED_CURRENT);
 	/** For Glashow Resonance */
-	boolean compareGR = mcBaseInPlay.getInteractionName().startsWith("Glashow Resonance ");
+	boolean compareGR = (kind == MonteCarloBase.GLASHOW_RESONANCE_LEPTONIC ||
+			     kind == MonteCarloBase.GLASHOW_RESONANCE_HADRONIC);
 
 	// change propParticle into a produced particle but its energy is not changed.
 	if(mcBaseInPlay.getTypeOfInteraction() == 1){  // decay
@@ -291,15 +446,13 @@ public class Event {
 	</pre>
     */
     public void changeParticle(int newFlavor, int newDoublet){
-	double energy    = propParticle.getEnergy();
-	double logEnergy = propParticle.getLogEnergy();
-	propParticle = null;
-	propParticle = new Particle(newFlavor, newDoublet);
-	propParticle.putEnergy(energy);
-	propParticle.putLogEnergy(logEnergy);
+	// The energy is kept. The Particle object is redefined in place.
+	propParticle.setFlavorAndDoublet(newFlavor, newDoublet);
     }
 
-    /** Set the step size for traceParticle() */
+    /** Set the step size for traceParticle(). traceParticle() now moves the particle
+	by the exact column depth, so the step size only controls the stepping
+	of traceParticleByStep(). */
     public void setStepDx(double dx){
 	stepDx = dx;
     }
@@ -309,8 +462,26 @@ public class Event {
 	return(stepDx);
     }
 
-    /** Trace particle running by a given pathlength [g/cm^2]*/
+    /** Trace particle running by a given pathlength [g/cm^2].
+	The particle is moved in one jump to the location where the column depth
+	from the current location reaches pathLength, by the column depth
+	integrated over the shells of the Earth model (ColumnDepthCalculator),
+	instead of the steps of stepDx with the density at the start of each step.
+    */
     public void traceParticle(double pathLength){
+	// The medium may be switched from rock to ice by getMediumDensity( )
+	// at the start and at the end of the path as the stepping did.
+	point.getMediumDensity();
+	double l = point.getParticleLocation(); 
+	           // The current particle location along the trajectory.
+	l = point.getColumnDepthCalculator( ).getLocation(l,pathLength);
+	point.setParticleLocation(l);
+	point.getMediumDensity();
+    }
+
+    /** Trace particle running by a given pathlength [g/cm^2]
+	by the steps of stepDx. */
+    public void traceParticleByStep(double pathLength){
 	double l = point.getParticleLocation(); 
 	           // The current particle location along the trajectory.
 	double deltaL;
@@ -0,0 +1,261 @@
+package iceCube.uhe.event;
+
+import iceCube.uhe.particles.*;
+import geometry.*;
+
+import java.util.*;
+
+/**
+<pre>
+   The cascades and the tracks of an event of JulietEventGenerator
+   kept in the parallel arrays of the primitive values,
+
+        flavor[i], doublet[i], energy[i] [GeV], x[i], y[i], z[i] [cm]
+
+   the location in the IceCube coordinate, and for the cascades the MonteCarloBase
+   of the interaction. The arrays are kept over the events and reset( )
+   at the start of an event, so that an event run does not generate
+   the Particle and J3Vector objects of its cascades and tracks.
+   The arrays are doubled when an event has more entries than ever.
+
+   The Lists of the Particle, J3Vector and String objects of the former
+   JulietEventGenerator interface are generated by fillLists( ) on request.
+
+   The header of the event (the primary particle, where it starts and ends,
+   and the weight) is kept with them, so that EventRecordWriter writes
+   and EventRecordReader reads back an event as a whole.
+</pre>
+*/
+
+public class EventRecord {
+
+    /** Initial capacity of the arrays */
+    private static final int initialCapacity = 64;
+
+    /** The entries of the cascades or the tracks */
+    public static class Entries {
+
+	private int size = 0;
+	private int[] flavor = new int[initialCapacity];
+	private int[] doublet = new int[initialCapacity];
+	private double[] energy = new double[initialCapacity];
+	private double[] x = new double[initialCapacity];
+	private double[] y = new double[initialCapacity];
+	private double[] z = new double[initialCapacity];
+	private MonteCarloBase[] mcBase = new MonteCarloBase[initialCapacity];
+	private int[] interactionKind = new int[initialCapacity];
+
+	/** Remove all the entries. The arrays are kept. */
+	public void reset( ){
+	    for(int i=0;i<size;i++) mcBase[i] = null;
+	    size = 0;
+	}
+
+	/** Add an entry at the location r. mcBase may be null. */
+	public void add(int flavor, int doublet, double energy, J3Vector r, MonteCarloBase mcBase){
+	    if(size == this.flavor.length) grow( );
+	    this.flavor[size] = flavor;
+	    this.doublet[size] = doublet;
+	    this.energy[size] = energy;
+	    this.x[size] = r.getX( );
+	    this.y[size] = r.getY( );
+	    this.z[size] = r.getZ( );
+	    this.mcBase[size] = mcBase;
+	    this.interactionKind[size] = (mcBase != null) ? mcBase.getInteractionKind( ) : -1;
+	    size++;
+	}
+
+	/** Add an entry at (x, y, z) of the interaction kind (see MonteCarloBase),
+	    -1 if none. The MonteCarloBase is not recorded. Used by EventRecordReader. */
+	public void add(int flavor, int doublet, double energy, double x, double y, double z,
+			int interactionKind){
+	    if(size == this.flavor.length) grow( );
+	    this.flavor[size] = flavor;
+	    this.doublet[size] = doublet;
+	    this.energy[size] = energy;
+	    this.x[size] = x;
+	    this.y[size] = y;
+	    this.z[size] = z;
+	    this.mcBase[size] = null;
+	    this.interactionKind[size] = interactionKind;
+	    size++;
+	}
+
+	private void grow( ){
+	    int capacity = 2*flavor.length;
+	    flavor = Arrays.copyOf(flavor,capacity);
+	    doublet = Arrays.copyOf(doublet,capacity);
+	    energy = Arrays.copyOf(energy,capacity);
+	    x = Arrays.copyOf(x,capacity);
+	    y = Arrays.copyOf(y,capacity);
+	    z = Arrays.copyOf(z,capacity);
+	    mcBase = Arrays.copyOf(mcBase,capacity);
+	    interactionKind = Arrays.copyOf(interactionKind,capacity);
+	}
+
+	/** Number of the entries */
+	public int size( ){
+	    return size;
+	}
+
+	public int getFlavor(int i){
+	    return flavor[i];
+	}
+
+	public int getDoublet(int i){
+	    return doublet[i];
+	}
+
+	/** Energy [GeV] */
+	public double getEnergy(int i){
+	    return energy[i];
+	}
+
+	/** Location in the IceCube coordinate [cm] */
+	public double getX(int i){
+	    return x[i];
+	}
+
+	public double getY(int i){
+	    return y[i];
+	}
+
+	public double getZ(int i){
+	    return z[i];
+	}
+
+	/** The MonteCarloBase of the interaction. null if not recorded. */
+	public MonteCarloBase getMonteCarloBase(int i){
+	    return mcBase[i];
+	}
+
+	/** Kind of the interaction (see MonteCarloBase). -1 if not recorded. */
+	public int getInteractionKind(int i){
+	    return interactionKind[i];
+	}
+
+	/** Name of the interaction. */
+	public String getInteractionName(int i){
+	    if(mcBase[i] != null) return mcBase[i].getInteractionName( );
+	    return "No interaction has occured.";
+	}
+    }
+
+    /** The cascades (secondary particles) along the track */
+    private Entries cascades = new Entries( );
+    /** The propagating particle at the start and at the interactions */
+    private Entries tracks = new Entries( );
+
+    /** Header of the event */
+    private long eventIndex = 0L;
+    private int primaryFlavor;
+    private int primaryDoublet;
+    private double primaryEnergy;
+    private double finalEnergy;
+    private double startLocation;
+    private double weight = 1.0;
+    private double[] start = new double[3];
+    private double[] end = new double[3];
+
+    /** Remove all the cascades and the tracks. */
+    public void reset( ){
+	cascades.reset( );
+	tracks.reset( );
+	finalEnergy = 0.0;
+	weight = 1.0;
+	for(int i=0;i<3;i++) end[i] = 0.0;
+    }
+
+    /** Set the primary particle, the distance from the earth surface [cm]
+	and the location [cm] in the IceCube coordinate where it starts. */
+    public void setPrimary(int flavor, int doublet, double energy,
+			   double startLocation, J3Vector start){
+	setPrimary(flavor,doublet,energy,startLocation,start.getX( ),start.getY( ),start.getZ( ));
+    }
+
+    public void setPrimary(int flavor, int doublet, double energy,
+			   double startLocation, double x, double y, double z){
+	this.primaryFlavor = flavor;
+	this.primaryDoublet = doublet;
+	this.primaryEnergy = energy;
+	this.startLocation = startLocation;
+	start[0] = x; start[1] = y; start[2] = z;
+    }
+
+    /** Set the energy [GeV] of the propagating particle, the weight of the event
+	and the location [cm] in the IceCube coordinate where the propagation ends. */
+    public void setEnd(double finalEnergy, double weight, J3Vector end){
+	setEnd(finalEnergy,weight,end.getX( ),end.getY( ),end.getZ( ));
+    }
+
+    public void setEnd(double finalEnergy, double weight, double x, double y, double z){
+	this.finalEnergy = finalEnergy;
+	this.weight = weight;
+	end[0] = x; end[1] = y; end[2] = z;
+    }
+
+    /** Set the index of the event in the run */
+    public void setEventIndex(long eventIndex){
+	this.eventIndex = eventIndex;
+    }
+
+    public long getEventIndex( ){
+	return eventIndex;
+    }
+
+    public int getPrimaryFlavor( ){
+	return primaryFlavor;
+    }
+
+    public int getPrimaryDoublet( ){
+	return primaryDoublet;
+    }
+
+    /** Primary energy [GeV] */
+    public double getPrimaryEnergy( ){
+	return primaryEnergy;
+    }
+
+    /** Energy [GeV] of the propagating particle at the end */
+    public double getFinalEnergy( ){
+	return finalEnergy;
+    }
+
+    /** Distance from the earth surface [cm] where the primary starts */
+    public double getStartLocation( ){
+	return startLocation;
+    }
+
+    /** Weight of the event. 1 unless the interaction has been forced. */
+    public double getWeight( ){
+	return weight;
+    }
+
+    /** Location [cm] in the IceCube coordinate where the primary starts. i = 0,1,2 for x,y,z */
+    public double getStart(int i){
+	return start[i];
+    }
+
+    /** Location [cm] in the IceCube coordinate where the propagation ends. i = 0,1,2 for x,y,z */
+    public double getEnd(int i){
+	return end[i];
+    }
+
+    public Entries getCascades( ){
+	return cascades;
+    }
+
+    public Entries getTracks( ){
+	return tracks;
+    }
+
+    /** Fill the lists of Particle and J3Vector of the entries. */
+    public static void fillLists(Entries entries, List<Particle> particleList,
+				 List<J3Vector> locationList){
+	for(int i=0;i<entries.size( );i++){
+	    particleList.add(new Particle(entries.getFlavor(i),entries.getDoublet(i),
+					  entries.getEnergy(i)));
+	    locationList.add(new J3Vector(entries.getX(i),entries.getY(i),entries.getZ(i)));
+	}
+    }
+}
@@ -0,0 +1,185 @@
+package iceCube.uhe.event;
+
+import java.io.*;
+import java.nio.*;
+import java.util.zip.*;
+
+/**
+<pre>
+   Reads the events written by EventRecordWriter one by one.
+   A chunk is read (and inflated) when the events in hand run out,
+   so that a file of any size is read in the memory of a chunk.
+
+        EventRecordReader reader = new EventRecordReader(new FileInputStream(file));
+        EventRecord record = new EventRecord( );
+        while(reader.readEvent(record)){
+            ... record.getEventIndex( ), record.getCascades( ) ...
+        }
+        reader.close( );
+
+   The cascades read back have the interaction kinds but not the MonteCarloBase objects.
+</pre>
+*/
+
+public class EventRecordReader {
+
+    private DataInputStream in;
+    private int compression;
+    private int chunkSize;
+    /** The stream of the events of the chunk in hand */
+    private ByteBuffer chunk;
+    private byte[] stored;
+    private Inflater inflater = null;
+    private boolean endOfFile = false;
+
+    /** Constructor. Reads the header of the file. */
+    public EventRecordReader(InputStream in) throws IOException {
+	this.in = new DataInputStream(new BufferedInputStream(in));
+	ByteBuffer fileHeader = readBytes(16);
+	if(fileHeader.getInt( ) != EventRecordWriter.magic){
+	    throw new IOException("Not an event record file");
+	}
+	int version = fileHeader.getInt( );
+	if(version != EventRecordWriter.version){
+	    throw new IOException("Unsupported version of the event record file " + version);
+	}
+	compression = fileHeader.getInt( );
+	if(compression != EventRecordWriter.NONE && compression != EventRecordWriter.DEFLATE){
+	    throw new IOException("Unknown compression " + compression);
+	}
+	chunkSize = fileHeader.getInt( );
+	if(compression == EventRecordWriter.DEFLATE) inflater = new Inflater( );
+	chunk = ByteBuffer.allocate(chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+	chunk.limit(0);
+    }
+
+    /** Compression of the file, EventRecordWriter.NONE or DEFLATE */
+    public int getCompression( ){
+	return compression;
+    }
+
+    /** Read the next event to the record. Returns false at the end of the file. */
+    public boolean readEvent(EventRecord record) throws IOException {
+	if(!fill(4)) return false;
+	int length = chunk.getInt( );
+	if(length<EventRecordWriter.eventHeaderBytes-4){
+	    throw new IOException("Broken event block of " + length + " bytes");
+	}
+	if(!fill(length)) throw new EOFException("The last event is truncated");
+	ByteBuffer block = chunk;
+
+	record.reset( );
+	record.setEventIndex(block.getLong( ));
+	int flavor = block.getInt( );
+	int doublet = block.getInt( );
+	double primaryEnergy = block.getDouble( );
+	double finalEnergy = block.getDouble( );
+	double startLocation = block.getDouble( );
+	double weight = block.getDouble( );
+	double xs = block.getDouble( ), ys = block.getDouble( ), zs = block.getDouble( );
+	double xe = block.getDouble( ), ye = block.getDouble( ), ze = block.getDouble( );
+	record.setPrimary(flavor,doublet,primaryEnergy,startLocation,xs,ys,zs);
+	record.setEnd(finalEnergy,weight,xe,ye,ze);
+	int nTracks = block.getInt( );
+	int nCascades = block.getInt( );
+	if(nTracks<0 || nCascades<0 ||
+	   length != EventRecordWriter.eventHeaderBytes-4 +
+	   EventRecordWriter.trackBytes*nTracks + EventRecordWriter.cascadeBytes*nCascades){
+	    throw new IOException("Broken event block of " + length + " bytes");
+	}
+	getEntries(block,nTracks,record.getTracks( ),false);
+	getEntries(block,nCascades,record.getCascades( ),true);
+	return true;
+    }
+
+    /** Read the columns of the entries, followed by the interaction kinds if withKinds. */
+    private static void getEntries(ByteBuffer block, int n, EventRecord.Entries entries,
+				   boolean withKinds){
+	int base = block.position( );
+	int doubletAt = base + 4*n;
+	int energyAt = doubletAt + 4*n;
+	int xAt = energyAt + 8*n;
+	int yAt = xAt + 8*n;
+	int zAt = yAt + 8*n;
+	int kindAt = zAt + 8*n;
+	for(int i=0;i<n;i++){
+	    int kind = (withKinds) ? block.getInt(kindAt+4*i) : -1;
+	    entries.add(block.getInt(base+4*i),block.getInt(doubletAt+4*i),
+			block.getDouble(energyAt+8*i),block.getDouble(xAt+8*i),
+			block.getDouble(yAt+8*i),block.getDouble(zAt+8*i),kind);
+	}
+	block.position((withKinds) ? kindAt+4*n : kindAt);
+    }
+
+    /** Make the bytes in hand at least length, reading the chunks after them.
+	Returns false at the end of the file if no byte is in hand.
+	The buffer is enlarged for an event over the chunks. */
+    private boolean fill(int length) throws IOException {
+	while(chunk.remaining( )<length){
+	    if(endOfFile){
+		if(chunk.remaining( ) == 0) return false;
+		throw new EOFException("The last event is truncated");
+	    }
+	    readChunk( );
+	}
+	return true;
+    }
+
+    /** Append the next chunk to the bytes in hand. */
+    private void readChunk( ) throws IOException {
+	ByteBuffer header = readBytes(8);
+	int rawLength = header.getInt( );
+	int storedLength = header.getInt( );
+	if(rawLength == 0){
+	    endOfFile = true;
+	    return;
+	}
+	if(rawLength<0 || storedLength<0){
+	    throw new IOException("Broken chunk of " + rawLength + " bytes");
+	}
+
+	// keep the bytes in hand at the head of the buffer
+	chunk.compact( );
+	if(chunk.remaining( )<rawLength){
+	    ByteBuffer larger = ByteBuffer.allocate(chunk.position( )+rawLength)
+		.order(ByteOrder.LITTLE_ENDIAN);
+	    chunk.flip( );
+	    larger.put(chunk);
+	    chunk = larger;
+	}
+	int offset = chunk.position( );
+	if(compression == EventRecordWriter.NONE){
+	    in.readFully(chunk.array( ),offset,rawLength);
+	}else{
+	    if(stored == null || stored.length<storedLength) stored = new byte[storedLength];
+	    in.readFully(stored,0,storedLength);
+	    inflater.reset( );
+	    inflater.setInput(stored,0,storedLength);
+	    try{
+		int n = 0;
+		while(n<rawLength && !inflater.finished( )){
+		    int m = inflater.inflate(chunk.array( ),offset+n,rawLength-n);
+		    if(m == 0 && (inflater.needsInput( ) || inflater.needsDictionary( ))) break;
+		    n += m;
+		}
+		if(n != rawLength) throw new IOException("Broken chunk of " + rawLength + " bytes");
+	    }catch(DataFormatException e){
+		throw new IOException("Broken chunk " + e.getMessage( ));
+	    }
+	}
+	chunk.position(offset+rawLength);
+	chunk.flip( );
+    }
+
+    private ByteBuffer readBytes(int length) throws IOException {
+	byte[] b = new byte[length];
+	in.readFully(b);
+	return ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Close the stream. */
+    public void close( ) throws IOException {
+	if(inflater != null) inflater.end( );
+	in.close( );
+    }
+}
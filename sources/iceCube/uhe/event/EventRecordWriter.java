@@ -0,0 +1,215 @@
+package iceCube.uhe.event;
+
+import java.io.*;
+import java.nio.*;
+import java.util.zip.*;
+
+/**
+<pre>
+   Writes the EventRecord of the events in the compact binary form
+   read by EventRecordReader, instead of the text of getListedEvents( ).
+
+   The file is
+
+        "JULB" (4 bytes), version, compression, chunkSize   : int
+        chunks of  rawLength, storedLength : int,  storedLength bytes
+        the chunk of rawLength = 0 at the end
+
+   The chunks are the stream of the events cut every chunkSize bytes,
+   stored as they are (NONE) or compressed by java.util.zip.Deflater (DEFLATE).
+   The stream of the events is the fixed-width blocks of an event
+
+        blockLength                                        : int (bytes following)
+        eventIndex                                         : long
+        primaryFlavor, primaryDoublet                      : int
+        primaryEnergy, finalEnergy [GeV], startLocation [cm], weight : double
+        start x, y, z, end x, y, z [cm] (IceCube coordinate) : double
+        numberOfTracks, numberOfCascades                   : int
+        tracks   flavor[n], doublet[n]                     : int
+                 energy[n], x[n], y[n], z[n]               : double
+        cascades flavor[n], doublet[n]                     : int
+                 energy[n], x[n], y[n], z[n]               : double
+                 interactionKind[n]                        : int
+
+   all in the little-endian byte order. The columns of a block follow
+   the arrays of EventRecord.Entries.
+
+   The writer is an OutputStream of the stream of the events, so that
+   the blocks encoded by the workers of ParallelEventRunner with encodeEvent( )
+   can be written through the PrintStream given to ParallelEventRunner.run( ).
+   close( ) must be called to write the last chunk.
+</pre>
+*/
+
+public class EventRecordWriter extends OutputStream {
+
+    /** Magic number of the file "JULB" */
+    static final int magic = ('J') | ('U'<<8) | ('L'<<16) | ('B'<<24);
+    static final int version = 1;
+
+    /** Compression of the chunks */
+    public static final int NONE = 0;
+    public static final int DEFLATE = 1;
+
+    /** Default chunk size [bytes] */
+    public static final int defaultChunkSize = 1<<20;
+
+    /** Bytes of the block of an event with no track and no cascade */
+    static final int eventHeaderBytes = 4+8+4+4+8*4+8*6+4+4;
+    /** Bytes of a track and a cascade in the block */
+    static final int trackBytes = 4+4+8*4;
+    static final int cascadeBytes = 4+4+8*4+4;
+
+    private OutputStream out;
+    private int compression;
+    private byte[] chunk;
+    private int chunkLength = 0;
+    private byte[] stored;
+    private Deflater deflater = null;
+    private ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    /** Encoding buffer of writeEvent( ) */
+    private ByteBuffer block = null;
+    private boolean closed = false;
+
+    /** Constructor with the default chunk size. compression is NONE or DEFLATE. */
+    public EventRecordWriter(OutputStream out, int compression) throws IOException {
+	this(out,compression,defaultChunkSize);
+    }
+
+    /** Constructor. */
+    public EventRecordWriter(OutputStream out, int compression, int chunkSize) throws IOException {
+	if(compression != NONE && compression != DEFLATE){
+	    throw new IllegalArgumentException("Unknown compression " + compression);
+	}
+	if(chunkSize<=0) throw new IllegalArgumentException("Wrong chunk size " + chunkSize);
+	this.out = out;
+	this.compression = compression;
+	chunk = new byte[chunkSize];
+	if(compression == DEFLATE){
+	    deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+	    stored = new byte[chunkSize+chunkSize/8+64];
+	}
+	ByteBuffer fileHeader = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+	fileHeader.putInt(magic).putInt(version).putInt(compression).putInt(chunkSize);
+	out.write(fileHeader.array( ),0,16);
+    }
+
+    /** Write the event of the index. */
+    public void writeEvent(long eventIndex, EventRecord record) throws IOException {
+	block = encodeEvent(eventIndex,record,block);
+	write(block.array( ),0,block.limit( ));
+    }
+
+    /**
+	Encode the event to the buffer, which is returned with the block from 0 to its limit.
+	buffer may be null, and a larger one is allocated if it is short,
+	so that the caller keeps the buffer returned over the events.
+    */
+    public static ByteBuffer encodeEvent(long eventIndex, EventRecord record, ByteBuffer buffer){
+	EventRecord.Entries tracks = record.getTracks( );
+	EventRecord.Entries cascades = record.getCascades( );
+	int nTracks = tracks.size( );
+	int nCascades = cascades.size( );
+	int length = eventHeaderBytes + trackBytes*nTracks + cascadeBytes*nCascades;
+	if(buffer == null || buffer.capacity( )<length){
+	    buffer = ByteBuffer.allocate(Math.max(length,4096)).order(ByteOrder.LITTLE_ENDIAN);
+	}
+	buffer.clear( );
+
+	buffer.putInt(length-4);
+	buffer.putLong(eventIndex);
+	buffer.putInt(record.getPrimaryFlavor( ));
+	buffer.putInt(record.getPrimaryDoublet( ));
+	buffer.putDouble(record.getPrimaryEnergy( ));
+	buffer.putDouble(record.getFinalEnergy( ));
+	buffer.putDouble(record.getStartLocation( ));
+	buffer.putDouble(record.getWeight( ));
+	for(int i=0;i<3;i++) buffer.putDouble(record.getStart(i));
+	for(int i=0;i<3;i++) buffer.putDouble(record.getEnd(i));
+	buffer.putInt(nTracks);
+	buffer.putInt(nCascades);
+	putEntries(tracks,buffer);
+	putEntries(cascades,buffer);
+	for(int i=0;i<nCascades;i++) buffer.putInt(cascades.getInteractionKind(i));
+
+	buffer.flip( );
+	return buffer;
+    }
+
+    /** The columns of the entries */
+    private static void putEntries(EventRecord.Entries entries, ByteBuffer buffer){
+	int n = entries.size( );
+	for(int i=0;i<n;i++) buffer.putInt(entries.getFlavor(i));
+	for(int i=0;i<n;i++) buffer.putInt(entries.getDoublet(i));
+	for(int i=0;i<n;i++) buffer.putDouble(entries.getEnergy(i));
+	for(int i=0;i<n;i++) buffer.putDouble(entries.getX(i));
+	for(int i=0;i<n;i++) buffer.putDouble(entries.getY(i));
+	for(int i=0;i<n;i++) buffer.putDouble(entries.getZ(i));
+    }
+
+    /** Write the bytes of the encoded events. */
+    public void write(byte[] b, int off, int len) throws IOException {
+	if(closed) throw new IOException("EventRecordWriter is closed");
+	while(len>0){
+	    int n = Math.min(len,chunk.length-chunkLength);
+	    System.arraycopy(b,off,chunk,chunkLength,n);
+	    chunkLength += n;
+	    off += n;
+	    len -= n;
+	    if(chunkLength == chunk.length) writeChunk( );
+	}
+    }
+
+    public void write(int b) throws IOException {
+	if(closed) throw new IOException("EventRecordWriter is closed");
+	chunk[chunkLength++] = (byte )b;
+	if(chunkLength == chunk.length) writeChunk( );
+    }
+
+    /** Write the chunk filled so far. */
+    private void writeChunk( ) throws IOException {
+	if(chunkLength == 0) return;
+	byte[] data = chunk;
+	int storedLength = chunkLength;
+	if(compression == DEFLATE){
+	    deflater.reset( );
+	    deflater.setInput(chunk,0,chunkLength);
+	    deflater.finish( );
+	    storedLength = 0;
+	    while(!deflater.finished( )){
+		if(storedLength == stored.length){
+		    byte[] larger = new byte[2*stored.length];
+		    System.arraycopy(stored,0,larger,0,storedLength);
+		    stored = larger;
+		}
+		storedLength += deflater.deflate(stored,storedLength,stored.length-storedLength);
+	    }
+	    data = stored;
+	}
+	writeChunkHeader(chunkLength,storedLength);
+	out.write(data,0,storedLength);
+	chunkLength = 0;
+    }
+
+    private void writeChunkHeader(int rawLength, int storedLength) throws IOException {
+	header.clear( );
+	header.putInt(rawLength).putInt(storedLength);
+	out.write(header.array( ),0,8);
+    }
+
+    /** Flush the underlying stream. The chunk being filled is written
+	when it is full or by close( ). */
+    public void flush( ) throws IOException {
+	out.flush( );
+    }
+
+    /** Write the last chunk and the end of the file, and close the stream. */
+    public void close( ) throws IOException {
+	if(closed) return;
+	writeChunk( );
+	writeChunkHeader(0,0);
+	closed = true;
+	if(deflater != null) deflater.end( );
+	out.close( );
+    }
+}
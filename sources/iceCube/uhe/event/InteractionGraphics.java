@@ -44,7 +44,7 @@ public class InteractionGraphics extends JComponent {
 	drawAxis(g2);
 	g2.setColor(Color.CYAN);
 	if(task.generator!= null){
-	    if(task.generator.particleList!= null) drawHist(g2);
+	    if(task.generator.event!= null) drawHist(g2);
 	}
 
     }
@@ -0,0 +1,152 @@
+package iceCube.uhe.event;
+
+import iceCube.uhe.particles.*;
+
+/**
+<pre>
+   The rates of the interaction and decay channels of the MonteCarloBase objects
+   by (flavor, doublet, iLogE) of the propagating particle, for Event.getPhysicalPathLength( ).
+
+   The path lengths of the channels are independent exponential random variables,
+   so the shortest of them is distributed exponentially with the sum of the rates,
+   and it is the channel c with the probability rate_c/(sum of the rates).
+   Event therefore draws one path length from the total rate and
+   then one channel from the cumulative rates in this table, instead of
+   a path length (and a logarithm) for every channel.
+
+   The rates are those of MonteCarloBase.getInverseMeanPathLength( ) and
+   getInverseMeanNeutrinoPathLength( ) for the interactions, and
+   getInverseMeanPathLength( ) for the decays, which Event scales by the medium
+   (Avogadro number/mass number, or 1/density) at each step.
+   A channel whose path length is not exponential (NaN or infinite rate
+   at some energy, such as the Glashow resonance and ElectronBase)
+   is sampled by itself as before.
+
+   The tables of a (flavor, doublet) are built when the particle first appears.
+   The table of the neutrinos is rebuilt when the neutrino weight of a channel is changed.
+   A table is used by one thread at a time.
+</pre>
+*/
+
+public class InteractionRateTable {
+
+    private MonteCarloBase[] mcBases;
+    private int dim = Particle.getDimensionOfLogEnergyMatrix();
+
+    /** [flavor][doublet] */
+    private Channels[][] channels = new Channels[Particle.NumberOfFlavor][2];
+
+    /** The channels of a propagating particle */
+    static class Channels {
+	/** interaction channels sampled by the total rate */
+	MonteCarloBase[] interaction;
+	/** decay channels sampled by the total rate */
+	MonteCarloBase[] decay;
+	/** channels sampled one by one */
+	MonteCarloBase[] sampled;
+	/** cumulative rates [iLogE][channel] (not scaled by the medium) */
+	double[][] interactionCumulative;
+	double[][] decayCumulative;
+	/** the neutrino weights of the interaction channels the rates are made with */
+	int[] neutrinoWeight;
+    }
+
+    /** Constructor. */
+    public InteractionRateTable(MonteCarloBase[] mcBases){
+	this.mcBases = mcBases;
+    }
+
+    /** The channels of the particle. null if the particle is not in this table. */
+    Channels getChannels(int flavor, int doublet){
+	if(flavor<0 || flavor>=channels.length || doublet<0 || doublet>1) return null;
+	Channels table = channels[flavor][doublet];
+	if(table != null && doublet == 0){ // the neutrino weight may be changed
+	    for(int k=0;k<table.interaction.length;k++){
+		if(table.interaction[k].getNeutrinoWeight( ) != table.neutrinoWeight[k]){
+		    table = null;
+		    break;
+		}
+	    }
+	}
+	if(table == null){
+	    table = makeChannels(flavor,doublet);
+	    channels[flavor][doublet] = table;
+	}
+	return table;
+    }
+
+    /** Dimension of the tables in iLogE */
+    int getDimension( ){
+	return dim;
+    }
+
+    /** The rate of the channel not scaled by the medium. */
+    private static double getRate(MonteCarloBase mcBase, int iLogE){
+	if(mcBase.getTypeOfInteraction( ) == 0 && mcBase.getPropDoublet( ) == 0){
+	    return mcBase.getInverseMeanNeutrinoPathLength(iLogE);
+	}
+	return mcBase.getInverseMeanPathLength(iLogE);
+    }
+
+    private Channels makeChannels(int flavor, int doublet){
+	int numberOfChannels = 0;
+	for(int i=0;i<mcBases.length;i++){
+	    if(mcBases[i].getPropFlavor( ) == flavor && mcBases[i].getPropDoublet( ) == doublet) numberOfChannels++;
+	}
+	MonteCarloBase[] interaction = new MonteCarloBase[numberOfChannels];
+	MonteCarloBase[] decay = new MonteCarloBase[numberOfChannels];
+	MonteCarloBase[] sampled = new MonteCarloBase[numberOfChannels];
+	int numberOfInteractions = 0, numberOfDecays = 0, numberOfSampled = 0;
+	for(int i=0;i<mcBases.length;i++){
+	    MonteCarloBase mcBase = mcBases[i];
+	    if(mcBase.getPropFlavor( ) != flavor || mcBase.getPropDoublet( ) != doublet) continue;
+	    int type = mcBase.getTypeOfInteraction( );
+	    boolean exponential = (type == 0 || type == 1);
+	    for(int iLogE=0;exponential && iLogE<dim;iLogE++){
+		double rate = getRate(mcBase,iLogE);
+		if(Double.isNaN(rate) || Double.isInfinite(rate) || rate<0.0) exponential = false;
+	    }
+	    if(!exponential) sampled[numberOfSampled++] = mcBase;
+	    else if(type == 0) interaction[numberOfInteractions++] = mcBase;
+	    else decay[numberOfDecays++] = mcBase;
+	}
+
+	Channels table = new Channels( );
+	table.interaction = new MonteCarloBase[numberOfInteractions];
+	System.arraycopy(interaction,0,table.interaction,0,numberOfInteractions);
+	table.decay = new MonteCarloBase[numberOfDecays];
+	System.arraycopy(decay,0,table.decay,0,numberOfDecays);
+	table.sampled = new MonteCarloBase[numberOfSampled];
+	System.arraycopy(sampled,0,table.sampled,0,numberOfSampled);
+	table.interactionCumulative = getCumulativeRates(table.interaction);
+	table.decayCumulative = getCumulativeRates(table.decay);
+	table.neutrinoWeight = new int[numberOfInteractions];
+	for(int k=0;k<numberOfInteractions;k++){
+	    table.neutrinoWeight[k] = table.interaction[k].getNeutrinoWeight( );
+	}
+	return table;
+    }
+
+    private double[][] getCumulativeRates(MonteCarloBase[] channel){
+	double[][] cumulative = new double[dim][channel.length];
+	for(int iLogE=0;iLogE<dim;iLogE++){
+	    double sum = 0.0;
+	    for(int k=0;k<channel.length;k++){
+		sum += getRate(channel[k],iLogE);
+		cumulative[iLogE][k] = sum;
+	    }
+	}
+	return cumulative;
+    }
+
+    /** The channel of the cumulative rates for the rate r below the total. */
+    static int searchChannel(double[] cumulative, double r){
+	for(int k=0;k<cumulative.length;k++){
+	    if(r<cumulative[k]) return k;
+	}
+	// round off. The last channel with a finite rate
+	int k = cumulative.length-1;
+	while(k>0 && cumulative[k] == cumulative[k-1]) k--;
+	return k;
+    }
+}
@@ -51,8 +51,8 @@ public class JulietEventGenerator {
 
     /** Initial value of propagating particle */
     double     primaryEnergy;
-    static int primaryFlavor;
-    static int primaryDoublet;
+    int primaryFlavor;
+    int primaryDoublet;
 
     /** Geometry of propagating particle represended by EarthCenterCoordinate*/
     J3Line particleAxis_J3Line_center = null;
@@ -91,6 +91,8 @@ public class JulietEventGenerator {
 
     /** Array of the MonteCarloBase objects */
     MonteCarloBase[] mcBases;
+    /** The rates of the channels of mcBases kept over the events. See Event. */
+    InteractionRateTable rateTable = null;
 
     /** Array of the InteractionsMatrix objects **/
     InteractionsMatrix[] intMtx;
@@ -139,20 +141,41 @@ public class JulietEventGenerator {
     RandomGenerator rand;
     long seed;
     long[] random_state;
+    /** The engine of the random numbers. See RandomGenerator. */
+    int randomBackend = RandomGenerator.MERSENNE_TWISTER;
+
+    /** The cascades and the tracks of the event in the primitive arrays.
+	It is reset and filled by runSingleEvent( ) without generating new objects. */
+    EventRecord record = new EventRecord( );
+    /** Nadir angle [rad] of the ParticlePoint reused over the events */
+    double pointNadirAngle;
+    /** Column depth [g/cm^2] of the particle location from lAxis = 0
+	along the trajectory, and the calculator it is made with */
+    double particleColumnDepth;
+    ColumnDepthCalculator particleDepthCalculator = null;
+
+    /** Force the first interaction of a neutrino primary within the IceCube outer volume
+	and weight the event. See setForcedInteraction( ). */
+    boolean forcedInteraction = false;
+    /** The axis lengths where the trajectory enters and exits the outer volume */
+    double[] outerVolumeAxisLengths = new double[2];
+    /** Particle location in IceCube coordinate, updated in place at every step */
+    J3Vector particleLocation_J3Vector_ice3 = new J3Vector( );
 
     /** List of the cascade particles, energy deposite and 
-	the interaction points along the track */
-    List particleList = null;
+	the interaction points along the track.
+	Generated from the record when requested. */
+    List<Particle> particleList = null;
     ListIterator particleIterator = null;
-    List locationIce3List = null;
+    List<J3Vector> locationIce3List = null;
     ListIterator locationIce3Iterator = null;
-    List particleInteractionsList = null;
+    List<String> particleInteractionsList = null;
 
     /** List of the track particles and 
         the interaction points */
-    List         trackParticleList     = null;
+    List<Particle> trackParticleList   = null;
     ListIterator trackParticleIterator = null;
-    List         trackLocationIce3List     = null;
+    List<J3Vector> trackLocationIce3List   = null;
     ListIterator trackLocationIce3Iterator = null;
 
     /** Dimension of LogEnergyMatrix */
@@ -271,8 +294,82 @@ public class JulietEventGenerator {
 
     }
 
+    /**
+      Constructor using the seed for the random generator by the engine of
+      randomBackend (RandomGenerator.MERSENNE_TWISTER, XOSHIRO256PP, SPLITMIX64,
+      L64X128MIX). The engines other than MERSENNE_TWISTER cost less per number
+      but do not reproduce the runs made so far.
+    */
+    public JulietEventGenerator(int flavorID, int doubletID, double energy, int mediumID, 
+                                int doCC, int doNC, int doMuBrems, int doTauBrems, 
+                                int doMuKnock, int doTauKnock, int doMu2e, int doTau2e,
+                                int doMu2mu, int doTau2mu, int doMu2tau, int doTau2tau,
+                                int doMuPN, int doTauPN, int doGR, int doMuDecay,
+                                int doTauDecay, int posID, long seed, int randomBackend) throws IOException{
+
+        long[] random_state = null;
+        this.randomBackend = randomBackend;
+
+        configureJULIeT(flavorID, doubletID, energy, mediumID, 
+                        doCC, doNC, doMuBrems, doTauBrems, 
+                        doMuKnock, doTauKnock, doMu2e, doTau2e,
+                        doMu2mu, doTau2mu, doMu2tau, doTau2tau,
+                        doMuPN, doTauPN, doGR, doMuDecay,
+                        doTauDecay, posID, seed, random_state);
+
+    }
+
 
 
+    /**
+      Constructor of a worker running the events in parallel with the given generator
+      (see ParallelEventRunner). The InteractionsMatrix objects and the MonteCarloBase
+      objects with the cumulative tables, which are not modified by the event run,
+      are shared with the given generator. The GlashowResonanceBase and
+      TauDecayBase objects, which keep the state of the interaction in play,
+      the coordinates and the volumes, and the particle and its trajectory
+      are its own. The random generator must be set by setRandomGenerator( ).
+    */
+    public JulietEventGenerator(JulietEventGenerator shared){
+
+        primaryFlavor  = shared.primaryFlavor;
+        primaryDoublet = shared.primaryDoublet;
+        primaryEnergy  = shared.primaryEnergy;
+        randomBackend  = shared.randomBackend;
+        materialNumber = shared.materialNumber;
+        interactionsMatrixDirectory = shared.interactionsMatrixDirectory;
+
+        numOfDecay       = shared.numOfDecay;
+        numOfGR          = shared.numOfGR;
+        mudecay          = shared.mudecay;
+        taudecay         = shared.taudecay;
+        tauDecayFlag     = shared.tauDecayFlag;
+        electronBaseFlag = shared.electronBaseFlag;
+        muDecayBase      = shared.muDecayBase;
+        if(shared.tauDecayBase != null) tauDecayBase = new TauDecayBase(shared.tauDecayBase);
+        intMtx           = shared.intMtx;
+
+        mcBases = new MonteCarloBase[shared.mcBases.length];
+        for(int i=0; i<mcBases.length; i++){
+            if(shared.mcBases[i] instanceof GlashowResonanceBase){
+                mcBases[i] = new GlashowResonanceBase((GlashowResonanceBase )shared.mcBases[i]);
+            }else if(shared.mcBases[i] == shared.tauDecayBase){
+                mcBases[i] = tauDecayBase;
+            }else{
+                mcBases[i] = shared.mcBases[i];
+            }
+        }
+
+        ice3Coordinate = new IceCubeCoordinate();
+        earthCoordinate = new EarthCenterCoordinate();
+        ice3Vol = new IceCubeVolume();
+        ice3OuterVol = new Volume(2.0*ice3Coordinate.elevation);
+	shift_J3Vector_ice3 = shared.shift_J3Vector_ice3;
+
+        propagationFlag = shared.propagationFlag;
+        forcedInteraction = shared.forcedInteraction;
+    }
+
     public JulietEventGenerator() throws IOException{
 
         int flavorID, doubletID, mediumID; 
@@ -423,11 +520,11 @@ public class JulietEventGenerator {
         }
         else if(seed != -1){
           System.out.println("Using seed to setup Random Generator");
-          rand = new RandomGenerator(seed);
+          rand = new RandomGenerator(randomBackend, seed);
         }
         else{
           System.out.println("Using system time to setup Random Generator");
-          rand = new RandomGenerator();
+          rand = new RandomGenerator(randomBackend, System.currentTimeMillis());
         }
 
         // Register Interactions and read the InteractionMatrix objects
@@ -907,15 +1004,22 @@ public class JulietEventGenerator {
 
     public void runSingleEvent( ){
 
-	// generate the data list
-	particleList          =    new LinkedList();
-    particleInteractionsList = new LinkedList();
-	locationIce3List      =    new LinkedList();
-	trackParticleList     =    new LinkedList();
-	trackLocationIce3List =    new LinkedList();
-
-	// generate a propagating particle
-	propParticle = new Particle(primaryFlavor,primaryDoublet,primaryEnergy);
+	// reset the data record. The lists are generated from it on request.
+	record.reset( );
+	particleList          =    null;
+	particleInteractionsList = null;
+	locationIce3List      =    null;
+	trackParticleList     =    null;
+	trackLocationIce3List =    null;
+	EventRecord.Entries cascades = record.getCascades( );
+	EventRecord.Entries tracks = record.getTracks( );
+
+	// generate a propagating particle, or redefine the one of the last event
+	if(propParticle == null){
+	    propParticle = new Particle(primaryFlavor,primaryDoublet,primaryEnergy);
+	}else{
+	    propParticle.reset(primaryFlavor,primaryDoublet,primaryEnergy);
+	}
 	//System.out.println(
 	//	   Particle.particleName(propParticle.getFlavor(),propParticle.getDoublet()) +
 	//	   " has been generated with energy of " + propParticle.getEnergy() +
@@ -925,15 +1029,25 @@ public class JulietEventGenerator {
 	particleAxis_J3Line_ice3.setAxisLength(startLocation);
 	particleAxis_J3Line_center.setAxisLength(startLocation);
 
-    // add propParticle to trackParticleList and trackLocationIce3List
+    // add propParticle to the tracks
     // *** It's an initial primary track ***
-    trackParticleList.add(new Particle(primaryFlavor, primaryDoublet, primaryEnergy)); 
-    trackLocationIce3List.add(startLocation_J3Vector_ice3);
-
-	// generate the particle point
-	point = new ParticlePoint(0.0, nadirAngleAtEntrance, materialNumber);
-	point.setIceRockBoundaryRadius(1.01*point.REarth);
+    tracks.add(primaryFlavor, primaryDoublet, primaryEnergy, startLocation_J3Vector_ice3, null);
+    record.setPrimary(primaryFlavor, primaryDoublet, primaryEnergy, startLocation, startLocation_J3Vector_ice3);
+
+	// generate the particle point, or reuse the one of the last event
+	// on the same trajectory with its column depth calculator
+	if(point == null || pointNadirAngle != nadirAngleAtEntrance){
+	    point = new ParticlePoint(0.0, nadirAngleAtEntrance, materialNumber);
+	    point.setIceRockBoundaryRadius(1.01*point.REarth);
+	    pointNadirAngle = nadirAngleAtEntrance;
+	}else{
+	    // The medium may have been switched to ice by the last event
+	    if(point.getMaterialNumber( ) != materialNumber) point.setMaterialNumber(materialNumber);
+	    point.setParticleLocation(0.0);
+	    point.setSlantDepth(0.0);
+	}
 	point.setParticleLocation(startLocation);
+	particleDepthCalculator = null; // the column depth is set at the first step
 
 	//System.out.println("Propagation starts at x = " +
 	//	   startLocation_J3Vector_center.getX() + " y = " +
@@ -944,7 +1058,10 @@ public class JulietEventGenerator {
 	//System.out.println("Distance from IceCube coordinate origin " + 
 	//	   startLocation_J3Vector_ice3.getLength() + " [cm]");
 
-	event        = new Event(mcBases, propParticle, point);
+	if(rateTable == null) rateTable = new InteractionRateTable(mcBases);
+	if(event == null) event = new Event(mcBases, propParticle, point, rateTable);
+	else event.reset(propParticle, point);
+	if(forcedInteraction && primaryDoublet == 0) forceInteractionInOuterVolume( );
 	int haveBeenInsideIce3OuterVolume = 0;
 	// outer volume flag. 
 
@@ -966,9 +1083,9 @@ public class JulietEventGenerator {
 	    // running the particle to the interaction point
 	    double pathLength = event.getPhysicalPathLength(rand);
 	    moveParticleAxis(pathLength);
-	    J3Vector particleLocation_J3Vector_ice3 =
-		ice3Coordinate.transformVectorToThisCoordinate(
-			       particleAxis_J3Line_center,earthCoordinate);
+	    ice3Coordinate.transformVectorToThisCoordinate(
+			       particleAxis_J3Line_center,earthCoordinate,
+			       particleLocation_J3Vector_ice3);
 	    double axisLengthNow = particleAxis_J3Line_center.getAxisLength();
 
 
@@ -986,37 +1103,32 @@ public class JulietEventGenerator {
 		}
 	    }
 
-            if((shift_J3Vector_ice3==null && 
-		!ParticleTracker.isInsideEarth(particleAxis_J3Line_center,
-					       ice3Coordinate,
-					       earthCoordinate,
-					       ice3OuterVol,
-					       haveBeenInsideIce3OuterVolume)) ||
-	       (shift_J3Vector_ice3!=null && 
-		!ParticleTracker.isInsideEarth(particleAxis_J3Line_center,
-					       shift_J3Vector_ice3,
-					       ice3Coordinate,
-					       earthCoordinate,
-					       ice3OuterVol,
-					       haveBeenInsideIce3OuterVolume))){
+            if(!ParticleTracker.isInsideEarth(particleAxis_J3Line_center,
+					      particleLocation_J3Vector_ice3,
+					      shift_J3Vector_ice3,
+					      ice3Coordinate,
+					      ice3OuterVol,
+					      haveBeenInsideIce3OuterVolume)){
 		//System.out.println("Out of the Ice3Outer Volume");
-		endLocation_J3Vector_ice3 = particleLocation_J3Vector_ice3;
+		setEndLocation( );
 		break;   // particles passed through your DETECTOR
 
 	    }else{ // Collision occurs and the paticle's energy is lost
 
 		double transferedEnergy  = event.collideNow(rand);
 
-        // get current interaction's name
-        String   curInteractionsName  = event.interactionsNameInPlay();
+        // get current interaction's kind
+        int      curInteractionKind   = event.getInteractionKindInPlay();
 
         // Collision occured by NC, WeakInteraction(CC, NC), Decay or Glashow Resonance?
-        wasWeakInt = curInteractionsName.startsWith("Neutrino-Nuclen ");
-        wasNC      = curInteractionsName.startsWith("Neutrino-Nuclen N");
-		wasDecay   = (event.mcBaseInPlay.getTypeOfInteraction() == 1);
+        wasWeakInt = (curInteractionKind == MonteCarloBase.CHARGED_CURRENT ||
+                      curInteractionKind == MonteCarloBase.NEUTRAL_CURRENT);
+        wasNC      = (curInteractionKind == MonteCarloBase.NEUTRAL_CURRENT);
+		wasDecay   = (curInteractionKind == MonteCarloBase.DECAY);
 		/** For Glashow Resonance */
-        wasGR = curInteractionsName.startsWith("Glashow ");
-        wasGRLepton = curInteractionsName.startsWith("Glashow Resonance Leptonic ");
+        wasGR = (curInteractionKind == MonteCarloBase.GLASHOW_RESONANCE_LEPTONIC ||
+                 curInteractionKind == MonteCarloBase.GLASHOW_RESONANCE_HADRONIC);
+        wasGRLepton = (curInteractionKind == MonteCarloBase.GLASHOW_RESONANCE_LEPTONIC);
 
 		// get produced particle's name
 		//String   producedParticleName = Particle.particleName(
@@ -1030,8 +1142,6 @@ public class JulietEventGenerator {
         Particle curPropParticle        = event.propParticle;
         int      curPropParticleFlavor  = curPropParticle.getFlavor();
         int      curPropParticleDoublet = curPropParticle.getDoublet();
-        String   curPropParticleName    = Particle.particleName(curPropParticleFlavor,
-                                                                curPropParticleDoublet);
 
                 
 		//System.out.println("Colliding via " + curInteractionsName +
@@ -1055,10 +1165,8 @@ public class JulietEventGenerator {
 		}
 
         if (addTrack) {
-           trackParticleList.add(new Particle(curPropParticle.getFlavor(), 
-                                              curPropParticle.getDoublet(),
-                                              curPropParticle.getEnergy())); 
-           trackLocationIce3List.add(particleLocation_J3Vector_ice3);
+           tracks.add(curPropParticle.getFlavor(), curPropParticle.getDoublet(),
+                      curPropParticle.getEnergy(), particleLocation_J3Vector_ice3, null); 
         }
 
                 // add secondary cascade to the lists
@@ -1066,15 +1174,11 @@ public class JulietEventGenerator {
                     event.getFlavorByInteractionsInPlay()==3) { // 0 is electron flavor
 		                                                // 3 is hadron flavor
 
-		    particleList.add(new Particle(event.getFlavorByInteractionsInPlay(),
-						  1,transferedEnergy));
-		    locationIce3List.add(particleLocation_J3Vector_ice3);
-            particleInteractionsList.add(curInteractionsName);
+		    cascades.add(event.getFlavorByInteractionsInPlay(),
+				 1,transferedEnergy,particleLocation_J3Vector_ice3,event.mcBaseInPlay);
 		}else if(wasGRLepton){ // The GR produced neurtino as a propagating particle
-		    particleList.add(new Particle(event.getFlavorByInteractionsInPlay(),
-						  0,transferedEnergy)); // neutrino
-		    locationIce3List.add(particleLocation_J3Vector_ice3);
-            particleInteractionsList.add(curInteractionsName);
+		    cascades.add(event.getFlavorByInteractionsInPlay(),
+				 0,transferedEnergy,particleLocation_J3Vector_ice3,event.mcBaseInPlay); // neutrino
 		}else{  // producing secondary track. current version of JULIeT
                         // ignore secondary tracks.
 
@@ -1094,7 +1198,7 @@ public class JulietEventGenerator {
 	    if ((afterInteractionLogEnergy <= InteractionsBase.getLogEnergyProducedMinimum()) || 
                 (wasNC && afterInteractionEnergy < neutrinoMinimumEnergyInTravel)){
 		// Journey ends because all the primary energy has been lost
-		endLocation_J3Vector_ice3 = particleLocation_J3Vector_ice3;
+		setEndLocation( );
 		//System.out.println("Energy has been lost...");
 		break;
 	    }
@@ -1102,7 +1206,7 @@ public class JulietEventGenerator {
 	    if (event.mcBaseInPlay.getTypeOfInteraction() == 1 && 
 	       event.mcBaseInPlay.getProducedFlavor()!= 1){
                // Tau to Hadron/Electron decay
-		endLocation_J3Vector_ice3 = particleLocation_J3Vector_ice3;
+		setEndLocation( );
 		break;
 	    }
 
@@ -1115,20 +1219,38 @@ public class JulietEventGenerator {
     }
 
 
-    /** move the propagating axis by given slant depth [g/cm^2] */
+    /** Force the first interaction of the neutrino within the column depth from
+	the start location to where the trajectory exits the IceCube outer volume.
+	The event is weighted by the probability of the interaction there
+	(see Event.forceNextInteraction( )). Not forced if the trajectory misses the volume. */
+    private void forceInteractionInOuterVolume( ){
+	if(!ice3OuterVol.getJ3LineIntersection(particleAxis_J3Line_ice3,shift_J3Vector_ice3,
+					  startLocation,Double.POSITIVE_INFINITY,
+					  outerVolumeAxisLengths)) return;
+	ColumnDepthCalculator calculator = point.getColumnDepthCalculator( );
+	event.forceNextInteraction(calculator.getColumnDepth(startLocation,outerVolumeAxisLengths[1]));
+    }
+
+    /** Copy the current particle location to the end location of the event and the record. */
+    private void setEndLocation( ){
+	if(endLocation_J3Vector_ice3 == null) endLocation_J3Vector_ice3 = new J3Vector( );
+	endLocation_J3Vector_ice3.putVector(particleLocation_J3Vector_ice3);
+	record.setEnd(event.propParticle.getEnergy( ),event.getWeight( ),endLocation_J3Vector_ice3);
+    }
+
+    /** move the propagating axis by given slant depth [g/cm^2].
+	The column depth of the particle location is kept over the steps,
+	so that a step costs one inversion of the column depth. */
     public void moveParticleAxis(double depth){
-	double l = point.getParticleLocation(); 
-	           // The current particle location along the trajectory.
-	double deltaL;
-	double xSum = 0.0;
-	double stepDx = 1.0e-1*depth;
-	while(xSum<depth){
-	    deltaL = stepDx/point.getMediumDensity(); 
-	    l     += deltaL; 
-	    xSum  += stepDx;
-	    point.setParticleLocation(l);
-	    particleAxis_J3Line_center.setAxisLength(l);
+	ColumnDepthCalculator calculator = point.getColumnDepthCalculator( );
+	if(calculator != particleDepthCalculator){ // a new event or a new trajectory
+	    particleDepthCalculator = calculator;
+	    particleColumnDepth = calculator.getColumnDepth(point.getParticleLocation( ));
 	}
+	particleColumnDepth += depth;
+	double l = calculator.getLocation(particleColumnDepth);
+	point.setParticleLocation(l);
+	particleAxis_J3Line_center.setAxisLength(l);
     }
 
 
@@ -1141,25 +1263,61 @@ public class JulietEventGenerator {
 		       event.propParticle.getEnergy() + " [GeV]");
 	out.writeBytes(" Distance from the earth surface " +
 		       startLocation + " [cm]");
+	if(forcedInteraction) out.writeBytes(" weight " + event.getWeight( ));
 	out.write('\n');
-	particleIterator = particleList.listIterator();
-	locationIce3Iterator = locationIce3List.listIterator();
-
-	while(locationIce3Iterator.hasNext()){
-	    Particle particle = (Particle )(particleIterator.next());
-	    String particleName = particle.particleName(particle.getFlavor(),
-							particle.getDoublet());
-	    double energy = particle.getEnergy();
-	    J3Vector r = (J3Vector )(locationIce3Iterator.next());
-	    double x = r.getX();
-	    double y = r.getY();
-	    double z = r.getZ();
+	EventRecord.Entries cascades = record.getCascades( );
+	for(int i=0;i<cascades.size( );i++){
+	    String particleName = Particle.particleName(cascades.getFlavor(i),
+							cascades.getDoublet(i));
+	    double energy = cascades.getEnergy(i);
+	    double x = cascades.getX(i);
+	    double y = cascades.getY(i);
+	    double z = cascades.getZ(i);
 	    out.writeBytes(particleName + " " + energy + " [GeV] " + 
 			   x + " [cm] " +  y + " [cm] " + z + " [cm]");
 	    out.write('\n');
 	}
 
-	return locationIce3List.size();
+	return cascades.size( );
+    }
+
+    /** Switch the forced interaction mode. In this mode the first interaction
+	of a neutrino primary is forced to occur before the trajectory exits
+	the IceCube outer volume, and each event has the weight getEventWeight( ),
+	the probability of the interaction there. The neutrino factor of
+	InteractionsBase and GlashowResonanceBase should be 1 in this mode. */
+    public void setForcedInteraction(boolean forced){
+	forcedInteraction = forced;
+    }
+
+    public boolean isForcedInteraction( ){
+	return forcedInteraction;
+    }
+
+    /** Weight of the last event. 1 unless the forced interaction mode is on. */
+    public double getEventWeight( ){
+	return (event != null) ? event.getWeight( ) : 1.0;
+    }
+
+    /** The cascades and the tracks of the last event. */
+    public EventRecord getEventRecord( ){
+	return record;
+    }
+
+    /** Generate the lists of the Particle, J3Vector and the interaction names
+	from the record of the event. */
+    private void fillLists( ){
+	particleList          =    new LinkedList<Particle>();
+	particleInteractionsList = new LinkedList<String>();
+	locationIce3List      =    new LinkedList<J3Vector>();
+	trackParticleList     =    new LinkedList<Particle>();
+	trackLocationIce3List =    new LinkedList<J3Vector>();
+	EventRecord.Entries cascades = record.getCascades( );
+	EventRecord.fillLists(cascades,particleList,locationIce3List);
+	for(int i=0;i<cascades.size( );i++){
+	    particleInteractionsList.add(cascades.getInteractionName(i));
+	}
+	EventRecord.fillLists(record.getTracks( ),trackParticleList,trackLocationIce3List);
     }
 
 
@@ -1167,12 +1325,15 @@ public class JulietEventGenerator {
 	an external object to access each Particle 
 	stored in this object */
     public ListIterator getParticleIterator(){
+	if(particleList == null) fillLists();
 	return particleList.listIterator();
     }
     public ListIterator getTrackParticleIterator(){
+	if(trackParticleList == null) fillLists();
 	return trackParticleList.listIterator();
     }
     public ListIterator getParticleInteractionsIterator(){
+	if(particleInteractionsList == null) fillLists();
     return particleInteractionsList.listIterator();
     }
 
@@ -1181,9 +1342,11 @@ public class JulietEventGenerator {
 	an external object to access each location
 	stored in this object */
     public ListIterator getLocationIce3Iterator(){
+	if(locationIce3List == null) fillLists();
 	return locationIce3List.listIterator();
     }
     public ListIterator getTrackLocationIce3Iterator(){
+	if(trackLocationIce3List == null) fillLists();
 	return trackLocationIce3List.listIterator();
     }
 
@@ -1196,6 +1359,20 @@ public class JulietEventGenerator {
         rand = new RandomGenerator(state);
     }
 
+    /** Set the random generator, such as the stream of an event index. */
+    public void setRandomGenerator(RandomGenerator rand){
+        this.rand = rand;
+    }
+
+    public RandomGenerator getRandomGenerator(){
+        return rand;
+    }
+
+    /** The engine of the random numbers given to the constructor. */
+    public int getRandomBackend(){
+        return randomBackend;
+    }
+
     /** Method to run multiple events (numberOfEvent) 
         with various primary energies from
 	logE = Particle.getLogEnergyMinimum() all the way up to 10^12 GeV.
@@ -1219,6 +1396,25 @@ public class JulietEventGenerator {
 	}
     }
 
+    /** runEventOnMatrix( ) writing the events by the EventRecordWriter.
+	The events are indexed from 0 in the order they are run. */
+    public void runEventOnMatrix(int numberOfEvent, EventRecordWriter writer) throws IOException {
+
+	long eventIndex = 0L;
+	for(int iLogE=0; iLogE<dim; iLogE++){
+	    primaryiLogE = iLogE;
+	    double logPrimaryEnergy = 
+		Particle.getDeltaLogEnergy()*(double )iLogE + Particle.getLogEnergyMinimum();
+	    primaryEnergy = Math.pow(10.0,logPrimaryEnergy);
+
+	    for(int n=0; n<numberOfEvent; n++){
+		runSingleEvent();
+		writer.writeEvent(eventIndex++,record);
+	    }
+
+	}
+    }
+
     /** Change the Neutrino interaction weight in the InteractionBase */
     public static void setNeutrinoInteractionWeight(int weight){
 
@@ -1230,6 +1426,19 @@ public class JulietEventGenerator {
     }
 
 
+    /** Change the Neutrino interaction weight of this generator only,
+	leaving the static weight of the other generators in the JVM.
+	Call this before generating the workers for the parallel run. */
+    public void setNeutrinoWeight(int weight){
+	for(int i=0; i<mcBases.length; i++){
+	    if(mcBases[i] instanceof InteractionsBase){
+		((InteractionsBase )mcBases[i]).setNeutrinoWeight(weight);
+	    }else if(mcBases[i] instanceof GlashowResonanceBase){
+		((GlashowResonanceBase )mcBases[i]).setNeutrinoWeight(weight);
+	    }
+	}
+    }
+
     /** Get the present neutrino interaction weight in the InteractionBase */
     public static int getNeutrinoInteractionWeight(){
 
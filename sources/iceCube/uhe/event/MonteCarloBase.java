@@ -24,6 +24,22 @@ taken for a given primary particle.
 
 
 public abstract class MonteCarloBase {
+
+    /** Kinds of the interaction returned by getInteractionKind( ). */
+    /** Radiative energy loss of the charged leptons
+	(bremsstrahlung, pair creation, photo-nuclear, knock-on electrons),
+	the energy deposit of the electrons, and the other interactions */
+    public static final int RADIATIVE = 0;
+    /** Neutrino-nucleon charged current interaction */
+    public static final int CHARGED_CURRENT = 1;
+    /** Neutrino-nucleon neutral current interaction */
+    public static final int NEUTRAL_CURRENT = 2;
+    /** Glashow resonance producing a lepton */
+    public static final int GLASHOW_RESONANCE_LEPTONIC = 3;
+    /** Glashow resonance producing hadrons */
+    public static final int GLASHOW_RESONANCE_HADRONIC = 4;
+    /** Decay of mu or tau */
+    public static final int DECAY = 5;
     
     /** Get the pathlength */                                                        
     public abstract double getPathLength(int iLogE, RandomGenerator rand);
@@ -48,5 +64,38 @@ public abstract class MonteCarloBase {
     /** Get type of the interaction (Interaction->0; Decay->1) */
     public abstract int getTypeOfInteraction();
 
+    /** Get kind of the interaction (RADIATIVE, CHARGED_CURRENT, .. DECAY)
+	for the event loop to switch on. The name is for the output only. */
+    public abstract int getInteractionKind();
+
+    /** Kind of the interaction of the given name of Interactions.interactionName( ).
+	Called once when the MonteCarloBase object is made. */
+    public static int getInteractionKind(String interactionName){
+	if(interactionName.startsWith("Neutrino-Nuclen C")) return CHARGED_CURRENT;
+	if(interactionName.startsWith("Neutrino-Nuclen N")) return NEUTRAL_CURRENT;
+	if(interactionName.startsWith("Glashow Resonance Leptonic ")) return GLASHOW_RESONANCE_LEPTONIC;
+	if(interactionName.startsWith("Glashow Resonance ")) return GLASHOW_RESONANCE_HADRONIC;
+	return RADIATIVE;
+    }
+
+    /** The inverse of the mean of getPathLength(iLogE, rand) when it is
+	distributed exponentially, so that Event can sample the channels together
+	from their total rate (see InteractionRateTable). NaN if it is not exponential
+	and must be sampled by getPathLength( ). */
+    public double getInverseMeanPathLength(int iLogE){
+	return Double.NaN;
+    }
+
+    /** The inverse of the mean of getNeutrinoPathLength(logEnergy, rand) for logEnergy
+	in the bin iLogE, or NaN as getInverseMeanPathLength( ). */
+    public double getInverseMeanNeutrinoPathLength(int iLogE){
+	return Double.NaN;
+    }
+
+    /** The neutrino factor the neutrino path length is divided by. */
+    public int getNeutrinoWeight(){
+	return 1;
+    }
+
 }
 
@@ -0,0 +1,186 @@
+package iceCube.uhe.event;
+
+import numRecipes.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+<pre>
+   Runtime to run the events of JulietEventGenerator (or JulietEventGenerator4Gen2)
+   by several threads in one JVM.
+
+   Each thread has its own Worker, typically holding a worker generator
+   made by the constructor JulietEventGenerator(JulietEventGenerator shared),
+   which shares the InteractionsMatrix objects and the cumulative tables
+   but has its own Event, ParticlePoint and J3Line.
+   The event of the index i is run with the random stream
+
+        new RandomGenerator(randomBackend, seed).getStream(i)
+
+   i.e. the i-th of the disjoint substreams of the sequence of the seed
+   (see RandomGenerator.split( )). A thread jumps one generator ahead
+   from its last event to the next one instead of making the generator
+   of every event. The output is written in the order of the event index.
+   The output is therefore the same for the given seed whatever the number
+   of the threads is, and a large production can be divided into the jobs
+   of the event index ranges with the same seed.
+
+   The output of an event waiting for the preceding ones is kept in memory.
+   The workers wait when the output of maximumEventsAhead events is pending.
+</pre>
+*/
+
+public class ParallelEventRunner {
+
+    /** The work of a single event run by a thread. */
+    public interface Worker {
+	/** Run the event of the index with the random stream given
+	    and write its output to out. */
+	void runEvent(long eventIndex, RandomGenerator rand, PrintStream out) throws IOException;
+    }
+
+    /** Generates the Worker of each thread. Called by the thread itself. */
+    public interface WorkerFactory {
+	Worker createWorker( ) throws IOException;
+    }
+
+    private int numberOfThreads;
+    private int maximumEventsAhead;
+    private int randomBackend = RandomGenerator.MERSENNE_TWISTER;
+
+    /** The output of the events finished but not written yet. */
+    private TreeMap<Long,byte[]> pending = new TreeMap<Long,byte[]>( );
+    private long nextEventToWrite;
+    private long lastEvent;
+    private AtomicLong nextEventToRun = new AtomicLong( );
+    private Throwable failure = null;
+
+    /** Constructor. */
+    public ParallelEventRunner(int numberOfThreads){
+	this(numberOfThreads,64*numberOfThreads);
+    }
+
+    /** Constructor. maximumEventsAhead bounds the events held in memory
+	waiting for the output of the preceding events. */
+    public ParallelEventRunner(int numberOfThreads, int maximumEventsAhead){
+	this.numberOfThreads = (numberOfThreads>0) ? numberOfThreads : 1;
+	this.maximumEventsAhead = (maximumEventsAhead>this.numberOfThreads) ?
+	    maximumEventsAhead : this.numberOfThreads;
+    }
+
+    /** Set the engine of the random streams (see RandomGenerator).
+	MERSENNE_TWISTER by default. */
+    public void setRandomBackend(int randomBackend){
+	this.randomBackend = randomBackend;
+    }
+
+    /**
+	Run the events of the index from firstEvent to firstEvent+numberOfEvents-1.
+	<pre>
+	WorkerFactory factory : generates the Worker of each thread
+	long seed             : the seed of the run the random streams are split from
+	PrintStream out       : where the output of the events is written in order
+	</pre>
+    */
+    public void run(final WorkerFactory factory, long firstEvent, long numberOfEvents,
+		    final long seed, PrintStream out) throws IOException {
+
+	nextEventToRun.set(firstEvent);
+	nextEventToWrite = firstEvent;
+	lastEvent = firstEvent+numberOfEvents-1;
+	pending.clear( );
+	failure = null;
+
+	Thread[] thread = new Thread[numberOfThreads];
+	for(int t=0;t<numberOfThreads;t++){
+	    thread[t] = new Thread("juliet-worker-" + t){
+		    public void run( ){
+			runWorker(factory,seed);
+		    }
+		};
+	    thread[t].start( );
+	}
+
+	// Write out the events in order
+	synchronized(this){
+	    while(nextEventToWrite<=lastEvent && failure == null){
+		byte[] output = pending.remove(nextEventToWrite);
+		if(output == null){
+		    try{
+			wait( );
+		    }catch(InterruptedException e){
+			failure = e;
+		    }
+		    continue;
+		}
+		out.write(output,0,output.length);
+		nextEventToWrite++;
+		notifyAll( );
+	    }
+	    notifyAll( );
+	}
+	out.flush( );
+
+	for(int t=0;t<numberOfThreads;t++){
+	    try{
+		thread[t].join( );
+	    }catch(InterruptedException e){
+		if(failure == null) failure = e;
+	    }
+	}
+	if(failure != null){
+	    if(failure instanceof IOException) throw (IOException )failure;
+	    if(failure instanceof RuntimeException) throw (RuntimeException )failure;
+	    if(failure instanceof Error) throw (Error )failure;
+	    throw new IOException("Event run failed " + failure);
+	}
+    }
+
+    /** The loop of a thread. The thread keeps the generator at the start of the stream
+	of its last event, and jumps it ahead to the stream of the next event it takes,
+	which is copied to the generator given to the Worker. */
+    private void runWorker(WorkerFactory factory, long seed){
+	try{
+	    Worker worker = factory.createWorker( );
+	    ByteArrayOutputStream buffer = new ByteArrayOutputStream( );
+	    PrintStream eventOut = new PrintStream(buffer);
+	    RandomGenerator streamStart = new RandomGenerator(randomBackend,seed);
+	    long streamIndex = 0L;
+	    RandomGenerator rand = null;
+	    while(true){
+		long eventIndex = nextEventToRun.getAndIncrement( );
+		if(eventIndex>lastEvent) break;
+
+		// Wait not to run too far ahead of the output
+		synchronized(this){
+		    while(eventIndex>=nextEventToWrite+maximumEventsAhead && failure == null){
+			wait( );
+		    }
+		    if(failure != null) break;
+		}
+
+		// The event indices taken by a thread increase
+		streamStart.jumpStreams(eventIndex-streamIndex);
+		streamIndex = eventIndex;
+		if(rand == null) rand = new RandomGenerator(streamStart);
+		else rand.setState(streamStart);
+
+		buffer.reset( );
+		worker.runEvent(eventIndex,rand,eventOut);
+		eventOut.flush( );
+
+		synchronized(this){
+		    pending.put(eventIndex,buffer.toByteArray( ));
+		    notifyAll( );
+		}
+	    }
+	}catch(Throwable e){
+	    synchronized(this){
+		if(failure == null) failure = e;
+		notifyAll( );
+	    }
+	}
+    }
+}
@@ -50,7 +50,7 @@ public class ParticleTravelGraphics extends JComponent {
         g2.setPaint(blueToWhite);
         g2.fill(new Rectangle2D.Double(0, 0, d.width, d.height));
 	if(task.generator!= null){
-	    if(task.generator.particleList!= null){
+	    if(task.generator.event!= null){
 		g2.setColor(Color.BLACK);
 		drawAxis(g2);
 		g2.setColor(Color.CYAN);
@@ -6,6 +6,7 @@ import iceCube.uhe.geometry.*;
 import iceCube.uhe.particles.*;
 
 import java.io.*;
+import java.nio.*;
 import java.util.*;
 
 public class RunJuliet4Gen2 {
@@ -30,6 +31,139 @@ public class RunJuliet4Gen2 {
     static int doMuDecay = 1;
     static int doTauDecay =1;
     static int posID = 2;
+    /** Force the neutrino to interact within the Gen2 outer volume and weight the events */
+    static boolean forcedInteraction = false;
+    /** Write the events to this file by EventRecordWriter instead of the text
+	to the standard output, if not null. Print it by DumpEventRecord. */
+    static String binaryOutputFile = null;
+    static int binaryCompression = EventRecordWriter.DEFLATE;
+
+    /** System properties overriding the defaults above, as
+	<pre>
+	java -Djuliet.forcedInteraction=true -Djuliet.binaryOutput=(file)
+	     -Djuliet.binaryCompression=(NONE(0)/DEFLATE(1)) iceCube.uhe.event.RunJuliet4Gen2 ...
+	</pre>
+    */
+    public final static String FORCED_INTERACTION_PROPERTY = "juliet.forcedInteraction";
+    public final static String BINARY_OUTPUT_PROPERTY = "juliet.binaryOutput";
+    public final static String BINARY_COMPRESSION_PROPERTY = "juliet.binaryCompression";
+
+    /** Inject the primary with the random stream given and run the event.
+	The injection is printed to out if it is not null. */
+    static void injectEvent(JulietEventGenerator4Gen2 generator, long trial,
+			    RandomGenerator rand, PrintStream out){
+
+	generator.setRandomGenerator(rand);
+
+	double nadirAngleInDeg = 180.0*rand.GetRandomDouble(); // [Deg]
+	double azimuthAngleInDeg = 360.0*rand.GetRandomDouble(); // [Deg]
+	if(out != null) out.format("event %d nadir %f azimuth %f\n",
+				   trial,nadirAngleInDeg,azimuthAngleInDeg);
+
+	double nadirAngle = Math.toRadians(nadirAngleInDeg);
+	double azimuthAngle =  Math.toRadians(azimuthAngleInDeg);
+	J3UnitVector polarVectorInjection = new J3UnitVector(
+						Math.sin(nadirAngle)*Math.sin(azimuthAngle),
+						Math.sin(nadirAngle)*Math.cos(azimuthAngle),
+						Math.cos(nadirAngle));
+	if(out != null) out.format("event %d nx (%f) ny(%f) nz(%f)\n", trial,polarVectorInjection.getX(),
+				   polarVectorInjection.getY(),polarVectorInjection.getZ());
+	EarthLocalCoordinate injectionCoordinate = 
+	    new EarthLocalCoordinate(polarVectorInjection,0.0); // origin (0,0,0)
+
+	//double injectionRadius = 
+	//  InjectionGeometryUtils.getInjectionRadius(Math.toRadians(nadirAngleInDeg));
+	//double injectionPointR = injectionRadius*Math.sqrt(rand.GetRandomDouble()); // [cm]
+	//double injectionPointAzimuthInRad = 2.0*Math.PI*rand.GetRandomDouble();
+	//double x_injectionCoord = injectionPointR*Math.sin(injectionPointAzimuthInRad);
+	//double y_injectionCoord = injectionPointR*Math.cos(injectionPointAzimuthInRad);
+	double injectionX = InjectionGeometryUtils.getDefaultCylinderRadius();
+	double x_injectionCoord = injectionX*(2.0*rand.GetRandomDouble()-1.0); // [cm]
+	double injectionY = InjectionGeometryUtils.getInjectionRadius(Math.toRadians(nadirAngleInDeg));
+	double y_injectionCoord = injectionY*(2.0*rand.GetRandomDouble()-1.0); // [cm]
+
+	J3Vector r_injectionCoord = new J3Vector(x_injectionCoord,y_injectionCoord,0.0);
+	J3Vector r_gen2 = injectionCoordinate.transformVectorToEarthCenter(r_injectionCoord);
+	if(out != null){
+	    out.format("event %d injected radius %f\n",trial,r_injectionCoord.getLength());
+	    out.format("event %d injected radius %f\n",trial,r_gen2.getLength());
+	    out.format("event %d primary injected position %f %f %f\n",
+		       trial,r_gen2.getX(),r_gen2.getY(),r_gen2.getZ());
+	}
+
+
+	// run JULIeT
+	generator.definePropagationGeometry(r_gen2.getX(),
+					    r_gen2.getY(),
+					    r_gen2.getZ(),
+					    nadirAngleInDeg,azimuthAngleInDeg);
+
+	generator.configurePropagationGeometry();
+
+
+	generator.runSingleEvent();
+    }
+
+    /** Run the event of the index with the random stream given. */
+    static void runEvent(JulietEventGenerator4Gen2 generator, long trial,
+			 RandomGenerator rand, PrintStream out){
+
+	injectEvent(generator,trial,rand,out);
+	if(generator.isForcedInteraction( )){
+	    out.format("event %d weight %e\n",trial,generator.getEventWeight( ));
+	}
+
+
+	//
+	// now extract the primary track and secondary particle info
+	//
+	ListIterator particleIterator = generator.getParticleIterator();
+	ListIterator particleLocationIterator = generator.getLocationIce3Iterator();
+	ListIterator trackIterator = generator.getTrackParticleIterator();
+	ListIterator trackLocationIterator = generator.getTrackLocationIce3Iterator();
+
+	// start position (=injection position) in ice3 coordinate
+	J3Vector startPosition_ice3 = generator.wherePrimaryParticleStartsInIceCubeCoordinate();
+	J3Vector startPosition_ice3_stored_inTrack =
+	    (J3Vector )(trackLocationIterator.next());
+	J3Vector startPosition_gen2 = generator.wherePrimaryParticleStartsInGen2Coordinate();
+	double distanceFromEarthSurface = generator.getStartLocationAlongTheAxis();
+	J3Vector startPosition_center = generator.wherePrimaryParticleStartsInEarthCenterCoordinate();
+
+	out.format("event %d start %f %f %f in the earth center\n",
+			  trial,startPosition_center.getX(),
+			  startPosition_center.getY(),startPosition_center.getZ());
+	out.format("event %d start %f %f %f\n",trial,startPosition_ice3.getX(),
+			  startPosition_ice3.getY(),startPosition_ice3.getZ());
+	out.format("event %d track %f %f %f\n",trial,
+			  startPosition_ice3_stored_inTrack.getX(),
+			  startPosition_ice3_stored_inTrack.getY(),
+			  startPosition_ice3_stored_inTrack.getZ());
+	out.format("event %d Distance from the earth surface %f\n",trial,distanceFromEarthSurface);
+	out.format("event %d Distance from the gen2 center  %f\n",trial,startPosition_gen2.getLength());
+
+	//  end position in ice3 coordinate
+	J3Vector endPosition_ice3 = generator.wherePrimaryParticleEndsInIceCubeCoordinate();
+	J3Vector propagationAxis = J3Vector.subtract(endPosition_ice3,startPosition_ice3);
+	double propagationDistance = propagationAxis.getLength();
+	out.format("event %d end %f %f %f %f\n",trial,endPosition_ice3.getX(),
+			  endPosition_ice3.getY(),endPosition_ice3.getZ(),propagationDistance);
+
+	// secondary particles
+	while(particleLocationIterator.hasNext()){
+	    Particle particle = (Particle )(particleIterator.next());
+	    String particleName = particle.particleName(particle.getFlavor(),
+							particle.getDoublet());
+	    double cascade_energy = particle.getEnergy();
+	    J3Vector r = (J3Vector )(particleLocationIterator.next());
+	    double x = r.getX();
+	    double y = r.getY();
+	    double z = r.getZ();
+	    out.println("event " + trial + " secondary " + particleName + " " + 
+			       cascade_energy + " [GeV] " +
+			       x + " " +  y + " " + z);
+	}
+    }
 
     // Main method. In order to run JULIET 
     public static void main(String[] args) throws IOException {
@@ -39,140 +173,88 @@ public class RunJuliet4Gen2 {
 	double energy = 1.0e9; // [GeV]
 	int numberOfEvents = 10;
 	boolean simulateARA = false;
+	int numberOfThreads = 1;
+	long seed = System.currentTimeMillis( );
+	long firstEvent = 0L;
+	int randomBackend = RandomGenerator.MERSENNE_TWISTER;
 
 	if(args.length<4){
-            System.out.println("Usage: RunJulet2Gen2 flavorID doubletID number-of-events energy [GeV]");
+            System.out.println("Usage: RunJulet2Gen2 flavorID doubletID number-of-events energy [GeV] (ARA(1)/Gen2(0) (number-of-threads (seed (first-event-index (random-backend MT(0)/xoshiro256++(1)/SplitMix64(2)/L64X128Mix(3))))))");
+            System.out.println("       -D" + FORCED_INTERACTION_PROPERTY + "=true -D" + BINARY_OUTPUT_PROPERTY +
+			       "=file -D" + BINARY_COMPRESSION_PROPERTY + "=NONE(0)/DEFLATE(1)");
             System.exit(0);
         }else{
             flavorID = Integer.valueOf(args[0]).intValue();
             doubletID = Integer.valueOf(args[1]).intValue();
             numberOfEvents = Integer.valueOf(args[2]).intValue();
             energy = Double.valueOf(args[3]).doubleValue();
-	    if(args.length==5) simulateARA = true;
+	    if(args.length>=5) simulateARA = !args[4].equals("0");
+	    if(args.length>=6) numberOfThreads = Integer.valueOf(args[5]).intValue();
+	    if(args.length>=7) seed = Long.valueOf(args[6]).longValue();
+	    if(args.length>=8) firstEvent = Long.valueOf(args[7]).longValue();
+	    if(args.length>=9) randomBackend = Integer.valueOf(args[8]).intValue();
         }
+	String forced = System.getProperty(FORCED_INTERACTION_PROPERTY);
+	if(forced != null) forcedInteraction = Boolean.valueOf(forced).booleanValue();
+	binaryOutputFile = System.getProperty(BINARY_OUTPUT_PROPERTY,binaryOutputFile);
+	binaryCompression = Integer.getInteger(BINARY_COMPRESSION_PROPERTY,binaryCompression).intValue();
+	if(forcedInteraction) System.err.println("forced interaction in the Gen2 outer volume");
+	if(binaryOutputFile != null) System.err.println("events written to " + binaryOutputFile);
 	System.err.format("(flavor doublet) = (%d %d) Energy=%e [GeV]\n",
 			  flavorID, doubletID, energy);
-
-	RandomGenerator rand = new RandomGenerator();
+	System.err.format("seed %d events from %d by %d threads with %s\n",
+			  seed, firstEvent, numberOfThreads, RandomGenerator.backendName[randomBackend]);
 
 	// generate RunManager object
 	JulietEventGenerator4Gen2.neutrinoCSHERAZeus = true;
 	if(simulateARA) JulietEventGenerator4Gen2.setARADimensionToDefaults();
-	JulietEventGenerator4Gen2 generator = 
+	final JulietEventGenerator4Gen2 generator = 
 	    new  JulietEventGenerator4Gen2(flavorID, doubletID, energy, mediumID,
 					   doCC, doNC, doMuBrems, doTauBrems,
 					   doMuKnock, doTauKnock, doMu2e, doTau2e,
 					   doMu2mu, doTau2mu, doMu2tau, doTau2tau,
-					   doMuPN, doTauPN, doGR, doMuDecay, doTauDecay,posID);
+					   doMuPN, doTauPN, doGR, doMuDecay, doTauDecay,posID,
+					   seed, randomBackend);
+	generator.setForcedInteraction(forcedInteraction);
 
 	//
-	// Event Generatorn loop
+	// Event Generatorn loop. The event of each index has its own random stream
+	// so the output does not depend on the number of threads.
 	//
-	int trial = 0;
-
-	while(trial<numberOfEvents){
-
-	    double nadirAngleInDeg = 180.0*rand.GetRandomDouble(); // [Deg]
-	    double azimuthAngleInDeg = 360.0*rand.GetRandomDouble(); // [Deg]
-	    System.out.format("event %d nadir %f azimuth %f\n",
-			      trial,nadirAngleInDeg,azimuthAngleInDeg);
-
-	    double nadirAngle = Math.toRadians(nadirAngleInDeg);
-	    double azimuthAngle =  Math.toRadians(azimuthAngleInDeg);
-	    J3UnitVector polarVectorInjection = new J3UnitVector(
-						    Math.sin(nadirAngle)*Math.sin(azimuthAngle),
-						    Math.sin(nadirAngle)*Math.cos(azimuthAngle),
-						    Math.cos(nadirAngle));
-	    System.out.format("event %d nx (%f) ny(%f) nz(%f)\n", trial,polarVectorInjection.getX(),
-			      polarVectorInjection.getY(),polarVectorInjection.getZ());
-	    EarthLocalCoordinate injectionCoordinate = 
-		new EarthLocalCoordinate(polarVectorInjection,0.0); // origin (0,0,0)
-
-	    //double injectionRadius = 
-	    //	InjectionGeometryUtils.getInjectionRadius(Math.toRadians(nadirAngleInDeg));
-	    //double injectionPointR = injectionRadius*Math.sqrt(rand.GetRandomDouble()); // [cm]
-	    //double injectionPointAzimuthInRad = 2.0*Math.PI*rand.GetRandomDouble();
-	    //double x_injectionCoord = injectionPointR*Math.sin(injectionPointAzimuthInRad);
-	    //double y_injectionCoord = injectionPointR*Math.cos(injectionPointAzimuthInRad);
-	    double injectionX = InjectionGeometryUtils.getDefaultCylinderRadius();
-	    double x_injectionCoord = injectionX*(2.0*rand.GetRandomDouble()-1.0); // [cm]
-	    double injectionY = InjectionGeometryUtils.getInjectionRadius(Math.toRadians(nadirAngleInDeg));
-	    double y_injectionCoord = injectionY*(2.0*rand.GetRandomDouble()-1.0); // [cm]
-
-	    J3Vector r_injectionCoord = new J3Vector(x_injectionCoord,y_injectionCoord,0.0);
-	    J3Vector r_gen2 = injectionCoordinate.transformVectorToEarthCenter(r_injectionCoord);
-	    System.out.format("event %d injected radius %f\n",trial,r_injectionCoord.getLength());
-	    System.out.format("event %d injected radius %f\n",trial,r_gen2.getLength());
-	    System.out.format("event %d primary injected position %f %f %f\n",
-			      trial,r_gen2.getX(),r_gen2.getY(),r_gen2.getZ());
-	
-
-	    // run JULIeT
-	    generator.definePropagationGeometry(r_gen2.getX(),
-						r_gen2.getY(),
-						r_gen2.getZ(),
-						nadirAngleInDeg,azimuthAngleInDeg);
-
-	    generator.configurePropagationGeometry();
-
-
-	    generator.runSingleEvent();
-
-
-	    //
-	    // now extract the primary track and secondary particle info
-	    //
-	    ListIterator particleIterator = generator.getParticleIterator();
-	    ListIterator particleLocationIterator = generator.getLocationIce3Iterator();
-	    ListIterator trackIterator = generator.getTrackParticleIterator();
-	    ListIterator trackLocationIterator = generator.getTrackLocationIce3Iterator();
-
-	    // start position (=injection position) in ice3 coordinate
-	    J3Vector startPosition_ice3 = generator.wherePrimaryParticleStartsInIceCubeCoordinate();
-	    J3Vector startPosition_ice3_stored_inTrack =
-		(J3Vector )(trackLocationIterator.next());
-	    J3Vector startPosition_gen2 = generator.wherePrimaryParticleStartsInGen2Coordinate();
-	    double distanceFromEarthSurface = generator.getStartLocationAlongTheAxis();
-	    J3Vector startPosition_center = generator.wherePrimaryParticleStartsInEarthCenterCoordinate();
-
-	    System.out.format("event %d start %f %f %f in the earth center\n",
-			      trial,startPosition_center.getX(),
-			      startPosition_center.getY(),startPosition_center.getZ());
-	    System.out.format("event %d start %f %f %f\n",trial,startPosition_ice3.getX(),
-			      startPosition_ice3.getY(),startPosition_ice3.getZ());
-	    System.out.format("event %d track %f %f %f\n",trial,
-			      startPosition_ice3_stored_inTrack.getX(),
-			      startPosition_ice3_stored_inTrack.getY(),
-			      startPosition_ice3_stored_inTrack.getZ());
-	    System.out.format("event %d Distance from the earth surface %f\n",trial,distanceFromEarthSurface);
-	    System.out.format("event %d Distance from the gen2 center  %f\n",trial,startPosition_gen2.getLength());
-
-	    //  end position in ice3 coordinate
-	    J3Vector endPosition_ice3 = generator.wherePrimaryParticleEndsInIceCubeCoordinate();
-	    J3Vector propagationAxis = J3Vector.subtract(endPosition_ice3,startPosition_ice3);
-	    double propagationDistance = propagationAxis.getLength();
-	    System.out.format("event %d end %f %f %f %f\n",trial,endPosition_ice3.getX(),
-			      endPosition_ice3.getY(),endPosition_ice3.getZ(),propagationDistance);
-
-	    // secondary particles
-	    while(particleLocationIterator.hasNext()){
-		Particle particle = (Particle )(particleIterator.next());
-		String particleName = particle.particleName(particle.getFlavor(),
-							    particle.getDoublet());
-		double cascade_energy = particle.getEnergy();
-		J3Vector r = (J3Vector )(particleLocationIterator.next());
-		double x = r.getX();
-		double y = r.getY();
-		double z = r.getZ();
-		System.out.println("event " + trial + " secondary " + particleName + " " + 
-				   cascade_energy + " [GeV] " +
-				   x + " " +  y + " " + z);
-	    }
-
-	    trial++;
+	ParallelEventRunner runner = new ParallelEventRunner(numberOfThreads);
+	runner.setRandomBackend(randomBackend);
+	if(binaryOutputFile != null){
+	    // the workers encode the events, which the runner writes in order
+	    EventRecordWriter writer = 
+		new EventRecordWriter(new BufferedOutputStream(new FileOutputStream(binaryOutputFile)),
+				      binaryCompression);
+	    runner.run(new ParallelEventRunner.WorkerFactory( ){
+		    public ParallelEventRunner.Worker createWorker( ){
+			final JulietEventGenerator4Gen2 worker = new JulietEventGenerator4Gen2(generator);
+			return new ParallelEventRunner.Worker( ){
+			    ByteBuffer block = null;
+			    public void runEvent(long eventIndex, RandomGenerator rand, PrintStream out){
+				RunJuliet4Gen2.injectEvent(worker,eventIndex,rand,null);
+				block = EventRecordWriter.encodeEvent(eventIndex,worker.getEventRecord( ),block);
+				out.write(block.array( ),0,block.limit( ));
+			    }
+			};
+		    }
+		},firstEvent,numberOfEvents,seed,new PrintStream(writer));
+	    writer.close( );
+	    return;
 	}
+	runner.run(new ParallelEventRunner.WorkerFactory( ){
+		public ParallelEventRunner.Worker createWorker( ){
+		    final JulietEventGenerator4Gen2 worker = new JulietEventGenerator4Gen2(generator);
+		    return new ParallelEventRunner.Worker( ){
+			public void runEvent(long eventIndex, RandomGenerator rand, PrintStream out){
+			    RunJuliet4Gen2.runEvent(worker,eventIndex,rand,out);
+			}
+		    };
+		}
+	    },firstEvent,numberOfEvents,seed,System.out);
 
     }
 
 }
-
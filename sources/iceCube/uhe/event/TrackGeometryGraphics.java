@@ -50,7 +50,7 @@ public class TrackGeometryGraphics extends JComponent {
 	drawAxis(g2);
 	g2.setColor(Color.CYAN);
 	if(task.generator!= null){
-	    if(task.generator.particleList!= null) drawTrack(g2);
+	    if(task.generator.event!= null) drawTrack(g2);
 	}
 
     }
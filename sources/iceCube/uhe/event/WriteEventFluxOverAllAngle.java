@@ -110,9 +110,7 @@ public class WriteEventFluxOverAllAngle {
 
 	       // Read the serialized object of the Neutrino Charged Interaction Matrix
 	       String fileName = pathname[upDown].concat(matrixFileName[upDown][itheta]);
-	       in = new DataInputStream(new FileInputStream(fileName));
-	       cascadeFlux.propLeptonFlux.readMatrix(in);
-	       in.close( );
+	       cascadeFlux.propLeptonFlux.readMatrix(fileName);
 	       System.err.println("Reading the matrix from " + fileName + " done.");
 
 	       // Solid angle calculation
@@ -53,4 +53,25 @@ public class ParticleTracker {
             return true;
         }
     }
+
+    /** Check if the particle location is inside the earth
+	as isInsideEarth(r_center, shift, iceCube, center, outVol, flag)
+	with the location already transformed to the IceCube coordinate.
+	<pre>
+	J3Vector r_center  :  Prarticle location defined by EarthCenterCoordinate
+	J3Vector r_ice3    :  The same location defined by IceCubeCoordinate
+	J3Vector shift     :  The geometry shift. null if no shift.
+	</pre>
+    */
+    public static boolean isInsideEarth(J3Vector r_center, J3Vector r_ice3, J3Vector shift,
+                                        IceCubeCoordinate iceCube,
+					Volume outVol, int flag){
+        double REarth = ParticlePoint.REarth + iceCube.getGlacierDepth();
+        if(r_center.getLength() > REarth) return false;
+	if(flag == 1){
+	    if(shift == null && !outVol.isInsideVolume(r_ice3)) return false;
+	    if(shift != null && !outVol.isInsideVolume(r_ice3,shift)) return false;
+	}
+	return true;
+    }
 }
@@ -110,14 +110,7 @@ public class Volume{
         If it's inside, returns true.
     */
     public boolean isInsideVolume(J3Vector r){
-
-        if(!isInsidePlane(r,p1))         return false;
-        else if(!isInsidePlane(r,p2))    return false;
-        else if(!isInsidePlane(r,p3))    return false;
-        else if(!isInsidePlane(r,p4))    return false;
-        else if(!isInsidePlane(r,p5))    return false;
-        else if(!isInsidePlane(r,p6))    return false;
-        else                             return true;     
+	return isInsideVolume(r.getX(),r.getY(),r.getZ());
     }
 
     /**
@@ -126,8 +119,18 @@ public class Volume{
         If it's inside, returns true.
     */
     public boolean isInsideVolume(J3Vector r, J3Vector shift){
-	    J3Vector a = J3Vector.subtract(r,shift);
-	    return isInsideVolume(a);
+	return isInsideVolume(r.getX()-shift.getX(),r.getY()-shift.getY(),r.getZ()-shift.getZ());
+    }
+
+    /**
+        Check if the point (x,y,z) described by IceCube coordinate is inside the volume.
+	The planes are normal to the axes, so that the point is inside the plane p1
+	if x &lt;= p1.getX( ) and so on, the same as isInsidePlane( ).
+    */
+    public boolean isInsideVolume(double x, double y, double z){
+	return (x<=p1.getX( ) && x>=p2.getX( ) &&
+		y<=p3.getY( ) && y>=p4.getY( ) &&
+		z<=p5.getZ( ) && z>=p6.getZ( ));
     }
     /** 
         Check if the point described by IceCube coordinate is inside the
@@ -143,47 +146,96 @@ public class Volume{
     }
 
     /** Check if the given J3Line would pass inside the volome
-	in the range of [axisLengthFrom, axisLengthTo] */
+	in the range of [axisLengthFrom, axisLengthTo].
+	The line is left at the axis length where it enters the volume. */
     public boolean isJ3LineInsideVolume(J3Line line, double axisLengthFrom,
 					      double axisLengthTo) {
-	if(axisLengthFrom>axisLengthTo){
-	    System.err.println("axisLengthFrom must be smaller then axisLengthTo");
-	    return false;
-	}
-
-	line.setAxisLength(axisLengthFrom);
-	double deltaLength = 1.0e-3*(axisLengthTo-axisLengthFrom);
-	double axisLength = axisLengthFrom;
-        while(axisLength == axisLength + deltaLength){
-            System.err.println(
-                "deltaLength is too small for numerical precision. Increasing it by a factor of 10.");
-            deltaLength *= 10;
-        }
-	while(axisLength<axisLengthTo){
-	    if(isInsideVolume(line)) return true;
-	    axisLength += deltaLength;
-	    line.setAxisLength(axisLength);
-	}
-	return false;
+	return isJ3LineInsideVolume(line,null,axisLengthFrom,axisLengthTo);
     }
 
     /** Check if the given J3Line - J3Vector would pass inside the volome
-	in the range of [axisLengthFrom, axisLengthTo] */
+	in the range of [axisLengthFrom, axisLengthTo].
+	The line is left at the axis length where it enters the volume. */
     public boolean isJ3LineInsideVolume(J3Line line, J3Vector shift, 
 					double axisLengthFrom, double axisLengthTo) {
 	if(axisLengthFrom>axisLengthTo){
 	    System.err.println("axisLengthFrom must be smaller then axisLengthTo");
 	    return false;
 	}
+	return clipJ3Line(line,shift,axisLengthFrom,axisLengthTo,null,true);
+    }
 
-	line.setAxisLength(axisLengthFrom);
-	double deltaLength = 1.0e-3*(axisLengthTo-axisLengthFrom);
-	double axisLength = axisLengthFrom;
-	while(axisLength<axisLengthTo){
-	    if(isInsideVolume(line,shift)) return true;
-	    axisLength += deltaLength;
-	    line.setAxisLength(axisLength);
+    /** 
+	Get the segment of the given J3Line inside the volume
+	in the range of [axisLengthFrom, axisLengthTo].
+	Returns false if the line does not pass inside the volume in the range.
+	<pre>
+	J3Line line           : the line described by IceCube coordinate
+	double axisLengthFrom : the start of the range along the line
+	double axisLengthTo   : the end of the range along the line
+	double[] axisLengths  : [0] the axis length where the line enters the volume
+	                        [1] the axis length where the line exits the volume
+	                        both clipped to the range. Filled if returns true.
+	</pre>
+    */
+    public boolean getJ3LineIntersection(J3Line line, double axisLengthFrom, 
+					 double axisLengthTo, double[] axisLengths){
+	return getJ3LineIntersection(line,null,axisLengthFrom,axisLengthTo,axisLengths);
+    }
+
+    /** 
+	Get the segment of the given J3Line - J3Vector inside the volume
+	in the range of [axisLengthFrom, axisLengthTo]
+	by the intersection of the three slabs between the opposite planes.
+	shift may be null. The line itself is not moved.
+    */
+    public boolean getJ3LineIntersection(J3Line line, J3Vector shift, double axisLengthFrom, 
+					 double axisLengthTo, double[] axisLengths){
+	return clipJ3Line(line,shift,axisLengthFrom,axisLengthTo,axisLengths,false);
+    }
+
+    /** Clip the range of the axis length by the three slabs between the opposite planes
+	|x0 + l dx| &lt;= halfSize, kept in the locals so that no array is made per call.
+	The segment is filled to axisLengths if it is not null, and the line is moved
+	to where it enters the volume if moveLine. Returns false if nothing is left. */
+    private boolean clipJ3Line(J3Line line, J3Vector shift, double axisLengthFrom, 
+			       double axisLengthTo, double[] axisLengths, boolean moveLine){
+	J3Vector r0 = line.getR0();
+	J3UnitVector n = line.getDirection();
+	double x0 = r0.getX(), y0 = r0.getY(), z0 = r0.getZ();
+	if(shift != null){
+	    x0 -= shift.getX(); y0 -= shift.getY(); z0 -= shift.getZ();
+	}
+
+	double from = axisLengthFrom;
+	double to = axisLengthTo;
+	for(int axis=0; axis<3; axis++){
+	    double x, dx, halfSize;
+	    if(axis == 0){
+		x = x0; dx = n.getX(); halfSize = p1.getX();
+	    }else if(axis == 1){
+		x = y0; dx = n.getY(); halfSize = p3.getY();
+	    }else{
+		x = z0; dx = n.getZ(); halfSize = p5.getZ();
+	    }
+	    if(dx == 0.0){
+		if(x<-halfSize || x>halfSize) return false;
+		continue;
+	    }
+	    double l1 = (-halfSize-x)/dx;
+	    double l2 = (halfSize-x)/dx;
+	    if(l1>l2){
+		double l = l1; l1 = l2; l2 = l;
+	    }
+	    if(l1>from) from = l1;
+	    if(l2<to) to = l2;
+	    if(from>to) return false;
+	}
+	if(axisLengths != null){
+	    axisLengths[0] = from;
+	    axisLengths[1] = to;
 	}
-	return false;
+	if(moveLine) line.setAxisLength(from);
+	return true;
     }
 }
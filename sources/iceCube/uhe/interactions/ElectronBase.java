@@ -133,6 +133,11 @@ public class ElectronBase extends MonteCarloBase {
 
     }
 
+    /** get Kind Of Interaction */
+    public int getInteractionKind() {
+	return RADIATIVE;
+    }
+
 
 }
 
@@ -19,6 +19,9 @@ public class GlashowResonanceBase extends MonteCarloBase {
 
     /** interactions */
     private Interactions interactions;
+
+    /** Kind of the interaction. See MonteCarloBase. */
+    private int interactionKind;
     
     /** ParticlePoint object to define the trajectory and the medium
         in the propagation */
@@ -41,6 +44,11 @@ public class GlashowResonanceBase extends MonteCarloBase {
     */
     public static int neutrinoFactor = 1;
 
+    /** The neutrino factor of this object. 0 to follow the static neutrinoFactor.
+	Set by setNeutrinoWeight( ) when the generators with the different
+	factors run in the same JVM. */
+    private int neutrinoWeight = 0;
+
     /** Propagateing particle is electron neutrino */
     private final int propFlavor  = 0;
     private final int propDoublet = 0;
@@ -48,11 +56,39 @@ public class GlashowResonanceBase extends MonteCarloBase {
     /** flavor of produced particle is electron neutrino */
     private int producedFlavor = 0;
 
+    /** Table of ln(sigma [cm^2]) on the logE grid from sigmaTableLogEMinimum
+	by sigmaTableLogEStep, linearly interpolated by getSigma(logEnergy).
+	It is shared by the copies. null if no table meets sigmaTableTolerance,
+	when the exact sigma is calculated every time. */
+    private double[] logSigmaTable;
+    private double sigmaTableLogEMinimum;
+    private double sigmaTableLogEStep;
+
+    /** Tolerance of the relative error of the interpolated sigma
+	checked against the exact one when the table is made */
+    static final double sigmaTableTolerance = 1.0e-4;
+
     /** Default Constructor of GlashowResonanceBase. */
     public GlashowResonanceBase(){
 	this(0,0); // default produced electron in ice!
     }
     
+    /** Constructor of the copy with the same produced flavor, medium and neutrino factor.
+	The Interactions object keeps the incident energy in play, so each thread
+	running events needs its own GlashowResonanceBase. */
+    public GlashowResonanceBase(GlashowResonanceBase base){
+	this.producedFlavor = base.producedFlavor;
+	this.materialNumber = base.materialNumber;
+	this.neutrinoWeight = base.neutrinoWeight;
+	point = new ParticlePoint(0.0, 5.0*Math.PI/180.0, materialNumber);
+	if(producedFlavor != 3) interactions = new GlashowResonanceLeptonic(point, producedFlavor);
+	else interactions = new GlashowResonanceHadronic(point);
+	interactionKind = getInteractionKind(interactions.interactionName( ));
+	this.logSigmaTable = base.logSigmaTable;
+	this.sigmaTableLogEMinimum = base.sigmaTableLogEMinimum;
+	this.sigmaTableLogEStep = base.sigmaTableLogEStep;
+    }
+
     /** Constructor of GlashowResonanceBase. */
     public GlashowResonanceBase(int flavor, int mediumID){
 
@@ -65,6 +101,7 @@ public class GlashowResonanceBase extends MonteCarloBase {
 
 	if(producedFlavor != 3) interactions = new GlashowResonanceLeptonic(point, producedFlavor);
 	else interactions = new GlashowResonanceHadronic(point);
+	interactionKind = getInteractionKind(interactions.interactionName( ));
 
         for(int iLogE=0; iLogE<Particle.getDimensionOfLogEnergyMatrix(); iLogE+=100){
 	    interactions.setIncidentParticleEnergy(iLogE);
@@ -72,8 +109,71 @@ public class GlashowResonanceBase extends MonteCarloBase {
 	    System.err.println("total sigma [" + iLogE + "] = " + 
 			       interactions.getSigma());
 	}
+	setSigmaTable();
+    }
+
+    /** The exact sigma [cm^2] at logEnergy */
+    private double getExactSigma(double logEnergy){
+	interactions.setIncidentParticleEnergy(Math.pow(10.0,logEnergy));
+	return interactions.getSigma();
+    }
+
+    /** Make the table of sigma over the range of logEnergyMatrix.
+	The grid is refined until the interpolation at the middle of
+	every interval agrees with the exact sigma within sigmaTableTolerance.
+	The table is not used if it does not after the refinements. */
+    private void setSigmaTable(){
+	sigmaTableLogEMinimum = Particle.getLogEnergyMinimum();
+	double range = Particle.getDeltaLogEnergy()*(double )Particle.getDimensionOfLogEnergyMatrix();
+	sigmaTableLogEStep = Particle.getDeltaLogEnergy()/4.0;
+	double maxError = 0.0;
+	for(int refine=0; refine<8; refine++){
+	    if(refine>0) sigmaTableLogEStep *= 0.5;
+	    int n = (int )Math.ceil(range/sigmaTableLogEStep)+1;
+	    logSigmaTable = new double[n];
+	    for(int i=0; i<n; i++){
+		logSigmaTable[i] = Math.log(getExactSigma(sigmaTableLogEMinimum+sigmaTableLogEStep*(double )i));
+	    }
+	    maxError = 0.0;
+	    for(int i=0; i<n-1; i++){
+		double logEnergy = sigmaTableLogEMinimum+sigmaTableLogEStep*((double )i+0.5);
+		double exact = getExactSigma(logEnergy);
+		double error = Math.abs(getSigma(logEnergy)/exact-1.0);
+		if(!(error<=maxError)) maxError = error; // NaN fails the table
+	    }
+	    if(maxError<=sigmaTableTolerance) break;
+	}
+	System.err.println("sigma table of " + logSigmaTable.length + " points by logE " + 
+			   sigmaTableLogEStep + " : max relative error " + maxError);
+	if(!(maxError<=sigmaTableTolerance)){
+	    System.err.println("sigma table is over the tolerance " + sigmaTableTolerance +
+			       ". The exact sigma is used.");
+	    logSigmaTable = null;
+	}
+    }
+
+    /** sigma [cm^2] at logEnergy interpolated from the table.
+	The exact one out of the range of the table or without the table. */
+    public double getSigma(double logEnergy){
+	if(logSigmaTable == null) return getExactSigma(logEnergy);
+	double x = (logEnergy-sigmaTableLogEMinimum)/sigmaTableLogEStep;
+	if(!(x>=0.0 && x<=(double )(logSigmaTable.length-1))) return getExactSigma(logEnergy);
+	int i = (int )x;
+	if(i == logSigmaTable.length-1) i--;
+	double w = x-(double )i;
+	return Math.exp(logSigmaTable[i]+w*(logSigmaTable[i+1]-logSigmaTable[i]));
     }
     
+    /** Set the neutrino factor of this object. 0 to follow the static neutrinoFactor. */
+    public void setNeutrinoWeight(int weight){
+	neutrinoWeight = weight;
+    }
+
+    /** The neutrino factor in effect for this object. */
+    public int getNeutrinoWeight(){
+	return (neutrinoWeight>0) ? neutrinoWeight : neutrinoFactor;
+    }
+
     /** Get pathlength by random number. **/
     public double getPathLength(int iLogE, RandomGenerator rand) {
 
@@ -90,11 +190,8 @@ public class GlashowResonanceBase extends MonteCarloBase {
 	    return Double.POSITIVE_INFINITY;
 	}else{ // case of anti nu-e 
 	    r = rand.GetRandomDouble();
-	    // Set incident particle energy
-	    double energy = Math.pow(10.0,logEnergy);
-	    interactions.setIncidentParticleEnergy(energy);
 
-	    double totalsigma = interactions.getSigma(); // get total cross section
+	    double totalsigma = getSigma(logEnergy); // get total cross section
 	    double path       = -Math.log(1.0-r)/totalsigma;       // path length
 	    return path;
 	}
@@ -123,12 +220,9 @@ public class GlashowResonanceBase extends MonteCarloBase {
 	    return Double.POSITIVE_INFINITY;
 	}else{ // case of anti nu-e 
 	    r = rand.GetRandomDouble();
-	    // Set incident particle energy
-	    double energy = Math.pow(10.0,logEnergy);
-	    interactions.setIncidentParticleEnergy(energy);
 
 	    double totalsigma = 
-		interactions.getSigma()*neutrinoFactor; //crosssection*neutrinoFactor;
+		getSigma(logEnergy)*getNeutrinoWeight(); //crosssection*neutrinoFactor;
 	    double path       = -Math.log(1.0-r)/totalsigma;       // path length
 	    return path;
 	}
@@ -203,4 +297,9 @@ public class GlashowResonanceBase extends MonteCarloBase {
 
     }
 
+    /** get Kind Of Interaction (GLASHOW_RESONANCE_LEPTONIC or GLASHOW_RESONANCE_HADRONIC) */
+    public int getInteractionKind() {
+        return interactionKind;
+    }
+
 }
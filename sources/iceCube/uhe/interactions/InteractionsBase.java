@@ -19,6 +19,9 @@ public class InteractionsBase extends MonteCarloBase {
     /** InteractionsMatrix obejct */
     private InteractionsMatrix interactMtx;
 
+    /** Kind of the interaction. See MonteCarloBase. */
+    private int interactionKind;
+
     /** Minimum log energy of propagating particles */
     private double logEnergyMinimum = Particle.getLogEnergyMinimum();
 
@@ -36,6 +39,11 @@ public class InteractionsBase extends MonteCarloBase {
     */
     public static int neutrinoFactor = 1;
 
+    /** The neutrino factor of this object. 0 to follow the static neutrinoFactor.
+	Set by setNeutrinoWeight( ) when the generators with the different
+	factors run in the same JVM. */
+    private int neutrinoWeight = 0;
+
     /** dimension of InteractionsMatrix */
     int dim         = Particle.getDimensionOfLogEnergyMatrix();
     int expandedDim = dim + 
@@ -44,11 +52,22 @@ public class InteractionsBase extends MonteCarloBase {
     /** Cumulative cross section table */
     double[][] cumulativeTable = new double[dim][expandedDim];
 
+    /** Search of cumulativeTable[iLogE][ ] by the random number */
+    GuideTable[] cumulativeTableSearch;
+
+    /** Number of the guides of the search of a cumulative table */
+    static final int numberOfGuides = 256;
+
     /** Constructor for making the cumulative table. */
     public InteractionsBase(InteractionsMatrix intMtx){
 	this.interactMtx = intMtx;
+	interactionKind = getInteractionKind(getInteractionName( ));
 	cumulativeTable  = new double[dim][expandedDim];
 	setCumulativeTable(interactMtx);
+	cumulativeTableSearch = new GuideTable[dim];
+	for(int iLogE=0; iLogE<dim; iLogE++){
+	    cumulativeTableSearch[iLogE] = new GuideTable(cumulativeTable[iLogE],numberOfGuides);
+	}
     }
     
     public static double getLogEnergyProducedMinimum(){
@@ -124,6 +143,16 @@ public class InteractionsBase extends MonteCarloBase {
 
     }
 
+    /** Set the neutrino factor of this object. 0 to follow the static neutrinoFactor. */
+    public void setNeutrinoWeight(int weight){
+	neutrinoWeight = weight;
+    }
+
+    /** The neutrino factor in effect for this object. */
+    public int getNeutrinoWeight(){
+	return (neutrinoWeight>0) ? neutrinoWeight : neutrinoFactor;
+    }
+
     /** Get pathlength by random number. **/
     public double getPathLength(int iLogE, RandomGenerator rand) {
 	
@@ -148,7 +177,7 @@ public class InteractionsBase extends MonteCarloBase {
 	
 	double r = rand.GetRandomDouble();
 
-	double totalsigma = interactMtx.getSigmaMatrix(iLogE)*neutrinoFactor; //crosssection*neutrinoFactor
+	double totalsigma = interactMtx.getSigmaMatrix(iLogE)*getNeutrinoWeight(); //crosssection*neutrinoFactor
 	double path       = -Math.log(1.0-r)/totalsigma;       // path length
 	return path;
 
@@ -161,6 +190,16 @@ public class InteractionsBase extends MonteCarloBase {
         return getNeutrinoPathLength(iLogE, rand);
     }
 
+    /** The inverse of the mean path length of getPathLength(iLogE, rand). */
+    public double getInverseMeanPathLength(int iLogE){
+	return interactMtx.getSigmaMatrix(iLogE);
+    }
+
+    /** The inverse of the mean path length of getNeutrinoPathLength(logEnergy, rand). */
+    public double getInverseMeanNeutrinoPathLength(int iLogE){
+	return interactMtx.getSigmaMatrix(iLogE)*getNeutrinoWeight();
+    }
+
     /** Get produced log energy. In order to decide the value of log energy in a bin,
         use a random number **/
     public double getProducedEnergy(int iLogE, RandomGenerator rand){
@@ -168,13 +207,8 @@ public class InteractionsBase extends MonteCarloBase {
         double e = 0.0;
 	double r = rand.GetRandomDouble();
 
-	for(int j=0; j<expandedDim; j++){
-
-            if(r<cumulativeTable[iLogE][j]){
-                e = (double )j;
-                break;
-            }
-	}
+	int j = cumulativeTableSearch[iLogE].search(r);
+	if(j>=0) e = (double )j;
 	// value in a bin
 	r = rand.GetRandomDouble();
 	double producedLogEnergy = (e + r)*Particle.getDeltaLogEnergy() + 
@@ -256,6 +290,11 @@ public class InteractionsBase extends MonteCarloBase {
 
     }
 
+    /** get Kind Of Interaction (CHARGED_CURRENT, NEUTRAL_CURRENT or RADIATIVE) */
+    public int getInteractionKind() {
+	return interactionKind;
+    }
+
 
 }
 
@@ -132,63 +132,37 @@ public class PropagatingAtmMuonFlux implements Function{
     }
 
 
-    /** Read the calculated propagation matrix */
+    /** Read the calculated propagation matrix either in the legacy format
+	or in the format of PropagationMatrixFile. The stream is closed. */
     public void readMatrix(DataInputStream in) throws IOException {
-        int iLogE;
-        for(iLogE=0;iLogE<dimension;iLogE++){
-            int jLogE;
-            for(jLogE=0;jLogE<=iLogE;jLogE++){
-
-                FnuEToNuE[iLogE][jLogE]= in.readDouble( );
-		if(includeGlashowResonance){
-		    FnuEToNuMu[iLogE][jLogE]= in.readDouble( );
-		    FnuEToNuTau[iLogE][jLogE]= in.readDouble( );
-		}else{
-		    FnuEToNuMu[iLogE][jLogE] = 0.0;
-		    FnuEToNuTau[iLogE][jLogE]= 0.0;
-		}
-                FnuEToE[iLogE][jLogE]= in.readDouble( );
-                if(includeGlashowResonance){
-		    FnuEToMu[iLogE][jLogE]= in.readDouble( );
-		    FnuEToTau[iLogE][jLogE]= in.readDouble( );
-		}else{
-		    FnuEToMu[iLogE][jLogE]= 0.0;
-		    FnuEToTau[iLogE][jLogE]= 0.0;
-		}
-                FnuEToHadron[iLogE][jLogE]= in.readDouble( );
-                FnuMuToNuE[iLogE][jLogE]= in.readDouble( );
-                FnuMuToNuMu[iLogE][jLogE]= in.readDouble( );
-                FnuMuToNuTau[iLogE][jLogE]= in.readDouble( );
-                FnuMuToE[iLogE][jLogE]= in.readDouble( );
-                FnuMuToMu[iLogE][jLogE]= in.readDouble( );
-                FnuMuToTau[iLogE][jLogE]= in.readDouble( );
-                FnuMuToHadron[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuE[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuMu[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuTau[iLogE][jLogE]= in.readDouble( );
-                FnuTauToE[iLogE][jLogE]= in.readDouble( );
-                FnuTauToMu[iLogE][jLogE]= in.readDouble( );
-                FnuTauToTau[iLogE][jLogE]= in.readDouble( );
-                FnuTauToHadron[iLogE][jLogE]= in.readDouble( );
-                FmuToNuE[iLogE][jLogE]= in.readDouble( );
-                FmuToNuMu[iLogE][jLogE]= in.readDouble( );
-                FmuToNuTau[iLogE][jLogE]= in.readDouble( );
-                FmuToE[iLogE][jLogE]= in.readDouble( );
-                FmuToMu[iLogE][jLogE]= in.readDouble( );
-                FmuToTau[iLogE][jLogE]= in.readDouble( );
-                FmuToHadron[iLogE][jLogE]= in.readDouble( );
-                FtauToNuE[iLogE][jLogE]= in.readDouble( );
-                FtauToNuMu[iLogE][jLogE]= in.readDouble( );
-                FtauToNuTau[iLogE][jLogE]= in.readDouble( );
-                FtauToE[iLogE][jLogE]= in.readDouble( );
-                FtauToMu[iLogE][jLogE]= in.readDouble( );
-                FtauToTau[iLogE][jLogE]= in.readDouble( );
-                FtauToHadron[iLogE][jLogE]= in.readDouble( );
-
-            }
-        }
-
+	PropagationMatrixFile file = new PropagationMatrixFile(in,includeGlashowResonance);
         in.close( );
+	readMatrix(file);
+    }
+
+    /** Read the propagation matrix file by mapping it into memory. */
+    public void readMatrix(String fileName) throws IOException {
+	readMatrix(new PropagationMatrixFile(new File(fileName),includeGlashowResonance));
+    }
+
+    /** Copy the channels of the propagation matrix file. */
+    public void readMatrix(PropagationMatrixFile file) throws IOException {
+	// [input][output] in the order of the particle indices of PropagationMatrixFile
+	double[][][][] tensor = {
+	    {FnuEToNuE,FnuEToNuMu,FnuEToNuTau,FnuEToE,FnuEToMu,FnuEToTau,FnuEToHadron},
+	    {FnuMuToNuE,FnuMuToNuMu,FnuMuToNuTau,FnuMuToE,FnuMuToMu,FnuMuToTau,FnuMuToHadron},
+	    {FnuTauToNuE,FnuTauToNuMu,FnuTauToNuTau,FnuTauToE,FnuTauToMu,FnuTauToTau,FnuTauToHadron},
+	    null,
+	    {FmuToNuE,FmuToNuMu,FmuToNuTau,FmuToE,FmuToMu,FmuToTau,FmuToHadron},
+	    {FtauToNuE,FtauToNuMu,FtauToNuTau,FtauToE,FtauToMu,FtauToTau,FtauToHadron},
+	    null
+	};
+	for(int a=0;a<tensor.length;a++){
+	    if(tensor[a] == null) continue;
+	    for(int b=0;b<tensor[a].length;b++){
+		file.readChannel(a,b,tensor[a][b]);
+	    }
+	}
 
 	// Set the threshold energy of muons in a bundle 
 	// at the Earth surface
@@ -69,14 +69,15 @@ public class DrawAngularQuickNeutrinoFlux {
        int itheta;
        index = 0;
        for(upDown=0;upDown<2;upDown++){
+	   // propagate Neutrino for all the angles at once
+	   s= new ParticlePoint(0.0,0.0,upDown);
+	   leptonFlux.propagator.setParticlePoint(s);
+	   QuickPropagationTable table = 
+	       leptonFlux.propagator.propagateNeutrinoToIceCubeDepth(zenithAngle[upDown],
+								     nuCCEnhancementFactor);
 	   for(itheta=0;itheta<zenithAngle[upDown].length;itheta++){
 	       double zenith = zenithAngle[upDown][itheta];
-
-	       // propagate Neutrino
-               s= new ParticlePoint(0.0,Math.toRadians(zenith),upDown);
-	       leptonFlux.propagator.setParticlePoint(s);
-	       leptonFlux.propagator.propagateNeutrinoToIceCubeDepth(zenith,
-								     nuCCEnhancementFactor);
+	       leptonFlux.propagator.setPropagatedAngle(table,itheta);
 
 
 	       // Solid angle calculation
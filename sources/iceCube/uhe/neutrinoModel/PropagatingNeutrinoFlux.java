@@ -34,13 +34,13 @@ public class PropagatingNeutrinoFlux {
     boolean includeGlashowResonance = true;
 
     /** For Glashow Resonance FnuETo(Mu/Tau flavor) are added. **/
-    double[][] FnuEToNuE,FnuMuToNuE,FnuTauToNuE,FmuToNuE,FtauToNuE;
-    double[][] FnuEToNuMu,FnuMuToNuMu,FnuTauToNuMu,FmuToNuMu,FtauToNuMu;
-    double[][] FnuEToNuTau,FnuMuToNuTau,FnuTauToNuTau,FmuToNuTau,FtauToNuTau;
-    double[][] FnuEToE,FnuMuToE,FnuTauToE,FmuToE,FtauToE;
-    double[][] FnuEToMu,FnuMuToMu,FnuTauToMu,FmuToMu,FtauToMu;
-    double[][] FnuEToTau,FnuMuToTau,FnuTauToTau,FmuToTau,FtauToTau;
-    double[][] FnuEToHadron,FnuMuToHadron,FnuTauToHadron,FmuToHadron,FtauToHadron;
+    TriangularMatrix FnuEToNuE,FnuMuToNuE,FnuTauToNuE,FmuToNuE,FtauToNuE;
+    TriangularMatrix FnuEToNuMu,FnuMuToNuMu,FnuTauToNuMu,FmuToNuMu,FtauToNuMu;
+    TriangularMatrix FnuEToNuTau,FnuMuToNuTau,FnuTauToNuTau,FmuToNuTau,FtauToNuTau;
+    TriangularMatrix FnuEToE,FnuMuToE,FnuTauToE,FmuToE,FtauToE;
+    TriangularMatrix FnuEToMu,FnuMuToMu,FnuTauToMu,FmuToMu,FtauToMu;
+    TriangularMatrix FnuEToTau,FnuMuToTau,FnuTauToTau,FmuToTau,FtauToTau;
+    TriangularMatrix FnuEToHadron,FnuMuToHadron,FnuTauToHadron,FmuToHadron,FtauToHadron;
     private List neutFluxList = null;
     private List modelNumberList = null;
 
@@ -71,42 +71,42 @@ public class PropagatingNeutrinoFlux {
 
     private void generateMatrix() {
 	/** For Glashow Resonance -begin **/
-        FnuEToNuE= new double[dimension][dimension];
-        FnuEToNuMu= new double[dimension][dimension];
-        FnuEToNuTau= new double[dimension][dimension];
-        FnuEToE= new double[dimension][dimension];
-        FnuEToMu= new double[dimension][dimension];
-        FnuEToTau= new double[dimension][dimension];
-        FnuEToHadron= new double[dimension][dimension];
+        FnuEToNuE= new TriangularMatrix(dimension);
+        FnuEToNuMu= new TriangularMatrix(dimension);
+        FnuEToNuTau= new TriangularMatrix(dimension);
+        FnuEToE= new TriangularMatrix(dimension);
+        FnuEToMu= new TriangularMatrix(dimension);
+        FnuEToTau= new TriangularMatrix(dimension);
+        FnuEToHadron= new TriangularMatrix(dimension);
 	/** For Glashow Resonance -end **/
-        FnuMuToNuE= new double[dimension][dimension];
-        FnuMuToNuMu= new double[dimension][dimension];
-        FnuMuToNuTau= new double[dimension][dimension];
-        FnuMuToE= new double[dimension][dimension];
-        FnuMuToMu= new double[dimension][dimension];
-        FnuMuToTau= new double[dimension][dimension];
-        FnuMuToHadron= new double[dimension][dimension];
-        FnuTauToNuE= new double[dimension][dimension];
-        FnuTauToNuMu= new double[dimension][dimension];
-        FnuTauToNuTau= new double[dimension][dimension];
-        FnuTauToE= new double[dimension][dimension];
-        FnuTauToMu= new double[dimension][dimension];
-        FnuTauToTau= new double[dimension][dimension];
-        FnuTauToHadron= new double[dimension][dimension];
-        FmuToNuE= new double[dimension][dimension];
-        FmuToNuMu= new double[dimension][dimension];
-        FmuToNuTau= new double[dimension][dimension];
-        FmuToE= new double[dimension][dimension];
-        FmuToMu= new double[dimension][dimension];
-        FmuToTau= new double[dimension][dimension];
-        FmuToHadron= new double[dimension][dimension];
-        FtauToNuE= new double[dimension][dimension];
-        FtauToNuMu= new double[dimension][dimension];
-        FtauToNuTau= new double[dimension][dimension];
-        FtauToE= new double[dimension][dimension];
-        FtauToMu= new double[dimension][dimension];
-        FtauToTau= new double[dimension][dimension];
-        FtauToHadron= new double[dimension][dimension];
+        FnuMuToNuE= new TriangularMatrix(dimension);
+        FnuMuToNuMu= new TriangularMatrix(dimension);
+        FnuMuToNuTau= new TriangularMatrix(dimension);
+        FnuMuToE= new TriangularMatrix(dimension);
+        FnuMuToMu= new TriangularMatrix(dimension);
+        FnuMuToTau= new TriangularMatrix(dimension);
+        FnuMuToHadron= new TriangularMatrix(dimension);
+        FnuTauToNuE= new TriangularMatrix(dimension);
+        FnuTauToNuMu= new TriangularMatrix(dimension);
+        FnuTauToNuTau= new TriangularMatrix(dimension);
+        FnuTauToE= new TriangularMatrix(dimension);
+        FnuTauToMu= new TriangularMatrix(dimension);
+        FnuTauToTau= new TriangularMatrix(dimension);
+        FnuTauToHadron= new TriangularMatrix(dimension);
+        FmuToNuE= new TriangularMatrix(dimension);
+        FmuToNuMu= new TriangularMatrix(dimension);
+        FmuToNuTau= new TriangularMatrix(dimension);
+        FmuToE= new TriangularMatrix(dimension);
+        FmuToMu= new TriangularMatrix(dimension);
+        FmuToTau= new TriangularMatrix(dimension);
+        FmuToHadron= new TriangularMatrix(dimension);
+        FtauToNuE= new TriangularMatrix(dimension);
+        FtauToNuMu= new TriangularMatrix(dimension);
+        FtauToNuTau= new TriangularMatrix(dimension);
+        FtauToE= new TriangularMatrix(dimension);
+        FtauToMu= new TriangularMatrix(dimension);
+        FtauToTau= new TriangularMatrix(dimension);
+        FtauToHadron= new TriangularMatrix(dimension);
     }
 
     /** Generate Neutrino flux object and add it to the list */
@@ -116,66 +116,37 @@ public class PropagatingNeutrinoFlux {
     }
 
 
-    /** Read the calculated propagation matrix */
+    /** Read the calculated propagation matrix either in the legacy format
+	or in the format of PropagationMatrixFile. The stream is closed. */
     public void readMatrix(DataInputStream in) throws IOException {
-        int iLogE;
-        for(iLogE=0;iLogE<dimension;iLogE++){
-            int jLogE;
-            for(jLogE=0;jLogE<=iLogE;jLogE++){
-
-		/** For Glashow Resonance -begin **/
-                FnuEToNuE[iLogE][jLogE]= in.readDouble( );
-		if(includeGlashowResonance){
-		    FnuEToNuMu[iLogE][jLogE]= in.readDouble( );
-		    FnuEToNuTau[iLogE][jLogE]= in.readDouble( );
-		}else{
-		    FnuEToNuMu[iLogE][jLogE] = 0.0;
-		    FnuEToNuTau[iLogE][jLogE]= 0.0;
-		}
-		FnuEToE[iLogE][jLogE]= in.readDouble( );
-		if(includeGlashowResonance){
-		    FnuEToMu[iLogE][jLogE]= in.readDouble( );
-		    FnuEToTau[iLogE][jLogE]= in.readDouble( );
-		}else{
-		    FnuEToMu[iLogE][jLogE] = 0.0;
-		    FnuEToTau[iLogE][jLogE]= 0.0;
-		}
-                FnuEToHadron[iLogE][jLogE]= in.readDouble( );
-		/** For Glashow Resonance -end **/
-                FnuMuToNuE[iLogE][jLogE]= in.readDouble( );
-                FnuMuToNuMu[iLogE][jLogE]= in.readDouble( );
-                FnuMuToNuTau[iLogE][jLogE]= in.readDouble( );
-                FnuMuToE[iLogE][jLogE]= in.readDouble( );
-                FnuMuToMu[iLogE][jLogE]= in.readDouble( );
-                FnuMuToTau[iLogE][jLogE]= in.readDouble( );
-                FnuMuToHadron[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuE[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuMu[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuTau[iLogE][jLogE]= in.readDouble( );
-                FnuTauToE[iLogE][jLogE]= in.readDouble( );
-                FnuTauToMu[iLogE][jLogE]= in.readDouble( );
-                FnuTauToTau[iLogE][jLogE]= in.readDouble( );
-                FnuTauToHadron[iLogE][jLogE]= in.readDouble( );
-                FmuToNuE[iLogE][jLogE]= in.readDouble( );
-                FmuToNuMu[iLogE][jLogE]= in.readDouble( );
-                FmuToNuTau[iLogE][jLogE]= in.readDouble( );
-                FmuToE[iLogE][jLogE]= in.readDouble( );
-                FmuToMu[iLogE][jLogE]= in.readDouble( );
-                FmuToTau[iLogE][jLogE]= in.readDouble( );
-                FmuToHadron[iLogE][jLogE]= in.readDouble( );
-                FtauToNuE[iLogE][jLogE]= in.readDouble( );
-                FtauToNuMu[iLogE][jLogE]= in.readDouble( );
-                FtauToNuTau[iLogE][jLogE]= in.readDouble( );
-                FtauToE[iLogE][jLogE]= in.readDouble( );
-                FtauToMu[iLogE][jLogE]= in.readDouble( );
-                FtauToTau[iLogE][jLogE]= in.readDouble( );
-                FtauToHadron[iLogE][jLogE]= in.readDouble( );
-
-            }
-        }
-
+	PropagationMatrixFile file = new PropagationMatrixFile(in,includeGlashowResonance);
         in.close( );
+	readMatrix(file);
+    }
+
+    /** Read the propagation matrix file by mapping it into memory. */
+    public void readMatrix(String fileName) throws IOException {
+	readMatrix(new PropagationMatrixFile(new File(fileName),includeGlashowResonance));
+    }
 
+    /** Copy the channels of the propagation matrix file. */
+    public void readMatrix(PropagationMatrixFile file) throws IOException {
+	// [input][output] in the order of the particle indices of PropagationMatrixFile
+	TriangularMatrix[][] tensor = {
+	    {FnuEToNuE,FnuEToNuMu,FnuEToNuTau,FnuEToE,FnuEToMu,FnuEToTau,FnuEToHadron},
+	    {FnuMuToNuE,FnuMuToNuMu,FnuMuToNuTau,FnuMuToE,FnuMuToMu,FnuMuToTau,FnuMuToHadron},
+	    {FnuTauToNuE,FnuTauToNuMu,FnuTauToNuTau,FnuTauToE,FnuTauToMu,FnuTauToTau,FnuTauToHadron},
+	    null,
+	    {FmuToNuE,FmuToNuMu,FmuToNuTau,FmuToE,FmuToMu,FmuToTau,FmuToHadron},
+	    {FtauToNuE,FtauToNuMu,FtauToNuTau,FtauToE,FtauToMu,FtauToTau,FtauToHadron},
+	    null
+	};
+	for(int a=0;a<tensor.length;a++){
+	    if(tensor[a] == null) continue;
+	    for(int b=0;b<tensor[a].length;b++){
+		file.readChannel(a,b,tensor[a][b]);
+	    }
+	}
     }
 
 
@@ -266,14 +237,14 @@ public class PropagatingNeutrinoFlux {
 	    // with neutrino oscillation
 	    double[] nuflux_osci = neutFlux.getDFDLogEwzOsci(logE);
 	    
-	    if(FnuEToNuE[iLogE][jLogE]>0.0){
-		count += nuflux_osci[0]*FnuEToNuE[iLogE][jLogE]; // nuE to nuE
+	    if(FnuEToNuE.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[0]*FnuEToNuE.get(iLogE,jLogE); // nuE to nuE
 	    }
-	    if(FnuMuToNuE[iLogE][jLogE]>0.0){
-		count += nuflux_osci[1]*FnuMuToNuE[iLogE][jLogE]; // nuMu to nuE
+	    if(FnuMuToNuE.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[1]*FnuMuToNuE.get(iLogE,jLogE); // nuMu to nuE
 	    }
-	    if(FnuTauToNuE[iLogE][jLogE]>0.0){
-		count += nuflux_osci[2]*FnuTauToNuE[iLogE][jLogE]; // nuTau to nuE
+	    if(FnuTauToNuE.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[2]*FnuTauToNuE.get(iLogE,jLogE); // nuTau to nuE
 	    }
 
 	}
@@ -344,15 +315,15 @@ public class PropagatingNeutrinoFlux {
 	    double[] nuflux_osci = neutFlux.getDFDLogEwzOsci(logE);
 
 	    /** For Glashow Resonance -begin **/
-	    if(FnuEToNuMu[iLogE][jLogE]>0.0){
-		count += nuflux_osci[0]*FnuEToNuMu[iLogE][jLogE]; // nuE to nuMu
+	    if(FnuEToNuMu.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[0]*FnuEToNuMu.get(iLogE,jLogE); // nuE to nuMu
 	    }
 	    /** For Glashow Resonance -end **/
-	    if(FnuMuToNuMu[iLogE][jLogE]>0.0){
-		count += nuflux_osci[1]*FnuMuToNuMu[iLogE][jLogE]; // nuMu to nuMu
+	    if(FnuMuToNuMu.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[1]*FnuMuToNuMu.get(iLogE,jLogE); // nuMu to nuMu
 	    }
-	    if(FnuTauToNuMu[iLogE][jLogE]>0.0){
-		count += nuflux_osci[2]*FnuTauToNuMu[iLogE][jLogE]; // nuTau to nuMu
+	    if(FnuTauToNuMu.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[2]*FnuTauToNuMu.get(iLogE,jLogE); // nuTau to nuMu
 	    }
 	}
 	return(count);
@@ -423,15 +394,15 @@ public class PropagatingNeutrinoFlux {
 	    double[] nuflux_osci = neutFlux.getDFDLogEwzOsci(logE);
 
 	    /** For Glashow Resonance -begin **/
-	    if(FnuEToNuTau[iLogE][jLogE]>0.0){
-		count += nuflux_osci[0]*FnuEToNuTau[iLogE][jLogE]; // nuE to nuTau
+	    if(FnuEToNuTau.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[0]*FnuEToNuTau.get(iLogE,jLogE); // nuE to nuTau
 	    }
 	    /** For Glashow Resonance -end **/
-	    if(FnuMuToNuTau[iLogE][jLogE]>0.0){
-		count += nuflux_osci[1]*FnuMuToNuTau[iLogE][jLogE]; // nuMu to nuTau
+	    if(FnuMuToNuTau.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[1]*FnuMuToNuTau.get(iLogE,jLogE); // nuMu to nuTau
 	    }
-	    if(FnuTauToNuTau[iLogE][jLogE]>0.0){
-		count += nuflux_osci[2]*FnuTauToNuTau[iLogE][jLogE]; // nuTau to nuTau
+	    if(FnuTauToNuTau.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[2]*FnuTauToNuTau.get(iLogE,jLogE); // nuTau to nuTau
 	    }
 	}
 	return(count);
@@ -501,15 +472,15 @@ public class PropagatingNeutrinoFlux {
 	    double[] nuflux_osci = neutFlux.getDFDLogEwzOsci(logE);
 
 	    /** For Glashow Resonance -begin **/
-	    if(FnuEToMu[iLogE][jLogE]>0.0){
-		count += nuflux_osci[0]*FnuEToMu[iLogE][jLogE]; // nuE to Mu
+	    if(FnuEToMu.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[0]*FnuEToMu.get(iLogE,jLogE); // nuE to Mu
 	    }
 	    /** For Glashow Resonance -end **/
-	    if(FnuMuToMu[iLogE][jLogE]>0.0){
-		count += nuflux_osci[1]*FnuMuToMu[iLogE][jLogE]; // nuMu to Mu
+	    if(FnuMuToMu.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[1]*FnuMuToMu.get(iLogE,jLogE); // nuMu to Mu
 	    }
-	    if(FnuTauToMu[iLogE][jLogE]>0.0){
-		count += nuflux_osci[2]*FnuTauToMu[iLogE][jLogE]; // nuTau to Mu
+	    if(FnuTauToMu.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[2]*FnuTauToMu.get(iLogE,jLogE); // nuTau to Mu
 	    }
 	}
 	return(count);
@@ -580,15 +551,15 @@ public class PropagatingNeutrinoFlux {
 	    double[] nuflux_osci = neutFlux.getDFDLogEwzOsci(logE);
 
 	    /** For Glashow Resonance -begin **/
-	    if(FnuEToTau[iLogE][jLogE]>0.0){
-		count += nuflux_osci[0]*FnuEToTau[iLogE][jLogE]; // nuE to Mu
+	    if(FnuEToTau.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[0]*FnuEToTau.get(iLogE,jLogE); // nuE to Mu
 	    }
 	    /** For Glashow Resonance -end **/
-	    if(FnuMuToTau[iLogE][jLogE]>0.0){
-		count += nuflux_osci[1]*FnuMuToTau[iLogE][jLogE]; // nuMu to Tau
+	    if(FnuMuToTau.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[1]*FnuMuToTau.get(iLogE,jLogE); // nuMu to Tau
 	    }
-	    if(FnuTauToTau[iLogE][jLogE]>0.0){
-		count += nuflux_osci[2]*FnuTauToTau[iLogE][jLogE]; // nuTau to Tau
+	    if(FnuTauToTau.get(iLogE,jLogE)>0.0){
+		count += nuflux_osci[2]*FnuTauToTau.get(iLogE,jLogE); // nuTau to Tau
 	    }
 	}
 	return(count);
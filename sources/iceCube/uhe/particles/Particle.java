@@ -147,6 +147,26 @@ public class Particle implements Serializable {
     }
 
 
+    /** Redefine this particle with the given flavor, doublet and energy [GeV]
+	as the constructor Particle(flavor, doublet, energy) does.
+	It allows you to reuse the object for a new event. */
+    public void reset(int flavor, int doublet, double energy){
+	if(isValidFlavor(flavor) && isValidDoublet(doublet)){
+	    setFlavorAndDoublet(flavor, doublet);
+	    if(isValidEnergy(energy)){
+		this.energy = energy;
+		this.logEnergy = Math.log(energy)/ln10;
+	    } else{
+		System.err.println("Illegal Energy!");
+		System.exit(0);
+	    }
+	} else{
+	    System.err.println("Illegal Flavor/Doublet!");
+	    System.exit(0);
+	}
+    }
+
+
     public int getFlavor( ){
 	return flavor;
     }
@@ -0,0 +1,221 @@
+package iceCube.uhe.points;
+
+/**
+<pre>
+   Column depth X [g/cm^2] along the trajectory of ParticlePoint
+   and its inverse, the location lAxis [cm] where the given column depth
+   is reached, calculated in the closed form over the shells
+   of the Standard Earth Model instead of walking the trajectory by small steps.
+
+   Along the chord the radius is r^2 = s^2 + p^2 where s = lAxis - AxisLength/2
+   is the distance from the midpoint of the chord and p is the impact parameter.
+   The density of a shell, a cubic polynomial in x = r/REarth, is then integrated
+   analytically:
+
+     integral x   ds = (s sqrt(s^2+p^2) + p^2 asinh(s/p))/(2 REarth)
+     integral x^2 ds = (s^3/3 + p^2 s)/REarth^2
+     integral x^3 ds = (s (2s^2+5p^2) sqrt(s^2+p^2)/8 + 3p^4 asinh(s/p)/8)/REarth^3
+
+   The chord is divided at the shell boundaries into segments once
+   in the constructor, which takes O(number of shells). getColumnDepth( )
+   then costs a binary search and one evaluation of the integral, and getLocation( )
+   a binary search and a few Newton iterations on the integral.
+
+   The material is the one of the ParticlePoint when this object is built.
+   The switch of the material from rock to ice by ParticlePoint.getMediumDensity( )
+   beyond the ice/rock boundary is not followed; the ice density is
+   simply used there.
+</pre>
+*/
+
+public class ColumnDepthCalculator {
+
+    private final static double REarth = ParticlePoint.REarth;
+
+    /** Half of the chord length [cm]. */
+    private double halfChord;
+    /** Square of the impact parameter [cm^2]. */
+    private double pSquared;
+    private double p;
+
+    /** Start of the segments in s [cm]. The first segment extends to -infinity
+	and the last to +infinity. */
+    private double[] sStart;
+    /** Density coefficients of the segments. */
+    private double[][] coefficient;
+    /** Column depth [g/cm^2] at the start of the segment
+	from the start of the first segment. */
+    private double[] depthAtStart;
+    /** Column depth at lAxis = 0 on the same scale as depthAtStart. */
+    private double depthOffset;
+
+    /** Constructor. */
+    public ColumnDepthCalculator(ParticlePoint s){
+
+	halfChord = 0.5*s.getAxisLength( );
+	pSquared = REarth*REarth-halfChord*halfChord;
+	if(pSquared<0.0) pSquared = 0.0;
+	p = Math.sqrt(pSquared);
+
+	// Boundaries of the shells crossed by the chord
+	double[] radius;
+	if(s.getMaterialNumber( ) == 1){ // rock
+	    radius = new double[ParticlePoint.ShellRadius.length+1];
+	    for(int k=0;k<ParticlePoint.ShellRadius.length;k++){
+		radius[k] = ParticlePoint.ShellRadius[k];
+	    }
+	    radius[ParticlePoint.ShellRadius.length] = s.getIceRockBoundaryRadius( );
+	}else{ // ice
+	    radius = new double[0];
+	}
+	double[] crossing = new double[2*radius.length];
+	int numberOfCrossings = 0;
+	for(int k=0;k<radius.length;k++){
+	    if(radius[k]<=p) continue;
+	    double sk = Math.sqrt(radius[k]*radius[k]-pSquared);
+	    crossing[numberOfCrossings++] = -sk;
+	    crossing[numberOfCrossings++] = sk;
+	}
+	java.util.Arrays.sort(crossing,0,numberOfCrossings);
+
+	// Segments
+	int numberOfSegments = numberOfCrossings+1;
+	sStart = new double[numberOfSegments];
+	coefficient = new double[numberOfSegments][ ];
+	depthAtStart = new double[numberOfSegments];
+	sStart[0] = Double.NEGATIVE_INFINITY;
+	for(int n=1;n<numberOfSegments;n++) sStart[n] = crossing[n-1];
+	for(int n=0;n<numberOfSegments;n++){
+	    // The density of the segment at its middle
+	    double sMiddle;
+	    if(numberOfCrossings == 0) sMiddle = 0.0;
+	    else if(n == 0) sMiddle = crossing[0]-1.0;
+	    else if(n == numberOfSegments-1) sMiddle = crossing[numberOfCrossings-1]+1.0;
+	    else sMiddle = 0.5*(crossing[n-1]+crossing[n]);
+	    coefficient[n] = getCoefficient(s,Math.sqrt(sMiddle*sMiddle+pSquared));
+	}
+	// The first segment is referred from its end, or s=0 if it is the only one.
+	double sReference = (numberOfSegments>1) ? sStart[1] : 0.0;
+	depthAtStart[0] = 0.0;
+	for(int n=1;n<numberOfSegments;n++){
+	    double sFrom = (n == 1) ? sReference : sStart[n-1];
+	    depthAtStart[n] = depthAtStart[n-1]+
+		integral(coefficient[n-1],sStart[n])-integral(coefficient[n-1],sFrom);
+	}
+	depthOffset = getDepth(-halfChord);
+    }
+
+    /** The density coefficients c0..c3 of the medium at the radius r. */
+    private static double[] getCoefficient(ParticlePoint s, double r){
+	if(s.getMaterialNumber( ) == 1){
+	    int shell = ParticlePoint.getShell(r);
+	    if(shell<ParticlePoint.ShellRadius.length){
+		return ParticlePoint.ShellDensityCoefficient[shell];
+	    }
+	    return new double[ ]{s.getRockDensity(r),0.0,0.0,0.0};
+	}
+	return new double[ ]{ParticlePoint.getSurfaceDensity(0),0.0,0.0,0.0};
+    }
+
+    private static double asinh(double x){
+	double ax = Math.abs(x);
+	double y = Math.log(ax+Math.sqrt(ax*ax+1.0));
+	return (x<0.0) ? -y : y;
+    }
+
+    /** Integral of the density with the coefficients c from 0 to s [g/cm^2]. */
+    private double integral(double[] c, double s){
+	double result = c[0]*s;
+	if(c[1] == 0.0 && c[2] == 0.0 && c[3] == 0.0) return result;
+	double q = Math.sqrt(s*s+pSquared);
+	double a = (pSquared>0.0) ? asinh(s/p) : 0.0;
+	result += c[1]*0.5*(s*q+pSquared*a)/REarth;
+	result += c[2]*(s*s*s/3.0+pSquared*s)/(REarth*REarth);
+	result += c[3]*(s*(2.0*s*s+5.0*pSquared)*q+3.0*pSquared*pSquared*a)/
+	    (8.0*REarth*REarth*REarth);
+	return result;
+    }
+
+    /** Density with the coefficients c at s. */
+    private double density(double[] c, double s){
+	double x = Math.sqrt(s*s+pSquared)/REarth;
+	return c[0] + c[1]*x + c[2]*x*x + c[3]*x*x*x;
+    }
+
+    /** The segment containing s. */
+    private int getSegment(double s){
+	int low = 0;
+	int high = sStart.length;
+	while(high-low>1){
+	    int middle = (low+high)/2;
+	    if(sStart[middle]<=s) low = middle;
+	    else high = middle;
+	}
+	return low;
+    }
+
+    /** Column depth at s on the scale of depthAtStart. */
+    private double getDepth(double s){
+	int n = getSegment(s);
+	double sFrom = (n == 0) ? ((sStart.length>1) ? sStart[1] : 0.0) : sStart[n];
+	if(n == 0) return integral(coefficient[0],s)-integral(coefficient[0],sFrom);
+	return depthAtStart[n]+integral(coefficient[n],s)-integral(coefficient[n],sFrom);
+    }
+
+    /** Column depth [g/cm^2] from lAxis = 0 to lAxis [cm]. */
+    public double getColumnDepth(double lAxis){
+	return getDepth(lAxis-halfChord)-depthOffset;
+    }
+
+    /** Column depth [g/cm^2] between lFrom and lTo [cm]. */
+    public double getColumnDepth(double lFrom, double lTo){
+	return getDepth(lTo-halfChord)-getDepth(lFrom-halfChord);
+    }
+
+    /** Column depth [g/cm^2] over the whole trajectory to the emerging point. */
+    public double getTotalColumnDepth( ){
+	return getColumnDepth(0.0,2.0*halfChord);
+    }
+
+    /** The location lAxis [cm] where the column depth from lAxis = 0 reaches X [g/cm^2]. */
+    public double getLocation(double X){
+	double target = X+depthOffset;
+
+	// The segment by the depth at its start
+	int low = 0;
+	int high = sStart.length;
+	while(high-low>1){
+	    int middle = (low+high)/2;
+	    if(depthAtStart[middle]<=target) low = middle;
+	    else high = middle;
+	}
+	int n = low;
+	double[] c = coefficient[n];
+	double sFrom = (n == 0) ? ((sStart.length>1) ? sStart[1] : 0.0) : sStart[n];
+	double remaining = target-depthAtStart[n]; // integral from sFrom
+	double sLow = sStart[n];
+	double sHigh = (n<sStart.length-1) ? sStart[n+1] : Double.POSITIVE_INFINITY;
+
+	// Newton iterations kept inside the segment
+	double base = integral(c,sFrom);
+	double s = sFrom+remaining/density(c,sFrom);
+	for(int i=0;i<100;i++){
+	    if(s<sLow || s>sHigh || Double.isNaN(s)){
+		s = (Double.isInfinite(sLow) || Double.isInfinite(sHigh)) ?
+		    Math.max(Math.min(s,sHigh),sLow) : 0.5*(sLow+sHigh);
+	    }
+	    double f = integral(c,s)-base-remaining;
+	    if(f<0.0) sLow = Math.max(sLow,s);
+	    else sHigh = Math.min(sHigh,s);
+	    double step = f/density(c,s);
+	    s -= step;
+	    if(Math.abs(step)<=1.0e-9*Math.max(1.0,Math.abs(s))) break;
+	}
+	return s+halfChord;
+    }
+
+    /** The location lAxis [cm] after the column depth deltaX [g/cm^2] from lFrom [cm]. */
+    public double getLocation(double lFrom, double deltaX){
+	return getLocation(getColumnDepth(lFrom)+deltaX);
+    }
+}
@@ -76,6 +76,23 @@ public class ParticlePoint implements Serializable {
 
     /** Earth radius [cm].*/
     public final static double REarth = 6.37814e8;
+    /** Outer radii [cm] of the shells of the Standard Earth Model (rock).
+	Beyond the last shell the rock has the surface density
+	up to the ice/rock boundary. */
+    public final static double[] ShellRadius =
+    {1.2215e8, 3.48e8, 5.701e8, 5.771e8, 5.971e8, 6.151e8, 6.3466e8, 6.356e8};
+    /** Density [g/cm^3] of the shells = c0 + c1*x + c2*x^2 + c3*x^3 where x = r/REarth. */
+    public final static double[][] ShellDensityCoefficient = 
+    {
+	{13.0885, 0.0, -8.8381, 0.0},
+	{12.5815, -1.2638, -3.6426, -5.5281},
+	{7.9565, -6.4761, 5.5283, -3.0807},
+	{5.3197, -1.4836, 0.0, 0.0},
+	{11.2494, -8.0298, 0.0, 0.0},
+	{7.1089, -3.8045, 0.0, 0.0},
+	{2.691, 0.6924, 0.0, 0.0},
+	{2.9, 0.0, 0.0, 0.0}
+    };
     private double IceRockBoundary; // Ice/Rock boundary radius [cm]
     private double R;     //Distance from the Earth Center [cm].
     private double alpha; //Nadir angle [rad]
@@ -85,6 +102,7 @@ public class ParticlePoint implements Serializable {
                           //Axis length from incident point at the surface
                           // to emerging point at the earth surface.
     private double Xslant;//Slant depth along the trajectory axis [g/cm]
+    private transient ColumnDepthCalculator columnDepthCalculator = null;
 
 
     /** Constructor to initialize the starting point.
@@ -173,31 +191,11 @@ public class ParticlePoint implements Serializable {
 	double r = getRadiusFromEarthCenter(getParticleLocation( ));
 
 	double density=SurfaceDensity[MaterialNumber];
-	double x = r/REarth;
 
 	if(MaterialNumber==1){ //Rock
-
-	    if(0.0<=r && r < 1.2215e8){ //[cm]
-		density = 13.0885-8.8381*x*x;
-	    }else if(r < 3.48e8){
-		density = 12.5815 - 1.2638*x - 3.6426*x*x -5.5281*x*x*x;
-	    }else if(r < 5.701e8){
-		density = 7.9565 - 6.4761*x + 5.5283*x*x - 3.0807*x*x*x;
-	    }else if(r < 5.771e8){
-		density = 5.3197 - 1.4836*x;
-	    }else if(r < 5.971e8){
-		density = 11.2494 - 8.0298*x;
-	    }else if(r < 6.151e8){
-		density = 7.1089 - 3.8045*x;
-	    }else if(r < 6.3466e8){
-		density = 2.691 + 0.6924*x;
-	    }else if(r < 6.356e8){
-		density = 2.9;
-	    }else if(r < IceRockBoundary){
-		density = SurfaceDensity[MaterialNumber];
-	    }else{
+	    density = getRockDensity(r);
+	    if(r >= IceRockBoundary && getShell(r) == ShellRadius.length){
 		MaterialNumber = 0; //Ice
-		density = SurfaceDensity[MaterialNumber];
 	    }
 	}
 
@@ -205,11 +203,48 @@ public class ParticlePoint implements Serializable {
     }
 
 
+    /** The shell of the Standard Earth Model at the radius r [cm].
+	ShellRadius.length beyond the outermost shell. */
+    public static int getShell(double r){
+	int shell = 0;
+	while(shell<ShellRadius.length && r>=ShellRadius[shell]) shell++;
+	return shell;
+    }
+
+    /** Density [g/cm^3] of the rock at the radius r [cm].
+	The medium beyond the ice/rock boundary is ice. */
+    public double getRockDensity(double r){
+	int shell = getShell(r);
+	if(shell<ShellRadius.length){
+	    double x = r/REarth;
+	    double[] c = ShellDensityCoefficient[shell];
+	    return c[0] + c[1]*x + c[2]*x*x + c[3]*x*x*x;
+	}else if(r < IceRockBoundary){
+	    return SurfaceDensity[1];
+	}
+	return SurfaceDensity[0];
+    }
+
+    /** Surface density [g/cm^3] of the material */
+    public static double getSurfaceDensity(int materialNumber){
+	return SurfaceDensity[materialNumber];
+    }
+
+    /** The column depth calculator along the trajectory.
+	It is rebuilt when the material or the ice/rock boundary is changed. */
+    public ColumnDepthCalculator getColumnDepthCalculator( ){
+	if(columnDepthCalculator == null){
+	    columnDepthCalculator = new ColumnDepthCalculator(this);
+	}
+	return columnDepthCalculator;
+    }
+
     public double getIceRockBoundaryRadius( ){
 	return IceRockBoundary;
     }
     public void setIceRockBoundaryRadius(double r){
 	IceRockBoundary = r;
+	columnDepthCalculator = null;
     }
 
 
@@ -262,6 +297,7 @@ public class ParticlePoint implements Serializable {
     /** Sets material number to specify either Ice or standard Rock */
     public void setMaterialNumber(int MaterialNumber){
 	this.MaterialNumber = MaterialNumber;
+	columnDepthCalculator = null;
     }
 
     public int getMaterialNumber( ){
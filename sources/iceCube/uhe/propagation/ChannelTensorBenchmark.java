@@ -0,0 +1,117 @@
+package iceCube.uhe.propagation;
+
+import java.util.Random;
+
+/**
+<pre>
+   Benchmark of the ChannelTensorKernel backends. The channel tensors
+   are filled by random numbers so that no interaction matrix files are needed.
+   Each backend runs the in-place product of propagateDX( ) and
+   the product of propagateDXpowered( ) and reports GFLOP/s and
+   the largest relative deviation from the column kernel.
+
+   Usage: java --add-modules jdk.incubator.vector
+               iceCube.uhe.propagation.ChannelTensorBenchmark (dimension) (repeat)
+</pre>
+*/
+
+public class ChannelTensorBenchmark {
+
+    public static void main(String[] args){
+
+	int dimension = 700;
+	int repeat = 3;
+	if(args.length>=1) dimension = Integer.valueOf(args[0]).intValue();
+	if(args.length>=2) repeat = Integer.valueOf(args[1]).intValue();
+
+	int numberOfParticles = PropagationMatrix.NUMBER_OF_PARTICLES;
+	int[] propagatingParticles = PropagationMatrix.propagatingParticles;
+
+	TriangularMatrix[][] transfer = newTensor(dimension,new Random(1L));
+	TriangularMatrix[][] propagation = newTensor(dimension,new Random(2L));
+	double[][] survival = new double[numberOfParticles][dimension];
+	Random random = new Random(3L);
+	for(int n=0;n<propagatingParticles.length;n++){
+	    for(int jLogE=0;jLogE<dimension;jLogE++){
+		survival[propagatingParticles[n]][jLogE] = 1.0-0.01*random.nextDouble( );
+	    }
+	}
+	int[][] intermediates = new int[numberOfParticles][ ];
+	for(int b=0;b<numberOfParticles;b++) intermediates[b] = propagatingParticles;
+
+	double flops = ChannelTensorKernel.countFlops(intermediates,0,dimension);
+	System.out.println("dimension " + dimension + " : " + flops + " flops per product");
+
+	TriangularMatrix[][] referenceDX = null;
+	TriangularMatrix[][] referencePowered = null;
+	int[] backends = {ChannelTensorKernel.COLUMN_BACKEND,
+			  ChannelTensorKernel.ROW_BACKEND,
+			  ChannelTensorKernel.VECTOR_BACKEND};
+	for(int i=0;i<backends.length;i++){
+	    ChannelTensorKernel kernel = ChannelTensorKernel.getKernel(backends[i]);
+	    TriangularMatrix[][] resultDX = newTensor(dimension,null);
+	    TriangularMatrix[][] resultPowered = newTensor(dimension,null);
+	    long timeDX = Long.MAX_VALUE;
+	    long timePowered = Long.MAX_VALUE;
+	    for(int r=0;r<repeat;r++){
+		// propagateDX( ) - in place
+		PropagationMatrix.copyRows(propagation,resultDX,0,dimension);
+		long start = System.nanoTime( );
+		kernel.multiply(resultDX,transfer,resultDX,survival,intermediates,
+				resultDX,0,dimension);
+		timeDX = Math.min(timeDX,System.nanoTime( )-start);
+		// propagateDXpowered( )
+		start = System.nanoTime( );
+		kernel.multiply(propagation,propagation,propagation,null,intermediates,
+				resultPowered,0,dimension);
+		timePowered = Math.min(timePowered,System.nanoTime( )-start);
+	    }
+	    if(i==0){
+		referenceDX = resultDX;
+		referencePowered = resultPowered;
+	    }
+	    System.out.println(kernel.getName( ) +
+			       " DX: " + flops/(double )timeDX + " GFLOP/s" +
+			       " (deviation " + maxDeviation(referenceDX,resultDX) + ")" +
+			       " DXpowered: " + flops/(double )timePowered + " GFLOP/s" +
+			       " (deviation " + maxDeviation(referencePowered,resultPowered) + ")");
+	}
+    }
+
+    /** Channel tensor with the propagating rows filled by random numbers
+	or zeros when random is null. */
+    private static TriangularMatrix[][] newTensor(int dimension, Random random){
+	int numberOfParticles = PropagationMatrix.NUMBER_OF_PARTICLES;
+	int[] propagatingParticles = PropagationMatrix.propagatingParticles;
+	TriangularMatrix[][] tensor = new TriangularMatrix[numberOfParticles][ ];
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    tensor[a] = new TriangularMatrix[numberOfParticles];
+	    for(int b=0;b<numberOfParticles;b++){
+		tensor[a][b] = new TriangularMatrix(dimension);
+		if(random == null) continue;
+		double[] element = tensor[a][b].getElements( );
+		for(int ij=0;ij<element.length;ij++) element[ij] = 0.1*random.nextDouble( );
+	    }
+	}
+	return tensor;
+    }
+
+    /** The largest relative deviation of the elements. */
+    private static double maxDeviation(TriangularMatrix[][] reference, TriangularMatrix[][] tensor){
+	double deviation = 0.0;
+	int[] propagatingParticles = PropagationMatrix.propagatingParticles;
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    for(int b=0;b<PropagationMatrix.NUMBER_OF_PARTICLES;b++){
+		double[] x = reference[a][b].getElements( );
+		double[] y = tensor[a][b].getElements( );
+		for(int ij=0;ij<x.length;ij++){
+		    if(x[ij] == 0.0) continue;
+		    deviation = Math.max(deviation,Math.abs((y[ij]-x[ij])/x[ij]));
+		}
+	    }
+	}
+	return deviation;
+    }
+}
@@ -0,0 +1,92 @@
+package iceCube.uhe.propagation;
+
+/**
+<pre>
+   The backend of the block-triangular product of the channel tensors
+   in PropagationMatrix,
+
+   result(a,b) = sum_m left(a,m)right(m,b) + left(a,b)*survival(b) b: nuE,nuMu,nuTau,mu,tau
+   result(a,b) = sum_m left(a,m)right(m,b) + sink(a,b)             b: e,hadron
+
+   over the rows [iLogEmin,iLogEmax). See PropagationMatrix.multiplyChannelTensor( ).
+   The kernels are stateless so that one object can be shared
+   by all the threads running the rows.
+
+   COLUMN_BACKEND : dot product over kLogE for each element (iLogE,jLogE).
+                    It walks right(m,b) column-wise. The reference kernel.
+   ROW_BACKEND    : rows of right(m,b) are streamed and accumulated
+                    into the rows of result(a,b) by the blocks of iLogE rows.
+   VECTOR_BACKEND : ROW_BACKEND with the SIMD lanes of jdk.incubator.vector.
+                    Falls back to ROW_BACKEND when the module is not available.
+</pre>
+*/
+
+public abstract class ChannelTensorKernel {
+
+    public final static int COLUMN_BACKEND = 0;
+    public final static int ROW_BACKEND = 1;
+    public final static int VECTOR_BACKEND = 2;
+
+    private static String vectorKernelClassName =
+	"iceCube.uhe.propagation.VectorChannelTensorKernel";
+
+    /** Get the kernel of the given backend. */
+    public static ChannelTensorKernel getKernel(int backend){
+	switch(backend){
+	case COLUMN_BACKEND:
+	    return new ColumnChannelTensorKernel( );
+	case ROW_BACKEND:
+	    return new RowChannelTensorKernel( );
+	case VECTOR_BACKEND:
+	    // Loaded by name - the class can not be even linked
+	    // without --add-modules jdk.incubator.vector
+	    try{
+		Class<?> kernelClass = Class.forName(vectorKernelClassName);
+		return (ChannelTensorKernel )kernelClass.getDeclaredConstructor( ).newInstance( );
+	    }catch(Throwable e){
+		System.err.println("Vector API is not available (" + e +
+				   "). Use the row kernel instead.");
+		return new RowChannelTensorKernel( );
+	    }
+	default:
+	    System.err.println("Unknown kernel backend " + backend);
+	    return new ColumnChannelTensorKernel( );
+	}
+    }
+
+    /** Name of the kernel for the reports. */
+    public abstract String getName( );
+
+    /**
+	The product over the rows [iLogEmin,iLogEmax).
+	intermediates[b] lists the intermediate particles m of
+	the non-zero blocks right(m,b). The survival term is omitted
+	when survival is null. result can be the same tensor as left.
+	The element (iLogE,jLogE) is then updated in the order of the output
+	particle index, i.e. left(a,m) of m &lt; b has already been updated
+	at (iLogE,jLogE) when result(a,b) is calculated.
+    */
+    public abstract void multiply(TriangularMatrix[][] left,
+				  TriangularMatrix[][] right,
+				  TriangularMatrix[][] sink,
+				  double[][] survival,
+				  int[][] intermediates,
+				  TriangularMatrix[][] result,
+				  int iLogEmin, int iLogEmax);
+
+    /** Number of the floating-point operations (a multiplication and an addition
+	for each term) of the product over the rows [iLogEmin,iLogEmax). */
+    public static double countFlops(int[][] intermediates, int iLogEmin, int iLogEmax){
+	double numberOfBlocks = 0.0;
+	for(int b=0;b<intermediates.length;b++){
+	    numberOfBlocks += (double )intermediates[b].length;
+	}
+	numberOfBlocks *= (double )PropagationMatrix.propagatingParticles.length;
+	double termsPerBlock = 0.0;
+	for(int iLogE=iLogEmin;iLogE<iLogEmax;iLogE++){
+	    // sum over jLogE <= iLogE of (iLogE-jLogE+1)
+	    termsPerBlock += 0.5*(double )(iLogE+1)*(double )(iLogE+2);
+	}
+	return 2.0*numberOfBlocks*termsPerBlock;
+    }
+}
@@ -0,0 +1,59 @@
+package iceCube.uhe.propagation;
+
+/**
+<pre>
+   The channel tensor product by the dot product over kLogE
+   for each element (iLogE,jLogE). The column jLogE of right(m,b) is
+   not contiguous in the packed array, so this kernel is bound
+   by the memory access rather than the arithmetic. It is kept as
+   the reference of the other backends.
+</pre>
+*/
+
+public class ColumnChannelTensorKernel extends ChannelTensorKernel {
+
+    public String getName( ){
+	return "column";
+    }
+
+    public void multiply(TriangularMatrix[][] left,
+			 TriangularMatrix[][] right,
+			 TriangularMatrix[][] sink,
+			 double[][] survival,
+			 int[][] intermediates,
+			 TriangularMatrix[][] result,
+			 int iLogEmin, int iLogEmax){
+	int[] propagatingParticles = PropagationMatrix.propagatingParticles;
+	boolean[] isSink = PropagationMatrix.isSink;
+	int ik,kj; // packed indices of (iLogE,kLogE) and (kLogE,jLogE)
+	int iLogE,jLogE,kLogE;
+	for(iLogE=iLogEmin;iLogE<iLogEmax;iLogE++){
+	    int rowOffset = TriangularMatrix.rowOffset(iLogE);
+	    for(jLogE=0;jLogE<=iLogE;jLogE++){
+		int ij = rowOffset+jLogE;
+		for(int b=0;b<PropagationMatrix.NUMBER_OF_PARTICLES;b++){
+		    int[] intermediate = intermediates[b];
+		    for(int n=0;n<propagatingParticles.length;n++){
+			int a = propagatingParticles[n];
+			double dN = 0.0;
+			for(int l=0;l<intermediate.length;l++){
+			    int m = intermediate[l];
+			    double[] fromA = left[a][m].element;
+			    double[] toB = right[m][b].element;
+			    for(kLogE=iLogE,ik=rowOffset+iLogE,kj=rowOffset+jLogE;
+				kLogE>=jLogE;ik--,kj-=kLogE,kLogE--){
+				dN += fromA[ik]*toB[kj];
+			    }
+			}
+			if(isSink[b]){
+			    dN += sink[a][b].element[ij];
+			}else if(survival != null){
+			    dN += left[a][b].element[ij]*survival[b][jLogE];
+			}
+			result[a][b].element[ij] = dN;
+		    }
+		}
+	    }
+	}
+    }
+}
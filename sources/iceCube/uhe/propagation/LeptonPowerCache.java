@@ -0,0 +1,315 @@
+package iceCube.uhe.propagation;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+<pre>
+   Cache of the successive powers of the charged lepton propagation matrix
+   (mu to mu, mu to tau, tau to mu, tau to tau) used by NeutrinoQuickPropagator.
+   The k-th power of the step matrix is the same for every angle and every call
+   as long as the propagation starts from the same state, so it is calculated
+   once and read back by the later propagations.
+
+   A sequence of the powers is identified by the key given by the caller,
+   which names the material, the step matrix and the steps taken before.
+   NeutrinoQuickPropagator builds it from the material, the step size [g/cm^2],
+   and the canonical path, the size and the modification time of the matrix files,
+   so that a spill file is not reused for a regenerated matrix file.
+   The key is stored in the header of the spill file and compared
+   when the file is reopened; a file of another key is never read.
+   The powers of a key are always held from the 1st power up to getHighestPower(key)
+   without any gap, so that the propagation can take them one by one and
+   calculate only the powers beyond.
+
+   The number of the powers resident in memory is bounded. The least recently used
+   ones are dropped beyond the bound, but not the lower powers of the key being extended;
+   its higher powers are just not stored then. With the spill directory, every power is also
+   written to the file of its key mapped into memory, so the dropped powers are read back
+   from the mapping and the files are reused by the later runs sharing the directory.
+   Only one process should write to a spill directory at a time.
+
+   Spill file format (little endian)
+
+     byte[8]            "JULIETLP"
+     int                version (1)
+     int                dimension
+     int                length of the key in bytes
+     byte[]             the key in UTF-8, padded to the multiple of 8 bytes
+     long               number of the powers stored
+     double[]           the packed elements of the 4 channels of the 1st, 2nd, ... power
+</pre>
+*/
+
+public class LeptonPowerCache {
+
+    public final static int VERSION = 1;
+    private final static byte[] MAGIC = {'J','U','L','I','E','T','L','P'};
+
+    /** Number of the channels: mu to mu, mu to tau, tau to mu, tau to tau. */
+    public final static int NUMBER_OF_CHANNELS = 4;
+
+    private int maximumResidentPowers;
+    private File directory = null;
+    private LinkedHashMap<String,Power> resident;
+    /** The sequence lost its powers by the last insertion to the memory. */
+    private Sequence truncated = null;
+    private HashMap<String,Sequence> sequences = new HashMap<String,Sequence>( );
+
+    private int numberOfHits = 0;
+    private int numberOfSpillReads = 0;
+    private int numberOfPowersStored = 0;
+
+    /** The powers of a key. */
+    private static class Sequence {
+	String key;
+	int dimension;
+	int highest = 0;
+	RandomAccessFile file = null;
+	FileChannel channel = null;
+	long dataOffset;
+    }
+
+    /** A power held in memory. */
+    private static class Power {
+	Sequence sequence;
+	int power;
+	double[] block;
+	Power(Sequence sequence, int power, double[] block){
+	    this.sequence = sequence;
+	    this.power = power;
+	    this.block = block;
+	}
+    }
+
+    /** Constructor. Cache in memory only with at most maximumResidentPowers powers. */
+    public LeptonPowerCache(int maximumResidentPowers){
+	this.maximumResidentPowers = maximumResidentPowers;
+	resident = new LinkedHashMap<String,Power>(16,0.75f,true){
+	    protected boolean removeEldestEntry(Map.Entry<String,Power> eldest){
+		if(size( )<=LeptonPowerCache.this.maximumResidentPowers) return false;
+		Power dropped = eldest.getValue( );
+		if(dropped.sequence.channel == null){ // lost. keep the powers without gap
+		    if(dropped.sequence.highest>=dropped.power){
+			dropped.sequence.highest = dropped.power-1;
+		    }
+		    truncated = dropped.sequence;
+		}
+		return true;
+	    }
+	};
+    }
+
+    /** Constructor. The powers are also spilled to the files in the directory,
+	which is created if it does not exist. */
+    public LeptonPowerCache(int maximumResidentPowers, String spillDirectory)
+	throws IOException {
+	this(maximumResidentPowers);
+	directory = new File(spillDirectory);
+	if(!directory.isDirectory( ) && !directory.mkdirs( )){
+	    throw new IOException("Can not create the cache directory " + spillDirectory);
+	}
+    }
+
+    /** The highest power of the key available without gap from the 1st power. */
+    public int getHighestPower(String key, int dimension) throws IOException {
+	return getSequence(key,dimension).highest;
+    }
+
+    /**
+	Copy the power of the key to lepton[ ] in the order of
+	mu to mu, mu to tau, tau to mu, tau to tau. Returns false
+	if the power is not in the cache.
+    */
+    public boolean get(String key, int power, TriangularMatrix[] lepton) throws IOException {
+	Sequence sequence = getSequence(key,lepton[0].getDimension( ));
+	if(power<1 || power>sequence.highest) return false;
+
+	double[] block;
+	Power held = resident.get(getResidentKey(key,power));
+	if(held != null){
+	    block = held.block;
+	}else if(sequence.channel != null){
+	    block = readBlock(sequence,power);
+	    numberOfSpillReads++;
+	    resident.put(getResidentKey(key,power),new Power(sequence,power,block));
+	}else{
+	    return false;
+	}
+
+	int size = TriangularMatrix.size(sequence.dimension);
+	for(int c=0;c<NUMBER_OF_CHANNELS;c++){
+	    System.arraycopy(block,c*size,lepton[c].element,0,size);
+	}
+	numberOfHits++;
+	return true;
+    }
+
+    /**
+	Store the power of the key from lepton[ ] in the order of
+	mu to mu, mu to tau, tau to mu, tau to tau. Only the power next to
+	the highest one is stored so that there is no gap.
+    */
+    public void put(String key, int power, TriangularMatrix[] lepton) throws IOException {
+	Sequence sequence = getSequence(key,lepton[0].getDimension( ));
+	if(power != sequence.highest+1) return;
+	if(sequence.channel == null && resident.size( )>=maximumResidentPowers){
+	    // The memory is full. Do not push out the lower powers of the same key
+	    // which are needed to reach this power.
+	    if(maximumResidentPowers<1) return;
+	    Power eldest = resident.values( ).iterator( ).next( );
+	    if(eldest.sequence == sequence) return;
+	}
+
+	int size = TriangularMatrix.size(sequence.dimension);
+	double[] block = new double[NUMBER_OF_CHANNELS*size];
+	for(int c=0;c<NUMBER_OF_CHANNELS;c++){
+	    System.arraycopy(lepton[c].element,0,block,c*size,size);
+	}
+	if(sequence.channel != null) writeBlock(sequence,power,block);
+	sequence.highest = power;
+	numberOfPowersStored++;
+	resident.put(getResidentKey(key,power),new Power(sequence,power,block));
+
+	// The powers above the one lost can not be used any more
+	if(truncated != null){
+	    Iterator<Power> iterator = resident.values( ).iterator( );
+	    while(iterator.hasNext( )){
+		Power held = iterator.next( );
+		if(held.sequence == truncated && held.power>truncated.highest) iterator.remove( );
+	    }
+	    truncated = null;
+	}
+    }
+
+    /** Number of the powers found in the cache so far. */
+    public int getNumberOfHits( ){
+	return numberOfHits;
+    }
+
+    /** Number of the powers read back from the spill files so far. */
+    public int getNumberOfSpillReads( ){
+	return numberOfSpillReads;
+    }
+
+    /** Number of the powers stored so far. */
+    public int getNumberOfPowersStored( ){
+	return numberOfPowersStored;
+    }
+
+    /** Number of the powers resident in memory. */
+    public int getNumberOfResidentPowers( ){
+	return resident.size( );
+    }
+
+    /** Close the spill files. The cache can not be used afterwards. */
+    public void close( ) throws IOException {
+	for(Sequence sequence : sequences.values( )){
+	    if(sequence.file != null) sequence.file.close( );
+	}
+	sequences.clear( );
+	resident.clear( );
+    }
+
+    private static String getResidentKey(String key, int power){
+	return key + "#" + power;
+    }
+
+    private Sequence getSequence(String key, int dimension) throws IOException {
+	Sequence sequence = sequences.get(key);
+	if(sequence != null){
+	    if(sequence.dimension != dimension){
+		throw new IOException("Dimension mismatch in the lepton power cache of " + key);
+	    }
+	    return sequence;
+	}
+	sequence = new Sequence( );
+	sequence.key = key;
+	sequence.dimension = dimension;
+	if(directory != null) openSpillFile(sequence);
+	sequences.put(key,sequence);
+	return sequence;
+    }
+
+    /** Open the spill file of the key, or create it. The file names are
+	the hash of the key, and the next one is tried on the collision. */
+    private void openSpillFile(Sequence sequence) throws IOException {
+	byte[] key = sequence.key.getBytes("UTF-8");
+	int headerSize = MAGIC.length+12+((key.length+7)/8)*8+8;
+	long blockSize = 8L*(long )(NUMBER_OF_CHANNELS*TriangularMatrix.size(sequence.dimension));
+	for(int n=0;;n++){
+	    File file = new File(directory,"leptonPower_" +
+				 Integer.toHexString(sequence.key.hashCode( )) + "_" + n + ".lpc");
+	    boolean exists = file.exists( );
+	    RandomAccessFile randomFile = new RandomAccessFile(file,"rw");
+	    FileChannel channel = randomFile.getChannel( );
+	    ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+	    if(exists && channel.size( )>=headerSize){
+		while(header.hasRemaining( ) && channel.read(header,header.position( ))>=0);
+		header.flip( );
+		boolean match = true;
+		for(int i=0;i<MAGIC.length;i++) if(header.get( ) != MAGIC[i]) match = false;
+		match = match && header.getInt( ) == VERSION && header.getInt( ) == sequence.dimension &&
+		    header.getInt( ) == key.length;
+		for(int i=0;match && i<key.length;i++) if(header.get( ) != key[i]) match = false;
+		if(!match){
+		    randomFile.close( );
+		    continue;
+		}
+		header.position(headerSize-8);
+		long stored = header.getLong( );
+		long complete = (channel.size( )-headerSize)/blockSize; // a power half-written is lost
+		sequence.highest = (int )Math.min(stored,complete);
+	    }else if(exists && channel.size( )>0){
+		randomFile.close( );
+		continue;
+	    }else{
+		header.put(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(sequence.dimension);
+		header.putInt(key.length);
+		header.put(key);
+		header.position(headerSize-8);
+		header.putLong(0L);
+		header.flip( );
+		while(header.hasRemaining( )) channel.write(header,header.position( ));
+		sequence.highest = 0;
+	    }
+	    sequence.file = randomFile;
+	    sequence.channel = channel;
+	    sequence.dataOffset = headerSize;
+	    return;
+	}
+    }
+
+    private long getBlockOffset(Sequence sequence, int power){
+	long blockSize = 8L*(long )(NUMBER_OF_CHANNELS*TriangularMatrix.size(sequence.dimension));
+	return sequence.dataOffset+(long )(power-1)*blockSize;
+    }
+
+    private double[] readBlock(Sequence sequence, int power) throws IOException {
+	double[] block = new double[NUMBER_OF_CHANNELS*TriangularMatrix.size(sequence.dimension)];
+	MappedByteBuffer buffer =
+	    sequence.channel.map(FileChannel.MapMode.READ_ONLY,getBlockOffset(sequence,power),
+				 8L*(long )block.length);
+	buffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer( ).get(block);
+	return block;
+    }
+
+    private void writeBlock(Sequence sequence, int power, double[] block) throws IOException {
+	MappedByteBuffer buffer =
+	    sequence.channel.map(FileChannel.MapMode.READ_WRITE,getBlockOffset(sequence,power),
+				 8L*(long )block.length);
+	buffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer( ).put(block);
+	buffer.force( );
+	// The number of the powers is updated after the power itself is written
+	ByteBuffer count = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+	count.putLong((long )power);
+	count.flip( );
+	while(count.hasRemaining( )){
+	    sequence.channel.write(count,sequence.dataOffset-8+count.position( ));
+	}
+    }
+}
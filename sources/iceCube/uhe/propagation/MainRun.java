@@ -46,9 +46,9 @@ public class MainRun {
 		new RunPropagationMatrix(nadirAngle,intSwitch,decaySwitch,mediumNumber);
 
 	    if(args.length==5){
-		run.traceParticles( );
+		run.traceParticlesWithCache( );
 	    } else{
-		run.traceParticles(trajectoryLength);
+		run.traceParticlesWithCache(trajectoryLength);
 	    }
 
 	}else if(upDownFlag == 0){
@@ -69,9 +69,9 @@ public class MainRun {
 		trajectoryLength = sq_term - (ParticlePoint.REarth-detectorDepth)*cos_zenith;
 		System.err.println("Zenith " + zenithAngle + " Nadir " + nadirAngle + 
 				   " Trajectory " + trajectoryLength/100.0 + " [m]");
-		run.traceParticles(trajectoryLength);
+		run.traceParticlesWithCache(trajectoryLength);
 	    } else{
-		run.traceParticles(trajectoryLength);
+		run.traceParticlesWithCache(trajectoryLength);
 	    }
 
 	}
@@ -37,7 +37,7 @@ public class MainRun2 {
 
 	run = new RunPropagationMatrix(nadirAngle,intSwitch,decaySwitch,mediumNumber);
 	    
-	run.traceParticles(trajectoryLength);
+	run.traceParticlesWithCache(trajectoryLength);
 
 	// Write out produced matrix
 	DataOutputStream out = new DataOutputStream(new FileOutputStream(fileName));
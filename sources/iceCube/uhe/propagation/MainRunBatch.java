@@ -0,0 +1,156 @@
+package iceCube.uhe.propagation;
+
+import iceCube.uhe.points.*;
+import java.io.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+<pre>
+   Batch driver of the propagation matrices for many angles in one JVM.
+   The same as running MainRun for each angle, but the InteractionsMatrix
+   and the DecayMatrix objects are read once and shared by all the angles,
+   and the angles run concurrently on a work-stealing ForkJoinPool.
+
+   Usage: MainRunBatch intSwitch decaySwitch upDownFlag numberOfThreads directory angle1 angle2 ...
+
+   angle is the nadir angle [deg] for the up-going (upDownFlag = 1, rock)
+   and the zenith angle [deg] for the down-going (upDownFlag = 0, ice) propagation
+   as in MainRun. The matrix of each angle is written to
+   directory/(angle)Deg.data with the period of the angle replaced by "_",
+   e.g. 18.19 to 18_19Deg.data.
+
+   Each angle in progress keeps its own propagation matrices
+   (about 300 MB for the dimension 700), so numberOfThreads is limited
+   by the heap. -Dpropagation.cache=(directory) is honored as in MainRun.
+</pre>
+*/
+
+public class MainRunBatch {
+
+    private static double detectorDepth = 1.4e5;  // Detector Depth.. 1400m = 1.4e5 cm below sea level
+
+    private String directory;
+    private String[] angleNames;
+    private double[] nadirAngle;
+    private double[] trajectoryLength;
+    private int mediumNumber;
+    private RunPropagationMatrix sharedRun = null;
+    /** The step sizes of sharedRun before any angle runs. sharedRun changes
+	its step size while it propagates a layer, so the angles are not
+	made from its step sizes in play. */
+    private double[] stepParameters;
+    private AtomicInteger numberOfAnglesDone = new AtomicInteger(0);
+
+    /** 
+	<pre>
+	Constructor. Read the interaction matrices by the run of the first angle.
+
+	String[] angleNames : the angles [deg] as given in the arguments
+	int upDownFlag      : 1 for up-going (rock) 0 for down-going (ice)
+	</pre>
+    */
+    public MainRunBatch(String[] angleNames, int intSwitch, int decaySwitch,
+			int upDownFlag, String directory) throws IOException {
+	this.angleNames = angleNames;
+	this.directory = directory;
+	int numberOfAngles = angleNames.length;
+	nadirAngle = new double[numberOfAngles];
+	trajectoryLength = new double[numberOfAngles];
+
+	if(upDownFlag == 1){
+	    mediumNumber = 1; //Rock
+	    for(int i=0;i<numberOfAngles;i++){
+		nadirAngle[i] = Double.valueOf(angleNames[i]).doubleValue();
+		trajectoryLength[i] = 2.0*ParticlePoint.REarth*Math.cos(nadirAngle[i]*Math.PI/180.0);
+	    }
+	}else{
+	    mediumNumber = 0; //ice
+	    for(int i=0;i<numberOfAngles;i++){
+		double zenithAngle = Double.valueOf(angleNames[i]).doubleValue();
+		double cos_zenith = Math.cos(zenithAngle*Math.PI/180.0);
+		double sq_term = Math.sqrt((ParticlePoint.REarth-detectorDepth)*(ParticlePoint.REarth-detectorDepth)
+					   *cos_zenith*cos_zenith + 
+					   2.0*ParticlePoint.REarth*detectorDepth-detectorDepth*detectorDepth);
+		double cos_nadir = sq_term/ParticlePoint.REarth;
+		nadirAngle[i] = Math.acos(cos_nadir)*180.0/Math.PI;
+		trajectoryLength[i] = sq_term - (ParticlePoint.REarth-detectorDepth)*cos_zenith;
+	    }
+	}
+
+	// Longer trajectories first so that the short ones fill the gaps at the end
+	sortByTrajectoryLength( );
+
+	sharedRun = new RunPropagationMatrix(nadirAngle[0],intSwitch,decaySwitch,mediumNumber);
+	String cacheDirectory = System.getProperty(RunPropagationMatrix.CACHE_PROPERTY);
+	if(cacheDirectory != null) sharedRun.setCache(new PropagationMatrixCache(cacheDirectory));
+	stepParameters = sharedRun.propMtx.getStepParameters( );
+    }
+
+    private void sortByTrajectoryLength( ){
+	for(int i=1;i<angleNames.length;i++){
+	    for(int j=i;j>0 && trajectoryLength[j]>trajectoryLength[j-1];j--){
+		String name = angleNames[j]; angleNames[j] = angleNames[j-1]; angleNames[j-1] = name;
+		double nadir = nadirAngle[j]; nadirAngle[j] = nadirAngle[j-1]; nadirAngle[j-1] = nadir;
+		double length = trajectoryLength[j]; 
+		trajectoryLength[j] = trajectoryLength[j-1]; trajectoryLength[j-1] = length;
+	    }
+	}
+    }
+
+    /** Run all the angles by the given number of threads. */
+    public void runAll(int numberOfThreads){
+	ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+	pool.invoke(new PropagationAngleTask(this,0,angleNames.length));
+	pool.shutdown( );
+    }
+
+    /** Propagate the particles for the i-th angle and write out the matrix. */
+    void runAngle(int i) throws IOException {
+	long start = System.currentTimeMillis( );
+	System.err.println("Angle " + angleNames[i] + " [deg] (nadir " + nadirAngle[i] + 
+			   " [deg]) started in " + Thread.currentThread( ).getName( ));
+
+	RunPropagationMatrix run = sharedRun;
+	if(i>0) run = new RunPropagationMatrix(sharedRun,nadirAngle[i],mediumNumber,stepParameters);
+	else run.propMtx.setStepParameters(stepParameters);
+	run.traceParticlesWithCache(trajectoryLength[i]);
+
+	// Write out produced matrix
+	String fileName = directory + File.separator + angleNames[i].replace('.','_') + "Deg.data";
+	DataOutputStream out = 
+	    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)));
+	run.saveMatrix(out);
+	out.close( );
+
+	int done = numberOfAnglesDone.incrementAndGet( );
+	System.err.println("Angle " + angleNames[i] + " [deg] done in " + 
+			   (double )(System.currentTimeMillis( )-start)/1000.0 + " [sec] -> " + 
+			   fileName + " (" + done + "/" + angleNames.length + ")");
+    }
+
+    public static void main(String[] args) throws IOException {
+
+	if(args.length<6){
+	    System.out.println(
+"Usage: MainRunBatch intSwitch decaySwitch upDownFlag numberOfThreads directory angle1 angle2 ...");
+	    System.exit(0);
+	}
+	int intSwitch = Integer.valueOf(args[0]).intValue();
+	int decaySwitch = Integer.valueOf(args[1]).intValue();
+	int upDownFlag = Integer.valueOf(args[2]).intValue();
+	int numberOfThreads = Integer.valueOf(args[3]).intValue();
+	String directory = args[4];
+	String[] angleNames = new String[args.length-5];
+	for(int i=0;i<angleNames.length;i++) angleNames[i] = args[i+5];
+
+	if(upDownFlag == 1){
+	    System.err.println("Up-going propagation of " + angleNames.length + " angles");
+	}else{
+	    System.err.println("Down-going propagation of " + angleNames.length + " angles");
+	}
+	MainRunBatch batch = 
+	    new MainRunBatch(angleNames,intSwitch,decaySwitch,upDownFlag,directory);
+	batch.runAll(numberOfThreads);
+    }
+}
@@ -45,10 +45,9 @@ public class MakePropMtxTableByFactory {
 	System.err.println("input matrix file name " + propMtxFileName);
 
 	// PropagatingMatrixFactory object
-	PropagationMatrixFactory matrix = new PropagationMatrixFactory();
-	DataInputStream in = 
-	    new DataInputStream(new FileInputStream(propMtxFileName));
-	matrix.readMatrix(in);
+	// Only the three channels (nu-e,nu-mu,nu-tau to inice particle) are read
+	PropagationMatrixFactory matrix = new PropagationMatrixFactory(3);
+	matrix.readMatrix(propMtxFileName);
 
 
 	//
@@ -68,18 +68,27 @@ public class NeutrinoQuickPropagator {
     protected ParticlePoint s = null;
     /** The Propagation Matrix elements from mu/tau to muon - 
 	the neutrino interaction vertex to the end */
-    double[][] FmuToMu,FtauToMu;
+    TriangularMatrix FmuToMu,FtauToMu;
     /** The Propagation Matrix elements from mu/tau to tau - 
 	the neutrino interaction vertex to the end */
-    double[][] FmuToTau,FtauToTau;
+    TriangularMatrix FmuToTau,FtauToTau;
     /** The Propagation Matrix elements from neutrino to the charged lepton
 	the start point to the end */
-    double[][] FnuEToMu,FnuEToTau,FnuMuToMu,FnuTauToMu,FnuMuToTau,FnuTauToTau;
+    TriangularMatrix FnuEToMu,FnuEToTau,FnuMuToMu,FnuTauToMu,FnuMuToTau,FnuTauToTau;
     /** The Propgation Matrix elements from neutrino to neutrino
 	the start point to the end */
     double[] FnuToNu,FnuEToNuE;
     private boolean hasPropagated = false;
 
+    /** The cache of the lepton propagation matrix powers. null if not used. */
+    protected LeptonPowerCache leptonPowerCache = null;
+    /** The identity of the propagation matrix file read last
+	(see getMatrixFileIdentity( )). null if it is unknown. */
+    private String matrixIdentity = null;
+    /** The steps the charged leptons have taken since initLeptonMatrix( ),
+	which names the powers in the cache. */
+    private String leptonPowerKey = "";
+
 
     /** The default neutrino matrix charged current interaction 
 	to generate the charged lepton */
@@ -117,16 +126,16 @@ public class NeutrinoQuickPropagator {
 
     /** Allocate memory for the propagation matrix array */
     private void generatePropagationMatrixArray(){
-        FmuToMu= new double[dimension][dimension];
-        FmuToTau= new double[dimension][dimension];
-        FtauToMu= new double[dimension][dimension];
-        FtauToTau= new double[dimension][dimension];
-        FnuEToMu= new double[dimension][dimension];
-        FnuEToTau= new double[dimension][dimension];
-        FnuMuToMu= new double[dimension][dimension];
-        FnuMuToTau= new double[dimension][dimension];
-        FnuTauToMu= new double[dimension][dimension];
-        FnuTauToTau= new double[dimension][dimension];
+        FmuToMu= new TriangularMatrix(dimension);
+        FmuToTau= new TriangularMatrix(dimension);
+        FtauToMu= new TriangularMatrix(dimension);
+        FtauToTau= new TriangularMatrix(dimension);
+        FnuEToMu= new TriangularMatrix(dimension);
+        FnuEToTau= new TriangularMatrix(dimension);
+        FnuMuToMu= new TriangularMatrix(dimension);
+        FnuMuToTau= new TriangularMatrix(dimension);
+        FnuTauToMu= new TriangularMatrix(dimension);
+        FnuTauToTau= new TriangularMatrix(dimension);
 
 	FnuToNu = new double[dimension];
 	FnuEToNuE = new double[dimension];
@@ -157,26 +166,40 @@ public class NeutrinoQuickPropagator {
     public void readMatrix(DataInputStream in) throws IOException {
 	matrix.readMatrix(in);
 	matrixHasBeenRead = true;
+	matrixIdentity = null;
+    }
+
+    /** Read the propagation matrix file by mapping it into memory.
+	See PropagationMatrixFile. */
+    public void readMatrix(String fileName) throws IOException {
+	matrix.readMatrix(fileName);
+	matrixHasBeenRead = true;
+	matrixIdentity = getMatrixFileIdentity(fileName);
+    }
+
+    /** 
+	Use the cache of the charged lepton propagation matrix powers.
+	The powers calculated by propagateNeutrinoToLepton( ) and 
+	propagateNeutrinoToIceCubeDepth(double[] angles, ..) are stored
+	in the cache and read back by the later propagations
+	starting from the same steps. null not to use the cache.
+    */
+    public void setLeptonPowerCache(LeptonPowerCache cache){
+	leptonPowerCache = cache;
+    }
+
+    public LeptonPowerCache getLeptonPowerCache( ){
+	return leptonPowerCache;
     }
 
     /** initialized the propagation matrix elements */
     protected void initLeptonMatrix(){
 	// Initialization
-	int iLogE;
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    int jLogE;
-	    for(jLogE=0;jLogE<dimension;jLogE++){
-		FmuToMu[iLogE][jLogE] = 0.0;
-		FmuToTau[iLogE][jLogE] = 0.0;
-		FtauToMu[iLogE][jLogE] = 0.0;
-		FtauToTau[iLogE][jLogE] = 0.0;
-	    }
-	}
-
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    FmuToMu[iLogE][iLogE] = 1.0;
-	    FtauToTau[iLogE][iLogE] = 1.0;
-	}
+	FmuToMu.setIdentity( );
+	FmuToTau.clear( );
+	FtauToMu.clear( );
+	FtauToTau.setIdentity( );
+	leptonPowerKey = "";
     }
 
     /** initialized the propagation matrix elements */
@@ -184,18 +207,15 @@ public class NeutrinoQuickPropagator {
 	// Initialization
 	int iLogE;
 	for(iLogE=0;iLogE<dimension;iLogE++){
-	    int jLogE;
 	    FnuToNu[iLogE] = 0.0;
 	    FnuEToNuE[iLogE] = 0.0;
-	    for(jLogE=0;jLogE<dimension;jLogE++){
-		FnuEToMu[iLogE][jLogE] = 0.0; 
-		FnuEToTau[iLogE][jLogE] = 0.0;
-		FnuMuToMu[iLogE][jLogE] = 0.0;
-		FnuMuToTau[iLogE][jLogE] = 0.0;
-		FnuTauToMu[iLogE][jLogE] = 0.0;
-		FnuTauToTau[iLogE][jLogE] = 0.0;
-	    }
 	}
+	FnuEToMu.clear( ); 
+	FnuEToTau.clear( );
+	FnuMuToMu.clear( );
+	FnuMuToTau.clear( );
+	FnuTauToMu.clear( );
+	FnuTauToTau.clear( );
 	hasPropagated = false;
     }
 
@@ -256,9 +276,10 @@ public class NeutrinoQuickPropagator {
 	int numberOfSteps = (int )((totalPropagationLength)/deltaX + 0.01);
 	System.err.println("Following the neutrino propagation by " + numberOfSteps +
 			   " times steps");
+	String key = getLeptonPowerKey(matrixIdentity,deltaX);
 	for(int times =1;times<=numberOfSteps;times++){
 	    System.err.println(" " + times + " th step");
-	    propagateChargedLepton(); // Propagate the charged lepton
+	    propagateChargedLepton(matrix,key,times); // Propagate the charged lepton
 	    System.err.println(" Charged Lepton Propagated");
 	    calculateNeutrinoToLeptonTransfer(slantDepth,deltaX);
 	    System.err.println(" Propagated Neutrino at depth " + slantDepth +
@@ -266,6 +287,7 @@ public class NeutrinoQuickPropagator {
 	    slantDepth -= deltaX;
 	}
 	System.err.println("done");
+	addLeptonPowerKey(matrixIdentity,deltaX,numberOfSteps);
 
 	hasPropagated = true;
     }
@@ -303,9 +325,9 @@ public class NeutrinoQuickPropagator {
 			 0.5*grLeptonMtx.getLeptonTransferMatrix(iLogE,kLogE);
 		    double nuEToTau = nuEToMu;
 		    element += 
-			nuEToMu*FmuToMu[kLogE][jLogE]+nuEToTau*FtauToMu[kLogE][jLogE];
+			nuEToMu*FmuToMu.get(kLogE,jLogE)+nuEToTau*FtauToMu.get(kLogE,jLogE);
 		}
-		FnuEToMu[iLogE][jLogE] += element*deltaX;
+		FnuEToMu.add(iLogE,jLogE, element*deltaX);
 	    }
 
 
@@ -317,9 +339,9 @@ public class NeutrinoQuickPropagator {
 			nuCCMtx.getLeptonTransferMatrix(iLogE,kLogE)*
 			nuCCEnhancementFactor;
 		    element += 
-			nuMuToMu*FmuToMu[kLogE][jLogE];
+			nuMuToMu*FmuToMu.get(kLogE,jLogE);
 		}
-		FnuMuToMu[iLogE][jLogE] += element*deltaX;
+		FnuMuToMu.add(iLogE,jLogE, element*deltaX);
 	    }
 
 	    // nu-tau to muon
@@ -330,9 +352,9 @@ public class NeutrinoQuickPropagator {
 			nuCCMtx.getLeptonTransferMatrix(iLogE,kLogE)*
 			nuCCEnhancementFactor;
 		    element += 
-			nuTauToTau*FtauToMu[kLogE][jLogE];
+			nuTauToTau*FtauToMu.get(kLogE,jLogE);
 		}
-		FnuTauToMu[iLogE][jLogE] += element*deltaX;
+		FnuTauToMu.add(iLogE,jLogE, element*deltaX);
 	    }
 
 	    // nu-e to tau
@@ -343,9 +365,9 @@ public class NeutrinoQuickPropagator {
 			 0.5*grLeptonMtx.getLeptonTransferMatrix(iLogE,kLogE);
 		    double nuEToMu = nuEToTau;
 		    element += 
-			nuEToTau*FtauToTau[kLogE][jLogE]+nuEToMu*FmuToTau[kLogE][jLogE];
+			nuEToTau*FtauToTau.get(kLogE,jLogE)+nuEToMu*FmuToTau.get(kLogE,jLogE);
 		}
-		FnuEToTau[iLogE][jLogE] += element*deltaX;
+		FnuEToTau.add(iLogE,jLogE, element*deltaX);
 	    }
 
 
@@ -357,9 +379,9 @@ public class NeutrinoQuickPropagator {
 			nuCCMtx.getLeptonTransferMatrix(iLogE,kLogE)*
 			nuCCEnhancementFactor;
 		    element += 
-			nuMuToMu*FmuToTau[kLogE][jLogE];
+			nuMuToMu*FmuToTau.get(kLogE,jLogE);
 		}
-		FnuMuToTau[iLogE][jLogE] += element*deltaX;
+		FnuMuToTau.add(iLogE,jLogE, element*deltaX);
 	    }
 
 	    // nu-tau to tau
@@ -370,9 +392,9 @@ public class NeutrinoQuickPropagator {
 			nuCCMtx.getLeptonTransferMatrix(iLogE,kLogE)*
 			nuCCEnhancementFactor;
 		    element += 
-			nuTauToTau*FtauToTau[kLogE][jLogE];
+			nuTauToTau*FtauToTau.get(kLogE,jLogE);
 		}
-		FnuTauToTau[iLogE][jLogE] += element*deltaX;
+		FnuTauToTau.add(iLogE,jLogE, element*deltaX);
 	    }
 	}
     }
@@ -383,64 +405,152 @@ public class NeutrinoQuickPropagator {
         mu->mu, tau->mu, mu->tau and tau->tau 
     */
     protected void propagateChargedLepton(){
+	propagateChargedLepton(matrix);
+    }
+
+    /** 
+	propagate the charged leptons to the given power of the step matrix
+	of the given factory. The power is read from the cache if it has been calculated
+	with the key, and it is calculated from the power-1 held now otherwise.
+    */
+    protected void propagateChargedLepton(PropagationMatrixFactory stepMatrix,
+					  String key, int power){
+	if(key == null || leptonPowerCache == null){
+	    propagateChargedLepton(stepMatrix);
+	    return;
+	}
+	boolean propagated = false;
+	try{
+	    if(leptonPowerCache.get(key,power,getLeptonMatrix( ))) return;
+	    propagateChargedLepton(stepMatrix);
+	    propagated = true;
+	    leptonPowerCache.put(key,power,getLeptonMatrix( ));
+	}catch(IOException e){ // go on without the cache
+	    System.err.println("The lepton power cache failed " + e);
+	    leptonPowerCache = null;
+	    if(!propagated) propagateChargedLepton(stepMatrix);
+	}
+    }
+
+    /** The charged lepton propagation matrices in the order of the LeptonPowerCache */
+    private TriangularMatrix[] getLeptonMatrix( ){
+	TriangularMatrix[] lepton = {FmuToMu,FmuToTau,FtauToMu,FtauToTau};
+	return lepton;
+    }
+
+    /** The identity of the step matrix file in the keys of the lepton power cache:
+	the material, the canonical path, the size and the modification time of the file,
+	so that the powers of a matrix file regenerated at the same path, or of another
+	file at the same relative path, are not taken for those of this one. */
+    private String getMatrixFileIdentity(String fileName){
+	File file = new File(fileName);
+	String path;
+	try{
+	    path = file.getCanonicalPath( );
+	}catch(IOException e){
+	    path = file.getAbsolutePath( );
+	}
+	int materialNumber = (s != null) ? s.getMaterialNumber( ) : -1;
+	return "material " + materialNumber + " " + path + " size " + file.length( ) +
+	    " modified " + file.lastModified( );
+    }
+
+    /** The key of the powers of the step matrix of the step size [g/cm^2] after the steps
+	taken so far. null if the cache is not used or the file is unknown. */
+    private String getLeptonPowerKey(String stepMatrixIdentity, double stepSize){
+	if(leptonPowerCache == null || stepMatrixIdentity == null) return null;
+	if(leptonPowerKey == null) return null;
+	return leptonPowerKey + stepMatrixIdentity + " dX " + stepSize;
+    }
+
+    /** Record the steps taken by the step matrix. */
+    private void addLeptonPowerKey(String stepMatrixIdentity, double stepSize, int numberOfSteps){
+	if(numberOfSteps == 0) return;
+	if(leptonPowerKey == null || stepMatrixIdentity == null){
+	    leptonPowerKey = null; // unknown until initLeptonMatrix( )
+	    return;
+	}
+	leptonPowerKey = leptonPowerKey + stepMatrixIdentity + " dX " + stepSize +
+	    " x" + numberOfSteps + "|";
+    }
+
+    /** 
+	propagate the charged leptons by the propagation matrix of the given factory.
+	Only the channels among mu and tau are used, so the factory may be
+	in the lazy mode of PropagationMatrixFactory.
+    */
+    protected void propagateChargedLepton(PropagationMatrixFactory stepMatrix){
 
 	int iLogE,jLogE,kLogE;
+	int ik,kj; // packed indices of (iLogE,kLogE) and (kLogE,jLogE)
+	double[] stepMuToMu =
+	    stepMatrix.getChannel(PropagationMatrixFile.MU,PropagationMatrixFile.MU).element;
+	double[] stepMuToTau =
+	    stepMatrix.getChannel(PropagationMatrixFile.MU,PropagationMatrixFile.TAU).element;
+	double[] stepTauToMu =
+	    stepMatrix.getChannel(PropagationMatrixFile.TAU,PropagationMatrixFile.MU).element;
+	double[] stepTauToTau =
+	    stepMatrix.getChannel(PropagationMatrixFile.TAU,PropagationMatrixFile.TAU).element;
 
 	for(iLogE=0;iLogE<dimension;iLogE++){
 	    for(jLogE=0;jLogE<=iLogE;jLogE++){
 
 		// Mu to Mu
 		double elementMuToMu = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
+		for(kLogE=iLogE,ik=TriangularMatrix.rowOffset(iLogE)+iLogE,kj=TriangularMatrix.rowOffset(iLogE)+jLogE;
+		    kLogE>=jLogE;ik--,kj-=kLogE,kLogE--){
 		    elementMuToMu += 
 			// neglect
 			//FmuToNuE[iLogE][kLogE]*matrix.FnuEToMu[kLogE][jLogE]+
 			//FmuToNuMu[iLogE][kLogE]*matrix.FnuMuToMu[kLogE][jLogE]+
 			//FmuToNuTau[iLogE][kLogE]*matrix.FnuTauToMu[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*matrix.FmuToMu[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*matrix.FtauToMu[kLogE][jLogE];
+			FmuToMu.element[ik]*stepMuToMu[kj]+
+			FmuToTau.element[ik]*stepTauToMu[kj];
 		}
 
 		// Tau to Mu
 		double elementTauToMu = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
+		for(kLogE=iLogE,ik=TriangularMatrix.rowOffset(iLogE)+iLogE,kj=TriangularMatrix.rowOffset(iLogE)+jLogE;
+		    kLogE>=jLogE;ik--,kj-=kLogE,kLogE--){
 		    elementTauToMu += 
 			// neglect
 			//FtauToNuE[iLogE][kLogE]*matrix.FnuEToMu[kLogE][jLogE]+
 			//FtauToNuMu[iLogE][kLogE]*matrix.FnuMuToMu[kLogE][jLogE]+
 			//FtauToNuTau[iLogE][kLogE]*matrix.FnuTauToMu[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*matrix.FmuToMu[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*matrix.FtauToMu[kLogE][jLogE];
+			FtauToMu.element[ik]*stepMuToMu[kj]+
+			FtauToTau.element[ik]*stepTauToMu[kj];
 		}
 
 		// Mu to Tau
 		double elementMuToTau = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
+		for(kLogE=iLogE,ik=TriangularMatrix.rowOffset(iLogE)+iLogE,kj=TriangularMatrix.rowOffset(iLogE)+jLogE;
+		    kLogE>=jLogE;ik--,kj-=kLogE,kLogE--){
 		    elementMuToTau += 
 			// neglect
 			//FmuToNuE[iLogE][kLogE]*matrix.FnuEToTau[kLogE][jLogE]+
 			//FmuToNuMu[iLogE][kLogE]*matrix.FnuMuToTau[kLogE][jLogE]+
 			//FmuToNuTau[iLogE][kLogE]*matrix.FnuTauToTau[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*matrix.FmuToTau[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*matrix.FtauToTau[kLogE][jLogE];
+			FmuToMu.element[ik]*stepMuToTau[kj]+
+			FmuToTau.element[ik]*stepTauToTau[kj];
 		}
 
 		// Tau to Tau
 		double elementTauToTau = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
+		for(kLogE=iLogE,ik=TriangularMatrix.rowOffset(iLogE)+iLogE,kj=TriangularMatrix.rowOffset(iLogE)+jLogE;
+		    kLogE>=jLogE;ik--,kj-=kLogE,kLogE--){
 		    elementTauToTau += 
 			// neglect
 			//FtauToNuE[iLogE][kLogE]*matrix.FnuEToTau[kLogE][jLogE]+
 			//FtauToNuMu[iLogE][kLogE]*matrix.FnuMuToTau[kLogE][jLogE]+
 			//FtauToNuTau[iLogE][kLogE]*matrix.FnuTauToTau[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*matrix.FmuToTau[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*matrix.FtauToTau[kLogE][jLogE];
+			FtauToMu.element[ik]*stepMuToTau[kj]+
+			FtauToTau.element[ik]*stepTauToTau[kj];
 		}
 
-		FmuToMu[iLogE][jLogE] = elementMuToMu;
-		FtauToMu[iLogE][jLogE] = elementTauToMu;
-		FmuToTau[iLogE][jLogE] = elementMuToTau;
-		FtauToTau[iLogE][jLogE] = elementTauToTau;
+		FmuToMu.set(iLogE,jLogE, elementMuToMu);
+		FtauToMu.set(iLogE,jLogE, elementTauToMu);
+		FmuToTau.set(iLogE,jLogE, elementMuToTau);
+		FtauToTau.set(iLogE,jLogE, elementTauToTau);
 
 	    }
 	}
@@ -489,6 +599,42 @@ public class NeutrinoQuickPropagator {
 	    new DataInputStream(new FileInputStream(matrixFileName));
 	matrix.readMatrix(in);
 	matrixHasBeenRead = true;
+	matrixIdentity = getMatrixFileIdentity(matrixFileName);
+    }
+
+    /** The index of the coarsest step size used for the propagation depth [g/cm^2]
+	in the medium with the density [g/cm^3]. */
+    protected static int getStepIndex(double propagationDepth, double density){
+       	int stepIndex = 0;
+	for(int i=0;i<stepSizeBase.length;i++){
+	    stepIndex = i;
+	    if(propagationDepth > stepSizeBase[i]*density){
+		break;
+	    }
+	}
+	return stepIndex;
+    }
+
+    /** The charged lepton propagation length [g/cm^2] in each of stepSize
+	for the propagation depth [g/cm^2]. It is limited by distanceMaximum. */
+    protected static double[] getDistanceInEachStep(double propagationDepth, double density,
+						    int stepIndex){
+	double distanceToPropagate = propagationDepth;
+	double maximumDepth = distanceMaximum*density;
+
+	if(propagationDepth>maximumDepth){     // Bayond the maximum limit
+	    distanceToPropagate = maximumDepth;// of the mu/tau propagation length
+	}
+
+	double[]  distanceInThisStep = new double[stepSizeBase.length];
+	for(int i=stepIndex;i<stepSizeBase.length;i++){
+	    double stepSize = stepSizeBase[i]*density;
+	    distanceInThisStep[i] = stepSize*(double )
+		((int )(distanceToPropagate/stepSize+0.01));
+	    if(i != (stepSizeBase.length-1)) distanceInThisStep[i] -= stepSize;
+	    distanceToPropagate -= distanceInThisStep[i];
+	}
+	return distanceInThisStep;
     }
 
     /** Calculation of the neutrino propagation with the methods
@@ -506,38 +652,20 @@ public class NeutrinoQuickPropagator {
 	initLeptonMatrix();
 	initNeutrinoMatrix();
 
-       	int stepIndex = 0;
-	for(int i=0;i<stepSizeBase.length;i++){
-	    stepIndex = i;
-	    if(propagationDepth > stepSizeBase[i]*s.getMediumDensity()){
-		break;
-	    }
-	    
-	}
+       	int stepIndex = getStepIndex(propagationDepth,s.getMediumDensity());
 
 	// Transportation from Neutrino to Neutrino
 	propagateNeutrinoToNeutrino(propagationDepth,nuCCEnhancementFactor);
 
 	//
 	// Transportation from Neutrino to muon and taus
-	double distanceToPropagate = propagationDepth;
 	double maximumDepth = distanceMaximum*s.getMediumDensity();
 
-	if(propagationDepth>maximumDepth){     // Bayond the maximum limit
-	    distanceToPropagate = maximumDepth;// of the mu/tau propagation length
-	}
-
 	// calculate the charged lepton propagation length in each of stepSize
-	double[]  distanceInThisStep = new double[stepSizeBase.length];
-	for(int i=stepIndex;i<stepSizeBase.length;i++){
-	    double stepSize = stepSizeBase[i]*s.getMediumDensity();
-	    distanceInThisStep[i] = stepSize*(double )
-		((int )(distanceToPropagate/stepSize+0.01));
-	    if(i != (stepSizeBase.length-1)) distanceInThisStep[i] -= stepSize;
-	    distanceToPropagate -= distanceInThisStep[i];
-	}
+	double[]  distanceInThisStep = 
+	    getDistanceInEachStep(propagationDepth,s.getMediumDensity(),stepIndex);
 
-	distanceToPropagate = propagationDepth;
+	double distanceToPropagate = propagationDepth;
 	double distancePropagated = 0.0;
 	if(propagationDepth>maximumDepth){   // Bayond the maximum limit
 	    distancePropagated = propagationDepth-maximumDepth; 
@@ -578,6 +706,210 @@ public class NeutrinoQuickPropagator {
     public void propagateNeutrinoToIceCubeDepth(double nadirAngle,
 				  double nuCCEnhancementFactor)	throws IOException {
 
+	double slantDepth = getSlantDepthToIceCubeDepth(nadirAngle,s);
+
+	propagateNeutrino(slantDepth,nuCCEnhancementFactor);
+
+    }
+
+    /**
+	<pre>
+	Calculation of the neutrino propagation for many angles at once.
+	The result at each angle is the same as propagateNeutrinoToIceCubeDepth(nadirAngle, ..)
+	but the work shared by the angles is done only once:
+
+	(1) the interaction matrices and the propagation matrices of the step sizes
+	    are read once. The step matrices are read by the lazy mode
+	    of PropagationMatrixFactory holding only the mu/tau channels.
+	(2) the angles with the same charged lepton step schedule, i.e. all the angles
+	    with the propagation depth beyond distanceMaximum, share the powers
+	    of the lepton propagation matrix. At each step the neutrino to lepton
+	    transfer (the interaction matrix times the lepton matrix) is calculated once
+	    and added to each angle with its neutrino attenuation factor.
+
+	double[] nadirAngles : nadir (upgoing) or zenith (downgoing) angles [deg].
+	                       The material is the one of the ParticlePoint
+	                       registered to this object.
+	</pre>
+    */
+    public QuickPropagationTable propagateNeutrinoToIceCubeDepth(double[] nadirAngles,
+					double nuCCEnhancementFactor) throws IOException {
+
+	this.nuCCEnhancementFactor = nuCCEnhancementFactor;
+	generateNeutrinoInteractionMatrix();
+	QuickPropagationTable table = new QuickPropagationTable(nadirAngles);
+	int numberOfAngles = nadirAngles.length;
+
+	// Slant depths and the step schedules
+	double density = 0.0;
+	double[][] distanceInThisStep = new double[numberOfAngles][ ];
+	for(int a=0;a<numberOfAngles;a++){
+	    ParticlePoint point = 
+		new ParticlePoint(0.0,Math.toRadians(nadirAngles[a]),s.getMaterialNumber());
+	    point.setIceRockBoundaryRadius(s.getIceRockBoundaryRadius( ));
+	    table.setSlantDepth(a,getSlantDepthToIceCubeDepth(nadirAngles[a],point));
+	    density = point.getMediumDensity( ); // at the surface
+	    double depth = table.getSlantDepth(a);
+	    distanceInThisStep[a] = 
+		getDistanceInEachStep(depth,density,getStepIndex(depth,density));
+	}
+
+	// Cross sections
+	double[] sigmaCC = new double[dimension];
+	double[] sigmaNuE = new double[dimension];
+	for(int iLogE=0;iLogE<dimension;iLogE++){
+	    sigmaCC[iLogE] = nuCCMtx.getSigmaMatrix(iLogE)*nuCCEnhancementFactor;
+	    sigmaNuE[iLogE] = sigmaCC[iLogE]+
+		0.5*(3.0*grLeptonMtx.getSigmaMatrix(iLogE)+grHadronMtx.getSigmaMatrix(iLogE));
+	}
+
+	// Neutrino to neutrino
+	for(int a=0;a<numberOfAngles;a++){
+	    for(int iLogE=0;iLogE<dimension;iLogE++){
+		table.neutrinoToNeutrino[a][iLogE] = 
+		    Math.exp(-ParticlePoint.NA*sigmaCC[iLogE]*table.getSlantDepth(a));
+		table.nuEToNuE[a][iLogE] = 
+		    Math.exp(-ParticlePoint.NA*sigmaNuE[iLogE]*table.getSlantDepth(a));
+	    }
+	}
+
+	// Neutrino to charged leptons by the groups of the same schedule
+	PropagationMatrixFactory[] stepMatrix = new PropagationMatrixFactory[stepSizeBase.length];
+	String[] stepMatrixIdentity = new String[stepSizeBase.length];
+	TriangularMatrix[] transfer = new TriangularMatrix[QuickPropagationTable.NUMBER_OF_LEPTON_CHANNELS];
+	for(int c=0;c<transfer.length;c++) transfer[c] = new TriangularMatrix(dimension);
+	boolean[] done = new boolean[numberOfAngles];
+	for(int first=0;first<numberOfAngles;first++){
+	    if(done[first]) continue;
+	    int[] group = new int[numberOfAngles];
+	    int groupSize = 0;
+	    for(int a=first;a<numberOfAngles;a++){
+		if(!done[a] && java.util.Arrays.equals(distanceInThisStep[a],distanceInThisStep[first])){
+		    group[groupSize++] = a;
+		    done[a] = true;
+		}
+	    }
+	    System.err.println(" propagating the leptons for " + groupSize + " angle(s)");
+
+	    initLeptonMatrix( );
+	    double distancePropagated = 0.0;
+	    for(int i=(stepSizeBase.length-1);i>=0;i--){
+		double stepSize = stepSizeBase[i]*density;
+		int numberOfSteps = (int )(distanceInThisStep[first][i]/stepSize + 0.01);
+		if(numberOfSteps == 0) continue;
+		if(stepMatrix[i] == null){
+		    String stepMatrixFileName = pathname[s.getMaterialNumber()].concat(matrixFile[i]);
+		    stepMatrix[i] = new PropagationMatrixFactory(4);
+		    stepMatrix[i].whetherPropagationMatrixWithGlashowResonance(
+			matrix.includeGlashowResonance);
+		    stepMatrix[i].readMatrix(stepMatrixFileName);
+		    stepMatrixIdentity[i] = getMatrixFileIdentity(stepMatrixFileName);
+		}
+		String key = getLeptonPowerKey(stepMatrixIdentity[i],stepSize);
+		for(int times=1;times<=numberOfSteps;times++){
+		    propagateChargedLepton(stepMatrix[i],key,times);
+		    distancePropagated += stepSize;
+		    calculateNeutrinoToLeptonTransfer(transfer);
+		    for(int n=0;n<groupSize;n++){
+			int a = group[n];
+			addNeutrinoToLeptonTransfer(transfer,sigmaCC,sigmaNuE,
+						    table.getSlantDepth(a)-distancePropagated,stepSize,
+						    table.neutrinoToLepton[a]);
+		    }
+		}
+		addLeptonPowerKey(stepMatrixIdentity[i],stepSize,numberOfSteps);
+	    }
+	}
+	initLeptonMatrix( );
+	System.err.println(" Neutrino propagation of " + numberOfAngles + " angles completed");
+	return table;
+    }
+
+    /** 
+	Calculate the neutrino to charged lepton transfer per unit depth
+	without the neutrino attenuation, which is common to all the angles.
+	transfer[] is in the order of nu-e to mu, nu-mu to mu, nu-tau to mu,
+	nu-e to tau, nu-mu to tau, nu-tau to tau.
+    */
+    protected void calculateNeutrinoToLeptonTransfer(TriangularMatrix[] transfer){
+
+	for(int iLogE=0;iLogE<dimension;iLogE++){
+	    for(int jLogE=0;jLogE<=iLogE;jLogE++){
+		double nuEToMu = 0.0;
+		double nuToMu = 0.0;
+		double nuTauToMu = 0.0;
+		double nuEToTau = 0.0;
+		double nuMuToTau = 0.0;
+		double nuToTau = 0.0;
+		for(int kLogE=iLogE;kLogE>=jLogE;kLogE--){
+		    double glashow = 0.5*grLeptonMtx.getLeptonTransferMatrix(iLogE,kLogE);
+		    double chargedCurrent = nuCCMtx.getLeptonTransferMatrix(iLogE,kLogE);
+		    double muToMu = FmuToMu.get(kLogE,jLogE);
+		    double tauToMu = FtauToMu.get(kLogE,jLogE);
+		    double muToTau = FmuToTau.get(kLogE,jLogE);
+		    double tauToTau = FtauToTau.get(kLogE,jLogE);
+		    nuEToMu += glashow*(muToMu+tauToMu);
+		    nuToMu += chargedCurrent*muToMu;
+		    nuTauToMu += chargedCurrent*tauToMu;
+		    nuEToTau += glashow*(tauToTau+muToTau);
+		    nuMuToTau += chargedCurrent*muToTau;
+		    nuToTau += chargedCurrent*tauToTau;
+		}
+		double factor = ParticlePoint.NA*nuCCEnhancementFactor;
+		transfer[0].set(iLogE,jLogE,ParticlePoint.NA*nuEToMu);
+		transfer[1].set(iLogE,jLogE,factor*nuToMu);
+		transfer[2].set(iLogE,jLogE,factor*nuTauToMu);
+		transfer[3].set(iLogE,jLogE,ParticlePoint.NA*nuEToTau);
+		transfer[4].set(iLogE,jLogE,factor*nuMuToTau);
+		transfer[5].set(iLogE,jLogE,factor*nuToTau);
+	    }
+	}
+    }
+
+    /** Add the transfer of a step deltaX [g/cm^2] with the vertex at slantDepth [g/cm^2]
+	to the neutrino to lepton yields of an angle. */
+    private static void addNeutrinoToLeptonTransfer(TriangularMatrix[] transfer,
+						    double[] sigmaCC, double[] sigmaNuE,
+						    double slantDepth, double deltaX,
+						    TriangularMatrix[] yield){
+	for(int iLogE=0;iLogE<dimension;iLogE++){
+	    double dumpingNuFactor = Math.exp(-ParticlePoint.NA*sigmaCC[iLogE]*slantDepth)*deltaX;
+	    double dumpingNuEFactor = Math.exp(-ParticlePoint.NA*sigmaNuE[iLogE]*slantDepth)*deltaX;
+	    int from = TriangularMatrix.rowOffset(iLogE);
+	    int to = from+iLogE+1;
+	    for(int c=0;c<transfer.length;c++){
+		double factor = (c%3 == 0) ? dumpingNuEFactor : dumpingNuFactor;
+		double[] t = transfer[c].element;
+		double[] y = yield[c].element;
+		for(int ij=from;ij<to;ij++) y[ij] += factor*t[ij];
+	    }
+	}
+    }
+
+    /** Set the result at an angle of the table as if it were calculated
+	by propagateNeutrinoToIceCubeDepth(nadirAngle, ..), so that getDF( ) returns it. */
+    public void setPropagatedAngle(QuickPropagationTable table, int angle){
+	TriangularMatrix[] yield = table.neutrinoToLepton[angle];
+	FnuEToMu.copy(yield[0]);
+	FnuMuToMu.copy(yield[1]);
+	FnuTauToMu.copy(yield[2]);
+	FnuEToTau.copy(yield[3]);
+	FnuMuToTau.copy(yield[4]);
+	FnuTauToTau.copy(yield[5]);
+	System.arraycopy(table.neutrinoToNeutrino[angle],0,FnuToNu,0,dimension);
+	System.arraycopy(table.nuEToNuE[angle],0,FnuEToNuE,0,dimension);
+	hasPropagated = true;
+    }
+
+    /** The slant depth [g/cm^2] from the earth surface to the IceCube depth.
+	The particle location of the ParticlePoint is set to the surface.
+      <pre>
+     double nadirAngle   : nadire (upgoing) zenith (down) of the neutrino-lepton track [deg]
+     ParticlePoint point : the trajectory of the angle
+     </pre>
+    */
+    protected static double getSlantDepthToIceCubeDepth(double nadirAngle, ParticlePoint s){
+
 	// calculate the distance [cm]
 	double trajectoryLength;
 	if(s.getMaterialNumber()==0){ // ice i.e., downgoing
@@ -594,23 +926,14 @@ public class NeutrinoQuickPropagator {
 	}
 
 	// calculate the slant depth [g/cm^2];
-	double slantDepth = 0.0;          // [g/cm^2]
-	double distancePropagated = 0.0; // [cm]
-	double dX = 10.0; // 10 g
 	s.setParticleLocation(0.0);
-	while(distancePropagated< trajectoryLength){
-	    double deltaL = dX/s.getMediumDensity( ); 
-	    distancePropagated += deltaL;
-	    slantDepth += dX;
-	    s.setParticleLocation(distancePropagated);
-	}
+	double slantDepth = 
+	    s.getColumnDepthCalculator( ).getColumnDepth(0.0,trajectoryLength); // [g/cm^2]
 
 	System.err.println(" angle(" + nadirAngle + ") [deg] distance=" +
 			   trajectoryLength + " [cm] slant depth=" +
 			   slantDepth);
-
-	propagateNeutrino(slantDepth,nuCCEnhancementFactor);
-
+	return slantDepth;
     }
 
     /** 
@@ -648,13 +971,13 @@ public class NeutrinoQuickPropagator {
 	    if(outputDoublet == 1){ // charged lepton
 
 		if(outputFlavor == 1) { // muon
-		    if(neutrinoFlavor==0) count = FnuEToMu[iLogE][jLogE];// nu_e to mu
-		    else if(neutrinoFlavor==1) count = FnuMuToMu[iLogE][jLogE];// nu_mu to mu
-		    else if(neutrinoFlavor==2) count = FnuTauToMu[iLogE][jLogE];// nu_tau to mu
+		    if(neutrinoFlavor==0) count = FnuEToMu.get(iLogE,jLogE);// nu_e to mu
+		    else if(neutrinoFlavor==1) count = FnuMuToMu.get(iLogE,jLogE);// nu_mu to mu
+		    else if(neutrinoFlavor==2) count = FnuTauToMu.get(iLogE,jLogE);// nu_tau to mu
 		}else if(outputFlavor == 2) { // tau
-		    if(neutrinoFlavor==0) count = FnuEToTau[iLogE][jLogE];// nu_e to tau
-		    else if(neutrinoFlavor==1) count = FnuMuToTau[iLogE][jLogE];// nu_mu to tau
-		    else if(neutrinoFlavor==2) count = FnuTauToTau[iLogE][jLogE];// nu_tau to tau
+		    if(neutrinoFlavor==0) count = FnuEToTau.get(iLogE,jLogE);// nu_e to tau
+		    else if(neutrinoFlavor==1) count = FnuMuToTau.get(iLogE,jLogE);// nu_mu to tau
+		    else if(neutrinoFlavor==2) count = FnuTauToTau.get(iLogE,jLogE);// nu_tau to tau
 		}
 	    }else if(outputDoublet == 0){ // neutrino as output particle
 
@@ -0,0 +1,42 @@
+package iceCube.uhe.propagation;
+
+import java.io.*;
+import java.util.concurrent.RecursiveAction;
+
+/**
+<pre>
+   Fork-join task to run the angles [first,last) of MainRunBatch.
+   The range is split into halves until it has a single angle
+   so that the idle threads steal the angles left
+   by the threads busy with the long trajectories.
+</pre>
+*/
+
+class PropagationAngleTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final MainRunBatch batch;
+    private final int first;
+    private final int last;
+
+    PropagationAngleTask(MainRunBatch batch, int first, int last){
+	this.batch = batch;
+	this.first = first;
+	this.last = last;
+    }
+
+    protected void compute( ){
+	if(last-first <= 1){
+	    try{
+		batch.runAngle(first);
+	    }catch(IOException e){
+		throw new UncheckedIOException(e);
+	    }
+	}else{
+	    int middle = (first+last)/2;
+	    invokeAll(new PropagationAngleTask(batch,first,middle),
+		      new PropagationAngleTask(batch,middle,last));
+	}
+    }
+}
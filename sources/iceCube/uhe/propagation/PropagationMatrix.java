@@ -5,6 +5,7 @@ import iceCube.uhe.interactions.*;
 import iceCube.uhe.decay.*;
 import iceCube.uhe.points.*;
 import java.io.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
 <pre>
@@ -89,34 +90,53 @@ public class PropagationMatrix {
 	the shortest decay length.
         Initialized in the constructor.*/
     public double dXDecay = 1.0;
+    /** Medium density [g/cm^3] where dXDecay was determined. */
+    public double dXDecayDensity = 1.0;
+    /** Step size of the propagation [g/cm^2] determined by
+	the interactions. Initialized in the constructor.*/
+    public double dXInteraction = 1.0e6;
     /** Speed of light [cm/sec].*/
     public final static double c = 2.99792e10;
-    protected double[][][] temp;
     protected double[]   intProbNeutrino,intProbMu,intProbTau;
     /** For Glashow Resonance **/
     protected double[]   intProbNuE;
     //protected double[][] nuToNu,nuToLepton,nuToHadron;
-    protected double[][] nuEToNuE,nuMuToNuE,nuTauToNuE,muToNuE,tauToNuE;
-    protected double[][] nuEToNuMu,nuMuToNuMu,nuTauToNuMu,muToNuMu,tauToNuMu;
-    protected double[][] nuEToNuTau,nuMuToNuTau,nuTauToNuTau,muToNuTau,tauToNuTau;
-    protected double[][] nuEToE,nuMuToE,nuTauToE,muToE,tauToE;
-    protected double[][] nuEToMu,nuMuToMu,nuTauToMu,muToMu,tauToMu;
-    protected double[][] nuEToTau,nuMuToTau,nuTauToTau,muToTau,tauToTau;
-    protected double[][] nuEToHadron,nuMuToHadron,nuTauToHadron,muToHadron,tauToHadron;
-    protected double[][] FnuEToNuE,FnuMuToNuE,FnuTauToNuE,FmuToNuE,FtauToNuE;
-    protected double[][] FnuEToNuMu,FnuMuToNuMu,FnuTauToNuMu,FmuToNuMu,FtauToNuMu;
-    protected double[][] FnuEToNuTau,FnuMuToNuTau,FnuTauToNuTau,FmuToNuTau,FtauToNuTau;
-    protected double[][] FnuEToE,FnuMuToE,FnuTauToE,FmuToE,FtauToE;
-    protected double[][] FnuEToMu,FnuMuToMu,FnuTauToMu,FmuToMu,FtauToMu;
-    protected double[][] FnuEToTau,FnuMuToTau,FnuTauToTau,FmuToTau,FtauToTau;
-    protected double[][] FnuEToHadron,FnuMuToHadron,FnuTauToHadron,FmuToHadron,FtauToHadron;
-    protected double[][] SnuEToNuE,SnuMuToNuE,SnuTauToNuE,SmuToNuE,StauToNuE;
-    protected double[][] SnuEToNuMu,SnuMuToNuMu,SnuTauToNuMu,SmuToNuMu,StauToNuMu;
-    protected double[][] SnuEToNuTau,SnuMuToNuTau,SnuTauToNuTau,SmuToNuTau,StauToNuTau;
-    protected double[][] SnuEToE,SnuMuToE,SnuTauToE,SmuToE,StauToE;
-    protected double[][] SnuEToMu,SnuMuToMu,SnuTauToMu,SmuToMu,StauToMu;
-    protected double[][] SnuEToTau,SnuMuToTau,SnuTauToTau,SmuToTau,StauToTau;
-    protected double[][] SnuEToHadron,SnuMuToHadron,SnuTauToHadron,SmuToHadron,StauToHadron;
+    protected TriangularMatrix nuEToNuE,nuMuToNuE,nuTauToNuE,muToNuE,tauToNuE;
+    protected TriangularMatrix nuEToNuMu,nuMuToNuMu,nuTauToNuMu,muToNuMu,tauToNuMu;
+    protected TriangularMatrix nuEToNuTau,nuMuToNuTau,nuTauToNuTau,muToNuTau,tauToNuTau;
+    protected TriangularMatrix nuEToE,nuMuToE,nuTauToE,muToE,tauToE;
+    protected TriangularMatrix nuEToMu,nuMuToMu,nuTauToMu,muToMu,tauToMu;
+    protected TriangularMatrix nuEToTau,nuMuToTau,nuTauToTau,muToTau,tauToTau;
+    protected TriangularMatrix nuEToHadron,nuMuToHadron,nuTauToHadron,muToHadron,tauToHadron;
+    protected TriangularMatrix FnuEToNuE,FnuMuToNuE,FnuTauToNuE,FmuToNuE,FtauToNuE;
+    protected TriangularMatrix FnuEToNuMu,FnuMuToNuMu,FnuTauToNuMu,FmuToNuMu,FtauToNuMu;
+    protected TriangularMatrix FnuEToNuTau,FnuMuToNuTau,FnuTauToNuTau,FmuToNuTau,FtauToNuTau;
+    protected TriangularMatrix FnuEToE,FnuMuToE,FnuTauToE,FmuToE,FtauToE;
+    protected TriangularMatrix FnuEToMu,FnuMuToMu,FnuTauToMu,FmuToMu,FtauToMu;
+    protected TriangularMatrix FnuEToTau,FnuMuToTau,FnuTauToTau,FmuToTau,FtauToTau;
+    protected TriangularMatrix FnuEToHadron,FnuMuToHadron,FnuTauToHadron,FmuToHadron,FtauToHadron;
+    protected TriangularMatrix SnuEToNuE,SnuMuToNuE,SnuTauToNuE,SmuToNuE,StauToNuE;
+    protected TriangularMatrix SnuEToNuMu,SnuMuToNuMu,SnuTauToNuMu,SmuToNuMu,StauToNuMu;
+    protected TriangularMatrix SnuEToNuTau,SnuMuToNuTau,SnuTauToNuTau,SmuToNuTau,StauToNuTau;
+    protected TriangularMatrix SnuEToE,SnuMuToE,SnuTauToE,SmuToE,StauToE;
+    protected TriangularMatrix SnuEToMu,SnuMuToMu,SnuTauToMu,SmuToMu,StauToMu;
+    protected TriangularMatrix SnuEToTau,SnuMuToTau,SnuTauToTau,SmuToTau,StauToTau;
+    protected TriangularMatrix SnuEToHadron,SnuMuToHadron,SnuTauToHadron,SmuToHadron,StauToHadron;
+
+    /** The channel tensors arranging the matrices above as
+	[input particle][output particle] with the particle indices
+	NUE_INDEX .. HADRON_INDEX. The elements are the same objects
+	as the individual members, e.g. propagation[MU_INDEX][E_INDEX]
+	is FmuToE. Electrons and hadrons are the sinks which do not 
+	propagate further and their rows are null. */
+    protected TriangularMatrix[][] transfer,propagation,store;
+    /** Work tensor for the products which can not be done in place. */
+    protected TriangularMatrix[][] temp;
+    /** Survival probability over dX of the propagating particles. */
+    protected double[][] survivalProb;
+    /** The intermediate particles m of the non-zero blocks right(m,b)
+	for each output particle b in the current product. */
+    private int[][] intermediates;
 
     protected final static int CHARGED_FLAG = 1; // Allows the Charged Current.
     protected final static int NEUTRAL_FLAG = 2; // Allows the neutral Current.
@@ -139,6 +159,44 @@ public class PropagationMatrix {
     protected final static int ALL_FLAG = 511; 
                     // involving all the intereaction and decay channels;
 
+    /** Particle indices of the channel tensors. */
+    protected final static int NUE_INDEX = 0;
+    protected final static int NUMU_INDEX = 1;
+    protected final static int NUTAU_INDEX = 2;
+    protected final static int E_INDEX = 3;
+    protected final static int MU_INDEX = 4;
+    protected final static int TAU_INDEX = 5;
+    protected final static int HADRON_INDEX = 6;
+    protected final static int NUMBER_OF_PARTICLES = 7;
+    /** The particles propagating further. */
+    protected final static int[] propagatingParticles = 
+    {NUE_INDEX,NUMU_INDEX,NUTAU_INDEX,MU_INDEX,TAU_INDEX};
+    /** Electrons and hadrons are absorbed in the medium
+	and no longer change their energies. */
+    protected final static boolean[] isSink = 
+    {false,false,false,true,false,false,true};
+
+    /** Kernel codes dispatched by runKernel( ). The products are
+	calculated row by row, i.e. for each iLogE independently,
+	so the rows can be shared among threads. */
+    protected final static int DX_KERNEL = 0;        // propagateDX
+    protected final static int DXPOWERED_KERNEL = 1; // propagateDXpowered
+    protected final static int X_KERNEL = 2;         // propagateX
+    protected final static int STORE_KERNEL = 3;     // storePropagateMatrix
+    protected final static int COPY_KERNEL = 4;      // temp -> F matrix
+    protected final static int COPY_STORE_KERNEL = 5;// temp -> S matrix
+    protected final static int MULTIPLY_STORE_KERNEL = 6;// multiplyStoreMatrix
+
+    /** Number of threads sharing the matrix products. 1 for the serial run. */
+    private int parallelism = 1;
+    private ForkJoinPool pool = null;
+    /** Backend of the matrix products. */
+    private ChannelTensorKernel tensorKernel = 
+	ChannelTensorKernel.getKernel(ChannelTensorKernel.COLUMN_BACKEND);
+    /** Floating-point operations and time [nsec] spent by the matrix products so far. */
+    private double kernelFlops = 0.0;
+    private long kernelTime = 0L;
+
     // Directory path for dumped InteractionMatrix objects.
     protected String[] pathName = {
 	"iceCube/uhe/interactions/ice/","iceCube/uhe/interactions/rock/"
@@ -228,6 +286,8 @@ public class PropagationMatrix {
     // Switches for the interactions and decays involved
     int interactionsSwitch;
     int decaySwitch;
+    // Neutrino interaction matrix files read by the constructor
+    private String interactionFiles = "";
 
 
 
@@ -248,6 +308,8 @@ public class PropagationMatrix {
 	this.decaySwitch = decaySwitch;
 	this.s = s;
 	this.neutrinoFactor = neutrinoFactor;
+	interactionFiles = nuCCMtxObjectFile + "," + nuNCMtxObjectFile + "," +
+	    grLeptonMtxObjectFile_ + "," + grHadronMtxObjectFile_;
 	System.err.println("Will construct PropagationMatrix. ");
 
 	// Checking the Particle flavors
@@ -468,135 +530,7 @@ public class PropagationMatrix {
 	System.err.println("Decay Matrix calculation done.");
 
 	// Generate the propagation matrix
-
-	/** For Glashow Resonance **/
-	System.err.println("Will generate probMtx for nue done.");
-	intProbNuE = new double[dimension];
-	System.err.println("Generate probMtx for nue done.");
-
-	intProbNeutrino = new double[dimension];
-	intProbMu = new double[dimension];
-	intProbTau = new double[dimension];
-	/** For Glashow Resonance **/
-	//nuToNu = new double[dimension][dimension];
-        //nuToLepton = new double[dimension][dimension];
-	//nuToHadron = new double[dimension][dimension];
-	System.err.println("Generate interaction probavirity Mtx done.");
-
-	/** For Glashow Resonance **/
-	//temp = new double[31][dimension][dimension];
-	temp = new double[35][dimension][dimension];
-
-        nuEToNuE= new double[dimension][dimension];
-        nuEToNuMu= new double[dimension][dimension];
-        nuEToNuTau= new double[dimension][dimension];
-        nuEToE= new double[dimension][dimension];
-        nuEToMu= new double[dimension][dimension];
-        nuEToTau= new double[dimension][dimension];
-        nuEToHadron= new double[dimension][dimension];
-	System.err.println("Generate propMtx for nuE done.");
-        nuMuToNuE= new double[dimension][dimension];
-        nuMuToNuMu= new double[dimension][dimension];
-        nuMuToNuTau= new double[dimension][dimension];
-        nuMuToE= new double[dimension][dimension];
-        nuMuToMu= new double[dimension][dimension];
-        nuMuToTau= new double[dimension][dimension];
-        nuMuToHadron= new double[dimension][dimension];
-	System.err.println("Generate propMtx for nuMu done.");
-        nuTauToNuE= new double[dimension][dimension];
-        nuTauToNuMu= new double[dimension][dimension];
-        nuTauToNuTau= new double[dimension][dimension];
-        nuTauToE= new double[dimension][dimension];
-        nuTauToMu= new double[dimension][dimension];
-        nuTauToTau= new double[dimension][dimension];
-        nuTauToHadron= new double[dimension][dimension];
-	System.err.println("Generate propMtx for nuTau done.");
-        muToNuE= new double[dimension][dimension];
-        muToNuMu= new double[dimension][dimension];
-        muToNuTau= new double[dimension][dimension];
-        muToE= new double[dimension][dimension];
-        muToMu= new double[dimension][dimension];
-        muToTau= new double[dimension][dimension];
-        muToHadron= new double[dimension][dimension];
-	System.err.println("Generate propMtx for muon done.");
-        tauToNuE= new double[dimension][dimension];
-        tauToNuMu= new double[dimension][dimension];
-        tauToNuTau= new double[dimension][dimension];
-        tauToE= new double[dimension][dimension];
-        tauToMu= new double[dimension][dimension];
-        tauToTau= new double[dimension][dimension];
-        tauToHadron= new double[dimension][dimension];
-	System.err.println("Generate propMtx for tau done.");
-        FnuEToNuE= new double[dimension][dimension];
-        FnuEToNuMu= new double[dimension][dimension];
-        FnuEToNuTau= new double[dimension][dimension];
-        FnuEToE= new double[dimension][dimension];
-        FnuEToMu= new double[dimension][dimension];
-        FnuEToTau= new double[dimension][dimension];
-        FnuEToHadron= new double[dimension][dimension];
-        FnuMuToNuE= new double[dimension][dimension];
-        FnuMuToNuMu= new double[dimension][dimension];
-        FnuMuToNuTau= new double[dimension][dimension];
-        FnuMuToE= new double[dimension][dimension];
-        FnuMuToMu= new double[dimension][dimension];
-        FnuMuToTau= new double[dimension][dimension];
-        FnuMuToHadron= new double[dimension][dimension];
-        FnuTauToNuE= new double[dimension][dimension];
-        FnuTauToNuMu= new double[dimension][dimension];
-        FnuTauToNuTau= new double[dimension][dimension];
-        FnuTauToE= new double[dimension][dimension];
-        FnuTauToMu= new double[dimension][dimension];
-        FnuTauToTau= new double[dimension][dimension];
-        FnuTauToHadron= new double[dimension][dimension];
-        FmuToNuE= new double[dimension][dimension];
-        FmuToNuMu= new double[dimension][dimension];
-        FmuToNuTau= new double[dimension][dimension];
-        FmuToE= new double[dimension][dimension];
-        FmuToMu= new double[dimension][dimension];
-        FmuToTau= new double[dimension][dimension];
-        FmuToHadron= new double[dimension][dimension];
-        FtauToNuE= new double[dimension][dimension];
-        FtauToNuMu= new double[dimension][dimension];
-        FtauToNuTau= new double[dimension][dimension];
-        FtauToE= new double[dimension][dimension];
-        FtauToMu= new double[dimension][dimension];
-        FtauToTau= new double[dimension][dimension];
-        FtauToHadron= new double[dimension][dimension];
-        SnuEToNuE= new double[dimension][dimension];
-        SnuEToNuMu= new double[dimension][dimension];
-        SnuEToNuTau= new double[dimension][dimension];
-        SnuEToE= new double[dimension][dimension];
-        SnuEToMu= new double[dimension][dimension];
-        SnuEToTau= new double[dimension][dimension];
-        SnuEToHadron= new double[dimension][dimension];
-        SnuMuToNuE= new double[dimension][dimension];
-        SnuMuToNuMu= new double[dimension][dimension];
-        SnuMuToNuTau= new double[dimension][dimension];
-        SnuMuToE= new double[dimension][dimension];
-        SnuMuToMu= new double[dimension][dimension];
-        SnuMuToTau= new double[dimension][dimension];
-        SnuMuToHadron= new double[dimension][dimension];
-        SnuTauToNuE= new double[dimension][dimension];
-        SnuTauToNuMu= new double[dimension][dimension];
-        SnuTauToNuTau= new double[dimension][dimension];
-        SnuTauToE= new double[dimension][dimension];
-        SnuTauToMu= new double[dimension][dimension];
-        SnuTauToTau= new double[dimension][dimension];
-        SnuTauToHadron= new double[dimension][dimension];
-        SmuToNuE= new double[dimension][dimension];
-        SmuToNuMu= new double[dimension][dimension];
-        SmuToNuTau= new double[dimension][dimension];
-        SmuToE= new double[dimension][dimension];
-        SmuToMu= new double[dimension][dimension];
-        SmuToTau= new double[dimension][dimension];
-        SmuToHadron= new double[dimension][dimension];
-        StauToNuE= new double[dimension][dimension];
-        StauToNuMu= new double[dimension][dimension];
-        StauToNuTau= new double[dimension][dimension];
-        StauToE= new double[dimension][dimension];
-        StauToMu= new double[dimension][dimension];
-        StauToTau= new double[dimension][dimension];
-        StauToHadron= new double[dimension][dimension];
+	allocateMatrices( );
 
 
 	// Matrix Initialization.
@@ -630,11 +564,13 @@ public class PropagationMatrix {
 
 	if((decaySwitch & TAUDECAY_FLAG) == TAUDECAY_FLAG){
 	    s.setIceRockBoundaryRadius(1.01*s.REarth);//Rock
-	    dXDecay = 0.1*c*tauDecayMtx.getLifeTimeMatrix(0)*s.getMediumDensity( );
+	    dXDecayDensity = s.getMediumDensity( );
+	    dXDecay = 0.1*c*tauDecayMtx.getLifeTimeMatrix(0)*dXDecayDensity;
 	}else{
 	    dXDecay = 1.0e6;
 	}
 	System.err.println("dX = " + dX + " dXDecay = " + dXDecay);
+	dXInteraction = dX;
 	if(dXDecay<dX) dX = dXDecay;
 	
 	calculateTransferMatrix( );
@@ -698,57 +634,249 @@ public class PropagationMatrix {
 	     nuCCMtxObjectCCH5File,nuNCMtxObjectCCH5File, grLeptonMtxObjectFile, grHadronMtxObjectFile);
     }
 
+    /** 
+	<pre>
+	Constructor for the trajectory s sharing the InteractionsMatrix
+	and the DecayMatrix objects of the given PropagationMatrix.
+	They are only read by calculateTransferMatrix( ), so the objects
+	for many trajectories can run in parallel threads without
+	reading the matrix files again. The medium of s at the start
+	must be the same as that of the given PropagationMatrix.
+	Only the transfer, propagation and store matrices are allocated.
+	The step sizes are those of the given PropagationMatrix now.
+	</pre>
+    */
+    public PropagationMatrix(PropagationMatrix shared, ParticlePoint s){
+	this(shared,s,shared.getStepParameters( ));
+    }
+
+    /** The same as PropagationMatrix(shared, s) with the step sizes
+	of getStepParameters( ) taken before, so that the copies made while
+	the given PropagationMatrix runs do not take the step of its layer in play. */
+    public PropagationMatrix(PropagationMatrix shared, ParticlePoint s,
+			     double[] stepParameters){
+	this.s = s;
+	nuE = shared.nuE; nuMu = shared.nuMu; nuTau = shared.nuTau;
+	e = shared.e; mu = shared.mu; tau = shared.tau; pi = shared.pi;
+	interactionsSwitch = shared.interactionsSwitch;
+	decaySwitch = shared.decaySwitch;
+	neutrinoFactor = shared.neutrinoFactor;
+	interactionFiles = shared.interactionFiles;
+
+	nuCCMtx = shared.nuCCMtx; nuNCMtx = shared.nuNCMtx;
+	muToEPairCMtx = shared.muToEPairCMtx; tauToEPairCMtx = shared.tauToEPairCMtx;
+	muToMuPairCMtx = shared.muToMuPairCMtx; tauToMuPairCMtx = shared.tauToMuPairCMtx;
+	muToTauPairCMtx = shared.muToTauPairCMtx; tauToTauPairCMtx = shared.tauToTauPairCMtx;
+	muBremssMtx = shared.muBremssMtx; tauBremssMtx = shared.tauBremssMtx;
+	muKnockOnMtx = shared.muKnockOnMtx; tauKnockOnMtx = shared.tauKnockOnMtx;
+	muPhotoNuclMtx = shared.muPhotoNuclMtx; tauPhotoNuclMtx = shared.tauPhotoNuclMtx;
+	grLeptonMtx = shared.grLeptonMtx; grHadronMtx = shared.grHadronMtx;
+	muDecayMtx = shared.muDecayMtx; tauDecayMtx = shared.tauDecayMtx;
+
+	massNumber = shared.massNumber;
+	setStepParameters(stepParameters);
+
+	allocateMatrices( );
+	initALL( );
+	calculateTransferMatrix( );
+    }
+
+    /** Allocate the interaction probabilities and the transfer, propagation
+	and store matrices, and arrange them into the channel tensors. */
+    private void allocateMatrices( ){
+
+	/** For Glashow Resonance **/
+	System.err.println("Will generate probMtx for nue done.");
+	intProbNuE = new double[dimension];
+	System.err.println("Generate probMtx for nue done.");
+
+	intProbNeutrino = new double[dimension];
+	intProbMu = new double[dimension];
+	intProbTau = new double[dimension];
+	/** For Glashow Resonance **/
+	//nuToNu = new double[dimension][dimension];
+        //nuToLepton = new double[dimension][dimension];
+	//nuToHadron = new double[dimension][dimension];
+	System.err.println("Generate interaction probavirity Mtx done.");
+
+
+        nuEToNuE= new TriangularMatrix(dimension);
+        nuEToNuMu= new TriangularMatrix(dimension);
+        nuEToNuTau= new TriangularMatrix(dimension);
+        nuEToE= new TriangularMatrix(dimension);
+        nuEToMu= new TriangularMatrix(dimension);
+        nuEToTau= new TriangularMatrix(dimension);
+        nuEToHadron= new TriangularMatrix(dimension);
+	System.err.println("Generate propMtx for nuE done.");
+        nuMuToNuE= new TriangularMatrix(dimension);
+        nuMuToNuMu= new TriangularMatrix(dimension);
+        nuMuToNuTau= new TriangularMatrix(dimension);
+        nuMuToE= new TriangularMatrix(dimension);
+        nuMuToMu= new TriangularMatrix(dimension);
+        nuMuToTau= new TriangularMatrix(dimension);
+        nuMuToHadron= new TriangularMatrix(dimension);
+	System.err.println("Generate propMtx for nuMu done.");
+        nuTauToNuE= new TriangularMatrix(dimension);
+        nuTauToNuMu= new TriangularMatrix(dimension);
+        nuTauToNuTau= new TriangularMatrix(dimension);
+        nuTauToE= new TriangularMatrix(dimension);
+        nuTauToMu= new TriangularMatrix(dimension);
+        nuTauToTau= new TriangularMatrix(dimension);
+        nuTauToHadron= new TriangularMatrix(dimension);
+	System.err.println("Generate propMtx for nuTau done.");
+        muToNuE= new TriangularMatrix(dimension);
+        muToNuMu= new TriangularMatrix(dimension);
+        muToNuTau= new TriangularMatrix(dimension);
+        muToE= new TriangularMatrix(dimension);
+        muToMu= new TriangularMatrix(dimension);
+        muToTau= new TriangularMatrix(dimension);
+        muToHadron= new TriangularMatrix(dimension);
+	System.err.println("Generate propMtx for muon done.");
+        tauToNuE= new TriangularMatrix(dimension);
+        tauToNuMu= new TriangularMatrix(dimension);
+        tauToNuTau= new TriangularMatrix(dimension);
+        tauToE= new TriangularMatrix(dimension);
+        tauToMu= new TriangularMatrix(dimension);
+        tauToTau= new TriangularMatrix(dimension);
+        tauToHadron= new TriangularMatrix(dimension);
+	System.err.println("Generate propMtx for tau done.");
+        FnuEToNuE= new TriangularMatrix(dimension);
+        FnuEToNuMu= new TriangularMatrix(dimension);
+        FnuEToNuTau= new TriangularMatrix(dimension);
+        FnuEToE= new TriangularMatrix(dimension);
+        FnuEToMu= new TriangularMatrix(dimension);
+        FnuEToTau= new TriangularMatrix(dimension);
+        FnuEToHadron= new TriangularMatrix(dimension);
+        FnuMuToNuE= new TriangularMatrix(dimension);
+        FnuMuToNuMu= new TriangularMatrix(dimension);
+        FnuMuToNuTau= new TriangularMatrix(dimension);
+        FnuMuToE= new TriangularMatrix(dimension);
+        FnuMuToMu= new TriangularMatrix(dimension);
+        FnuMuToTau= new TriangularMatrix(dimension);
+        FnuMuToHadron= new TriangularMatrix(dimension);
+        FnuTauToNuE= new TriangularMatrix(dimension);
+        FnuTauToNuMu= new TriangularMatrix(dimension);
+        FnuTauToNuTau= new TriangularMatrix(dimension);
+        FnuTauToE= new TriangularMatrix(dimension);
+        FnuTauToMu= new TriangularMatrix(dimension);
+        FnuTauToTau= new TriangularMatrix(dimension);
+        FnuTauToHadron= new TriangularMatrix(dimension);
+        FmuToNuE= new TriangularMatrix(dimension);
+        FmuToNuMu= new TriangularMatrix(dimension);
+        FmuToNuTau= new TriangularMatrix(dimension);
+        FmuToE= new TriangularMatrix(dimension);
+        FmuToMu= new TriangularMatrix(dimension);
+        FmuToTau= new TriangularMatrix(dimension);
+        FmuToHadron= new TriangularMatrix(dimension);
+        FtauToNuE= new TriangularMatrix(dimension);
+        FtauToNuMu= new TriangularMatrix(dimension);
+        FtauToNuTau= new TriangularMatrix(dimension);
+        FtauToE= new TriangularMatrix(dimension);
+        FtauToMu= new TriangularMatrix(dimension);
+        FtauToTau= new TriangularMatrix(dimension);
+        FtauToHadron= new TriangularMatrix(dimension);
+        SnuEToNuE= new TriangularMatrix(dimension);
+        SnuEToNuMu= new TriangularMatrix(dimension);
+        SnuEToNuTau= new TriangularMatrix(dimension);
+        SnuEToE= new TriangularMatrix(dimension);
+        SnuEToMu= new TriangularMatrix(dimension);
+        SnuEToTau= new TriangularMatrix(dimension);
+        SnuEToHadron= new TriangularMatrix(dimension);
+        SnuMuToNuE= new TriangularMatrix(dimension);
+        SnuMuToNuMu= new TriangularMatrix(dimension);
+        SnuMuToNuTau= new TriangularMatrix(dimension);
+        SnuMuToE= new TriangularMatrix(dimension);
+        SnuMuToMu= new TriangularMatrix(dimension);
+        SnuMuToTau= new TriangularMatrix(dimension);
+        SnuMuToHadron= new TriangularMatrix(dimension);
+        SnuTauToNuE= new TriangularMatrix(dimension);
+        SnuTauToNuMu= new TriangularMatrix(dimension);
+        SnuTauToNuTau= new TriangularMatrix(dimension);
+        SnuTauToE= new TriangularMatrix(dimension);
+        SnuTauToMu= new TriangularMatrix(dimension);
+        SnuTauToTau= new TriangularMatrix(dimension);
+        SnuTauToHadron= new TriangularMatrix(dimension);
+        SmuToNuE= new TriangularMatrix(dimension);
+        SmuToNuMu= new TriangularMatrix(dimension);
+        SmuToNuTau= new TriangularMatrix(dimension);
+        SmuToE= new TriangularMatrix(dimension);
+        SmuToMu= new TriangularMatrix(dimension);
+        SmuToTau= new TriangularMatrix(dimension);
+        SmuToHadron= new TriangularMatrix(dimension);
+        StauToNuE= new TriangularMatrix(dimension);
+        StauToNuMu= new TriangularMatrix(dimension);
+        StauToNuTau= new TriangularMatrix(dimension);
+        StauToE= new TriangularMatrix(dimension);
+        StauToMu= new TriangularMatrix(dimension);
+        StauToTau= new TriangularMatrix(dimension);
+        StauToHadron= new TriangularMatrix(dimension);
+
+	generateChannelTensor( );
+    }
+
+    /** Arrange the matrices into the channel tensors
+	and allocate the work tensor. */
+    private void generateChannelTensor( ){
+	transfer = new TriangularMatrix[NUMBER_OF_PARTICLES][ ];
+	transfer[NUE_INDEX] = new TriangularMatrix[ ]
+	    {nuEToNuE,nuEToNuMu,nuEToNuTau,nuEToE,nuEToMu,nuEToTau,nuEToHadron};
+	transfer[NUMU_INDEX] = new TriangularMatrix[ ]
+	    {nuMuToNuE,nuMuToNuMu,nuMuToNuTau,nuMuToE,nuMuToMu,nuMuToTau,nuMuToHadron};
+	transfer[NUTAU_INDEX] = new TriangularMatrix[ ]
+	    {nuTauToNuE,nuTauToNuMu,nuTauToNuTau,nuTauToE,nuTauToMu,nuTauToTau,nuTauToHadron};
+	transfer[MU_INDEX] = new TriangularMatrix[ ]
+	    {muToNuE,muToNuMu,muToNuTau,muToE,muToMu,muToTau,muToHadron};
+	transfer[TAU_INDEX] = new TriangularMatrix[ ]
+	    {tauToNuE,tauToNuMu,tauToNuTau,tauToE,tauToMu,tauToTau,tauToHadron};
+
+	propagation = new TriangularMatrix[NUMBER_OF_PARTICLES][ ];
+	propagation[NUE_INDEX] = new TriangularMatrix[ ]
+	    {FnuEToNuE,FnuEToNuMu,FnuEToNuTau,FnuEToE,FnuEToMu,FnuEToTau,FnuEToHadron};
+	propagation[NUMU_INDEX] = new TriangularMatrix[ ]
+	    {FnuMuToNuE,FnuMuToNuMu,FnuMuToNuTau,FnuMuToE,FnuMuToMu,FnuMuToTau,FnuMuToHadron};
+	propagation[NUTAU_INDEX] = new TriangularMatrix[ ]
+	    {FnuTauToNuE,FnuTauToNuMu,FnuTauToNuTau,FnuTauToE,FnuTauToMu,FnuTauToTau,FnuTauToHadron};
+	propagation[MU_INDEX] = new TriangularMatrix[ ]
+	    {FmuToNuE,FmuToNuMu,FmuToNuTau,FmuToE,FmuToMu,FmuToTau,FmuToHadron};
+	propagation[TAU_INDEX] = new TriangularMatrix[ ]
+	    {FtauToNuE,FtauToNuMu,FtauToNuTau,FtauToE,FtauToMu,FtauToTau,FtauToHadron};
+
+	store = new TriangularMatrix[NUMBER_OF_PARTICLES][ ];
+	store[NUE_INDEX] = new TriangularMatrix[ ]
+	    {SnuEToNuE,SnuEToNuMu,SnuEToNuTau,SnuEToE,SnuEToMu,SnuEToTau,SnuEToHadron};
+	store[NUMU_INDEX] = new TriangularMatrix[ ]
+	    {SnuMuToNuE,SnuMuToNuMu,SnuMuToNuTau,SnuMuToE,SnuMuToMu,SnuMuToTau,SnuMuToHadron};
+	store[NUTAU_INDEX] = new TriangularMatrix[ ]
+	    {SnuTauToNuE,SnuTauToNuMu,SnuTauToNuTau,SnuTauToE,SnuTauToMu,SnuTauToTau,SnuTauToHadron};
+	store[MU_INDEX] = new TriangularMatrix[ ]
+	    {SmuToNuE,SmuToNuMu,SmuToNuTau,SmuToE,SmuToMu,SmuToTau,SmuToHadron};
+	store[TAU_INDEX] = new TriangularMatrix[ ]
+	    {StauToNuE,StauToNuMu,StauToNuTau,StauToE,StauToMu,StauToTau,StauToHadron};
+
+	temp = new TriangularMatrix[NUMBER_OF_PARTICLES][ ];
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    temp[a] = new TriangularMatrix[NUMBER_OF_PARTICLES];
+	    for(int b=0;b<NUMBER_OF_PARTICLES;b++){
+		temp[a][b] = new TriangularMatrix(dimension);
+	    }
+	}
+
+	survivalProb = new double[NUMBER_OF_PARTICLES][dimension];
+	intermediates = new int[NUMBER_OF_PARTICLES][ ];
+    }
+
     /** Initialize the propagation matrices. */
     public void init( ){
 	// Initialization
-	int iLogE;
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    int jLogE;
-	    for(jLogE=0;jLogE<dimension;jLogE++){
-		FnuEToNuE[iLogE][jLogE]= 0.0;
-		FnuEToNuMu[iLogE][jLogE]= 0.0;
-		FnuEToNuTau[iLogE][jLogE]= 0.0;
-		FnuEToE[iLogE][jLogE]= 0.0;
-		FnuEToMu[iLogE][jLogE]= 0.0;
-		FnuEToTau[iLogE][jLogE]= 0.0;
-		FnuEToHadron[iLogE][jLogE]= 0.0;
-		FnuMuToNuE[iLogE][jLogE]= 0.0;
-		FnuMuToNuMu[iLogE][jLogE]= 0.0;
-		FnuMuToNuTau[iLogE][jLogE]= 0.0;
-		FnuMuToE[iLogE][jLogE]= 0.0;
-		FnuMuToMu[iLogE][jLogE]= 0.0;
-		FnuMuToTau[iLogE][jLogE]= 0.0;
-		FnuMuToHadron[iLogE][jLogE]= 0.0;
-		FnuTauToNuE[iLogE][jLogE]= 0.0;
-		FnuTauToNuMu[iLogE][jLogE]= 0.0;
-		FnuTauToNuTau[iLogE][jLogE]= 0.0;
-		FnuTauToE[iLogE][jLogE]= 0.0;
-		FnuTauToMu[iLogE][jLogE]= 0.0;
-		FnuTauToTau[iLogE][jLogE]= 0.0;
-		FnuTauToHadron[iLogE][jLogE]= 0.0;
-		FmuToNuE[iLogE][jLogE]= 0.0;
-		FmuToNuMu[iLogE][jLogE]= 0.0;
-		FmuToNuTau[iLogE][jLogE]= 0.0;
-		FmuToE[iLogE][jLogE]= 0.0;
-		FmuToMu[iLogE][jLogE]= 0.0;
-		FmuToTau[iLogE][jLogE]= 0.0;
-		FmuToHadron[iLogE][jLogE]= 0.0;
-		FtauToNuE[iLogE][jLogE]= 0.0;
-		FtauToNuMu[iLogE][jLogE]= 0.0;
-		FtauToNuTau[iLogE][jLogE]= 0.0;
-		FtauToE[iLogE][jLogE]= 0.0;
-		FtauToMu[iLogE][jLogE]= 0.0;
-		FtauToTau[iLogE][jLogE]= 0.0;
-		FtauToHadron[iLogE][jLogE]= 0.0;
-		
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    for(int b=0;b<NUMBER_OF_PARTICLES;b++){
+		propagation[a][b].clear( );
+	    }
+	    for(int iLogE=0;iLogE<dimension;iLogE++){
+		propagation[a][a].set(iLogE,iLogE, 1.0);
 	    }
-	}
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    FnuEToNuE[iLogE][iLogE] = 1.0;
-	    FnuMuToNuMu[iLogE][iLogE] = 1.0;
-	    FnuTauToNuTau[iLogE][iLogE] = 1.0;
-	    FmuToMu[iLogE][iLogE] = 1.0;
-	    FtauToTau[iLogE][iLogE] = 1.0;
 	}
     }
 
@@ -756,96 +884,15 @@ public class PropagationMatrix {
     /** Initialize ALL the propagation matrices including the store matrix. */
     public void initALL( ){
 	// Initialization
-	int iLogE;
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    int jLogE;
-	    for(jLogE=0;jLogE<dimension;jLogE++){
-		FnuEToNuE[iLogE][jLogE]= 0.0;
-		FnuEToNuMu[iLogE][jLogE]= 0.0;
-		FnuEToNuTau[iLogE][jLogE]= 0.0;
-		FnuEToE[iLogE][jLogE]= 0.0;
-		FnuEToMu[iLogE][jLogE]= 0.0;
-		FnuEToTau[iLogE][jLogE]= 0.0;
-		FnuEToHadron[iLogE][jLogE]= 0.0;
-		FnuMuToNuE[iLogE][jLogE]= 0.0;
-		FnuMuToNuMu[iLogE][jLogE]= 0.0;
-		FnuMuToNuTau[iLogE][jLogE]= 0.0;
-		FnuMuToE[iLogE][jLogE]= 0.0;
-		FnuMuToMu[iLogE][jLogE]= 0.0;
-		FnuMuToTau[iLogE][jLogE]= 0.0;
-		FnuMuToHadron[iLogE][jLogE]= 0.0;
-		FnuTauToNuE[iLogE][jLogE]= 0.0;
-		FnuTauToNuMu[iLogE][jLogE]= 0.0;
-		FnuTauToNuTau[iLogE][jLogE]= 0.0;
-		FnuTauToE[iLogE][jLogE]= 0.0;
-		FnuTauToMu[iLogE][jLogE]= 0.0;
-		FnuTauToTau[iLogE][jLogE]= 0.0;
-		FnuTauToHadron[iLogE][jLogE]= 0.0;
-		FmuToNuE[iLogE][jLogE]= 0.0;
-		FmuToNuMu[iLogE][jLogE]= 0.0;
-		FmuToNuTau[iLogE][jLogE]= 0.0;
-		FmuToE[iLogE][jLogE]= 0.0;
-		FmuToMu[iLogE][jLogE]= 0.0;
-		FmuToTau[iLogE][jLogE]= 0.0;
-		FmuToHadron[iLogE][jLogE]= 0.0;
-		FtauToNuE[iLogE][jLogE]= 0.0;
-		FtauToNuMu[iLogE][jLogE]= 0.0;
-		FtauToNuTau[iLogE][jLogE]= 0.0;
-		FtauToE[iLogE][jLogE]= 0.0;
-		FtauToMu[iLogE][jLogE]= 0.0;
-		FtauToTau[iLogE][jLogE]= 0.0;
-		FtauToHadron[iLogE][jLogE]= 0.0;
-		
-		SnuEToNuE[iLogE][jLogE]= 0.0;
-		SnuEToNuMu[iLogE][jLogE]= 0.0;
-		SnuEToNuTau[iLogE][jLogE]= 0.0;
-		SnuEToE[iLogE][jLogE]= 0.0;
-		SnuEToMu[iLogE][jLogE]= 0.0;
-		SnuEToTau[iLogE][jLogE]= 0.0;
-		SnuEToHadron[iLogE][jLogE]= 0.0;
-		SnuMuToNuE[iLogE][jLogE]= 0.0;
-		SnuMuToNuMu[iLogE][jLogE]= 0.0;
-		SnuMuToNuTau[iLogE][jLogE]= 0.0;
-		SnuMuToE[iLogE][jLogE]= 0.0;
-		SnuMuToMu[iLogE][jLogE]= 0.0;
-		SnuMuToTau[iLogE][jLogE]= 0.0;
-		SnuMuToHadron[iLogE][jLogE]= 0.0;
-		SnuTauToNuE[iLogE][jLogE]= 0.0;
-		SnuTauToNuMu[iLogE][jLogE]= 0.0;
-		SnuTauToNuTau[iLogE][jLogE]= 0.0;
-		SnuTauToE[iLogE][jLogE]= 0.0;
-		SnuTauToMu[iLogE][jLogE]= 0.0;
-		SnuTauToTau[iLogE][jLogE]= 0.0;
-		SnuTauToHadron[iLogE][jLogE]= 0.0;
-		SmuToNuE[iLogE][jLogE]= 0.0;
-		SmuToNuMu[iLogE][jLogE]= 0.0;
-		SmuToNuTau[iLogE][jLogE]= 0.0;
-		SmuToE[iLogE][jLogE]= 0.0;
-		SmuToMu[iLogE][jLogE]= 0.0;
-		SmuToTau[iLogE][jLogE]= 0.0;
-		SmuToHadron[iLogE][jLogE]= 0.0;
-		StauToNuE[iLogE][jLogE]= 0.0;
-		StauToNuMu[iLogE][jLogE]= 0.0;
-		StauToNuTau[iLogE][jLogE]= 0.0;
-		StauToE[iLogE][jLogE]= 0.0;
-		StauToMu[iLogE][jLogE]= 0.0;
-		StauToTau[iLogE][jLogE]= 0.0;
-		StauToHadron[iLogE][jLogE]= 0.0;
-		
+	init( );
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    for(int b=0;b<NUMBER_OF_PARTICLES;b++){
+		store[a][b].clear( );
+	    }
+	    for(int iLogE=0;iLogE<dimension;iLogE++){
+		store[a][a].set(iLogE,iLogE, 1.0);
 	    }
-	}
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    FnuEToNuE[iLogE][iLogE] = 1.0;
-	    FnuMuToNuMu[iLogE][iLogE] = 1.0;
-	    FnuTauToNuTau[iLogE][iLogE] = 1.0;
-	    FmuToMu[iLogE][iLogE] = 1.0;
-	    FtauToTau[iLogE][iLogE] = 1.0;
-
-	    SnuEToNuE[iLogE][iLogE] = 1.0;
-	    SnuMuToNuMu[iLogE][iLogE] = 1.0;
-	    SnuTauToNuTau[iLogE][iLogE] = 1.0;
-	    SmuToMu[iLogE][iLogE] = 1.0;
-	    StauToTau[iLogE][iLogE] = 1.0;
 	}
     }
 
@@ -863,6 +910,15 @@ public class PropagationMatrix {
 	  is read by the constructor PropagationMatrix( ).
     */
     public void calculateTransferMatrix( ){
+	calculateTransferMatrix(s.getMediumDensity( ));
+    }
+
+    /**** Calculate the elementary interaction/decay transfer matrix
+	  in the medium with the given mass density [g/cm^3] instead of
+	  the density at the current particle location. The density only
+	  enters the decay probabilities over dX [g/cm^2].
+    */
+    public void calculateTransferMatrix(double density){
 	int kLogE;
 	for(kLogE=0;kLogE<dimension;kLogE++){
 	    // total intereaction probability including decay.
@@ -918,11 +974,11 @@ public class PropagationMatrix {
 	    /** For Glashow Resonance -end **/
 	    if((decaySwitch & MUDECAY_FLAG) == MUDECAY_FLAG){
 		intProbMu[kLogE] += 
-		    dX/(c*muDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+		    dX/(c*muDecayMtx.getLifeTimeMatrix(kLogE)*density);
 	    }
 	    if((decaySwitch & TAUDECAY_FLAG) == TAUDECAY_FLAG){
 		intProbTau[kLogE] += 
-		    dX/(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+		    dX/(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*density);
 	    }
 
 
@@ -931,263 +987,273 @@ public class PropagationMatrix {
 
 
 		// To NuE
-		nuEToNuE[kLogE][jLogE] = 0.0;
+		nuEToNuE.set(kLogE,jLogE, 0.0);
                 if((interactionsSwitch & GR_FLAG) == GR_FLAG){
-                    nuEToNuE[kLogE][jLogE] += 0.5*
-                        dX*s.NA*grLeptonMtx.getTransferMatrix(kLogE,jLogE);
+                    nuEToNuE.add(kLogE,jLogE, 0.5*
+                        dX*s.NA*grLeptonMtx.getTransferMatrix(kLogE,jLogE));
                 }
 		if((interactionsSwitch & NEUTRAL_FLAG) == NEUTRAL_FLAG){
-		    nuEToNuE[kLogE][jLogE] += 
-			dX*s.NA*nuNCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    nuEToNuE.add(kLogE,jLogE, 
+			dX*s.NA*nuNCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 
-		muToNuE[kLogE][jLogE] = 0.0;
+		muToNuE.set(kLogE,jLogE, 0.0);
 		if((decaySwitch & MUDECAY_FLAG) == MUDECAY_FLAG){
-		    muToNuE[kLogE][jLogE] +=
+		    muToNuE.add(kLogE,jLogE,
   		        dX*muDecayMtx.getMuToNuEDecayMatrix(kLogE,jLogE)
-			/(c*muDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+			/(c*muDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 
-		tauToNuE[kLogE][jLogE] = 0.0;
+		tauToNuE.set(kLogE,jLogE, 0.0);
 		if((decaySwitch & TAUDECAY_FLAG) == TAUDECAY_FLAG){
-		    tauToNuE[kLogE][jLogE] += 
+		    tauToNuE.add(kLogE,jLogE, 
 		        dX*tauDecayMtx.getTauToNuDecayMatrix(kLogE,jLogE)
-		        /(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+		        /(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 
+		// No channel. These may hold the finite propagation
+		// matrix left by copyTransferMatrix( ).
+		nuMuToNuE.set(kLogE,jLogE, 0.0); nuTauToNuE.set(kLogE,jLogE, 0.0);
+
 		// To NuMu
-		nuEToNuMu[kLogE][jLogE] = 0.0;
+		nuEToNuMu.set(kLogE,jLogE, 0.0);
                 if((interactionsSwitch & GR_FLAG) == GR_FLAG){
-                    nuEToNuMu[kLogE][jLogE] += 0.5*
-                        dX*s.NA*grLeptonMtx.getTransferMatrix(kLogE,jLogE);
+                    nuEToNuMu.add(kLogE,jLogE, 0.5*
+                        dX*s.NA*grLeptonMtx.getTransferMatrix(kLogE,jLogE));
                 }
 
-		nuMuToNuMu[kLogE][jLogE] = 0.0;
+		nuMuToNuMu.set(kLogE,jLogE, 0.0);
 		if((interactionsSwitch & NEUTRAL_FLAG) == NEUTRAL_FLAG){
-		    nuMuToNuMu[kLogE][jLogE] += 
-			dX*s.NA*nuNCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    nuMuToNuMu.add(kLogE,jLogE, 
+			dX*s.NA*nuNCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 
-		muToNuMu[kLogE][jLogE] = 0.0;
+		muToNuMu.set(kLogE,jLogE, 0.0);
 		if((decaySwitch & MUDECAY_FLAG) == MUDECAY_FLAG){
-		    muToNuMu[kLogE][jLogE] +=
+		    muToNuMu.add(kLogE,jLogE,
   		        dX*muDecayMtx.getMuToNuMuDecayMatrix(kLogE,jLogE)
-			/(c*muDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+			/(c*muDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 		if((interactionsSwitch & LEPTW_FLAG) == LEPTW_FLAG){
-		    muToNuMu[kLogE][jLogE] += 
-			dX*s.NA*nuCCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    muToNuMu.add(kLogE,jLogE, 
+			dX*s.NA*nuCCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 
-		tauToNuMu[kLogE][jLogE] = 0.0;
+		tauToNuMu.set(kLogE,jLogE, 0.0);
 		if((decaySwitch & TAUDECAY_FLAG) == TAUDECAY_FLAG){
-		    tauToNuMu[kLogE][jLogE] += 
+		    tauToNuMu.add(kLogE,jLogE, 
 		        dX*tauDecayMtx.getTauToNuDecayMatrix(kLogE,jLogE)
-		        /(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+		        /(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 
+		nuTauToNuMu.set(kLogE,jLogE, 0.0); // No channel
+
 		// To NuTau
-		nuEToNuTau[kLogE][jLogE] = 0.0;
-		nuEToNuTau[kLogE][jLogE] += nuEToNuMu[kLogE][jLogE];
+		nuEToNuTau.set(kLogE,jLogE, 0.0);
+		nuEToNuTau.add(kLogE,jLogE, nuEToNuMu.get(kLogE,jLogE));
 
-		nuTauToNuTau[kLogE][jLogE] = 0.0;
-		nuTauToNuTau[kLogE][jLogE] += nuMuToNuMu[kLogE][jLogE];
+		nuTauToNuTau.set(kLogE,jLogE, 0.0);
+		nuTauToNuTau.add(kLogE,jLogE, nuMuToNuMu.get(kLogE,jLogE));
 
-		tauToNuTau[kLogE][jLogE] = 0.0;
+		tauToNuTau.set(kLogE,jLogE, 0.0);
 		if((decaySwitch & TAUDECAY_FLAG) == TAUDECAY_FLAG){
-		    tauToNuTau[kLogE][jLogE] +=
+		    tauToNuTau.add(kLogE,jLogE,
   		        dX*tauDecayMtx.getTauToNuTauDecayMatrix(kLogE,jLogE)
-			/(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+			/(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 		if((interactionsSwitch & LEPTW_FLAG) == LEPTW_FLAG){
-		    tauToNuTau[kLogE][jLogE] += 
-			dX*s.NA*nuCCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    tauToNuTau.add(kLogE,jLogE, 
+			dX*s.NA*nuCCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 
+		nuMuToNuTau.set(kLogE,jLogE, 0.0); muToNuTau.set(kLogE,jLogE, 0.0); // No channel
+
 		// To E
-		nuEToE[kLogE][jLogE] = 0.0;
+		nuEToE.set(kLogE,jLogE, 0.0);
                 if((interactionsSwitch & GR_FLAG) == GR_FLAG){
-                    nuEToE[kLogE][jLogE] += 0.5*
-                        dX*s.NA*grLeptonMtx.getLeptonTransferMatrix(kLogE,jLogE);
+                    nuEToE.add(kLogE,jLogE, 0.5*
+                        dX*s.NA*grLeptonMtx.getLeptonTransferMatrix(kLogE,jLogE));
                 }
 		if((interactionsSwitch & CHARGED_FLAG) == CHARGED_FLAG){
-		    nuEToE[kLogE][jLogE] += 
-			dX*s.NA*nuCCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    nuEToE.add(kLogE,jLogE, 
+			dX*s.NA*nuCCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 
-		muToE[kLogE][jLogE] = 0.0; tauToE[kLogE][jLogE] = 0.0;
+		nuMuToE.set(kLogE,jLogE, 0.0); nuTauToE.set(kLogE,jLogE, 0.0); // No channel
+
+		muToE.set(kLogE,jLogE, 0.0); tauToE.set(kLogE,jLogE, 0.0);
 		if((interactionsSwitch & BREMSS_FLAG) == BREMSS_FLAG){
-		    muToE[kLogE][jLogE] += 
-			dX*s.NA/massNumber*muBremssMtx.getTransferMatrix(kLogE,jLogE);
-		    tauToE[kLogE][jLogE] += 
-			dX*s.NA/massNumber*tauBremssMtx.getTransferMatrix(kLogE,jLogE);
+		    muToE.add(kLogE,jLogE, 
+			dX*s.NA/massNumber*muBremssMtx.getTransferMatrix(kLogE,jLogE));
+		    tauToE.add(kLogE,jLogE, 
+			dX*s.NA/massNumber*tauBremssMtx.getTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & KNOCK_FLAG) == KNOCK_FLAG){
-		    muToE[kLogE][jLogE] += 
-			dX*s.NA/massNumber*muKnockOnMtx.getTransferMatrix(kLogE,jLogE);
-		    tauToE[kLogE][jLogE] += 
-			dX*s.NA/massNumber*tauKnockOnMtx.getTransferMatrix(kLogE,jLogE);
+		    muToE.add(kLogE,jLogE, 
+			dX*s.NA/massNumber*muKnockOnMtx.getTransferMatrix(kLogE,jLogE));
+		    tauToE.add(kLogE,jLogE, 
+			dX*s.NA/massNumber*tauKnockOnMtx.getTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & PAIRC_FLAG) == PAIRC_FLAG){
-		    muToE[kLogE][jLogE] += 2.0*
-			dX*s.NA/massNumber*muToEPairCMtx.getTransferMatrix(kLogE,jLogE);
-		    tauToE[kLogE][jLogE] += 2.0*
-			dX*s.NA/massNumber*tauToEPairCMtx.getTransferMatrix(kLogE,jLogE);
+		    muToE.add(kLogE,jLogE, 2.0*
+			dX*s.NA/massNumber*muToEPairCMtx.getTransferMatrix(kLogE,jLogE));
+		    tauToE.add(kLogE,jLogE, 2.0*
+			dX*s.NA/massNumber*tauToEPairCMtx.getTransferMatrix(kLogE,jLogE));
 		}
 
 		if((decaySwitch & TAUDECAY_FLAG) == TAUDECAY_FLAG){
-		    tauToE[kLogE][jLogE] += 
+		    tauToE.add(kLogE,jLogE, 
 		        dX*tauDecayMtx.getTauToChargedLeptonDecayMatrix(kLogE,jLogE)
-		        /(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+		        /(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 
 		if((decaySwitch & MUDECAY_FLAG) == MUDECAY_FLAG){
-		    muToE[kLogE][jLogE] +=
+		    muToE.add(kLogE,jLogE,
   		        dX*muDecayMtx.getMuToEDecayMatrix(kLogE,jLogE)
-			/(c*muDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+			/(c*muDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 
 		// To Mu
-		nuEToMu[kLogE][jLogE] = 0.0;
+		nuEToMu.set(kLogE,jLogE, 0.0);
                 if((interactionsSwitch & GR_FLAG) == GR_FLAG){
-                    nuEToMu[kLogE][jLogE] += 0.5*
-                        dX*s.NA*grLeptonMtx.getLeptonTransferMatrix(kLogE,jLogE);
+                    nuEToMu.add(kLogE,jLogE, 0.5*
+                        dX*s.NA*grLeptonMtx.getLeptonTransferMatrix(kLogE,jLogE));
                 }
 
-		nuMuToMu[kLogE][jLogE] = 0.0;
+		nuMuToMu.set(kLogE,jLogE, 0.0);
 		if((interactionsSwitch & CHARGED_FLAG) == CHARGED_FLAG){
-		    nuMuToMu[kLogE][jLogE] += 
-			dX*s.NA*nuCCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    nuMuToMu.add(kLogE,jLogE, 
+			dX*s.NA*nuCCMtx.getLeptonTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
-		nuTauToMu[kLogE][jLogE] = 0.0; // reserved for the new physics
+		nuTauToMu.set(kLogE,jLogE, 0.0); // reserved for the new physics
 
-		muToMu[kLogE][jLogE] = 0.0; tauToMu[kLogE][jLogE] = 0.0;
+		muToMu.set(kLogE,jLogE, 0.0); tauToMu.set(kLogE,jLogE, 0.0);
 		if((interactionsSwitch & PAIRCH_FLAG) == PAIRCH_FLAG){
-		    muToMu[kLogE][jLogE] += 2.0*
-			dX*s.NA/massNumber*muToMuPairCMtx.getTransferMatrix(kLogE,jLogE);
-		    muToMu[kLogE][jLogE] += dX*s.NA/massNumber*
-			muToMuPairCMtx.getLeptonTransferMatrix(kLogE,jLogE);
-		    muToMu[kLogE][jLogE] += dX*s.NA/massNumber*
-			muToTauPairCMtx.getLeptonTransferMatrix(kLogE,jLogE);
-		    tauToMu[kLogE][jLogE] += 2.0*
-			dX*s.NA/massNumber*tauToMuPairCMtx.getTransferMatrix(kLogE,jLogE);
+		    muToMu.add(kLogE,jLogE, 2.0*
+			dX*s.NA/massNumber*muToMuPairCMtx.getTransferMatrix(kLogE,jLogE));
+		    muToMu.add(kLogE,jLogE, dX*s.NA/massNumber*
+			muToMuPairCMtx.getLeptonTransferMatrix(kLogE,jLogE));
+		    muToMu.add(kLogE,jLogE, dX*s.NA/massNumber*
+			muToTauPairCMtx.getLeptonTransferMatrix(kLogE,jLogE));
+		    tauToMu.add(kLogE,jLogE, 2.0*
+			dX*s.NA/massNumber*tauToMuPairCMtx.getTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & PAIRC_FLAG) == PAIRC_FLAG){
-		    muToMu[kLogE][jLogE] += dX*s.NA/massNumber*
-			muToEPairCMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    muToMu.add(kLogE,jLogE, dX*s.NA/massNumber*
+			muToEPairCMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & BREMSS_FLAG) == BREMSS_FLAG){
-		    muToMu[kLogE][jLogE] += dX*s.NA/massNumber*
-			muBremssMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    muToMu.add(kLogE,jLogE, dX*s.NA/massNumber*
+			muBremssMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & KNOCK_FLAG) == KNOCK_FLAG){
-		    muToMu[kLogE][jLogE] += dX*s.NA/massNumber*
-			muKnockOnMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    muToMu.add(kLogE,jLogE, dX*s.NA/massNumber*
+			muKnockOnMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & PHOTO_FLAG) == PHOTO_FLAG){
-		    muToMu[kLogE][jLogE] += dX*s.NA/massNumber*
-			muPhotoNuclMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    muToMu.add(kLogE,jLogE, dX*s.NA/massNumber*
+			muPhotoNuclMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		if((decaySwitch & TAUDECAY_FLAG) == TAUDECAY_FLAG){
-		    tauToMu[kLogE][jLogE] += 
+		    tauToMu.add(kLogE,jLogE, 
 			dX*tauDecayMtx.getTauToChargedLeptonDecayMatrix(kLogE,jLogE)/
-			(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+			(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 
 		// To Tau
-		nuEToTau[kLogE][jLogE] = 0.0;
-		nuEToTau[kLogE][jLogE] += nuEToMu[kLogE][jLogE];
+		nuEToTau.set(kLogE,jLogE, 0.0);
+		nuEToTau.add(kLogE,jLogE, nuEToMu.get(kLogE,jLogE));
 
-		nuMuToTau[kLogE][jLogE] = 0.0; // reserved for the new physics
+		nuMuToTau.set(kLogE,jLogE, 0.0); // reserved for the new physics
 
-		nuTauToTau[kLogE][jLogE] = 0.0;
-		nuTauToTau[kLogE][jLogE] += nuMuToMu[kLogE][jLogE];
+		nuTauToTau.set(kLogE,jLogE, 0.0);
+		nuTauToTau.add(kLogE,jLogE, nuMuToMu.get(kLogE,jLogE));
 
-		muToTau[kLogE][jLogE] = 0.0; tauToTau[kLogE][jLogE] = 0.0;
+		muToTau.set(kLogE,jLogE, 0.0); tauToTau.set(kLogE,jLogE, 0.0);
 		if((interactionsSwitch & PAIRCH_FLAG) == PAIRCH_FLAG){
-		    muToTau[kLogE][jLogE] += 2.0*
-			dX*s.NA/massNumber*muToTauPairCMtx.getTransferMatrix(kLogE,jLogE);
-		    tauToTau[kLogE][jLogE] += 2.0*
-			dX*s.NA/massNumber*tauToTauPairCMtx.getTransferMatrix(kLogE,jLogE);
-		    tauToTau[kLogE][jLogE] += dX*s.NA/massNumber*
-			tauToTauPairCMtx.getLeptonTransferMatrix(kLogE,jLogE);
-		    tauToTau[kLogE][jLogE] += dX*s.NA/massNumber*
-			tauToMuPairCMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    muToTau.add(kLogE,jLogE, 2.0*
+			dX*s.NA/massNumber*muToTauPairCMtx.getTransferMatrix(kLogE,jLogE));
+		    tauToTau.add(kLogE,jLogE, 2.0*
+			dX*s.NA/massNumber*tauToTauPairCMtx.getTransferMatrix(kLogE,jLogE));
+		    tauToTau.add(kLogE,jLogE, dX*s.NA/massNumber*
+			tauToTauPairCMtx.getLeptonTransferMatrix(kLogE,jLogE));
+		    tauToTau.add(kLogE,jLogE, dX*s.NA/massNumber*
+			tauToMuPairCMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & PAIRC_FLAG) == PAIRC_FLAG){
-		    tauToTau[kLogE][jLogE] += dX*s.NA/massNumber*
-			tauToEPairCMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    tauToTau.add(kLogE,jLogE, dX*s.NA/massNumber*
+			tauToEPairCMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & BREMSS_FLAG) == BREMSS_FLAG){
-		    tauToTau[kLogE][jLogE] += dX*s.NA/massNumber*
-			tauBremssMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    tauToTau.add(kLogE,jLogE, dX*s.NA/massNumber*
+			tauBremssMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & KNOCK_FLAG) == KNOCK_FLAG){
-		    tauToTau[kLogE][jLogE] += dX*s.NA/massNumber*
-			tauKnockOnMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    tauToTau.add(kLogE,jLogE, dX*s.NA/massNumber*
+			tauKnockOnMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		if((interactionsSwitch & PHOTO_FLAG) == PHOTO_FLAG){
-		    tauToTau[kLogE][jLogE] += dX*s.NA/massNumber*
-			tauPhotoNuclMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    tauToTau.add(kLogE,jLogE, dX*s.NA/massNumber*
+			tauPhotoNuclMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		// To Hadron
-		nuEToHadron[kLogE][jLogE]= 0.0;
+		nuEToHadron.set(kLogE,jLogE, 0.0);
                 if((interactionsSwitch & GR_FLAG) == GR_FLAG){
-                    nuEToHadron[kLogE][jLogE] += 0.5*
-			dX*s.NA*grHadronMtx.getTransferMatrix(kLogE,jLogE);
+                    nuEToHadron.add(kLogE,jLogE, 0.5*
+			dX*s.NA*grHadronMtx.getTransferMatrix(kLogE,jLogE));
                 }
 		if((interactionsSwitch & CHARGED_FLAG) == CHARGED_FLAG){
-		    nuEToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuCCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    nuEToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuCCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 		if((interactionsSwitch & NEUTRAL_FLAG) == NEUTRAL_FLAG){
-		    nuEToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuNCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    nuEToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuNCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 
-		nuMuToHadron[kLogE][jLogE]= 0.0;
+		nuMuToHadron.set(kLogE,jLogE, 0.0);
 		if((interactionsSwitch & CHARGED_FLAG) == CHARGED_FLAG){
-		    nuMuToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuCCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    nuMuToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuCCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 		if((interactionsSwitch & NEUTRAL_FLAG) == NEUTRAL_FLAG){
 		    /** Modified ! **/
-		    nuMuToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuNCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    nuMuToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuNCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 
-		nuTauToHadron[kLogE][jLogE] = 0.0;
-		nuTauToHadron[kLogE][jLogE] += nuMuToHadron[kLogE][jLogE];
+		nuTauToHadron.set(kLogE,jLogE, 0.0);
+		nuTauToHadron.add(kLogE,jLogE, nuMuToHadron.get(kLogE,jLogE));
 
-		muToHadron[kLogE][jLogE] = 0.0;tauToHadron[kLogE][jLogE] = 0.0;
+		muToHadron.set(kLogE,jLogE, 0.0);tauToHadron.set(kLogE,jLogE, 0.0);
 		if((interactionsSwitch & PHOTO_FLAG) == PHOTO_FLAG){
-		    muToHadron[kLogE][jLogE] += dX*s.NA/massNumber*
-			muPhotoNuclMtx.getTransferMatrix(kLogE,jLogE);
-		    tauToHadron[kLogE][jLogE] += dX*s.NA/massNumber*
-			tauPhotoNuclMtx.getTransferMatrix(kLogE,jLogE);
+		    muToHadron.add(kLogE,jLogE, dX*s.NA/massNumber*
+			muPhotoNuclMtx.getTransferMatrix(kLogE,jLogE));
+		    tauToHadron.add(kLogE,jLogE, dX*s.NA/massNumber*
+			tauPhotoNuclMtx.getTransferMatrix(kLogE,jLogE));
 		}
 		if((decaySwitch & TAUDECAY_FLAG) == TAUDECAY_FLAG){
-		    tauToHadron[kLogE][jLogE] += 
+		    tauToHadron.add(kLogE,jLogE, 
 		        dX*tauDecayMtx.getTauToHadronDecayMatrix(kLogE,jLogE)
-		        /(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*s.getMediumDensity( ));
+		        /(c*tauDecayMtx.getLifeTimeMatrix(kLogE)*density));
 		}
 		if((interactionsSwitch & LEPTW_FLAG) == LEPTW_FLAG){
-		    tauToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuCCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor;
-		    muToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuCCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor;
+		    tauToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuCCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor);
+		    muToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuCCMtx.getTransferMatrix(kLogE,jLogE)*neutrinoFactor);
 		}
 	    }
 	}
@@ -1205,2509 +1271,367 @@ public class PropagationMatrix {
      are stored in FmuToNuE[iLogE][kLogE] etc.
     */
     public void propagateDX( ){
+	setSurvivalProbability( );
+	setIntermediates(transfer);
+	runKernel(DX_KERNEL);
+    }
 
-	double dNFromNuE,dNFromNuMu,dNFromNuTau,dNFromMu,dNFromTau;
-
-	int iLogE;
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    int jLogE;
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		int kLogE;
-
-		//Interactions and Decays to NuE
-		dNFromNuE = 0.0;  //From NuE
-		dNFromNuMu = 0.0; //From NuMu
-		dNFromNuTau = 0.0;//From NuTau
-		dNFromMu = 0.0;   //From Muons
-		dNFromTau = 0.0;  //From Tauons
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-
-		    // NuE to NuE
-		    /** For Glashow Resonance **/
-		    dNFromNuE += 
-			FnuEToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		    //NuMu to NuE
-		    dNFromNuMu += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE] +
-			FnuMuToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE] +
-			FnuMuToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		    //NuTau to NuE
-		    dNFromNuTau += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE] + 
-			FnuTauToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		    //Mu to NuE
-		    dNFromMu += 
-			FmuToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE] +
-			FmuToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE] +
-			FmuToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		    //tau to nuE
-		    dNFromTau += 
-			FtauToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE] +
-			FtauToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE] + 
-			FtauToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-
-		}
-
-		/** For Glashow Resonance **/
-		//dNFromNuE += FnuEToNuE[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		dNFromNuE += FnuEToNuE[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]-intProbNuE[jLogE]);
-		FnuEToNuE[iLogE][jLogE] = dNFromNuE;
-
-	        dNFromNuMu += FnuMuToNuE[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]-intProbNuE[jLogE]);
-		FnuMuToNuE[iLogE][jLogE] = dNFromNuMu;
-
-	        dNFromNuTau += FnuTauToNuE[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]-intProbNuE[jLogE]);
-		FnuTauToNuE[iLogE][jLogE] = dNFromNuTau;
-
-	        dNFromMu += FmuToNuE[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]-intProbNuE[jLogE]);
-		FmuToNuE[iLogE][jLogE] = dNFromMu;
-
-	        dNFromTau += FtauToNuE[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]-intProbNuE[jLogE]);
-		FtauToNuE[iLogE][jLogE] = dNFromTau;
-
-		
-
-		//Interactions and Decays to NuMu
-		dNFromNuE = 0.0;  //From NuE
-		dNFromNuMu = 0.0; //From NuMu
-		dNFromNuTau = 0.0;//From NuTau
-		dNFromMu = 0.0;   //From Muons
-		dNFromTau = 0.0;  //From Tauons
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-
-		    /** For Glashow Resonance **/
-		    //NuE to NuMu
-		    dNFromNuE += 
-			FnuEToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE] + 
-			FnuEToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		    //NuMu to NuMu
-		    dNFromNuMu += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE] +
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE] +
-			FnuMuToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE] +
-			FnuMuToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		    //NuTau to NuMu
-		    dNFromNuTau += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE] +
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE] +
-			FnuTauToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE] +
-			FnuTauToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		    //Mu to NuMu
-		    dNFromMu += 
-			FmuToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE] +
-			FmuToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE] +
-			FmuToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE] +
-			FmuToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		    //tau to nuMu
-		    dNFromTau += 
-			FtauToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE] +
-			FtauToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE] +
-			FtauToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE] +
-			FtauToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
+    /** Rows [iLogEmin,iLogEmax) of propagateDX( ). */
+    protected void propagateDX(int iLogEmin, int iLogEmax){
+	multiplyChannelTensor(propagation,transfer,propagation,survivalProb,
+			      propagation,iLogEmin,iLogEmax);
+    }
 
-		}
 
-		/** For Glashow Resonance **/
-		dNFromNuE += FnuEToNuMu[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FnuEToNuMu[iLogE][jLogE] = dNFromNuE;
-
-		dNFromNuMu += FnuMuToNuMu[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FnuMuToNuMu[iLogE][jLogE] = dNFromNuMu;
-
-	        dNFromNuTau += FnuTauToNuMu[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FnuTauToNuMu[iLogE][jLogE] = dNFromNuTau;
-
-	        dNFromMu += FmuToNuMu[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FmuToNuMu[iLogE][jLogE] = dNFromMu;
-
-	        dNFromTau += FtauToNuMu[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FtauToNuMu[iLogE][jLogE] = dNFromTau;
-
-
-
-		//Interactions and Decays to NuTau
-		dNFromNuE = 0.0;  //From NuE
-		dNFromNuMu = 0.0; //From NuMu
-		dNFromNuTau = 0.0;//From NuTau
-		dNFromMu = 0.0;   //From Muons
-		dNFromTau = 0.0;  //From Tauons
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-
-		    /** For Glashow Resonance **/
-		    //NuE to NuTau
-		    dNFromNuE += 
-			FnuEToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE] +
-			FnuEToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-
-		    //NuMu to NuTau
-		    dNFromNuMu += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE] +
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE] +
-			FnuMuToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-		    //NuTau to NuTau
-		    dNFromNuTau += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE] +
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE] +
-			FnuTauToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-		    //Mu to NuTau
-		    dNFromMu += 
-			FmuToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE] +
-			FmuToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE] +
-			FmuToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-		    //tau to nuTau
-		    dNFromTau += 
-			FtauToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE] +
-			FtauToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE] +
-			FtauToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
 
-		}
 
-		/** For Glashow Resonance **/
-		dNFromNuE += FnuEToNuTau[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FnuEToNuTau[iLogE][jLogE] = dNFromNuE;
-
-		dNFromNuMu += FnuMuToNuTau[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FnuMuToNuTau[iLogE][jLogE] = dNFromNuMu;
-
-	        dNFromNuTau += FnuTauToNuTau[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FnuTauToNuTau[iLogE][jLogE] = dNFromNuTau;
-
-	        dNFromMu += FmuToNuTau[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FmuToNuTau[iLogE][jLogE] = dNFromMu;
-
-	        dNFromTau += FtauToNuTau[iLogE][jLogE]*(1.0-intProbNeutrino[jLogE]);
-		FtauToNuTau[iLogE][jLogE] = dNFromTau;
-
-
-
-		//Interactions and Decays to Electrons
-		dNFromNuE = 0.0;  //From NuE
-		dNFromNuMu = 0.0; //From NuMu
-		dNFromNuTau = 0.0;//From NuTau
-		dNFromMu = 0.0;   //From Muons
-		dNFromTau = 0.0;  //From Tauons
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    
-		    /** For Glashow Resonance **/
-		    // NuE to Electrons
-		    dNFromNuE += 
-			FnuEToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*muToE[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		    //NuMu to Electrons
-		    dNFromNuMu += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToE[kLogE][jLogE] + 
-			FnuMuToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		    //NuTau to Electrons
-		    dNFromNuTau += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToE[kLogE][jLogE] + 
-			FnuTauToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		    //Mu to Electrons
-		    dNFromMu +=
-			FmuToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToE[kLogE][jLogE]+ 
-			FmuToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		    //tau to Electrons
-		    dNFromTau += 
-			FtauToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToE[kLogE][jLogE]+ 
-			FtauToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
+    /**** Propagate the particles involved over a 2^n Delta x [g/cm^2] 
+	  where Delta x is the propagation distance 
+	  for the finite propagation matrix.
+	  "n" is the times to call this method.
+	  It doubles the finit propagation matrix (FnuEtoNuE[iLogE][jLog] for example)
+	  calculated by propagateDX( ). The resultant matrix element describes
+	  the energy distribution of particles.
+    */
+    public void propagateDXpowered( ){
+	setIntermediates(propagation);
+	runKernel(DXPOWERED_KERNEL);
+	runKernel(COPY_KERNEL);
+    }
 
-		}
+    /** Rows [iLogEmin,iLogEmax) of propagateDXpowered( ). */
+    protected void propagateDXpowered(int iLogEmin, int iLogEmax){
+	multiplyChannelTensor(propagation,propagation,propagation,null,
+			      temp,iLogEmin,iLogEmax);
+    }
 
-		/** For Glashow Resonance **/
-	        dNFromNuE += FnuEToE[iLogE][jLogE];
-		FnuEToE[iLogE][jLogE] = dNFromNuE;
-
-	        dNFromNuMu += FnuMuToE[iLogE][jLogE];
-		FnuMuToE[iLogE][jLogE] = dNFromNuMu;
-
-	        dNFromNuTau += FnuTauToE[iLogE][jLogE];
-		FnuTauToE[iLogE][jLogE] = dNFromNuTau;
-
-	        dNFromMu += FmuToE[iLogE][jLogE];
-		FmuToE[iLogE][jLogE] = dNFromMu;
-
-	        dNFromTau += FtauToE[iLogE][jLogE];
-		FtauToE[iLogE][jLogE] = dNFromTau;
-
-
-
-		//Interactions and Decays to Muons
-		dNFromNuE = 0.0;  //From NuE
-		dNFromNuMu = 0.0; //From NuMu
-		dNFromNuTau = 0.0;//From NuTau
-		dNFromMu = 0.0;   //From Muons
-		dNFromTau = 0.0;  //From Tauons
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-
-		    /** For Glashow Resonance **/
-		    //NuE to Muons
-		    dNFromNuE += 
-			FnuEToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*muToMu[kLogE][jLogE] + 
-			FnuEToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-
-		    // NuMu to Muons
-		    dNFromNuMu += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE] +
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToMu[kLogE][jLogE] + 
-			FnuMuToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-
-		    //NuTau to Muons
-		    dNFromNuTau += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE] +
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToMu[kLogE][jLogE]+ // reserved for new physics
-			FnuTauToMu[iLogE][kLogE]*muToMu[kLogE][jLogE] + 
-			FnuTauToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-		    //Mu to Muons
-		    dNFromMu += 
-			FmuToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE] +
-			FmuToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToMu[kLogE][jLogE] +
-			FmuToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-		    //tau to Muons
-		    dNFromTau += 
-			FtauToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE] +
-			FtauToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+ 
-			FtauToMu[iLogE][kLogE]*muToMu[kLogE][jLogE]+ 
-			FtauToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
 
-		}
+    /** Copy the rows [iLogEmin,iLogEmax) of the temporary matrix to the propagation matrix. */
+    protected void copyTempToPropagationMatrix(int iLogEmin, int iLogEmax){
+	copyRows(temp,propagation,iLogEmin,iLogEmax);
+    }
 
 
-		/** For Glashow Resonance **/
-		dNFromNuE += FnuEToMu[iLogE][jLogE]*(1.0-intProbMu[jLogE]);
-		FnuEToMu[iLogE][jLogE] = dNFromNuE;
-
-	        dNFromNuMu += FnuMuToMu[iLogE][jLogE]*(1.0-intProbMu[jLogE]);
-		FnuMuToMu[iLogE][jLogE] = dNFromNuMu;
-
-	        dNFromNuTau += FnuTauToMu[iLogE][jLogE]*(1.0-intProbMu[jLogE]);
-		FnuTauToMu[iLogE][jLogE] = dNFromNuTau;
-
-	        dNFromMu += FmuToMu[iLogE][jLogE]*(1.0-intProbMu[jLogE]);
-		FmuToMu[iLogE][jLogE] = dNFromMu;
-
-	        dNFromTau += FtauToMu[iLogE][jLogE]*(1.0-intProbMu[jLogE]);
-		FtauToMu[iLogE][jLogE] = dNFromTau;
-
-
-
-		//Interactions and Decays to Taus
-		dNFromNuE = 0.0;  //From NuE
-		dNFromNuMu = 0.0; //From NuMu
-		dNFromNuTau = 0.0;//From NuTau
-		dNFromMu = 0.0;   //From Muons
-		dNFromTau = 0.0;  //From Tauons
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-
-		    /** For Glashow Resonance **/
-		    //NuE to Tauons
-		    dNFromNuE += 
-			FnuEToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE] +
-			FnuEToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+ 
-			FnuEToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-
-		    // NuTau to Tauons
-		    dNFromNuTau += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE] +
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+ 
-			FnuTauToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-
-		    //NuMu to Tauons
-		    dNFromNuMu += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE] +
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToTau[kLogE][jLogE]+ // reserved for new physics
-			FnuMuToMu[iLogE][kLogE]*muToTau[kLogE][jLogE] + 
-			FnuMuToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-		    //Mu to Tauons
-		    dNFromMu += 
-			FmuToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE] +
-			FmuToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+ 
-			FmuToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-		    //tau to Tauons
-		    dNFromTau += 
-			FtauToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE] +
-			FtauToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+ 
-			FtauToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
+    /**** Propagate the particles involved over X [g/cm^2] 
+	  where Delta x is the propagation distance 
+	  for the finite propagation matrix.
+	  It multiples the finit propagation matrix calculated by
+	  propagateDX( ) and proagateDXpowerd( ) and storerd
+	  in nuETonuE[][] etc by copyTransferMatrix( ).
+    */
+    public void propagateX( ){
+	setIntermediates(transfer);
+	runKernel(X_KERNEL);
+	runKernel(COPY_KERNEL);
+    }
 
-		}
+    /** Rows [iLogEmin,iLogEmax) of propagateX( ). */
+    protected void propagateX(int iLogEmin, int iLogEmax){
+	multiplyChannelTensor(propagation,transfer,propagation,null,
+			      temp,iLogEmin,iLogEmax);
+    }
 
-		/** For Glashow Resonance **/
-		dNFromNuE += FnuEToTau[iLogE][jLogE]*(1.0-intProbTau[jLogE]);
-		FnuEToTau[iLogE][jLogE] = dNFromNuE;
-
-	        dNFromNuMu += FnuMuToTau[iLogE][jLogE]*(1.0-intProbTau[jLogE]);
-		FnuMuToTau[iLogE][jLogE] = dNFromNuMu;
-
-	        dNFromNuTau += FnuTauToTau[iLogE][jLogE]*(1.0-intProbTau[jLogE]);
-		FnuTauToTau[iLogE][jLogE] = dNFromNuTau;
-
-	        dNFromMu += FmuToTau[iLogE][jLogE]*(1.0-intProbTau[jLogE]);
-		FmuToTau[iLogE][jLogE] = dNFromMu;
-
-	        dNFromTau += FtauToTau[iLogE][jLogE]*(1.0-intProbTau[jLogE]);
-		FtauToTau[iLogE][jLogE] = dNFromTau;
-
-
-
-		//Interactions and Decays to Hadrons
-		dNFromNuE = 0.0;  //From NuE
-		dNFromNuMu = 0.0; //From NuMu
-		dNFromNuTau = 0.0;//From NuTau
-		dNFromMu = 0.0;   //From Muons
-		dNFromTau = 0.0;  //From Tauons
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-
-		    /** For Glashow Resonance **/
-		    // Neutrinos to Hadrons
-		    dNFromNuE += 
-			FnuEToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE] + 
-			FnuEToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE] + 
-			FnuEToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE] + 
-			FnuEToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-
-		    dNFromNuMu +=
-			FnuMuToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE] +
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE] + 
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE] + 
-			FnuMuToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE] + 
-			FnuMuToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-
-		    dNFromNuTau +=
-			FnuTauToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE] +
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE] + 
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE] + 
-			FnuTauToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE] + 
-			FnuTauToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-
-		    //Mu to Hadrons
-		    dNFromMu +=
-			FmuToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE] +
-			FmuToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE] + 
-			FmuToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE] + 
-			FmuToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE] + 
-			FmuToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-
-		    //tau to Hadrons
-		    dNFromTau +=
-			FtauToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE] +
-			FtauToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE] + 
-			FtauToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE] + 
-			FtauToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE] + 
-			FtauToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-		}
 
-	        dNFromNuE += FnuEToHadron[iLogE][jLogE];
-		FnuEToHadron[iLogE][jLogE] = dNFromNuE;
+    /** Copy the transfer matrix */
+    public void copyTransferMatrix( ){
+	copyRows(propagation,transfer,0,dimension);
+    }
 
-	        dNFromNuMu += FnuMuToHadron[iLogE][jLogE];
-		FnuMuToHadron[iLogE][jLogE] = dNFromNuMu;
 
-	        dNFromNuTau += FnuTauToHadron[iLogE][jLogE];
-		FnuTauToHadron[iLogE][jLogE] = dNFromNuTau;
 
-	        dNFromMu += FmuToHadron[iLogE][jLogE];
-		FmuToHadron[iLogE][jLogE] = dNFromMu;
 
-	        dNFromTau += FtauToHadron[iLogE][jLogE];
-		FtauToHadron[iLogE][jLogE] = dNFromTau;
 
+    /****
+	 Store the propagation matrix calculated so far
+	 to the store matrix which save energy distribution
+	 of neutrinos and leptons propagating to the current
+	 location.
+	 You can then initialize the propagation matrix
+	 by init( ) and start another propagation calculation
+	 in a different section of the trajectory.
+	 You can get the results stored here back
+	 to the propagation matrix
+	 by calling the method copyTransferMatrixFromStore( ).
+    */
+    public void storePropagateMatrix( ){
+	setIntermediates(propagation);
+	runKernel(STORE_KERNEL);
+	runKernel(COPY_STORE_KERNEL);
+    }
 
+    /** Rows [iLogEmin,iLogEmax) of storePropagateMatrix( ). */
+    protected void storePropagateMatrix(int iLogEmin, int iLogEmax){
+	// The sink channels take the elements of the propagation matrix
+	multiplyChannelTensor(store,propagation,propagation,null,
+			      temp,iLogEmin,iLogEmax);
+    }
 
-	    }
-	}
 
+    /** Copy the rows [iLogEmin,iLogEmax) of the temporary matrix to the store matrix. */
+    protected void copyTempToStoreMatrix(int iLogEmin, int iLogEmax){
+	copyRows(temp,store,iLogEmin,iLogEmax);
     }
 
 
+    /** Copy the transfer matrix from Store matrix*/
+    public void copyTransferMatrixFromStore( ){
+	copyRows(store,propagation,0,dimension);
+    }
 
 
-    /**** Propagate the particles involved over a 2^n Delta x [g/cm^2] 
-	  where Delta x is the propagation distance 
-	  for the finite propagation matrix.
-	  "n" is the times to call this method.
-	  It doubles the finit propagation matrix (FnuEtoNuE[iLogE][jLog] for example)
-	  calculated by propagateDX( ). The resultant matrix element describes
-	  the energy distribution of particles.
+    /****
+	 Multiply the store matrix by the propagation matrix, S = S x F.
+	 Unlike storePropagateMatrix( ), the electrons and hadrons
+	 already in the store matrix are kept and those produced
+	 over the propagation matrix are added, so that the store matrix
+	 is the propagation matrix over the whole path traced so far.
     */
-    public void propagateDXpowered( ){
-	int iLogE,jLogE,kLogE;
-
-	/** For Glashow Resonance -begin **/
-	// NuE to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[0][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[0][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE] +
-			FnuEToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[1][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[1][iLogE][jLogE] += 
-			FnuMuToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[2][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[2][iLogE][jLogE] += 
-			FnuTauToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[3][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[3][iLogE][jLogE] += 
-			FmuToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[4][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[4][iLogE][jLogE] += 
-			FtauToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[5][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[5][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			FnuEToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			FnuEToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			FnuEToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[6][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[6][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuMuToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
+    public void multiplyStoreMatrix( ){
+	setIntermediates(propagation);
+	runKernel(MULTIPLY_STORE_KERNEL);
+	runKernel(COPY_STORE_KERNEL);
+    }
 
-	// NuTau to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[7][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[7][iLogE][jLogE] += 
-                        /** For Glashow Resonance **/
-			FnuTauToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
+    /** Rows [iLogEmin,iLogEmax) of multiplyStoreMatrix( ). */
+    protected void multiplyStoreMatrix(int iLogEmin, int iLogEmax){
+	multiplyChannelTensor(store,propagation,store,null,
+			      temp,iLogEmin,iLogEmax);
+    }
 
-	// Mu to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[8][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[8][iLogE][jLogE] += 
-                        /** For Glashow Resonance **/
-			FmuToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
 
-	// Tau to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[9][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[9][iLogE][jLogE] += 
-                        /** For Glashow Resonance **/
-			FtauToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
+    /****
+	 <pre>
+	 Propagate the particles over a uniform layer of numberOfSteps x dX [g/cm^2]
+	 and multiply the store matrix by the propagation matrix of the layer.
+	 The transfer matrix must be calculated by calculateTransferMatrix( )
+	 for the density of the layer before. The propagation matrix
+	 over dX is raised to the power of numberOfSteps by the binary powering,
+
+	   F^n = F^(2^k1) x F^(2^k2) x ...  n = 2^k1 + 2^k2 + ...
+
+	 so that it takes only 1 + floor(log2 n) + (the number of bits of n)
+	 matrix products. The propagation matrix is overwritten.
+	 </pre>
+    */
+    public void propagateLayer(long numberOfSteps){
+	init( );
+	propagateDX( ); // F over dX
+	long n = numberOfSteps;
+	while(true){
+	    if((n & 1L) == 1L) multiplyStoreMatrix( );
+	    n >>= 1;
+	    if(n == 0L) break;
+	    propagateDXpowered( ); // F over 2 x (dX x 2^k)
 	}
+    }
 
 
+    /** Tag of the configuration deciding the transfer matrix other than
+	the density and dX, i.e. the class, the dimension, the switches, the neutrino
+	factor, the medium and the interaction matrix files. The matrices
+	calculated by the objects with the same tag are interchangeable. */
+    public String getConfigurationTag( ){
+	return getClass( ).getSimpleName( ) + "_dim" + dimension + 
+	    "_int" + interactionsSwitch + "_decay" + decaySwitch + 
+	    "_nf" + neutrinoFactor + "_A" + massNumber + 
+	    "_" + Integer.toHexString(interactionFiles.hashCode( ));
+    }
 
 
-	/** For Glashow Resonance -begin **/
-	// NuE to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[10][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[10][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			FnuEToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			FnuEToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			FnuEToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -begin **/
-
-	// NuMu to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[11][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[11][iLogE][jLogE] += 
-                        /** For Glashow Resonance **/
-			FnuMuToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
+    /** Largest step size [g/cm^2] allowed in the medium with the density [g/cm^3].
+	The decay length in g/cm^2 is proportional to the density
+	so dXDecay is scaled from the density where it was determined. */
+    public double getStepSize(double density){
+	double dXDecayHere = dXDecay*density/dXDecayDensity;
+	if(dXDecayHere<dXInteraction) return dXDecayHere;
+	return dXInteraction;
+    }
 
-	// NuTau to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[12][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[12][iLogE][jLogE] += 
-                        /** For Glashow Resonance **/
-			FnuTauToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
+    /** Survival probability over dX of the propagating particles. */
+    protected void setSurvivalProbability( ){
+	for(int jLogE=0;jLogE<dimension;jLogE++){
+	    /** For Glashow Resonance **/
+	    survivalProb[NUE_INDEX][jLogE] = 1.0-intProbNeutrino[jLogE]-intProbNuE[jLogE];
+	    survivalProb[NUMU_INDEX][jLogE] = 1.0-intProbNeutrino[jLogE];
+	    survivalProb[NUTAU_INDEX][jLogE] = 1.0-intProbNeutrino[jLogE];
+	    survivalProb[MU_INDEX][jLogE] = 1.0-intProbMu[jLogE];
+	    survivalProb[TAU_INDEX][jLogE] = 1.0-intProbTau[jLogE];
 	}
+    }
 
-	// Mu to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[13][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[13][iLogE][jLogE] += 
-                        /** For Glashow Resonance **/
-			FmuToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
+    /** List the intermediate particles m of the non-zero blocks
+	right(m,b) for each output particle b so that the product
+	skips the channels which do not exist. */
+    protected void setIntermediates(TriangularMatrix[][] right){
+	for(int b=0;b<NUMBER_OF_PARTICLES;b++){
+	    int[] list = new int[propagatingParticles.length];
+	    int numberOfBlocks = 0;
+	    for(int n=0;n<propagatingParticles.length;n++){
+		int m = propagatingParticles[n];
+		if(!right[m][b].isZero( )) list[numberOfBlocks++] = m;
 	    }
+	    intermediates[b] = java.util.Arrays.copyOf(list,numberOfBlocks);
 	}
+    }
 
-	// Tau to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[14][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[14][iLogE][jLogE] += 
-                        /** For Glashow Resonance **/
-			FtauToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
+    /**
+	<pre>
+	The block-triangular product of the channel tensors 
+	over the rows [iLogEmin,iLogEmax). All of propagateDX( ),
+	propagateDXpowered( ), propagateX( ) and storePropagateMatrix( )
+	are this product with different operands.
 
+	result(a,b) = sum_m left(a,m)right(m,b) + left(a,b)*survival(b) b: nuE,nuMu,nuTau,mu,tau
+	result(a,b) = sum_m left(a,m)right(m,b) + sink(a,b)             b: e,hadron
 
+	a and m run over the propagating particles and b over all the particles.
+	Each block is a lower triangular matrix in the energy
+	and sum over jLogE &lt;= kLogE &lt;= iLogE is taken for the element (iLogE,jLogE).
+	The survival term is omitted when survival is null.
+	Call setIntermediates(right) before.
 
+	result can be the same tensor as left. The element (iLogE,jLogE)
+	is then updated in the order of the output particle index.
 
+	The product is run by the ChannelTensorKernel chosen
+	by setKernelBackend( ).
+	</pre>
+    */
+    protected void multiplyChannelTensor(TriangularMatrix[][] left,
+					 TriangularMatrix[][] right,
+					 TriangularMatrix[][] sink,
+					 double[][] survival,
+					 TriangularMatrix[][] result,
+					 int iLogEmin, int iLogEmax){
+	tensorKernel.multiply(left,right,sink,survival,intermediates,result,iLogEmin,iLogEmax);
+    }
 
-	/** For Glashow Resonance -begin **/
-	// NuE to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[15][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[15][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE] +
-			FnuEToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[15][iLogE][jLogE] += FnuEToE[iLogE][jLogE];
+    /** Copy the rows [iLogEmin,iLogEmax) of all the channels. */
+    protected static void copyRows(TriangularMatrix[][] from, TriangularMatrix[][] to,
+				   int iLogEmin, int iLogEmax){
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    for(int b=0;b<NUMBER_OF_PARTICLES;b++){
+		to[a][b].copyRows(from[a][b],iLogEmin,iLogEmax);
 	    }
 	}
-	/** For Glashow Resonance -end **/
+    }
 
-	// NuMu to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[16][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[16][iLogE][jLogE] += 
-			FnuMuToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[16][iLogE][jLogE] += FnuMuToE[iLogE][jLogE];
-	    }
-	}
 
-	// NuTau to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[17][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[17][iLogE][jLogE] += 
-			FnuTauToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[17][iLogE][jLogE] += FnuTauToE[iLogE][jLogE];
-	    }
-	}
 
-	// Mu to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[18][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[18][iLogE][jLogE] += 
-			FmuToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[18][iLogE][jLogE] += FmuToE[iLogE][jLogE];
-	    }
-	}
+    /** 
+	<pre>
+	Set the number of threads to run propagateDX( ), propagateDXpowered( ),
+	propagateX( ) and storePropagateMatrix( ). The iLogE rows 
+	of the matrices are distributed over a ForkJoinPool.
+	Each matrix element is summed up in the same order as the serial run
+	so that the results are identical bit by bit to those with parallelism = 1.
 
-	// Tau to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[19][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[19][iLogE][jLogE] += 
-			FtauToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[19][iLogE][jLogE] += FtauToE[iLogE][jLogE];
-	    }
-	}
+	int parallelism : number of threads. 1 (default) for the serial run.
+	</pre>
+    */
+    public void setParallelism(int parallelism){
+	if(parallelism<1) parallelism = 1;
+	if(parallelism == this.parallelism) return;
+	if(pool != null) pool.shutdown( );
+	pool = null;
+	this.parallelism = parallelism;
+	if(parallelism>1) pool = new ForkJoinPool(parallelism);
+    }
 
+    /** Get the number of threads running the matrix products. */
+    public int getParallelism( ){
+	return parallelism;
+    }
 
+    /** 
+	<pre>
+	Set the backend of the matrix products.
 
+	int backend : ChannelTensorKernel.COLUMN_BACKEND (default),
+	              ChannelTensorKernel.ROW_BACKEND or
+	              ChannelTensorKernel.VECTOR_BACKEND.
+	The results of the backends agree within the rounding errors.
+	</pre>
+    */
+    public void setKernelBackend(int backend){
+	tensorKernel = ChannelTensorKernel.getKernel(backend);
+    }
 
+    /** Get the name of the backend of the matrix products. */
+    public String getKernelName( ){
+	return tensorKernel.getName( );
+    }
 
-	/** For Glashow Resonance -begin **/
-	// NuE to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[20][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[20][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			FnuEToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			FnuEToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			FnuEToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
+    /** Floating-point performance [GFLOP/s] of the matrix products so far. */
+    public double getKernelGFlops( ){
+	if(kernelTime<=0L) return 0.0;
+	return kernelFlops/(double )kernelTime;
+    }
 
-	// NuMu to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[21][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[21][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuMuToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
-	}
+    /** Print out the floating-point performance of the matrix products so far. */
+    public void printKernelPerformance( ){
+	System.err.println("Matrix products by the " + tensorKernel.getName( ) + " kernel: " +
+			   kernelFlops + " flops in " + (double )kernelTime*1.0e-9 + " sec (" +
+			   getKernelGFlops( ) + " GFLOP/s) with " + parallelism + " thread(s)");
+    }
 
-	// NuTau to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[22][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[22][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuTauToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
+    /** Run the kernel over all the iLogE rows, 
+	either serially or by the ForkJoinPool. */
+    protected void runKernel(int kernel){
+	long start = System.nanoTime( );
+	if(pool == null){
+	    runKernel(kernel,0,dimension);
+	}else{
+	    // Rows are small chunks so that the triangular load
+	    // is balanced by the work stealing.
+	    int rowsPerTask = dimension/(8*parallelism);
+	    if(rowsPerTask<1) rowsPerTask = 1;
+	    pool.invoke(new PropagationRowTask(this,kernel,0,dimension,rowsPerTask));
 	}
-
-	// Mu to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[23][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[23][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FmuToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
+	if(kernel != COPY_KERNEL && kernel != COPY_STORE_KERNEL){
+	    kernelTime += System.nanoTime( )-start;
+	    kernelFlops += ChannelTensorKernel.countFlops(intermediates,0,dimension);
 	}
+    }
 
-	// Tau to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[24][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[24][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FtauToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
+    /** Run the kernel over the iLogE rows [iLogEmin,iLogEmax). */
+    protected void runKernel(int kernel, int iLogEmin, int iLogEmax){
+	switch(kernel){
+	case DX_KERNEL:
+	    propagateDX(iLogEmin,iLogEmax); break;
+	case DXPOWERED_KERNEL:
+	    propagateDXpowered(iLogEmin,iLogEmax); break;
+	case X_KERNEL:
+	    propagateX(iLogEmin,iLogEmax); break;
+	case STORE_KERNEL:
+	    storePropagateMatrix(iLogEmin,iLogEmax); break;
+	case COPY_KERNEL:
+	    copyTempToPropagationMatrix(iLogEmin,iLogEmax); break;
+	case COPY_STORE_KERNEL:
+	    copyTempToStoreMatrix(iLogEmin,iLogEmax); break;
+	case MULTIPLY_STORE_KERNEL:
+	    multiplyStoreMatrix(iLogEmin,iLogEmax); break;
+	default:
+	    System.err.println("Unknown kernel " + kernel);
 	}
+    }
 
 
+    /** The step sizes {dX, dXDecay, dXDecayDensity, dXInteraction}. */
+    public double[] getStepParameters( ){
+	double[] stepParameters = {dX, dXDecay, dXDecayDensity, dXInteraction};
+	return stepParameters;
+    }
 
-
-	/** For Glashow Resonance -begin **/
-	// NuE to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[25][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[25][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			FnuEToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			FnuEToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			FnuEToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[26][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[26][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuMuToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[27][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[27][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuTauToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[28][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[28][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FmuToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[29][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[29][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FtauToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[30][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[30][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE] +
-			FnuEToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[30][iLogE][jLogE] += FnuEToHadron[iLogE][jLogE];
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[31][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[31][iLogE][jLogE] += 
-			FnuMuToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[31][iLogE][jLogE] += FnuMuToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// NuTau to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[32][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[32][iLogE][jLogE] += 
-			FnuTauToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[32][iLogE][jLogE] += FnuTauToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// Mu to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[33][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[33][iLogE][jLogE] += 
-			FmuToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[33][iLogE][jLogE] += FmuToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// Tau to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[34][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[34][iLogE][jLogE] += 
-			FtauToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[34][iLogE][jLogE] += FtauToHadron[iLogE][jLogE];
-	    }
-	}
-
-
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		// To NuE
-		FnuEToNuE[iLogE][jLogE] = temp[0][iLogE][jLogE];
-		FnuMuToNuE[iLogE][jLogE] = temp[1][iLogE][jLogE];
-		FnuTauToNuE[iLogE][jLogE] = temp[2][iLogE][jLogE];
-		FmuToNuE[iLogE][jLogE] = temp[3][iLogE][jLogE];
-		FtauToNuE[iLogE][jLogE] = temp[4][iLogE][jLogE];
-		// To NuMu
-		/** For Glashow Resonance **/
-		FnuEToNuMu[iLogE][jLogE] = temp[5][iLogE][jLogE];
-		FnuMuToNuMu[iLogE][jLogE] = temp[6][iLogE][jLogE];
-		FnuTauToNuMu[iLogE][jLogE] = temp[7][iLogE][jLogE];
-		FmuToNuMu[iLogE][jLogE] = temp[8][iLogE][jLogE];
-		FtauToNuMu[iLogE][jLogE] = temp[9][iLogE][jLogE];
-		// To NuTau
-		/** For Glashow Resonance **/
-		FnuEToNuTau[iLogE][jLogE] = temp[10][iLogE][jLogE];
-		FnuMuToNuTau[iLogE][jLogE] = temp[11][iLogE][jLogE];
-		FnuTauToNuTau[iLogE][jLogE] = temp[12][iLogE][jLogE];
-		FmuToNuTau[iLogE][jLogE] = temp[13][iLogE][jLogE];
-		FtauToNuTau[iLogE][jLogE] = temp[14][iLogE][jLogE];
-		// To E
-		FnuEToE[iLogE][jLogE] = temp[15][iLogE][jLogE];
-		FnuMuToE[iLogE][jLogE] = temp[16][iLogE][jLogE];
-		FnuTauToE[iLogE][jLogE] = temp[17][iLogE][jLogE];
-		FmuToE[iLogE][jLogE] = temp[18][iLogE][jLogE];
-		FtauToE[iLogE][jLogE] = temp[19][iLogE][jLogE];
-		// To Mu
-		/** For Glashow Resonance **/
-		FnuEToMu[iLogE][jLogE] = temp[20][iLogE][jLogE];
-		FnuMuToMu[iLogE][jLogE] = temp[21][iLogE][jLogE];
-		FnuTauToMu[iLogE][jLogE] = temp[22][iLogE][jLogE];
-		FmuToMu[iLogE][jLogE] = temp[23][iLogE][jLogE];
-		FtauToMu[iLogE][jLogE] = temp[24][iLogE][jLogE];
-		// To Tau
-		/** For Glashow Resonance **/
-		FnuEToTau[iLogE][jLogE] = temp[25][iLogE][jLogE];
-		FnuMuToTau[iLogE][jLogE] = temp[26][iLogE][jLogE];
-		FnuTauToTau[iLogE][jLogE] = temp[27][iLogE][jLogE];
-		FmuToTau[iLogE][jLogE] = temp[28][iLogE][jLogE];
-		FtauToTau[iLogE][jLogE] = temp[29][iLogE][jLogE];
-		// To Hadron
-		FnuEToHadron[iLogE][jLogE] = temp[30][iLogE][jLogE];
-		FnuMuToHadron[iLogE][jLogE] = temp[31][iLogE][jLogE];
-		FnuTauToHadron[iLogE][jLogE] = temp[32][iLogE][jLogE];
-		FmuToHadron[iLogE][jLogE] = temp[33][iLogE][jLogE];
-		FtauToHadron[iLogE][jLogE] = temp[34][iLogE][jLogE];
-	    }
-	}
-
+    /** Set the step sizes of getStepParameters( ). */
+    public void setStepParameters(double[] stepParameters){
+	dX = stepParameters[0];
+	dXDecay = stepParameters[1];
+	dXDecayDensity = stepParameters[2];
+	dXInteraction = stepParameters[3];
     }
 
-
-    /**** Propagate the particles involved over X [g/cm^2] 
-	  where Delta x is the propagation distance 
-	  for the finite propagation matrix.
-	  It multiples the finit propagation matrix calculated by
-	  propagateDX( ) and proagateDXpowerd( ) and storerd
-	  in nuETonuE[][] etc by copyTransferMatrix( ).
-    */
-    public void propagateX( ){
-	int iLogE,jLogE,kLogE;
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[0][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[0][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*nuMuToNuE[kLogE][jLogE] +
-			FnuEToNuTau[iLogE][kLogE]*nuTauToNuE[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[1][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[1][iLogE][jLogE] += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToNuE[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToNuE[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[2][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[2][iLogE][jLogE] += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToNuE[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToNuE[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[3][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[3][iLogE][jLogE] += 
-			FmuToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*nuMuToNuE[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*nuTauToNuE[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[4][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[4][iLogE][jLogE] += 
-			FtauToNuE[iLogE][kLogE]*nuEToNuE[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*nuMuToNuE[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*nuTauToNuE[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToNuE[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*tauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[5][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[5][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE]+
-			FnuEToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE]+
-			FnuEToNuTau[iLogE][kLogE]*nuTauToNuMu[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE]+
-			FnuEToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[6][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[6][iLogE][jLogE] += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToNuMu[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[7][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[7][iLogE][jLogE] += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToNuMu[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[8][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[8][iLogE][jLogE] += 
-			FmuToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*nuTauToNuMu[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[9][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[9][iLogE][jLogE] += 
-			/** Modified ! **/
-			FtauToNuE[iLogE][kLogE]*nuEToNuMu[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*nuMuToNuMu[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*nuTauToNuMu[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToNuMu[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*tauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[10][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[10][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE]+
-			FnuEToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE]+
-			FnuEToNuMu[iLogE][kLogE]*nuMuToNuTau[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*muToNuTau[kLogE][jLogE]+
-			FnuEToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[11][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[11][iLogE][jLogE] += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToNuTau[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToNuTau[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[12][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[12][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuTauToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToNuTau[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToNuTau[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[13][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[13][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FmuToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*nuMuToNuTau[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToNuTau[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[14][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[14][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FtauToNuE[iLogE][kLogE]*nuEToNuTau[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*nuTauToNuTau[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*nuMuToNuTau[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToNuTau[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*tauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[15][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[15][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*nuMuToE[kLogE][jLogE] +
-			FnuEToNuTau[iLogE][kLogE]*nuTauToE[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*muToE[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		}
-		temp[15][iLogE][jLogE] += FnuEToE[iLogE][jLogE];
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[16][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[16][iLogE][jLogE] += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToE[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToE[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToE[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		}
-		temp[16][iLogE][jLogE] += FnuMuToE[iLogE][jLogE];
-	    }
-	}
-
-	// NuTau to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[17][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[17][iLogE][jLogE] += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToE[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToE[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToE[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		}
-		temp[17][iLogE][jLogE] += FnuTauToE[iLogE][jLogE];
-	    }
-	}
-
-	// Mu to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[18][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[18][iLogE][jLogE] += 
-			FmuToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*nuMuToE[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*nuTauToE[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToE[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		}
-		temp[18][iLogE][jLogE] += FmuToE[iLogE][jLogE];
-	    }
-	}
-
-	// Tau to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[19][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[19][iLogE][jLogE] += 
-			FtauToNuE[iLogE][kLogE]*nuEToE[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*nuMuToE[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*nuTauToE[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToE[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*tauToE[kLogE][jLogE];
-		}
-		temp[19][iLogE][jLogE] += FtauToE[iLogE][jLogE];
-	    }
-	}
-
-
-
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[20][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[20][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE]+
-			FnuEToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+
-			FnuEToNuTau[iLogE][kLogE]*nuTauToMu[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*muToMu[kLogE][jLogE]+
-			FnuEToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[21][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[21][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuMuToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToMu[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToMu[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuMu to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[22][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[22][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuTauToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToMu[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToMu[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[23][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[23][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FmuToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*nuTauToMu[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToMu[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[24][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[24][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FtauToNuE[iLogE][kLogE]*nuEToMu[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*nuMuToMu[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*nuTauToMu[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToMu[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*tauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[25][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[25][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE]+
-			FnuEToNuMu[iLogE][kLogE]*nuMuToTau[kLogE][jLogE]+
-			FnuEToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FnuEToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+
-			FnuEToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[26][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[26][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuMuToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToTau[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[27][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[27][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FnuTauToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToTau[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[28][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[28][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FmuToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*nuMuToTau[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[29][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[29][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			FtauToNuE[iLogE][kLogE]*nuEToTau[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*nuMuToTau[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*nuTauToTau[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToTau[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*tauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-	// NuE to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[30][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[30][iLogE][jLogE] += 
-			FnuEToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE] +
-			FnuEToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE] +
-			FnuEToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE] +
-			FnuEToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE] +
-			FnuEToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-		}
-		temp[30][iLogE][jLogE] += FnuEToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// NuMu to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[31][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[31][iLogE][jLogE] += 
-			FnuMuToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE]+
-			FnuMuToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE]+
-			FnuMuToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE]+
-			FnuMuToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE]+
-			FnuMuToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-		}
-		temp[31][iLogE][jLogE] += FnuMuToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// NuTau to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[32][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[32][iLogE][jLogE] += 
-			FnuTauToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE]+
-			FnuTauToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE]+
-			FnuTauToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE]+
-			FnuTauToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE]+
-			FnuTauToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-		}
-		temp[32][iLogE][jLogE] += FnuTauToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// Mu to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[33][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[33][iLogE][jLogE] += 
-			FmuToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE]+
-			FmuToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE]+
-			FmuToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE]+
-			FmuToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE]+
-			FmuToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-		}
-		temp[33][iLogE][jLogE] += FmuToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// Tau to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[34][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[34][iLogE][jLogE] += 
-			FtauToNuE[iLogE][kLogE]*nuEToHadron[kLogE][jLogE]+
-			FtauToNuMu[iLogE][kLogE]*nuMuToHadron[kLogE][jLogE]+
-			FtauToNuTau[iLogE][kLogE]*nuTauToHadron[kLogE][jLogE]+
-			FtauToMu[iLogE][kLogE]*muToHadron[kLogE][jLogE]+
-			FtauToTau[iLogE][kLogE]*tauToHadron[kLogE][jLogE];
-		}
-		temp[34][iLogE][jLogE] += FtauToHadron[iLogE][jLogE];
-	    }
-	}
-
-
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		// To NuE
-		FnuEToNuE[iLogE][jLogE] = temp[0][iLogE][jLogE];
-		FnuMuToNuE[iLogE][jLogE] = temp[1][iLogE][jLogE];
-		FnuTauToNuE[iLogE][jLogE] = temp[2][iLogE][jLogE];
-		FmuToNuE[iLogE][jLogE] = temp[3][iLogE][jLogE];
-		FtauToNuE[iLogE][jLogE] = temp[4][iLogE][jLogE];
-		// To NuMu
-		/** For Glashow Resonence **/
-		FnuEToNuMu[iLogE][jLogE] = temp[5][iLogE][jLogE];
-		FnuMuToNuMu[iLogE][jLogE] = temp[6][iLogE][jLogE];
-		FnuTauToNuMu[iLogE][jLogE] = temp[7][iLogE][jLogE];
-		FmuToNuMu[iLogE][jLogE] = temp[8][iLogE][jLogE];
-		FtauToNuMu[iLogE][jLogE] = temp[9][iLogE][jLogE];
-		// To NuTau
-		/** For Glashow Resonence **/
-		FnuEToNuTau[iLogE][jLogE] = temp[10][iLogE][jLogE];
-		FnuMuToNuTau[iLogE][jLogE] = temp[11][iLogE][jLogE];
-		FnuTauToNuTau[iLogE][jLogE] = temp[12][iLogE][jLogE];
-		FmuToNuTau[iLogE][jLogE] = temp[13][iLogE][jLogE];
-		FtauToNuTau[iLogE][jLogE] = temp[14][iLogE][jLogE];
-		// To E
-		FnuEToE[iLogE][jLogE] = temp[15][iLogE][jLogE];
-		FnuMuToE[iLogE][jLogE] = temp[16][iLogE][jLogE];
-		FnuTauToE[iLogE][jLogE] = temp[17][iLogE][jLogE];
-		FmuToE[iLogE][jLogE] = temp[18][iLogE][jLogE];
-		FtauToE[iLogE][jLogE] = temp[19][iLogE][jLogE];
-		// To Mu
-		/** For Glashow Resonence **/
-		FnuEToMu[iLogE][jLogE] = temp[20][iLogE][jLogE];
-		FnuMuToMu[iLogE][jLogE] = temp[21][iLogE][jLogE];
-		FnuTauToMu[iLogE][jLogE] = temp[22][iLogE][jLogE];
-		FmuToMu[iLogE][jLogE] = temp[23][iLogE][jLogE];
-		FtauToMu[iLogE][jLogE] = temp[24][iLogE][jLogE];
-		// To Tau
-		/** For Glashow Resonence **/
-		FnuEToTau[iLogE][jLogE] = temp[25][iLogE][jLogE];
-		FnuMuToTau[iLogE][jLogE] = temp[26][iLogE][jLogE];
-		FnuTauToTau[iLogE][jLogE] = temp[27][iLogE][jLogE];
-		FmuToTau[iLogE][jLogE] = temp[28][iLogE][jLogE];
-		FtauToTau[iLogE][jLogE] = temp[29][iLogE][jLogE];
-		// To Hadron
-		FnuEToHadron[iLogE][jLogE] = temp[30][iLogE][jLogE];
-		FnuMuToHadron[iLogE][jLogE] = temp[31][iLogE][jLogE];
-		FnuTauToHadron[iLogE][jLogE] = temp[32][iLogE][jLogE];
-		FmuToHadron[iLogE][jLogE] = temp[33][iLogE][jLogE];
-		FtauToHadron[iLogE][jLogE] = temp[34][iLogE][jLogE];
-	    }
-	}
-
-    }
-
-
-    /** Copy the transfer matrix */
-    public void copyTransferMatrix( ){
-	int iLogE;
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    int jLogE;
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		// To NuE
-		nuEToNuE[iLogE][jLogE] = FnuEToNuE[iLogE][jLogE];
-		nuMuToNuE[iLogE][jLogE] = FnuMuToNuE[iLogE][jLogE];
-		nuTauToNuE[iLogE][jLogE] =FnuTauToNuE[iLogE][jLogE];
-		muToNuE[iLogE][jLogE] = FmuToNuE[iLogE][jLogE];
-		tauToNuE[iLogE][jLogE] = FtauToNuE[iLogE][jLogE]; 
-		// To NuMu
-		/** For Glashow Resonance **/
-		nuEToNuMu[iLogE][jLogE] = FnuEToNuMu[iLogE][jLogE];
-		nuMuToNuMu[iLogE][jLogE] = FnuMuToNuMu[iLogE][jLogE];
-		nuTauToNuMu[iLogE][jLogE] = FnuTauToNuMu[iLogE][jLogE];
-		muToNuMu[iLogE][jLogE] = FmuToNuMu[iLogE][jLogE];
-		tauToNuMu[iLogE][jLogE] = FtauToNuMu[iLogE][jLogE];
-		// To NuTau
-		/** For Glashow Resonance **/
-		nuEToNuTau[iLogE][jLogE] = FnuEToNuTau[iLogE][jLogE];
-		nuMuToNuTau[iLogE][jLogE] = FnuMuToNuTau[iLogE][jLogE];
-		nuTauToNuTau[iLogE][jLogE] = FnuTauToNuTau[iLogE][jLogE];
-		muToNuTau[iLogE][jLogE] = FmuToNuTau[iLogE][jLogE]; 
-		tauToNuTau[iLogE][jLogE] = FtauToNuTau[iLogE][jLogE];
-		// To E
-		nuEToE[iLogE][jLogE] = FnuEToE[iLogE][jLogE];
-		nuMuToE[iLogE][jLogE] = FnuMuToE[iLogE][jLogE];
-		nuTauToE[iLogE][jLogE] = FnuTauToE[iLogE][jLogE];
-		muToE[iLogE][jLogE] = FmuToE[iLogE][jLogE];
-		tauToE[iLogE][jLogE] = FtauToE[iLogE][jLogE];
-		// To Mu
-		/** For Glashow Resonance **/
-		nuEToMu[iLogE][jLogE] = FnuEToMu[iLogE][jLogE];
-		nuMuToMu[iLogE][jLogE] = FnuMuToMu[iLogE][jLogE];
-		nuTauToMu[iLogE][jLogE] = FnuTauToMu[iLogE][jLogE];
-		muToMu[iLogE][jLogE] = FmuToMu[iLogE][jLogE];
-		tauToMu[iLogE][jLogE] = FtauToMu[iLogE][jLogE];
-		// To Tau
-		/** For Glashow Resonance **/
-		nuEToTau[iLogE][jLogE] = FnuEToTau[iLogE][jLogE];
-		nuMuToTau[iLogE][jLogE] = FnuMuToTau[iLogE][jLogE];
-		nuTauToTau[iLogE][jLogE] = FnuTauToTau[iLogE][jLogE];
-		muToTau[iLogE][jLogE] = FmuToTau[iLogE][jLogE];
-		tauToTau[iLogE][jLogE] = FtauToTau[iLogE][jLogE];
-		// To Hadron
-		nuEToHadron[iLogE][jLogE] = FnuEToHadron[iLogE][jLogE];
-		nuMuToHadron[iLogE][jLogE] = FnuMuToHadron[iLogE][jLogE];
-		nuTauToHadron[iLogE][jLogE] = FnuTauToHadron[iLogE][jLogE];
-		muToHadron[iLogE][jLogE] =  FmuToHadron[iLogE][jLogE];
-		tauToHadron[iLogE][jLogE] = FtauToHadron[iLogE][jLogE];
-	    }
-	}
-
-    }
-
-
-
-
-
-    /****
-	 Store the propagation matrix calculated so far
-	 to the store matrix which save energy distribution
-	 of neutrinos and leptons propagating to the current
-	 location.
-	 You can then initialize the propagation matrix
-	 by init( ) and start another propagation calculation
-	 in a different section of the trajectory.
-	 You can get the results stored here back
-	 to the propagation matrix
-	 by calling the method copyTransferMatrixFromStore( ).
-    */
-    public void storePropagateMatrix( ){
-	int iLogE,jLogE,kLogE;
-
-
-	/** For Glahow Resonance -begin **/
-	// NuE to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[0][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[0][iLogE][jLogE] += 
-			SnuEToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE] +
-			SnuEToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE] +
-			SnuEToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE] +
-			SnuEToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE] +
-			SnuEToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glahow Resonance -end **/
-
-	// NuMu to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[1][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[1][iLogE][jLogE] += 
-			SnuMuToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE]+
-			SnuMuToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE]+
-			SnuMuToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE]+
-			SnuMuToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE]+
-			SnuMuToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[2][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[2][iLogE][jLogE] += 
-			SnuTauToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE]+
-			SnuTauToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE]+
-			SnuTauToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE]+
-			SnuTauToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE]+
-			SnuTauToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[3][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[3][iLogE][jLogE] += 
-			SmuToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE]+
-			SmuToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE]+
-			SmuToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE]+
-			SmuToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE]+
-			SmuToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to NuE
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[4][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[4][iLogE][jLogE] += 
-			StauToNuE[iLogE][kLogE]*FnuEToNuE[kLogE][jLogE]+
-			StauToNuMu[iLogE][kLogE]*FnuMuToNuE[kLogE][jLogE]+
-			StauToNuTau[iLogE][kLogE]*FnuTauToNuE[kLogE][jLogE]+
-			StauToMu[iLogE][kLogE]*FmuToNuE[kLogE][jLogE]+
-			StauToTau[iLogE][kLogE]*FtauToNuE[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[5][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[5][iLogE][jLogE] += 
-			SnuEToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			SnuEToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			SnuEToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			SnuEToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			SnuEToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glashow Resonance -begin **/
-
-	// NuMu to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[6][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[6][iLogE][jLogE] += 
-			/** For Glshow Resonance **/
-			SnuMuToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			SnuMuToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			SnuMuToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			SnuMuToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			SnuMuToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[7][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[7][iLogE][jLogE] += 
-			/** For Glshow Resonance **/
-			SnuTauToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			SnuTauToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			SnuTauToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			SnuTauToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			SnuTauToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[8][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[8][iLogE][jLogE] += 
-			/** For Glshow Resonance **/
-			SmuToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			SmuToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			SmuToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			SmuToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			SmuToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to NuMu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[9][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[9][iLogE][jLogE] += 
-			/** For Glshow Resonance **/
-			StauToNuE[iLogE][kLogE]*FnuEToNuMu[kLogE][jLogE]+
-			StauToNuMu[iLogE][kLogE]*FnuMuToNuMu[kLogE][jLogE]+
-			StauToNuTau[iLogE][kLogE]*FnuTauToNuMu[kLogE][jLogE]+
-			StauToMu[iLogE][kLogE]*FmuToNuMu[kLogE][jLogE]+
-			StauToTau[iLogE][kLogE]*FtauToNuMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-	/** For Glshow Resonance -begin **/
-	// NuE to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[10][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[10][iLogE][jLogE] += 
-			SnuEToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			SnuEToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			SnuEToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			SnuEToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			SnuEToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glshow Resonance -end **/
-
-	// NuMu to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[11][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[11][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			SnuMuToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			SnuMuToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			SnuMuToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			SnuMuToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			SnuMuToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[12][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[12][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			SnuTauToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			SnuTauToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			SnuTauToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			SnuTauToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			SnuTauToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[13][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[13][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			SmuToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			SmuToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			SmuToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			SmuToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			SmuToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to NuTau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[14][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[14][iLogE][jLogE] += 
-			/** For Glashow Resonance **/
-			StauToNuE[iLogE][kLogE]*FnuEToNuTau[kLogE][jLogE]+
-			StauToNuTau[iLogE][kLogE]*FnuTauToNuTau[kLogE][jLogE]+
-			StauToNuMu[iLogE][kLogE]*FnuMuToNuTau[kLogE][jLogE]+
-			StauToMu[iLogE][kLogE]*FmuToNuTau[kLogE][jLogE]+
-			StauToTau[iLogE][kLogE]*FtauToNuTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[15][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[15][iLogE][jLogE] += 
-			SnuEToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE] +
-			SnuEToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE] +
-			SnuEToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE] +
-			/** Modified ! **/
-			SnuEToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE] +
-			SnuEToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[15][iLogE][jLogE] += FnuEToE[iLogE][jLogE];
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[16][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[16][iLogE][jLogE] += 
-			SnuMuToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE]+
-			SnuMuToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE]+
-			SnuMuToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE]+
-			SnuMuToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE]+
-			SnuMuToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[16][iLogE][jLogE] += FnuMuToE[iLogE][jLogE];
-	    }
-	}
-
-	// NuTau to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[17][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[17][iLogE][jLogE] += 
-			SnuTauToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE]+
-			SnuTauToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE]+
-			SnuTauToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE]+
-			SnuTauToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE]+
-			SnuTauToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[17][iLogE][jLogE] += FnuTauToE[iLogE][jLogE];
-	    }
-	}
-
-	// Mu to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[18][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[18][iLogE][jLogE] += 
-			SmuToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE]+
-			SmuToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE]+
-			SmuToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE]+
-			SmuToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE]+
-			SmuToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[18][iLogE][jLogE] += FmuToE[iLogE][jLogE];
-	    }
-	}
-
-	// Tau to E
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[19][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[19][iLogE][jLogE] += 
-			StauToNuE[iLogE][kLogE]*FnuEToE[kLogE][jLogE]+
-			StauToNuMu[iLogE][kLogE]*FnuMuToE[kLogE][jLogE]+
-			StauToNuTau[iLogE][kLogE]*FnuTauToE[kLogE][jLogE]+
-			StauToMu[iLogE][kLogE]*FmuToE[kLogE][jLogE]+
-			StauToTau[iLogE][kLogE]*FtauToE[kLogE][jLogE];
-		}
-		temp[19][iLogE][jLogE] += FtauToE[iLogE][jLogE];
-	    }
-	}
-
-
-
-
-
-	/** For Glahow Resonance -begin **/
-	// NuE to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[20][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[20][iLogE][jLogE] += 
-			SnuEToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			SnuEToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			SnuEToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			SnuEToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			SnuEToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glahow Resonance -end **/
-
-	// NuMu to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[21][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[21][iLogE][jLogE] += 
-			/** For Glahow Resonance **/
-			SnuMuToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			SnuMuToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			SnuMuToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			SnuMuToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			SnuMuToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[22][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[22][iLogE][jLogE] += 
-			/** For Glahow Resonance **/
-			SnuTauToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			SnuTauToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			SnuTauToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			SnuTauToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			SnuTauToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[23][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[23][iLogE][jLogE] += 
-			/** For Glahow Resonance **/
-			SmuToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			SmuToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			SmuToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			SmuToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			SmuToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to Mu
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[24][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[24][iLogE][jLogE] += 
-			/** For Glahow Resonance **/
-			StauToNuE[iLogE][kLogE]*FnuEToMu[kLogE][jLogE]+
-			StauToNuMu[iLogE][kLogE]*FnuMuToMu[kLogE][jLogE]+
-			StauToNuTau[iLogE][kLogE]*FnuTauToMu[kLogE][jLogE]+
-			StauToMu[iLogE][kLogE]*FmuToMu[kLogE][jLogE]+
-			StauToTau[iLogE][kLogE]*FtauToMu[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-	/** For Glahow Resonance -begin **/
-	// NuE to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[25][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[25][iLogE][jLogE] += 
-			SnuEToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			SnuEToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			SnuEToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			SnuEToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			SnuEToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-	/** For Glahow Resonance -end **/
-
-	// NuMu to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[26][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[26][iLogE][jLogE] += 
-			/** For Glahow Resonance **/
-			SnuMuToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			SnuMuToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			SnuMuToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			SnuMuToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			SnuMuToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// NuTau to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[27][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[27][iLogE][jLogE] += 
-			/** For Glahow Resonance **/
-			SnuTauToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			SnuTauToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			SnuTauToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			SnuTauToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			SnuTauToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Mu to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[28][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[28][iLogE][jLogE] += 
-			/** For Glahow Resonance **/
-			SmuToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			SmuToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			SmuToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			SmuToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			SmuToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-	// Tau to Tau
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[29][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[29][iLogE][jLogE] += 
-			/** For Glahow Resonance **/
-			StauToNuE[iLogE][kLogE]*FnuEToTau[kLogE][jLogE]+
-			StauToNuMu[iLogE][kLogE]*FnuMuToTau[kLogE][jLogE]+
-			StauToNuTau[iLogE][kLogE]*FnuTauToTau[kLogE][jLogE]+
-			StauToMu[iLogE][kLogE]*FmuToTau[kLogE][jLogE]+
-			StauToTau[iLogE][kLogE]*FtauToTau[kLogE][jLogE];
-		}
-	    }
-	}
-
-
-
-
-
-	/** For Glashow Resonance -begin **/
-	// NuE to Hadron
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[30][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[30][iLogE][jLogE] += 
-			SnuEToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE] +
-			SnuEToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE] +
-			SnuEToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE] +
-			SnuEToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE] +
-			SnuEToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[30][iLogE][jLogE] += FnuEToHadron[iLogE][jLogE];
-	    }
-	}
-	/** For Glashow Resonance -end **/
-
-	// NuMu to Hadron 
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[31][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[31][iLogE][jLogE] += 
-			SnuMuToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE]+
-			SnuMuToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE]+
-			SnuMuToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE]+
-			SnuMuToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE]+
-			SnuMuToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[31][iLogE][jLogE] += FnuMuToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// NuTau to Hadron 
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[32][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[32][iLogE][jLogE] += 
-			SnuTauToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE]+
-			SnuTauToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE]+
-			SnuTauToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE]+
-			SnuTauToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE]+
-			SnuTauToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[32][iLogE][jLogE] += FnuTauToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// Mu to Hadron 
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[33][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[33][iLogE][jLogE] += 
-			SmuToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE]+
-			SmuToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE]+
-			SmuToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE]+
-			SmuToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE]+
-			SmuToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[33][iLogE][jLogE] += FmuToHadron[iLogE][jLogE];
-	    }
-	}
-
-	// Tau to Hadron 
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		temp[34][iLogE][jLogE] = 0.0;
-		for(kLogE=iLogE;kLogE>=jLogE;kLogE--){
-		    temp[34][iLogE][jLogE] += 
-			StauToNuE[iLogE][kLogE]*FnuEToHadron[kLogE][jLogE]+
-			StauToNuMu[iLogE][kLogE]*FnuMuToHadron[kLogE][jLogE]+
-			StauToNuTau[iLogE][kLogE]*FnuTauToHadron[kLogE][jLogE]+
-			StauToMu[iLogE][kLogE]*FmuToHadron[kLogE][jLogE]+
-			StauToTau[iLogE][kLogE]*FtauToHadron[kLogE][jLogE];
-		}
-		temp[34][iLogE][jLogE] += FtauToHadron[iLogE][jLogE];
-	    }
-	}
-
-
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		// To NuE
-		SnuEToNuE[iLogE][jLogE] = temp[0][iLogE][jLogE];
-		SnuMuToNuE[iLogE][jLogE] = temp[1][iLogE][jLogE];
-		SnuTauToNuE[iLogE][jLogE] = temp[2][iLogE][jLogE];
-		SmuToNuE[iLogE][jLogE] = temp[3][iLogE][jLogE];
-		StauToNuE[iLogE][jLogE] = temp[4][iLogE][jLogE];
-		// To NuMu
-		/** For Glashow Resonance **/
-		SnuEToNuMu[iLogE][jLogE] = temp[5][iLogE][jLogE];
-		SnuMuToNuMu[iLogE][jLogE] = temp[6][iLogE][jLogE];
-		SnuTauToNuMu[iLogE][jLogE] = temp[7][iLogE][jLogE];
-		SmuToNuMu[iLogE][jLogE] = temp[8][iLogE][jLogE];
-		StauToNuMu[iLogE][jLogE] = temp[9][iLogE][jLogE];
-		// To NuTau
-		/** For Glashow Resonance **/
-		SnuEToNuTau[iLogE][jLogE] = temp[10][iLogE][jLogE];
-		SnuMuToNuTau[iLogE][jLogE] = temp[11][iLogE][jLogE];
-		SnuTauToNuTau[iLogE][jLogE] = temp[12][iLogE][jLogE];
-		SmuToNuTau[iLogE][jLogE] = temp[13][iLogE][jLogE];
-		StauToNuTau[iLogE][jLogE] = temp[14][iLogE][jLogE];
-		// To E
-		SnuEToE[iLogE][jLogE] = temp[15][iLogE][jLogE];
-		SnuMuToE[iLogE][jLogE] = temp[16][iLogE][jLogE];
-		SnuTauToE[iLogE][jLogE] = temp[17][iLogE][jLogE];
-		SmuToE[iLogE][jLogE] = temp[18][iLogE][jLogE];
-		StauToE[iLogE][jLogE] = temp[19][iLogE][jLogE];
-		// To Mu
-                /** For Glashow Resonance **/
-		SnuEToMu[iLogE][jLogE] = temp[20][iLogE][jLogE];
-		SnuMuToMu[iLogE][jLogE] = temp[21][iLogE][jLogE];
-		SnuTauToMu[iLogE][jLogE] = temp[22][iLogE][jLogE];
-		SmuToMu[iLogE][jLogE] = temp[23][iLogE][jLogE];
-		StauToMu[iLogE][jLogE] = temp[24][iLogE][jLogE];
-		// To Tau
-                /** For Glashow Resonance **/
-		SnuEToTau[iLogE][jLogE] = temp[25][iLogE][jLogE];
-		SnuMuToTau[iLogE][jLogE] = temp[26][iLogE][jLogE];
-		SnuTauToTau[iLogE][jLogE] = temp[27][iLogE][jLogE];
-		SmuToTau[iLogE][jLogE] = temp[28][iLogE][jLogE];
-		StauToTau[iLogE][jLogE] = temp[29][iLogE][jLogE];
-		// To Hadron
-		SnuEToHadron[iLogE][jLogE] = temp[30][iLogE][jLogE];
-		SnuMuToHadron[iLogE][jLogE] = temp[31][iLogE][jLogE];
-		SnuTauToHadron[iLogE][jLogE] = temp[32][iLogE][jLogE];
-		SmuToHadron[iLogE][jLogE] = temp[33][iLogE][jLogE];
-		StauToHadron[iLogE][jLogE] = temp[34][iLogE][jLogE];
-	    }
-	}
-
-    }
-
-
-    /** Copy the transfer matrix from Store matrix*/
-    public void copyTransferMatrixFromStore( ){
-	int iLogE;
-	for(iLogE=0;iLogE<dimension;iLogE++){
-	    int jLogE;
-	    for(jLogE=0;jLogE<=iLogE;jLogE++){
-		// To NuE
-		FnuEToNuE[iLogE][jLogE] = SnuEToNuE[iLogE][jLogE];
-		FnuMuToNuE[iLogE][jLogE] = SnuMuToNuE[iLogE][jLogE];
-		FnuTauToNuE[iLogE][jLogE] =SnuTauToNuE[iLogE][jLogE];
-		FmuToNuE[iLogE][jLogE] = SmuToNuE[iLogE][jLogE];
-		FtauToNuE[iLogE][jLogE] = StauToNuE[iLogE][jLogE]; 
-		// To NuMu
-                /** For Glashow Resonance **/
-		FnuEToNuMu[iLogE][jLogE] = SnuEToNuMu[iLogE][jLogE];
-		FnuMuToNuMu[iLogE][jLogE] = SnuMuToNuMu[iLogE][jLogE];
-		FnuTauToNuMu[iLogE][jLogE] = SnuTauToNuMu[iLogE][jLogE];
-		FmuToNuMu[iLogE][jLogE] = SmuToNuMu[iLogE][jLogE];
-		FtauToNuMu[iLogE][jLogE] = StauToNuMu[iLogE][jLogE];
-		// To NuTau
-                /** For Glashow Resonance **/
-		/** Modified ! **/
-		FnuEToNuTau[iLogE][jLogE] = SnuEToNuTau[iLogE][jLogE];
-		FnuMuToNuTau[iLogE][jLogE] = SnuMuToNuTau[iLogE][jLogE];
-		FnuTauToNuTau[iLogE][jLogE] = SnuTauToNuTau[iLogE][jLogE];
-		FmuToNuTau[iLogE][jLogE] = SmuToNuTau[iLogE][jLogE]; 
-		FtauToNuTau[iLogE][jLogE] = StauToNuTau[iLogE][jLogE];
-		// To E
-		FnuEToE[iLogE][jLogE] = SnuEToE[iLogE][jLogE];
-		FnuMuToE[iLogE][jLogE] = SnuMuToE[iLogE][jLogE];
-		FnuTauToE[iLogE][jLogE] = SnuTauToE[iLogE][jLogE];
-		FmuToE[iLogE][jLogE] = SmuToE[iLogE][jLogE];
-		FtauToE[iLogE][jLogE] = StauToE[iLogE][jLogE];
-		// To Mu
-                /** For Glashow Resonance **/
-		FnuEToMu[iLogE][jLogE] = SnuEToMu[iLogE][jLogE];
-		FnuMuToMu[iLogE][jLogE] = SnuMuToMu[iLogE][jLogE];
-		FnuTauToMu[iLogE][jLogE] = SnuTauToMu[iLogE][jLogE];
-		FmuToMu[iLogE][jLogE] = SmuToMu[iLogE][jLogE];
-		FtauToMu[iLogE][jLogE] = StauToMu[iLogE][jLogE];
-		// To Tau
-                /** For Glashow Resonance **/
-		FnuEToTau[iLogE][jLogE] = SnuEToTau[iLogE][jLogE];
-		FnuMuToTau[iLogE][jLogE] = SnuMuToTau[iLogE][jLogE];
-		FnuTauToTau[iLogE][jLogE] = SnuTauToTau[iLogE][jLogE];
-		FmuToTau[iLogE][jLogE] = SmuToTau[iLogE][jLogE];
-		FtauToTau[iLogE][jLogE] = StauToTau[iLogE][jLogE];
-		// To Hadron
-		FnuEToHadron[iLogE][jLogE] = SnuEToHadron[iLogE][jLogE];
-		FnuMuToHadron[iLogE][jLogE] = SnuMuToHadron[iLogE][jLogE];
-		FnuTauToHadron[iLogE][jLogE] = SnuTauToHadron[iLogE][jLogE];
-		FmuToHadron[iLogE][jLogE] =  SmuToHadron[iLogE][jLogE];
-		FtauToHadron[iLogE][jLogE] = StauToHadron[iLogE][jLogE];
-	    }
-	}
-
-    }
-
-
     /****** Change the infinitesimal propagation length */
     public void setDx(double dX){
 	this.dX = dX;
@@ -3719,7 +1643,7 @@ public class PropagationMatrix {
      nuE with energy jLogE ***/
     public double getFnuEToNuE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuEToNuE[iLogE][jLogE];
+	    return FnuEToNuE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3730,7 +1654,7 @@ public class PropagationMatrix {
      nuMu with energy jLogE ***/
     public double getFnuEToNuMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuEToNuMu[iLogE][jLogE];
+	    return FnuEToNuMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3741,7 +1665,7 @@ public class PropagationMatrix {
      nuTau with energy jLogE ***/
     public double getFnuEToNuTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuEToNuTau[iLogE][jLogE];
+	    return FnuEToNuTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3751,7 +1675,7 @@ public class PropagationMatrix {
      Electron with energy jLogE ***/
     public double getFnuEToE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuEToE[iLogE][jLogE];
+	    return FnuEToE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3762,7 +1686,7 @@ public class PropagationMatrix {
      Muon with energy jLogE ***/
     public double getFnuEToMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuEToMu[iLogE][jLogE];
+	    return FnuEToMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3773,7 +1697,7 @@ public class PropagationMatrix {
      Tau with energy jLogE ***/
     public double getFnuEToTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuEToTau[iLogE][jLogE];
+	    return FnuEToTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3783,7 +1707,7 @@ public class PropagationMatrix {
      Hadron with energy jLogE ***/
     public double getFnuEToHadron(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuEToHadron[iLogE][jLogE];
+	    return FnuEToHadron.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3793,7 +1717,7 @@ public class PropagationMatrix {
      nuE with energy jLogE ***/
     public double getFnuMuToNuE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuMuToNuE[iLogE][jLogE];
+	    return FnuMuToNuE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3803,7 +1727,7 @@ public class PropagationMatrix {
      nuMu with energy jLogE ***/
     public double getFnuMuToNuMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuMuToNuMu[iLogE][jLogE];
+	    return FnuMuToNuMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3813,7 +1737,7 @@ public class PropagationMatrix {
      nuTau with energy jLogE ***/
     public double getFnuMuToNuTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuMuToNuTau[iLogE][jLogE];
+	    return FnuMuToNuTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3823,7 +1747,7 @@ public class PropagationMatrix {
      Electron with energy jLogE ***/
     public double getFnuMuToE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuMuToE[iLogE][jLogE];
+	    return FnuMuToE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3833,7 +1757,7 @@ public class PropagationMatrix {
      Muon with energy jLogE ***/
     public double getFnuMuToMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuMuToMu[iLogE][jLogE];
+	    return FnuMuToMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3843,7 +1767,7 @@ public class PropagationMatrix {
     Tau with energy jLogE ***/
     public double getFnuMuToTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuMuToTau[iLogE][jLogE];
+	    return FnuMuToTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3853,7 +1777,7 @@ public class PropagationMatrix {
      Hadron with energy jLogE ***/
     public double getFnuMuToHadron(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuMuToHadron[iLogE][jLogE];
+	    return FnuMuToHadron.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3863,7 +1787,7 @@ public class PropagationMatrix {
      nuE with energy jLogE ***/
     public double getFnuTauToNuE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuTauToNuE[iLogE][jLogE];
+	    return FnuTauToNuE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3873,7 +1797,7 @@ public class PropagationMatrix {
      nuMu with energy jLogE ***/
     public double getFnuTauToNuMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuTauToNuMu[iLogE][jLogE];
+	    return FnuTauToNuMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3883,7 +1807,7 @@ public class PropagationMatrix {
      nuTau with energy jLogE ***/
     public double getFnuTauToNuTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuTauToNuTau[iLogE][jLogE];
+	    return FnuTauToNuTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3893,7 +1817,7 @@ public class PropagationMatrix {
      Electron with energy jLogE ***/
     public double getFnuTauToE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuTauToE[iLogE][jLogE];
+	    return FnuTauToE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3903,7 +1827,7 @@ public class PropagationMatrix {
      Muon with energy jLogE ***/
     public double getFnuTauToMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuTauToMu[iLogE][jLogE];
+	    return FnuTauToMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3913,7 +1837,7 @@ public class PropagationMatrix {
      Tau with energy jLogE ***/
     public double getFnuTauToTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuTauToTau[iLogE][jLogE];
+	    return FnuTauToTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3923,7 +1847,7 @@ public class PropagationMatrix {
      Hadron with energy jLogE ***/
     public double getFnuTauToHadron(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FnuTauToHadron[iLogE][jLogE];
+	    return FnuTauToHadron.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3933,7 +1857,7 @@ public class PropagationMatrix {
      nuE with energy jLogE ***/
     public double getFmuToNuE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FmuToNuE[iLogE][jLogE];
+	    return FmuToNuE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3943,7 +1867,7 @@ public class PropagationMatrix {
      nuMu with energy jLogE ***/
     public double getFmuToNuMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FmuToNuMu[iLogE][jLogE];
+	    return FmuToNuMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3953,7 +1877,7 @@ public class PropagationMatrix {
      nuTau with energy jLogE ***/
     public double getFmuToNuTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FmuToNuTau[iLogE][jLogE];
+	    return FmuToNuTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3963,7 +1887,7 @@ public class PropagationMatrix {
      Electron with energy jLogE ***/
     public double getFmuToE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FmuToE[iLogE][jLogE];
+	    return FmuToE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3973,7 +1897,7 @@ public class PropagationMatrix {
      Muon with energy jLogE ***/
     public double getFmuToMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FmuToMu[iLogE][jLogE];
+	    return FmuToMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3983,7 +1907,7 @@ public class PropagationMatrix {
      Tau with energy jLogE ***/
     public double getFmuToTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FmuToTau[iLogE][jLogE];
+	    return FmuToTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -3993,7 +1917,7 @@ public class PropagationMatrix {
      Hadron with energy jLogE ***/
     public double getFmuToHadron(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FmuToHadron[iLogE][jLogE];
+	    return FmuToHadron.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -4003,7 +1927,7 @@ public class PropagationMatrix {
      nuE with energy jLogE ***/
     public double getFtauToNuE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FtauToNuE[iLogE][jLogE];
+	    return FtauToNuE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -4013,7 +1937,7 @@ public class PropagationMatrix {
      nuMu with energy jLogE ***/
     public double getFtauToNuMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FtauToNuMu[iLogE][jLogE];
+	    return FtauToNuMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -4023,7 +1947,7 @@ public class PropagationMatrix {
      nuTau with energy jLogE ***/
     public double getFtauToNuTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FtauToNuTau[iLogE][jLogE];
+	    return FtauToNuTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -4033,7 +1957,7 @@ public class PropagationMatrix {
      Electron with energy jLogE ***/
     public double getFtauToE(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FtauToE[iLogE][jLogE];
+	    return FtauToE.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -4043,7 +1967,7 @@ public class PropagationMatrix {
      Muon with energy jLogE ***/
     public double getFtauToMu(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FtauToMu[iLogE][jLogE];
+	    return FtauToMu.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -4053,7 +1977,7 @@ public class PropagationMatrix {
      Tau with energy jLogE ***/
     public double getFtauToTau(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FtauToTau[iLogE][jLogE];
+	    return FtauToTau.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
@@ -4063,7 +1987,7 @@ public class PropagationMatrix {
      Hadron with energy jLogE ***/
     public double getFtauToHadron(int iLogE,int jLogE){
 	if((0<=iLogE && iLogE<dimension)&&(0<=jLogE && jLogE<dimension)){
-	    return FtauToHadron[iLogE][jLogE];
+	    return FtauToHadron.get(iLogE,jLogE);
 	}
 	else{
 	    return 0.0;
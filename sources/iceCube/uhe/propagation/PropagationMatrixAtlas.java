@@ -0,0 +1,272 @@
+package iceCube.uhe.propagation;
+
+import iceCube.uhe.particles.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+
+/**
+<pre>
+   The atlas of the propagation matrices at the grid of cos(zenith) nodes
+   held in one file. getDF( ) returns dF/dLogE*deltaLogE at any zenith angle
+   by the linear interpolation in cos(zenith) between the two neighboring nodes.
+
+   The matrix of each node is mapped into memory by itself, so the atlas
+   may exceed 2GB as long as a node does not, and the matrices are read directly
+   from the mappings, so a lookup is a few index calculations and two reads
+   of the mapped buffer with no file reloading. The node is found
+   by a division when the nodes are equally spaced in cos(zenith),
+   and by the binary search otherwise.
+
+   File format (little endian)
+
+     byte[8]            "JULIETPA"
+     int                version (1)
+     int                number of nodes n
+     double[n]          cos(zenith) of the nodes in the increasing order
+     long[n]            byte offset of the matrix of each node
+     the matrices of PropagationMatrixFile (versioned format), one per node
+
+   The atlas is built from the matrix files (legacy or PropagationMatrixFile) by
+
+     java iceCube.uhe.propagation.PropagationMatrixAtlas atlas-file
+              cosZenith1 matrix-file1 cosZenith2 matrix-file2 ...
+
+   Outside the range of the nodes the matrix of the nearest node is returned.
+</pre>
+*/
+
+public class PropagationMatrixAtlas {
+
+    public final static int VERSION = 1;
+    private final static byte[] MAGIC = {'J','U','L','I','E','T','P','A'};
+
+    private int dimension;
+    private double[] cosZenith;
+    private PropagationMatrixFile[] node;
+    /** The nodes are equally spaced. */
+    private boolean uniform;
+    private double deltaCosZenith;
+
+    /** Map the atlas file node by node. */
+    public PropagationMatrixAtlas(String fileName) throws IOException {
+	RandomAccessFile randomFile = new RandomAccessFile(fileName,"r");
+	FileChannel channel = randomFile.getChannel( );
+	long fileSize = channel.size( );
+	ByteBuffer buffer = readHeader(channel,MAGIC.length+8);
+
+	for(int i=0;i<MAGIC.length;i++){
+	    if(buffer.get( ) != MAGIC[i]){
+		throw new IOException(fileName + " is not a propagation matrix atlas");
+	    }
+	}
+	int version = buffer.getInt( );
+	if(version != VERSION){
+	    throw new IOException("Unsupported propagation matrix atlas version " + version);
+	}
+	int numberOfNodes = buffer.getInt( );
+	if(numberOfNodes<1){
+	    throw new IOException("No node in the propagation matrix atlas " + fileName);
+	}
+	buffer = readHeader(channel,MAGIC.length+8+16L*(long )numberOfNodes);
+	buffer.position(MAGIC.length+8);
+	cosZenith = new double[numberOfNodes];
+	long[] offset = new long[numberOfNodes];
+	for(int n=0;n<numberOfNodes;n++) cosZenith[n] = buffer.getDouble( );
+	for(int n=0;n<numberOfNodes;n++) offset[n] = buffer.getLong( );
+
+	node = new PropagationMatrixFile[numberOfNodes];
+	for(int n=0;n<numberOfNodes;n++){
+	    long end = (n<numberOfNodes-1) ? offset[n+1] : fileSize;
+	    long sizeOfNode = end-offset[n];
+	    if(offset[n]<0 || sizeOfNode<=0 || end>fileSize){
+		throw new IOException("Broken offset of the node " + n + " in " + fileName);
+	    }
+	    if(sizeOfNode>Integer.MAX_VALUE){
+		throw new IOException("The node " + n + " of " + fileName +
+				      " exceeds 2GB which can not be mapped at once");
+	    }
+	    node[n] = new PropagationMatrixFile(
+		channel.map(FileChannel.MapMode.READ_ONLY,offset[n],sizeOfNode));
+	    if(n>0 && node[n].getDimension( ) != node[0].getDimension( )){
+		throw new IOException("Dimension differs among the nodes of " + fileName);
+	    }
+	}
+	randomFile.close( ); // the mappings stay valid
+	dimension = node[0].getDimension( );
+
+	uniform = false;
+	if(numberOfNodes>1){
+	    deltaCosZenith = (cosZenith[numberOfNodes-1]-cosZenith[0])/(double )(numberOfNodes-1);
+	    uniform = true;
+	    for(int n=1;n<numberOfNodes;n++){
+		double spacing = cosZenith[n]-cosZenith[n-1];
+		if(Math.abs(spacing-deltaCosZenith)>1.0e-9*Math.abs(deltaCosZenith)) uniform = false;
+	    }
+	}
+    }
+
+    /** Read the first length bytes of the file. */
+    private static ByteBuffer readHeader(FileChannel channel, long length) throws IOException {
+	if(length>channel.size( )) throw new EOFException("The propagation matrix atlas is truncated");
+	ByteBuffer buffer = ByteBuffer.allocate((int )length).order(ByteOrder.LITTLE_ENDIAN);
+	while(buffer.hasRemaining( )){
+	    if(channel.read(buffer,buffer.position( ))<0) throw new EOFException( );
+	}
+	buffer.flip( );
+	return buffer;
+    }
+
+    public int getNumberOfNodes( ){
+	return cosZenith.length;
+    }
+
+    /** cos(zenith) of the node. */
+    public double getNodeCosZenith(int n){
+	return cosZenith[n];
+    }
+
+    /** The matrix of the node. */
+    public PropagationMatrixFile getNode(int n){
+	return node[n];
+    }
+
+    /** The lower node of the interval containing cosZenith.
+	Between 0 and numberOfNodes-2 (0 for a single node). */
+    private int getLowerNode(double cos){
+	int last = cosZenith.length-1;
+	if(last == 0) return 0;
+	int n;
+	if(uniform){
+	    n = (int )Math.floor((cos-cosZenith[0])/deltaCosZenith);
+	}else{
+	    int low = 0;
+	    int high = last;
+	    while(high-low>1){
+		int middle = (low+high)/2;
+		if(cosZenith[middle]<=cos) low = middle;
+		else high = middle;
+	    }
+	    n = low;
+	}
+	if(n<0) n = 0;
+	if(n>last-1) n = last-1;
+	return n;
+    }
+
+    /**
+	Returns dF/dLogE*deltaLogE (inputParticle ---&gt; outputParticle)
+	at the zenith angle. See PropagationMatrixFactory.getDF( ).
+    */
+    public double getDF(Particle inputParticle, Particle outputParticle, double cosZenith){
+	return getDF(inputParticle.getFlavor( ),inputParticle.getDoublet( ),
+		     inputParticle.getLogEnergy( ),
+		     outputParticle.getFlavor( ),outputParticle.getDoublet( ),
+		     outputParticle.getLogEnergy( ),cosZenith);
+    }
+
+    /**
+	Returns dF/dLogE*deltaLogE (inputParticle ---&gt; outputParticle)
+	at the zenith angle by the linear interpolation in cos(zenith).
+
+	<pre>
+	int   inputFlavor   : flavor of the Particle object entering into the earth.
+	int   inputDoublet  : doublet of the Particle object entering into the earth.
+	double logEinput    : logE [GeV] of the particle entering into the earth.
+	int   outputFlavor   : flavor of the Particle object after the propagation.
+	int   outputDoublet  : doublet of the Particle object after the propagation.
+	double logEoutput    : logE [GeV] of the particle after the propagation.
+	double cosZenith     : cos(zenith angle)
+	</pre>
+    */
+    public double getDF(int inputFlavor, int inputDoublet, double logEinput,
+			int outputFlavor, int outputDoublet, double logEoutput,
+			double cosZenith){
+
+	int iLogE = (int)((logEinput - Particle.getLogEnergyMinimum())
+			  /Particle.getDeltaLogEnergy());
+	int jLogE = (int)((logEoutput - Particle.getLogEnergyMinimum())
+			  /Particle.getDeltaLogEnergy());
+	if(iLogE<0 || iLogE>=dimension || jLogE<0 || jLogE>iLogE) return 0.0;
+
+	int input = PropagationMatrixFactory.getParticleIndex(inputFlavor,inputDoublet);
+	int output = PropagationMatrixFactory.getParticleIndex(outputFlavor,outputDoublet);
+	if(input<0 || output<0) return 0.0;
+
+	int n = getLowerNode(cosZenith);
+	double lower = node[n].get(input,output,iLogE,jLogE);
+	if(this.cosZenith.length == 1) return lower;
+	double upper = node[n+1].get(input,output,iLogE,jLogE);
+
+	double weight = (cosZenith-this.cosZenith[n])/(this.cosZenith[n+1]-this.cosZenith[n]);
+	if(weight<0.0) weight = 0.0;
+	if(weight>1.0) weight = 1.0;
+	return lower+(upper-lower)*weight;
+    }
+
+    /**
+	Write the atlas. The nodes are sorted by cos(zenith).
+	<pre>
+	String fileName      : the atlas file
+	double[] cosZenith   : cos(zenith) of the nodes
+	String[] matrixFiles : the propagation matrix file of each node
+	</pre>
+    */
+    public static void write(String fileName, double[] cosZenith, String[] matrixFiles)
+	throws IOException {
+
+	int numberOfNodes = cosZenith.length;
+	Integer[] order = new Integer[numberOfNodes];
+	for(int n=0;n<numberOfNodes;n++) order[n] = Integer.valueOf(n);
+	final double[] cos = cosZenith;
+	java.util.Arrays.sort(order,new java.util.Comparator<Integer>( ){
+		public int compare(Integer a, Integer b){
+		    return Double.compare(cos[a.intValue( )],cos[b.intValue( )]);
+		}
+	    });
+
+	PropagationMatrixFile[] matrix = new PropagationMatrixFile[numberOfNodes];
+	long[] offset = new long[numberOfNodes];
+	long position = MAGIC.length+8+16L*(long )numberOfNodes;
+	for(int n=0;n<numberOfNodes;n++){
+	    matrix[n] = new PropagationMatrixFile(new File(matrixFiles[order[n].intValue( )]));
+	    offset[n] = position;
+	    position += matrix[n].getSizeInBytes( );
+	}
+
+	ByteBuffer header = ByteBuffer.allocate((int )offset[0]).order(ByteOrder.LITTLE_ENDIAN);
+	header.put(MAGIC);
+	header.putInt(VERSION);
+	header.putInt(numberOfNodes);
+	for(int n=0;n<numberOfNodes;n++) header.putDouble(cosZenith[order[n].intValue( )]);
+	for(int n=0;n<numberOfNodes;n++) header.putLong(offset[n]);
+	header.flip( );
+
+	FileOutputStream out = new FileOutputStream(fileName);
+	FileChannel channel = out.getChannel( );
+	while(header.hasRemaining( )) channel.write(header);
+	for(int n=0;n<numberOfNodes;n++){
+	    matrix[n].write(channel);
+	    matrix[n] = null;
+	}
+	out.close( );
+    }
+
+    /** Build the atlas from the matrix files. */
+    public static void main(String[] args) throws IOException {
+	if(args.length<3 || args.length%2 != 1){
+	    System.out.println(
+"Usage: PropagationMatrixAtlas atlas-file cosZenith1 matrix-file1 cosZenith2 matrix-file2 ...");
+	    System.exit(0);
+	}
+	int numberOfNodes = (args.length-1)/2;
+	double[] cosZenith = new double[numberOfNodes];
+	String[] matrixFiles = new String[numberOfNodes];
+	for(int n=0;n<numberOfNodes;n++){
+	    cosZenith[n] = Double.valueOf(args[1+2*n]).doubleValue();
+	    matrixFiles[n] = args[2+2*n];
+	}
+	write(args[0],cosZenith,matrixFiles);
+	System.err.println("Wrote the atlas " + args[0] + " of " + numberOfNodes + " nodes");
+    }
+}
@@ -73,28 +73,28 @@ public class PropagationMatrixBHevaporation extends PropagationMatrix {
 	    for(jLogE=0;jLogE<=kLogE;jLogE++){
 		// to Mu and tau
 		if((interactionsSwitch & CHARGED_FLAG) == CHARGED_FLAG){
-		    nuEToMu[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE);
-		    nuMuToMu[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE);
-		    nuTauToMu[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE);
-		    nuEToTau[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE);
-		    nuMuToTau[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE);
-		    nuTauToTau[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE);
+		    nuEToMu.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE));
+		    nuMuToMu.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE));
+		    nuTauToMu.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE));
+		    nuEToTau.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE));
+		    nuMuToTau.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE));
+		    nuTauToTau.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getLeptonTransferMatrix(kLogE,jLogE));
 		}
 
 		// To Hadron (shower)
 		if((interactionsSwitch & CHARGED_FLAG) == CHARGED_FLAG){
-		    nuEToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getTransferMatrix(kLogE,jLogE);
-		    nuMuToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getTransferMatrix(kLogE,jLogE);
-		    nuTauToHadron[kLogE][jLogE] += 
-			dX*s.NA*nuBHMtx.getTransferMatrix(kLogE,jLogE);
+		    nuEToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getTransferMatrix(kLogE,jLogE));
+		    nuMuToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getTransferMatrix(kLogE,jLogE));
+		    nuTauToHadron.add(kLogE,jLogE, 
+			dX*s.NA*nuBHMtx.getTransferMatrix(kLogE,jLogE));
 		}
 	    }
 	}
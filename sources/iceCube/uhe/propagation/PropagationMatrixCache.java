@@ -0,0 +1,195 @@
+package iceCube.uhe.propagation;
+
+import java.io.*;
+
+/**
+<pre>
+   Disk cache of the powered propagation matrices F^(2^k) of uniform layers
+   shared by the runs of RunPropagationMatrix for different nadir angles
+   and by the different drivers (MainRun, MainRun2 ..) pointing to the same directory.
+
+   The density shells of the Earth model are common to all the trajectories,
+   only their column depths vary with the angle. The layer densities are
+   therefore rounded to the bins of log10(density) and the propagation
+   matrix over the step dX of a bin, and its squares, are calculated only once.
+   A layer with the column depth X is then the product of the cached
+   powers for the bits of n = floor(X/dX) and of the matrix over the rest
+   X - n dX, which is calculated every time (propagateLayer( )).
+
+   A matrix is identified by the file name
+
+     (PropagationMatrix.getConfigurationTag( ))_mat(material)_rho(density bin)_dX(step)_pow(k).mtx
+
+   and written to a temporary file renamed at the end so that
+   the runs sharing the directory never read a half-written file.
+</pre>
+*/
+
+public class PropagationMatrixCache {
+
+    /** Number of the density bins per decade. 40 bins make the bin width 6%. */
+    public final static int BINS_PER_DECADE = 40;
+
+    private File directory;
+    private int numberOfLoads = 0;
+    private int numberOfSaves = 0;
+
+    /** Constructor. The directory is created if it does not exist. */
+    public PropagationMatrixCache(String directoryName) throws IOException {
+	directory = new File(directoryName);
+	if(!directory.isDirectory( ) && !directory.mkdirs( )){
+	    throw new IOException("Can not create the cache directory " + directoryName);
+	}
+    }
+
+    /** The bin of the density [g/cm^3]. */
+    public static int getDensityBin(double density){
+	return (int )Math.floor(Math.log10(density)*(double )BINS_PER_DECADE);
+    }
+
+    /** The density [g/cm^3] at the (logarithmic) center of the bin. */
+    public static double getBinDensity(int bin){
+	return Math.pow(10.0,((double )bin+0.5)/(double )BINS_PER_DECADE);
+    }
+
+    /** The lowest density [g/cm^3] in the bin. */
+    public static double getBinLowerEdge(int bin){
+	return Math.pow(10.0,(double )bin/(double )BINS_PER_DECADE);
+    }
+
+    /**
+	<pre>
+	Propagate the particles over a uniform layer and multiply the store matrix
+	of propMtx by the propagation matrix of the layer, like PropagationMatrix.propagateLayer( ).
+	The powers found in the cache are read, and the others are
+	calculated from the highest power available and written to the cache.
+	The rest of the column depth below dX is propagated by one step not cached,
+	so that the layer is propagated over its column depth exactly.
+	The propagation matrix of propMtx is overwritten. Returns
+	the number of the matrix products calculated.
+
+	int material       : material number of ParticlePoint
+	double density     : density of the layer [g/cm^3]
+	double columnDepth : column depth of the layer [g/cm^2]
+	</pre>
+    */
+    public int propagateLayer(PropagationMatrix propMtx, int material,
+			      double density, double columnDepth) throws IOException {
+
+	int bin = getDensityBin(density);
+	double dX = propMtx.getStepSize(getBinLowerEdge(bin));
+	long numberOfSteps = (long )Math.floor(columnDepth/dX);
+	double rest = columnDepth-(double )numberOfSteps*dX;
+	String prefix = propMtx.getConfigurationTag( ) + "_mat" + material + "_rho" + bin +
+	    "_dX" + Long.toHexString(Double.doubleToLongBits(dX)) + "_pow";
+
+	int numberOfProducts = 0;
+	int current = -1; // the power held by the propagation matrix
+	int highest = 63-Long.numberOfLeadingZeros(numberOfSteps);
+	for(int k=0;k<=highest;k++){
+	    if(((numberOfSteps>>k) & 1L) == 0L) continue;
+	    if(current != k){
+		// The highest power available below k
+		int from = -1;
+		for(int j=k;j>current && j>=0;j--){
+		    if(getFile(prefix,j).exists( )){
+			from = j;
+			break;
+		    }
+		}
+		if(from>=0){
+		    readTensor(propMtx.propagation,getFile(prefix,from));
+		    current = from;
+		}else if(current<0){
+		    double dXsaved = propMtx.dX;
+		    propMtx.setDx(dX);
+		    propMtx.calculateTransferMatrix(getBinDensity(bin));
+		    propMtx.init( );
+		    propMtx.propagateDX( );
+		    propMtx.setDx(dXsaved);
+		    numberOfProducts++;
+		    current = 0;
+		    writeTensor(propMtx.propagation,getFile(prefix,current));
+		}
+		while(current<k){
+		    propMtx.propagateDXpowered( );
+		    numberOfProducts++;
+		    current++;
+		    writeTensor(propMtx.propagation,getFile(prefix,current));
+		}
+	    }
+	    propMtx.multiplyStoreMatrix( );
+	    numberOfProducts++;
+	}
+
+	if(rest>0.0){
+	    double dXsaved = propMtx.dX;
+	    propMtx.setDx(rest);
+	    propMtx.calculateTransferMatrix(getBinDensity(bin));
+	    propMtx.init( );
+	    propMtx.propagateDX( );
+	    propMtx.setDx(dXsaved);
+	    propMtx.multiplyStoreMatrix( );
+	    numberOfProducts += 2;
+	}
+	return numberOfProducts;
+    }
+
+    /** Number of the matrices read from the cache so far. */
+    public int getNumberOfLoads( ){
+	return numberOfLoads;
+    }
+
+    /** Number of the matrices written to the cache so far. */
+    public int getNumberOfSaves( ){
+	return numberOfSaves;
+    }
+
+    private File getFile(String prefix, int power){
+	return new File(directory,prefix + power + ".mtx");
+    }
+
+    /** Write the rows of the propagating particles of the channel tensor. */
+    protected void writeTensor(TriangularMatrix[][] tensor, File file) throws IOException {
+	File tempFile = new File(file.getPath( ) + ".tmp" + System.nanoTime( ));
+	DataOutputStream out =
+	    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+	int[] propagatingParticles = PropagationMatrix.propagatingParticles;
+	out.writeInt(tensor[propagatingParticles[0]][0].getDimension( ));
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    for(int b=0;b<PropagationMatrix.NUMBER_OF_PARTICLES;b++){
+		double[] element = tensor[a][b].getElements( );
+		for(int ij=0;ij<element.length;ij++) out.writeDouble(element[ij]);
+	    }
+	}
+	out.close( );
+	if(!tempFile.renameTo(file)){
+	    tempFile.delete( );
+	    System.err.println("Failed to write the cache " + file);
+	}else{
+	    numberOfSaves++;
+	}
+    }
+
+    /** Read the channel tensor written by writeTensor( ). */
+    protected void readTensor(TriangularMatrix[][] tensor, File file) throws IOException {
+	DataInputStream in =
+	    new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+	int[] propagatingParticles = PropagationMatrix.propagatingParticles;
+	int dimension = in.readInt( );
+	if(dimension != tensor[propagatingParticles[0]][0].getDimension( )){
+	    in.close( );
+	    throw new IOException("Dimension mismatch in the cache " + file);
+	}
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    for(int b=0;b<PropagationMatrix.NUMBER_OF_PARTICLES;b++){
+		double[] element = tensor[a][b].getElements( );
+		for(int ij=0;ij<element.length;ij++) element[ij] = in.readDouble( );
+	    }
+	}
+	in.close( );
+	numberOfLoads++;
+    }
+}
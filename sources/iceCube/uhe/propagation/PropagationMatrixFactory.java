@@ -3,6 +3,7 @@ package  iceCube.uhe.propagation;
 import iceCube.uhe.particles.*;
 import iceCube.uhe.propagation.*;
 import java.io.*;
+import java.util.*;
 
 /**
 
@@ -17,23 +18,44 @@ import java.io.*;
    with the neutrio flux model independent way.
 
    Written by S. Yoshida 2007/3/18
+
+   In the lazy mode (the constructor with maximumResidentChannels)
+   the matrices are not allocated nor read by readMatrix( ). The file
+   is only mapped (see PropagationMatrixFile) and a channel is copied
+   into memory when getDF( ) first accesses it. At most
+   maximumResidentChannels channels are held; the least recently
+   used channel is dropped to make room for a new one. The F* members
+   stay null in this mode, so only getDF( ) and the methods
+   using it can be called.
 */
 
 public class PropagationMatrixFactory {
 
     static int dimension = Particle.getDimensionOfLogEnergyMatrix();
     /** For Glashow resonance NuETo(Mu & Tau flavor)'s added. **/
-    double[][] FnuEToNuE,FnuMuToNuE,FnuTauToNuE,FmuToNuE,FtauToNuE;
-    double[][] FnuEToNuMu,FnuMuToNuMu,FnuTauToNuMu,FmuToNuMu,FtauToNuMu;
-    double[][] FnuEToNuTau,FnuMuToNuTau,FnuTauToNuTau,FmuToNuTau,FtauToNuTau;
-    double[][] FnuEToE,FnuMuToE,FnuTauToE,FmuToE,FtauToE;
-    double[][] FnuEToMu,FnuMuToMu,FnuTauToMu,FmuToMu,FtauToMu;
-    double[][] FnuEToTau,FnuMuToTau,FnuTauToTau,FmuToTau,FtauToTau;
-    double[][] FnuEToHadron,FnuMuToHadron,FnuTauToHadron,FmuToHadron,FtauToHadron;
+    TriangularMatrix FnuEToNuE,FnuMuToNuE,FnuTauToNuE,FmuToNuE,FtauToNuE;
+    TriangularMatrix FnuEToNuMu,FnuMuToNuMu,FnuTauToNuMu,FmuToNuMu,FtauToNuMu;
+    TriangularMatrix FnuEToNuTau,FnuMuToNuTau,FnuTauToNuTau,FmuToNuTau,FtauToNuTau;
+    TriangularMatrix FnuEToE,FnuMuToE,FnuTauToE,FmuToE,FtauToE;
+    TriangularMatrix FnuEToMu,FnuMuToMu,FnuTauToMu,FmuToMu,FtauToMu;
+    TriangularMatrix FnuEToTau,FnuMuToTau,FnuTauToTau,FmuToTau,FtauToTau;
+    TriangularMatrix FnuEToHadron,FnuMuToHadron,FnuTauToHadron,FmuToHadron,FtauToHadron;
 
     /** Flag to choose matrix with or without Glashow Resonance. */
     boolean includeGlashowResonance = true;
 
+    /** The F* matrices [input][output] by the particle indices of PropagationMatrixFile.
+	In the lazy mode only the resident channels are set. */
+    TriangularMatrix[][] channel;
+
+    /** Lazy mode */
+    private boolean lazy = false;
+    private PropagationMatrixFile lazyFile = null;
+    private int maximumResidentChannels = 0;
+    /** The resident channels in the order of the access. input*NUMBER_OF_PARTICLES+output */
+    private LinkedHashMap<Integer,TriangularMatrix> residentChannels;
+    private int numberOfChannelLoads = 0;
+
     /** Default constructor.
 	Allocating the array memory to store the propagation matricis
      */
@@ -46,109 +68,176 @@ public class PropagationMatrixFactory {
 	if(generateMatrix) generatePropagationMatrixArray();
     }
 
+    /** Constructor of the lazy mode. The channels are read
+	when they are accessed for the first time.
+	<pre>
+	int maximumResidentChannels : the maximum number of the channels held in memory.
+	                              0 for no limit.
+	</pre>
+    */
+    public PropagationMatrixFactory(int maximumResidentChannels){
+	lazy = true;
+	this.maximumResidentChannels = maximumResidentChannels;
+	channel = new TriangularMatrix[PropagationMatrixFile.NUMBER_OF_PARTICLES]
+	    [PropagationMatrixFile.NUMBER_OF_PARTICLES];
+	residentChannels = new LinkedHashMap<Integer,TriangularMatrix>(16,0.75f,true);
+    }
+
 
     /** Allocate memory for the propagation matrix array */
     private void generatePropagationMatrixArray(){
 	/** For Glashow Resonance -begin **/
-        FnuEToNuE= new double[dimension][dimension];
-        FnuEToNuMu= new double[dimension][dimension];
-        FnuEToNuTau= new double[dimension][dimension];
-        FnuEToE= new double[dimension][dimension];
-        FnuEToMu= new double[dimension][dimension];
-        FnuEToTau= new double[dimension][dimension];
-        FnuEToHadron= new double[dimension][dimension];
+        FnuEToNuE= new TriangularMatrix(dimension);
+        FnuEToNuMu= new TriangularMatrix(dimension);
+        FnuEToNuTau= new TriangularMatrix(dimension);
+        FnuEToE= new TriangularMatrix(dimension);
+        FnuEToMu= new TriangularMatrix(dimension);
+        FnuEToTau= new TriangularMatrix(dimension);
+        FnuEToHadron= new TriangularMatrix(dimension);
 	/** For Glashow Resonance -begin **/
-        FnuMuToNuE= new double[dimension][dimension];
-        FnuMuToNuMu= new double[dimension][dimension];
-        FnuMuToNuTau= new double[dimension][dimension];
-        FnuMuToE= new double[dimension][dimension];
-        FnuMuToMu= new double[dimension][dimension];
-        FnuMuToTau= new double[dimension][dimension];
-        FnuMuToHadron= new double[dimension][dimension];
-        FnuTauToNuE= new double[dimension][dimension];
-        FnuTauToNuMu= new double[dimension][dimension];
-        FnuTauToNuTau= new double[dimension][dimension];
-        FnuTauToE= new double[dimension][dimension];
-        FnuTauToMu= new double[dimension][dimension];
-        FnuTauToTau= new double[dimension][dimension];
-        FnuTauToHadron= new double[dimension][dimension];
-        FmuToNuE= new double[dimension][dimension];
-        FmuToNuMu= new double[dimension][dimension];
-        FmuToNuTau= new double[dimension][dimension];
-        FmuToE= new double[dimension][dimension];
-        FmuToMu= new double[dimension][dimension];
-        FmuToTau= new double[dimension][dimension];
-        FmuToHadron= new double[dimension][dimension];
-        FtauToNuE= new double[dimension][dimension];
-        FtauToNuMu= new double[dimension][dimension];
-        FtauToNuTau= new double[dimension][dimension];
-        FtauToE= new double[dimension][dimension];
-        FtauToMu= new double[dimension][dimension];
-        FtauToTau= new double[dimension][dimension];
-        FtauToHadron= new double[dimension][dimension];
+        FnuMuToNuE= new TriangularMatrix(dimension);
+        FnuMuToNuMu= new TriangularMatrix(dimension);
+        FnuMuToNuTau= new TriangularMatrix(dimension);
+        FnuMuToE= new TriangularMatrix(dimension);
+        FnuMuToMu= new TriangularMatrix(dimension);
+        FnuMuToTau= new TriangularMatrix(dimension);
+        FnuMuToHadron= new TriangularMatrix(dimension);
+        FnuTauToNuE= new TriangularMatrix(dimension);
+        FnuTauToNuMu= new TriangularMatrix(dimension);
+        FnuTauToNuTau= new TriangularMatrix(dimension);
+        FnuTauToE= new TriangularMatrix(dimension);
+        FnuTauToMu= new TriangularMatrix(dimension);
+        FnuTauToTau= new TriangularMatrix(dimension);
+        FnuTauToHadron= new TriangularMatrix(dimension);
+        FmuToNuE= new TriangularMatrix(dimension);
+        FmuToNuMu= new TriangularMatrix(dimension);
+        FmuToNuTau= new TriangularMatrix(dimension);
+        FmuToE= new TriangularMatrix(dimension);
+        FmuToMu= new TriangularMatrix(dimension);
+        FmuToTau= new TriangularMatrix(dimension);
+        FmuToHadron= new TriangularMatrix(dimension);
+        FtauToNuE= new TriangularMatrix(dimension);
+        FtauToNuMu= new TriangularMatrix(dimension);
+        FtauToNuTau= new TriangularMatrix(dimension);
+        FtauToE= new TriangularMatrix(dimension);
+        FtauToMu= new TriangularMatrix(dimension);
+        FtauToTau= new TriangularMatrix(dimension);
+        FtauToHadron= new TriangularMatrix(dimension);
+
+	channel = new TriangularMatrix[ ][ ]{
+	    {FnuEToNuE,FnuEToNuMu,FnuEToNuTau,FnuEToE,FnuEToMu,FnuEToTau,FnuEToHadron},
+	    {FnuMuToNuE,FnuMuToNuMu,FnuMuToNuTau,FnuMuToE,FnuMuToMu,FnuMuToTau,FnuMuToHadron},
+	    {FnuTauToNuE,FnuTauToNuMu,FnuTauToNuTau,FnuTauToE,FnuTauToMu,FnuTauToTau,FnuTauToHadron},
+	    null,
+	    {FmuToNuE,FmuToNuMu,FmuToNuTau,FmuToE,FmuToMu,FmuToTau,FmuToHadron},
+	    {FtauToNuE,FtauToNuMu,FtauToNuTau,FtauToE,FtauToMu,FtauToTau,FtauToHadron},
+	    null
+	};
     }
 
 
-    /** Read the calculated propagation matrix */
+    /** Read the calculated propagation matrix either in the legacy format
+	or in the format of PropagationMatrixFile. The stream is closed. */
     public void readMatrix(DataInputStream in) throws IOException {
-        int iLogE;
-        for(iLogE=0;iLogE<dimension;iLogE++){
-            int jLogE;
-            for(jLogE=0;jLogE<=iLogE;jLogE++){
-
-		/** For Glashow Resonance -begin **/
-                FnuEToNuE[iLogE][jLogE]= in.readDouble( );
-		if(includeGlashowResonance){
-		    FnuEToNuMu[iLogE][jLogE]= in.readDouble( );
-		    FnuEToNuTau[iLogE][jLogE]= in.readDouble( );
-		}else{
-		    FnuEToNuMu[iLogE][jLogE] = 0.0;
-		    FnuEToNuTau[iLogE][jLogE]= 0.0;
-		}
-                FnuEToE[iLogE][jLogE]= in.readDouble( );
-                if(includeGlashowResonance){
-		    FnuEToMu[iLogE][jLogE]= in.readDouble( );
-		    FnuEToTau[iLogE][jLogE]= in.readDouble( );
-		}else{
-		    FnuEToMu[iLogE][jLogE] = 0.0;
-		    FnuEToTau[iLogE][jLogE]= 0.0;
-		}
-                FnuEToHadron[iLogE][jLogE]= in.readDouble( );
-		/** For Glashow Resonance -end **/
-                FnuMuToNuE[iLogE][jLogE]= in.readDouble( );
-                FnuMuToNuMu[iLogE][jLogE]= in.readDouble( );
-                FnuMuToNuTau[iLogE][jLogE]= in.readDouble( );
-                FnuMuToE[iLogE][jLogE]= in.readDouble( );
-                FnuMuToMu[iLogE][jLogE]= in.readDouble( );
-                FnuMuToTau[iLogE][jLogE]= in.readDouble( );
-                FnuMuToHadron[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuE[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuMu[iLogE][jLogE]= in.readDouble( );
-                FnuTauToNuTau[iLogE][jLogE]= in.readDouble( );
-                FnuTauToE[iLogE][jLogE]= in.readDouble( );
-                FnuTauToMu[iLogE][jLogE]= in.readDouble( );
-                FnuTauToTau[iLogE][jLogE]= in.readDouble( );
-                FnuTauToHadron[iLogE][jLogE]= in.readDouble( );
-                FmuToNuE[iLogE][jLogE]= in.readDouble( );
-                FmuToNuMu[iLogE][jLogE]= in.readDouble( );
-                FmuToNuTau[iLogE][jLogE]= in.readDouble( );
-                FmuToE[iLogE][jLogE]= in.readDouble( );
-                FmuToMu[iLogE][jLogE]= in.readDouble( );
-                FmuToTau[iLogE][jLogE]= in.readDouble( );
-                FmuToHadron[iLogE][jLogE]= in.readDouble( );
-                FtauToNuE[iLogE][jLogE]= in.readDouble( );
-                FtauToNuMu[iLogE][jLogE]= in.readDouble( );
-                FtauToNuTau[iLogE][jLogE]= in.readDouble( );
-                FtauToE[iLogE][jLogE]= in.readDouble( );
-                FtauToMu[iLogE][jLogE]= in.readDouble( );
-                FtauToTau[iLogE][jLogE]= in.readDouble( );
-                FtauToHadron[iLogE][jLogE]= in.readDouble( );
-
-            }
-        }
-
+	PropagationMatrixFile file = new PropagationMatrixFile(in,includeGlashowResonance);
         in.close( );
+	readMatrix(file);
+    }
+
+    /** Read the propagation matrix file by mapping it into memory. */
+    public void readMatrix(String fileName) throws IOException {
+	readMatrix(new PropagationMatrixFile(new File(fileName),includeGlashowResonance));
+    }
 
+    /** Copy the channels of the propagation matrix file.
+	In the lazy mode the resident channels are dropped
+	and the file is kept to read the channels on demand. */
+    public void readMatrix(PropagationMatrixFile file) throws IOException {
+	if(lazy){
+	    lazyFile = file;
+	    for(Integer key : residentChannels.keySet( )){
+		channel[key.intValue( )/PropagationMatrixFile.NUMBER_OF_PARTICLES]
+		    [key.intValue( )%PropagationMatrixFile.NUMBER_OF_PARTICLES] = null;
+	    }
+	    residentChannels.clear( );
+	    return;
+	}
+	for(int a=0;a<channel.length;a++){
+	    if(channel[a] == null) continue;
+	    for(int b=0;b<channel[a].length;b++){
+		file.readChannel(a,b,channel[a][b]);
+	    }
+	}
+    }
+
+    /**
+	The matrix of the channel input particle -&gt; output particle
+	by the particle indices of PropagationMatrixFile. In the lazy mode
+	the channel is read from the file if it is not resident.
+	null if the channel does not exist.
+    */
+    protected TriangularMatrix getChannel(int input, int output){
+	if(input<0 || output<0) return null;
+	if(!lazy) return (channel[input] == null) ? null : channel[input][output];
+
+	// the keys below 128 are the cached Integer objects
+	Integer key = Integer.valueOf(input*PropagationMatrixFile.NUMBER_OF_PARTICLES+output);
+	TriangularMatrix matrix = residentChannels.get(key); // marks it as the most recent
+	if(matrix != null) return matrix;
+	if(lazyFile == null || !lazyFile.hasChannel(input,output)) return null;
+
+	// Reuse the least recently used channel if the limit is reached
+	if(maximumResidentChannels>0 && residentChannels.size( )>=maximumResidentChannels){
+	    Iterator<Map.Entry<Integer,TriangularMatrix>> eldest =
+		residentChannels.entrySet( ).iterator( );
+	    Map.Entry<Integer,TriangularMatrix> entry = eldest.next( );
+	    int eldestKey = entry.getKey( ).intValue( );
+	    channel[eldestKey/PropagationMatrixFile.NUMBER_OF_PARTICLES]
+		[eldestKey%PropagationMatrixFile.NUMBER_OF_PARTICLES] = null;
+	    matrix = entry.getValue( );
+	    eldest.remove( );
+	}else{
+	    matrix = new TriangularMatrix(dimension);
+	}
+	try{
+	    lazyFile.readChannel(input,output,matrix);
+	}catch(IOException e){
+	    System.err.println("Failed to read the channel " + input + " -> " + output +
+			       " : " + e.getMessage( ));
+	    return null;
+	}
+	numberOfChannelLoads++;
+	residentChannels.put(key,matrix);
+	if(channel[input] == null){
+	    channel[input] = new TriangularMatrix[PropagationMatrixFile.NUMBER_OF_PARTICLES];
+	}
+	channel[input][output] = matrix;
+	return matrix;
+    }
+
+    /** Number of the channels held in memory. */
+    public int getNumberOfResidentChannels( ){
+	if(lazy) return residentChannels.size( );
+	int numberOfChannels = 0;
+	for(int a=0;a<channel.length;a++){
+	    if(channel[a] != null) numberOfChannels += channel[a].length;
+	}
+	return numberOfChannels;
+    }
+
+    /** Number of the channels read in the lazy mode so far. */
+    public int getNumberOfChannelLoads( ){
+	return numberOfChannelLoads;
+    }
+
+    /** The particle index of PropagationMatrixFile for the flavor and doublet.
+	-1 if there is no corresponding index. */
+    public static int getParticleIndex(int flavor, int doublet){
+	if(flavor == 3) return PropagationMatrixFile.HADRON;
+	if(flavor<0 || flavor>2) return -1;
+	if(doublet == 0) return PropagationMatrixFile.NUE+flavor;
+	if(doublet == 1) return PropagationMatrixFile.E+flavor;
+	return -1;
     }
 
 	
@@ -203,55 +292,10 @@ public class PropagationMatrixFactory {
 	if(((0 <= iLogE) && (iLogE<dimension)) && 
 	   ((jLogE<= iLogE) && (0 <= jLogE))){ // In the valid energy range
 
+	    TriangularMatrix matrix = getChannel(getParticleIndex(inputFlavor,inputDoublet),
+						 getParticleIndex(outputFlavor,outputDoublet));
 	    double count = 0.0;
-
-            if(inputFlavor==0 && inputDoublet == 0){ // nu_e
-		/** For Glashow Resonance -begin **/
-		if(outputFlavor==0 && outputDoublet ==0) count = FnuEToNuE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==0) count = FnuEToNuMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==0) count = FnuEToNuTau[iLogE][jLogE];
-                else if(outputFlavor==0 && outputDoublet ==1) count = FnuEToE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==1) count = FnuEToMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==1) count = FnuEToTau[iLogE][jLogE];
-                else if(outputFlavor==3) count = FnuEToHadron[iLogE][jLogE];
-		/** For Glashow Resonance -end **/
-
-	    }else if(inputFlavor==1 && inputDoublet ==0){ // nu_mu
-                if(outputFlavor==0 && outputDoublet ==0) count = FnuMuToNuE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==0) count = FnuMuToNuMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==0) count = FnuMuToNuTau[iLogE][jLogE];
-                else if(outputFlavor==0 && outputDoublet ==1) count = FnuMuToE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==1) count = FnuMuToMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==1) count = FnuMuToTau[iLogE][jLogE];
-                else if(outputFlavor==3) count = FnuMuToHadron[iLogE][jLogE];
-
-	    }else if(inputFlavor==2 && inputDoublet ==0){ // nu_tau
-                if(outputFlavor==0 && outputDoublet ==0) count = FnuTauToNuE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==0) count = FnuTauToNuMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==0) count = FnuTauToNuTau[iLogE][jLogE];
-                else if(outputFlavor==0 && outputDoublet ==1) count = FnuTauToE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==1) count = FnuTauToMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==1) count = FnuTauToTau[iLogE][jLogE];
-                else if(outputFlavor==3) count = FnuTauToHadron[iLogE][jLogE];
-
-	    }else if(inputFlavor==1 && inputDoublet ==1){ // mu
-                if(outputFlavor==0 && outputDoublet ==0) count = FmuToNuE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==0) count = FmuToNuMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==0) count = FmuToNuTau[iLogE][jLogE];
-                else if(outputFlavor==0 && outputDoublet ==1) count = FmuToE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==1) count = FmuToMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==1) count = FmuToTau[iLogE][jLogE];
-                else if(outputFlavor==3) count = FmuToHadron[iLogE][jLogE];
-
-	    }else if(inputFlavor==2 && inputDoublet ==1){ // tau
-                if(outputFlavor==0 && outputDoublet ==0) count = FtauToNuE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==0) count = FtauToNuMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==0) count = FtauToNuTau[iLogE][jLogE];
-                else if(outputFlavor==0 && outputDoublet ==1) count = FtauToE[iLogE][jLogE];
-                else if(outputFlavor==1 && outputDoublet ==1) count = FtauToMu[iLogE][jLogE];
-                else if(outputFlavor==2 && outputDoublet ==1) count = FtauToTau[iLogE][jLogE];
-                else if(outputFlavor==3) count = FtauToHadron[iLogE][jLogE];
-	    }
+	    if(matrix != null) count = matrix.get(iLogE,jLogE);
 
 	    return(count);
 
@@ -274,13 +318,14 @@ public class PropagationMatrixFactory {
 	int jLogE = (int)((logEnergy - Particle.getLogEnergyMinimum())
 			  /Particle.getDeltaLogEnergy());
 	double averagedLogEprimary = 0.0; double count = 0;
+	TriangularMatrix muToMu = getChannel(PropagationMatrixFile.MU,PropagationMatrixFile.MU);
 	int iLogE;
 	for(iLogE=jLogE;iLogE<dimension;iLogE++){
 	    double logEprimary = Particle.getLogEnergyMinimum( ) + 
 		Particle.getDeltaLogEnergy( )*(double )iLogE;
-	    if(FmuToMu[iLogE][jLogE]>0.0){
-		averagedLogEprimary += logEprimary*FmuToMu[iLogE][jLogE];
-		count += FmuToMu[iLogE][jLogE];
+	    if(muToMu.get(iLogE,jLogE)>0.0){
+		averagedLogEprimary += logEprimary*muToMu.get(iLogE,jLogE);
+		count += muToMu.get(iLogE,jLogE);
 	    }
 	}
 	averagedLogEprimary /= count;
@@ -0,0 +1,475 @@
+package iceCube.uhe.propagation;
+
+import iceCube.uhe.particles.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+
+/**
+<pre>
+   The propagation matrix file. The matrix F(input particle, output particle)(iLogE,jLogE)
+   calculated by RunPropagationMatrix is stored in the versioned binary format
+
+   offset  type
+     0     byte[8]     "JULIETPM"
+     8     int         version (1)
+    12     int         dimension
+    16     double      logE minimum [GeV]
+    24     double      delta logE
+    32     int         1 if the Glashow resonance channels nuE to nuMu, nuTau, mu, tau
+                       are included, 0 otherwise
+    36     int         number of channels n
+    40     int[2n]     (input particle, output particle) of each channel
+                       by the particle index NUE=0 NUMU=1 NUTAU=2 E=3 MU=4 TAU=5 HADRON=6
+           (padding to 8 bytes)
+           double[n][dimension*(dimension+1)/2]
+                       the channels, each packed as TriangularMatrix
+
+   All in little endian. The file is mapped into memory (MappedByteBuffer)
+   and each channel is served as a DoubleBuffer view of the mapping,
+   so the matrices are moved by a bulk copy per channel instead of
+   the in.readDouble( ) calls per element.
+
+   The legacy .data files written by RunPropagationMatrix.saveMatrix( ), which
+   have no header and interleave the 35 (31 without the Glashow resonance) channels
+   for each element in big endian, are also mapped and read by stride
+   so that a single channel can be taken without decoding the others.
+   They can be converted by
+
+      java iceCube.uhe.propagation.PropagationMatrixFile legacy.data new.pmx (0 if no Glashow)
+</pre>
+*/
+
+public class PropagationMatrixFile {
+
+    public final static int VERSION = 1;
+    private final static byte[] MAGIC = {'J','U','L','I','E','T','P','M'};
+    private final static int HEADER_SIZE = 40;
+
+    /** Particle indices of the channels. */
+    public final static int NUE = PropagationMatrix.NUE_INDEX;
+    public final static int NUMU = PropagationMatrix.NUMU_INDEX;
+    public final static int NUTAU = PropagationMatrix.NUTAU_INDEX;
+    public final static int E = PropagationMatrix.E_INDEX;
+    public final static int MU = PropagationMatrix.MU_INDEX;
+    public final static int TAU = PropagationMatrix.TAU_INDEX;
+    public final static int HADRON = PropagationMatrix.HADRON_INDEX;
+    public final static int NUMBER_OF_PARTICLES = PropagationMatrix.NUMBER_OF_PARTICLES;
+
+    private int dimension;
+    private double logEnergyMinimum;
+    private double deltaLogEnergy;
+    private boolean includeGlashowResonance;
+    private int[] channelInput;
+    private int[] channelOutput;
+    /** Channel number of [input][output]. -1 if not stored. */
+    private int[][] channelIndex;
+    /** All the channels. The element ij of the channel c is at
+	c*channelStride+ij*elementStride. */
+    private DoubleBuffer payload;
+    private int channelStride;
+    private int elementStride = 1;
+
+
+    /** Map the file written in the versioned format.
+	The legacy files with the Glashow resonance channels are also accepted. */
+    public PropagationMatrixFile(File file) throws IOException {
+	this(file,true);
+    }
+
+    /** Map the file written in the versioned format. A legacy file is read instead
+	with or without the Glashow resonance channels by includeGlashowResonance. */
+    public PropagationMatrixFile(File file, boolean includeGlashowResonance)
+	throws IOException {
+	boolean versioned = isVersionedFile(file);
+	RandomAccessFile randomFile = new RandomAccessFile(file,"r");
+	FileChannel channel = randomFile.getChannel( );
+	MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size( ));
+	randomFile.close( ); // the mapping stays valid
+	if(versioned){
+	    buffer.order(ByteOrder.LITTLE_ENDIAN);
+	    readHeader(buffer);
+	}else{
+	    setLegacyChannels(includeGlashowResonance);
+	    elementStride = channelInput.length;
+	    channelStride = 1;
+	}
+	checkPayloadSize(buffer.remaining( ));
+	payload = buffer.asDoubleBuffer( );
+    }
+
+    /** Read from the stream either of the versioned or the legacy format.
+	boolean includeGlashowResonance tells whether the legacy stream
+	has the Glashow resonance channels. It is ignored for the versioned format.
+	The stream is not closed. */
+    public PropagationMatrixFile(DataInputStream in, boolean includeGlashowResonance)
+	throws IOException {
+	byte[] magic = new byte[MAGIC.length];
+	in.readFully(magic);
+	if(isMagic(magic)){
+	    byte[] fixed = new byte[HEADER_SIZE-MAGIC.length];
+	    in.readFully(fixed);
+	    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	    header.put(magic).put(fixed).flip( );
+	    int numberOfChannels = header.getInt(36);
+	    byte[] rest = new byte[getPayloadOffset(numberOfChannels)-HEADER_SIZE+
+				   8*numberOfChannels*TriangularMatrix.size(header.getInt(12))];
+	    in.readFully(rest);
+	    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE+rest.length).order(ByteOrder.LITTLE_ENDIAN);
+	    buffer.put(magic).put(fixed).put(rest).flip( );
+	    readHeader(buffer);
+	    payload = buffer.asDoubleBuffer( );
+	}else{
+	    // The first element of the legacy file
+	    readLegacy(in,includeGlashowResonance,ByteBuffer.wrap(magic).getDouble( ));
+	}
+    }
+
+    /** Read the versioned format from the beginning of the buffer without copying,
+	e.g. a slice of a mapped file holding several matrices. */
+    PropagationMatrixFile(ByteBuffer buffer) throws IOException {
+	byte[] magic = new byte[MAGIC.length];
+	for(int i=0;i<MAGIC.length;i++) magic[i] = buffer.get(i);
+	if(!isMagic(magic)){
+	    throw new IOException("No propagation matrix found in the buffer");
+	}
+	buffer.order(ByteOrder.LITTLE_ENDIAN);
+	readHeader(buffer);
+	checkPayloadSize(buffer.remaining( ));
+	payload = buffer.asDoubleBuffer( );
+    }
+
+    /** True if the file begins with the magic of the versioned format. */
+    public static boolean isVersionedFile(File file) throws IOException {
+	if(file.length( )<HEADER_SIZE) return false;
+	DataInputStream in = new DataInputStream(new FileInputStream(file));
+	byte[] magic = new byte[MAGIC.length];
+	in.readFully(magic);
+	in.close( );
+	return isMagic(magic);
+    }
+
+    private static boolean isMagic(byte[] magic){
+	for(int i=0;i<MAGIC.length;i++){
+	    if(magic[i] != MAGIC[i]) return false;
+	}
+	return true;
+    }
+
+    private static int getPayloadOffset(int numberOfChannels){
+	int offset = HEADER_SIZE+8*numberOfChannels;  // 2 ints per channel
+	return offset;                                // already a multiple of 8
+    }
+
+    /** Read the header and leave the position at the payload. */
+    private void readHeader(ByteBuffer buffer) throws IOException {
+	buffer.position(MAGIC.length);
+	int version = buffer.getInt( );
+	if(version != VERSION){
+	    throw new IOException("Unsupported propagation matrix file version " + version);
+	}
+	dimension = buffer.getInt( );
+	logEnergyMinimum = buffer.getDouble( );
+	deltaLogEnergy = buffer.getDouble( );
+	includeGlashowResonance = (buffer.getInt( ) == 1);
+	int numberOfChannels = buffer.getInt( );
+	setChannels(numberOfChannels);
+	for(int c=0;c<numberOfChannels;c++){
+	    channelInput[c] = buffer.getInt( );
+	    channelOutput[c] = buffer.getInt( );
+	    channelIndex[channelInput[c]][channelOutput[c]] = c;
+	}
+	buffer.position(getPayloadOffset(numberOfChannels));
+	channelStride = TriangularMatrix.size(dimension);
+    }
+
+    private void setChannels(int numberOfChannels){
+	channelInput = new int[numberOfChannels];
+	channelOutput = new int[numberOfChannels];
+	channelIndex = new int[NUMBER_OF_PARTICLES][NUMBER_OF_PARTICLES];
+	for(int a=0;a<NUMBER_OF_PARTICLES;a++){
+	    for(int b=0;b<NUMBER_OF_PARTICLES;b++) channelIndex[a][b] = -1;
+	}
+    }
+
+    private void checkPayloadSize(int bytes) throws IOException {
+	long required = 8L*(long )channelInput.length*(long )TriangularMatrix.size(dimension);
+	if(bytes<required){
+	    throw new IOException("Propagation matrix file is truncated: " +
+				  bytes + " bytes for " + required);
+	}
+    }
+
+    /** The channels of the legacy files in the order of the elements. */
+    private static int[][] getLegacyChannels(boolean includeGlashowResonance){
+	int[] propagating = PropagationMatrix.propagatingParticles;
+	int numberOfChannels = propagating.length*NUMBER_OF_PARTICLES;
+	if(!includeGlashowResonance) numberOfChannels -= 4;
+	int[][] channels = new int[2][numberOfChannels];
+	int c = 0;
+	for(int n=0;n<propagating.length;n++){
+	    int a = propagating[n];
+	    for(int b=0;b<NUMBER_OF_PARTICLES;b++){
+		if(!includeGlashowResonance && a == NUE &&
+		   (b == NUMU || b == NUTAU || b == MU || b == TAU)) continue;
+		channels[0][c] = a;
+		channels[1][c] = b;
+		c++;
+	    }
+	}
+	return channels;
+    }
+
+    /** Set the header of the legacy files. */
+    private void setLegacyChannels(boolean includeGlashowResonance){
+	dimension = Particle.getDimensionOfLogEnergyMatrix( );
+	logEnergyMinimum = Particle.getLogEnergyMinimum( );
+	deltaLogEnergy = Particle.getDeltaLogEnergy( );
+	this.includeGlashowResonance = includeGlashowResonance;
+	int[][] channels = getLegacyChannels(includeGlashowResonance);
+	int numberOfChannels = channels[0].length;
+	setChannels(numberOfChannels);
+	for(int c=0;c<numberOfChannels;c++){
+	    channelInput[c] = channels[0][c];
+	    channelOutput[c] = channels[1][c];
+	    channelIndex[channelInput[c]][channelOutput[c]] = c;
+	}
+    }
+
+    /** Read the legacy stream following its first element. */
+    private void readLegacy(DataInputStream in, boolean includeGlashowResonance,
+			    double firstElement) throws IOException {
+	setLegacyChannels(includeGlashowResonance);
+	int numberOfChannels = channelInput.length;
+
+	// De-interleave the elements by the blocks of 4096 elements
+	int size = TriangularMatrix.size(dimension);
+	double[] matrix = new double[numberOfChannels*size];
+	int elementsPerBlock = 4096;
+	byte[] block = new byte[8*numberOfChannels*elementsPerBlock];
+	DoubleBuffer blockBuffer = ByteBuffer.wrap(block).asDoubleBuffer( ); // big endian
+	double[] values = new double[numberOfChannels*elementsPerBlock];
+	matrix[0] = firstElement;
+	int skip = 1; // the first element has already been read
+	for(int ij=0;ij<size;ij+=elementsPerBlock){
+	    int elements = Math.min(elementsPerBlock,size-ij);
+	    int numberOfValues = numberOfChannels*elements;
+	    in.readFully(block,0,8*(numberOfValues-skip));
+	    blockBuffer.clear( );
+	    blockBuffer.get(values,skip,numberOfValues-skip);
+	    if(skip == 1) values[0] = firstElement;
+	    skip = 0;
+	    for(int e=0;e<elements;e++){
+		for(int c=0;c<numberOfChannels;c++){
+		    matrix[c*size+ij+e] = values[e*numberOfChannels+c];
+		}
+	    }
+	}
+	payload = DoubleBuffer.wrap(matrix);
+	channelStride = size;
+    }
+
+    public int getDimension( ){
+	return dimension;
+    }
+
+    public double getLogEnergyMinimum( ){
+	return logEnergyMinimum;
+    }
+
+    public double getDeltaLogEnergy( ){
+	return deltaLogEnergy;
+    }
+
+    /** True if the Glashow resonance channels are included. */
+    public boolean hasGlashowResonance( ){
+	return includeGlashowResonance;
+    }
+
+    public int getNumberOfChannels( ){
+	return channelInput.length;
+    }
+
+    /** True if the channel input particle -&gt; output particle is stored. */
+    public boolean hasChannel(int input, int output){
+	return channelIndex[input][output]>=0;
+    }
+
+    /** The channel as a read-only view of the packed elements.
+	The element (iLogE,jLogE) is at TriangularMatrix.rowOffset(iLogE)+jLogE.
+	The view shares the mapping of the versioned format. The channel
+	of a legacy file is copied out of the interleaved elements.
+	null if the channel is not stored. */
+    public DoubleBuffer getChannel(int input, int output){
+	int c = channelIndex[input][output];
+	if(c<0) return null;
+	int size = TriangularMatrix.size(dimension);
+	if(elementStride != 1){
+	    double[] element = new double[size];
+	    copyChannel(c,element);
+	    return DoubleBuffer.wrap(element).asReadOnlyBuffer( );
+	}
+	DoubleBuffer view = payload.duplicate( );
+	view.position(c*channelStride).limit(c*channelStride+size);
+	return view.slice( ).asReadOnlyBuffer( );
+    }
+
+    /** The element (iLogE,jLogE) of the channel. 0 if the channel is not stored. */
+    public double get(int input, int output, int iLogE, int jLogE){
+	int c = channelIndex[input][output];
+	if(c<0 || jLogE>iLogE) return 0.0;
+	return payload.get(c*channelStride+(TriangularMatrix.rowOffset(iLogE)+jLogE)*elementStride);
+    }
+
+    /** Copy the channel into the matrix. Zero if the channel is not stored. */
+    public void readChannel(int input, int output, TriangularMatrix matrix) throws IOException {
+	checkDimension(matrix.getDimension( ));
+	int c = channelIndex[input][output];
+	if(c<0){
+	    matrix.clear( );
+	}else{
+	    copyChannel(c,matrix.element);
+	}
+    }
+
+    /** Copy the channel c into the packed array. */
+    private void copyChannel(int c, double[] element){
+	if(elementStride == 1){
+	    DoubleBuffer view = payload.duplicate( );
+	    view.position(c*channelStride);
+	    view.get(element);
+	}else{
+	    for(int ij=0;ij<element.length;ij++){
+		element[ij] = payload.get(c+ij*elementStride);
+	    }
+	}
+    }
+
+    /** Copy the channel into the lower triangle of the matrix. Zero if the channel is not stored. */
+    public void readChannel(int input, int output, double[][] matrix) throws IOException {
+	checkDimension(matrix.length);
+	DoubleBuffer channel = getChannel(input,output);
+	for(int iLogE=0;iLogE<dimension;iLogE++){
+	    if(channel == null){
+		java.util.Arrays.fill(matrix[iLogE],0,iLogE+1,0.0);
+	    }else{
+		channel.get(matrix[iLogE],0,iLogE+1);
+	    }
+	}
+    }
+
+    private void checkDimension(int dimension) throws IOException {
+	if(dimension != this.dimension){
+	    throw new IOException("Dimension of the propagation matrix file " + this.dimension +
+				  " does not match " + dimension);
+	}
+    }
+
+    /**
+	<pre>
+	Write the matrix in the versioned format.
+
+	TriangularMatrix[][] tensor : [input][output] by the particle index.
+	                              The null rows or elements are not written.
+	</pre>
+    */
+    public static void write(File file, TriangularMatrix[][] tensor,
+			     boolean includeGlashowResonance) throws IOException {
+	FileOutputStream out = new FileOutputStream(file);
+	write(out.getChannel( ),tensor,includeGlashowResonance,
+	      Particle.getLogEnergyMinimum( ),Particle.getDeltaLogEnergy( ));
+	out.close( );
+    }
+
+    /** Write the matrix in the versioned format at the current position of the channel. */
+    private static void write(FileChannel channel, TriangularMatrix[][] tensor,
+			      boolean includeGlashowResonance,
+			      double logEnergyMinimum, double deltaLogEnergy) throws IOException {
+	int numberOfChannels = 0;
+	int dimension = 0;
+	for(int a=0;a<tensor.length;a++){
+	    if(tensor[a] == null) continue;
+	    for(int b=0;b<tensor[a].length;b++){
+		if(tensor[a][b] == null) continue;
+		numberOfChannels++;
+		dimension = tensor[a][b].getDimension( );
+	    }
+	}
+	ByteBuffer header =
+	    ByteBuffer.allocate(getPayloadOffset(numberOfChannels)).order(ByteOrder.LITTLE_ENDIAN);
+	header.put(MAGIC);
+	header.putInt(VERSION);
+	header.putInt(dimension);
+	header.putDouble(logEnergyMinimum);
+	header.putDouble(deltaLogEnergy);
+	header.putInt(includeGlashowResonance ? 1 : 0);
+	header.putInt(numberOfChannels);
+	for(int a=0;a<tensor.length;a++){
+	    if(tensor[a] == null) continue;
+	    for(int b=0;b<tensor[a].length;b++){
+		if(tensor[a][b] == null) continue;
+		header.putInt(a);
+		header.putInt(b);
+	    }
+	}
+	header.flip( );
+
+	while(header.hasRemaining( )) channel.write(header);
+	ByteBuffer buffer = ByteBuffer.allocate(8*TriangularMatrix.size(dimension))
+	    .order(ByteOrder.LITTLE_ENDIAN);
+	for(int a=0;a<tensor.length;a++){
+	    if(tensor[a] == null) continue;
+	    for(int b=0;b<tensor[a].length;b++){
+		if(tensor[a][b] == null) continue;
+		buffer.clear( );
+		buffer.asDoubleBuffer( ).put(tensor[a][b].element);
+		while(buffer.hasRemaining( )) channel.write(buffer);
+	    }
+	}
+    }
+
+    /** Write this matrix in the versioned format. */
+    public void write(File file) throws IOException {
+	FileOutputStream out = new FileOutputStream(file);
+	write(out.getChannel( ));
+	out.close( );
+    }
+
+    /** Write this matrix in the versioned format at the current position of the channel.
+	getSizeInBytes( ) bytes are written. */
+    public void write(FileChannel channel) throws IOException {
+	TriangularMatrix[][] tensor = new TriangularMatrix[NUMBER_OF_PARTICLES][NUMBER_OF_PARTICLES];
+	for(int c=0;c<channelInput.length;c++){
+	    TriangularMatrix matrix = new TriangularMatrix(dimension);
+	    readChannel(channelInput[c],channelOutput[c],matrix);
+	    tensor[channelInput[c]][channelOutput[c]] = matrix;
+	}
+	write(channel,tensor,includeGlashowResonance,logEnergyMinimum,deltaLogEnergy);
+    }
+
+    /** Number of the bytes of this matrix in the versioned format. */
+    public long getSizeInBytes( ){
+	return (long )getPayloadOffset(channelInput.length)+
+	    8L*(long )channelInput.length*(long )TriangularMatrix.size(dimension);
+    }
+
+    /** Convert the legacy file to the versioned format. */
+    public static void main(String[] args) throws IOException {
+	if(args.length<2){
+	    System.out.println(
+"Usage: PropagationMatrixFile legacy-file-name new-file-name (0 if no Glashow resonance)");
+	    System.exit(0);
+	}
+	boolean includeGlashowResonance = true;
+	if(args.length>=3 && Integer.valueOf(args[2]).intValue() == 0){
+	    includeGlashowResonance = false;
+	}
+	DataInputStream in =
+	    new DataInputStream(new BufferedInputStream(new FileInputStream(args[0])));
+	PropagationMatrixFile matrix = new PropagationMatrixFile(in,includeGlashowResonance);
+	in.close( );
+	matrix.write(new File(args[1]));
+	System.err.println("Converted " + args[0] + " to " + args[1] + " with " +
+			   matrix.getNumberOfChannels( ) + " channels");
+    }
+}
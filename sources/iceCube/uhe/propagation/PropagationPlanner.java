@@ -0,0 +1,150 @@
+package iceCube.uhe.propagation;
+
+import iceCube.uhe.points.*;
+
+/**
+<pre>
+   Plan of the propagation along a trajectory by shells of piecewise-constant
+   medium density. The density profile given by ParticlePoint.getMediumDensity( )
+   is sampled along the trajectory and the trajectory is divided into
+   the shells where the density stays within the relative tolerance
+   of the density at the entrance of the shell. Each shell is then
+   treated as a uniform layer of the mean density with the column depth
+
+       X = integral of density dl [g/cm^2]
+
+   given by ColumnDepthCalculator.
+
+   A layer of numberOfSteps x dX is calculated by the binary powering
+   of the elementary propagation matrix over dX (PropagationMatrix.propagateLayer( )),
+   which takes O(log numberOfSteps) matrix products instead of numberOfSteps.
+   The number of steps is chosen by getNumberOfSteps( ) to have
+   at most two bits set so that the product chain is the shortest
+   for the given step size.
+</pre>
+*/
+
+public class PropagationPlanner {
+
+    /** Default relative variation of the density allowed within a shell. */
+    public final static double DEFAULT_TOLERANCE = 0.1;
+    /** Number of the density samples along the trajectory. */
+    private static int numberOfSamples = 10000;
+
+    private int numberOfShells = 0;
+    private double[] lStart;         // [cm]
+    private double[] lEnd;           // [cm]
+    private double[] lRepresentative;// [cm] location of the density closest to the mean
+    private double[] columnDepth;    // [g/cm^2]
+
+    /**
+	<pre>
+	Constructor. Divide the trajectory [lFrom,lTo] into the shells.
+
+	ParticlePoint s  : the trajectory. The particle location is restored at the end.
+	double lFrom     : the start point along the trajectory axis [cm]
+	double lTo       : the end point along the trajectory axis [cm]
+	double tolerance : relative variation of the density allowed within a shell
+	</pre>
+    */
+    public PropagationPlanner(ParticlePoint s, double lFrom, double lTo, double tolerance){
+
+	double lSaved = s.getParticleLocation( );
+	double step = (lTo-lFrom)/(double )numberOfSamples;
+
+	double[] density = new double[numberOfSamples];
+	for(int i=0;i<numberOfSamples;i++){
+	    s.setParticleLocation(lFrom+((double )i+0.5)*step);
+	    density[i] = s.getMediumDensity( );
+	}
+	s.setParticleLocation(lSaved);
+
+	// Shells
+	ColumnDepthCalculator depth = s.getColumnDepthCalculator( );
+	lStart = new double[numberOfSamples];
+	lEnd = new double[numberOfSamples];
+	lRepresentative = new double[numberOfSamples];
+	columnDepth = new double[numberOfSamples];
+	int first = 0;
+	while(first<numberOfSamples){
+	    int last = first+1;
+	    while(last<numberOfSamples &&
+		  Math.abs(density[last]-density[first])<=tolerance*density[first]) last++;
+
+	    double X = depth.getColumnDepth(lFrom+(double )first*step,lFrom+(double )last*step);
+	    double meanDensity = X/(step*(double )(last-first));
+	    int closest = first;
+	    for(int i=first;i<last;i++){
+		if(Math.abs(density[i]-meanDensity)<Math.abs(density[closest]-meanDensity)) closest = i;
+	    }
+
+	    lStart[numberOfShells] = lFrom+(double )first*step;
+	    lEnd[numberOfShells] = lFrom+(double )last*step;
+	    lRepresentative[numberOfShells] = lFrom+((double )closest+0.5)*step;
+	    columnDepth[numberOfShells] = X;
+	    numberOfShells++;
+	    first = last;
+	}
+    }
+
+    /** Constructor with the default tolerance. */
+    public PropagationPlanner(ParticlePoint s, double lFrom, double lTo){
+	this(s,lFrom,lTo,DEFAULT_TOLERANCE);
+    }
+
+    public int getNumberOfShells( ){
+	return numberOfShells;
+    }
+
+    /** The entrance of the shell along the trajectory axis [cm]. */
+    public double getShellStart(int shell){
+	return lStart[shell];
+    }
+
+    /** The exit of the shell along the trajectory axis [cm]. */
+    public double getShellEnd(int shell){
+	return lEnd[shell];
+    }
+
+    /** The location [cm] where the medium density is the closest to the mean of the shell.
+	The transfer matrix of the shell is calculated there. */
+    public double getRepresentativeLocation(int shell){
+	return lRepresentative[shell];
+    }
+
+    /** Column depth [g/cm^2] of the shell. */
+    public double getColumnDepth(int shell){
+	return columnDepth[shell];
+    }
+
+    /** Mean density [g/cm^3] of the shell. */
+    public double getMeanDensity(int shell){
+	return columnDepth[shell]/(lEnd[shell]-lStart[shell]);
+    }
+
+    /**
+	<pre>
+	Number of the steps to propagate over the shell when the step
+	size must not exceed dXmax [g/cm^2]. The smallest number
+	not less than columnDepth/dXmax with at most two bits set is returned.
+	It makes the steps at most 25% shorter than required
+	while the binary powering takes floor(log2 n) squares
+	and at most two multiplications.
+	</pre>
+    */
+    public long getNumberOfSteps(int shell, double dXmax){
+	long n = (long )Math.ceil(columnDepth[shell]/dXmax);
+	if(n<1L) return 1L;
+	long highest = Long.highestOneBit(n);
+	long rest = n-highest;
+	long second = Long.highestOneBit(rest);
+	if(rest == second) return n;      // already at most two bits
+	return highest+2L*second;         // round the rest up to a power of two
+    }
+
+    /** Number of the matrix products to propagate over numberOfSteps by the binary powering,
+	including the first elementary step. */
+    public static int getNumberOfProducts(long numberOfSteps){
+	return 1+(63-Long.numberOfLeadingZeros(numberOfSteps))+Long.bitCount(numberOfSteps);
+    }
+}
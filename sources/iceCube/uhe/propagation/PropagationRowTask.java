@@ -0,0 +1,44 @@
+package iceCube.uhe.propagation;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+<pre>
+   Fork-join task to run a kernel of PropagationMatrix
+   over the range of iLogE rows [iLogEmin,iLogEmax).
+   The range is split into halves until it becomes
+   smaller than rowsPerTask. Each row of the products
+   is independent of the other rows so the results
+   do not depend on how the rows are distributed.
+</pre>
+*/
+
+class PropagationRowTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final PropagationMatrix propMtx;
+    private final int kernel;
+    private final int iLogEmin;
+    private final int iLogEmax;
+    private final int rowsPerTask;
+
+    PropagationRowTask(PropagationMatrix propMtx, int kernel,
+		       int iLogEmin, int iLogEmax, int rowsPerTask){
+	this.propMtx = propMtx;
+	this.kernel = kernel;
+	this.iLogEmin = iLogEmin;
+	this.iLogEmax = iLogEmax;
+	this.rowsPerTask = rowsPerTask;
+    }
+
+    protected void compute( ){
+	if(iLogEmax-iLogEmin <= rowsPerTask){
+	    propMtx.runKernel(kernel,iLogEmin,iLogEmax);
+	}else{
+	    int iLogEmid = (iLogEmin+iLogEmax)/2;
+	    invokeAll(new PropagationRowTask(propMtx,kernel,iLogEmin,iLogEmid,rowsPerTask),
+		      new PropagationRowTask(propMtx,kernel,iLogEmid,iLogEmax,rowsPerTask));
+	}
+    }
+}
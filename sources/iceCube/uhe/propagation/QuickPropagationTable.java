@@ -0,0 +1,134 @@
+package iceCube.uhe.propagation;
+
+import iceCube.uhe.particles.*;
+import java.io.*;
+
+/**
+<pre>
+   The neutrino yields at the IceCube depth for many angles calculated at once
+   by NeutrinoQuickPropagator.propagateNeutrinoToIceCubeDepth(double[] angles, ..).
+   For each angle it holds
+
+     neutrino (nu-e, nu-mu, nu-tau) to charged lepton (mu, tau)  dF(iLogE,jLogE)
+     neutrino to neutrino (diagonal)                              dF(iLogE)
+
+   getDF(angle, ...) returns the same as NeutrinoQuickPropagator.getDF( )
+   after the propagation at the angle.
+</pre>
+*/
+
+public class QuickPropagationTable {
+
+    static int dimension = Particle.getDimensionOfLogEnergyMatrix();
+
+    /** Number of the neutrino to charged lepton channels:
+	(nu-e, nu-mu, nu-tau) x (mu, tau) */
+    final static int NUMBER_OF_LEPTON_CHANNELS = 6;
+
+    private double[] nadirAngle;
+    private double[] slantDepth;
+    /** [angle][(lepton flavor-1)*3 + neutrino flavor] */
+    TriangularMatrix[][] neutrinoToLepton;
+    /** [angle][iLogE] */
+    double[][] neutrinoToNeutrino;
+    double[][] nuEToNuE;
+
+    /** Constructor. The yields are initialized to be zero. */
+    QuickPropagationTable(double[] nadirAngle){
+	int numberOfAngles = nadirAngle.length;
+	this.nadirAngle = nadirAngle.clone( );
+	slantDepth = new double[numberOfAngles];
+	neutrinoToLepton = new TriangularMatrix[numberOfAngles][NUMBER_OF_LEPTON_CHANNELS];
+	neutrinoToNeutrino = new double[numberOfAngles][dimension];
+	nuEToNuE = new double[numberOfAngles][dimension];
+	for(int a=0;a<numberOfAngles;a++){
+	    for(int c=0;c<NUMBER_OF_LEPTON_CHANNELS;c++){
+		neutrinoToLepton[a][c] = new TriangularMatrix(dimension);
+	    }
+	}
+    }
+
+    /** The channel index of neutrino to charged lepton. -1 if there is no such channel. */
+    static int getLeptonChannel(int neutrinoFlavor, int leptonFlavor){
+	if(neutrinoFlavor<0 || neutrinoFlavor>2) return -1;
+	if(leptonFlavor != 1 && leptonFlavor != 2) return -1;
+	return (leptonFlavor-1)*3+neutrinoFlavor;
+    }
+
+    public int getNumberOfAngles( ){
+	return nadirAngle.length;
+    }
+
+    /** The nadir (upgoing) or zenith (downgoing) angle [deg]. */
+    public double getNadirAngle(int angle){
+	return nadirAngle[angle];
+    }
+
+    /** The slant depth [g/cm^2] to the IceCube depth. */
+    public double getSlantDepth(int angle){
+	return slantDepth[angle];
+    }
+
+    void setSlantDepth(int angle, double depth){
+	slantDepth[angle] = depth;
+    }
+
+    /**
+	Returns dF/dLogE * deltaLogE (inputNeutrino ---> outputParticle) at the angle.
+	See NeutrinoQuickPropagator.getDF( ).
+	<pre>
+	int   angle            : index of the angle
+	int   neutrinoFlavor   : flavor of the NEUTRINO entering into the earth.
+	double logEneutrino    : logE [GeV] of the NEUTRINO entering into the earth.
+	int   outputFlavor   : flavor of the Particle object after the propagation.
+	int   outputDoublet  : doublet of the Particle object after the propagation.
+	double logEoutput    : logE [GeV] of the particle after the propagation.
+	</pre>
+    */
+    public double getDF(int angle, int neutrinoFlavor, double logEneutrino,
+			int outputFlavor, int outputDoublet, double logEoutput){
+
+	int iLogE = (int)((logEneutrino + 0.1*Particle.getDeltaLogEnergy()
+		   - Particle.getLogEnergyMinimum())/Particle.getDeltaLogEnergy());
+	int jLogE = (int)((logEoutput + 0.1*Particle.getDeltaLogEnergy()
+		   - Particle.getLogEnergyMinimum())/Particle.getDeltaLogEnergy());
+	if(iLogE<0 || iLogE>=dimension || jLogE<0 || jLogE>iLogE) return 0.0;
+
+	if(outputDoublet == 1){ // charged lepton
+	    int channel = getLeptonChannel(neutrinoFlavor,outputFlavor);
+	    if(channel>=0) return neutrinoToLepton[angle][channel].get(iLogE,jLogE);
+	}else if(outputDoublet == 0){ // neutrino with no flavor flip
+	    if(neutrinoFlavor == outputFlavor && iLogE == jLogE){
+		if(neutrinoFlavor == 0) return nuEToNuE[angle][iLogE];
+		if(neutrinoFlavor<3) return neutrinoToNeutrino[angle][iLogE];
+	    }
+	}
+	return 0.0;
+    }
+
+    /**
+	Write the table.
+	<pre>
+	int    number of angles, dimension
+	then for each angle
+	double angle [deg], slant depth [g/cm^2]
+	double nu-mu/tau to nu-mu/tau [dimension], nu-e to nu-e [dimension]
+	double the packed elements of
+	       nu-e to mu, nu-mu to mu, nu-tau to mu, nu-e to tau, nu-mu to tau, nu-tau to tau
+	</pre>
+    */
+    public void write(DataOutputStream out) throws IOException {
+	out.writeInt(nadirAngle.length);
+	out.writeInt(dimension);
+	for(int a=0;a<nadirAngle.length;a++){
+	    out.writeDouble(nadirAngle[a]);
+	    out.writeDouble(slantDepth[a]);
+	    for(int iLogE=0;iLogE<dimension;iLogE++) out.writeDouble(neutrinoToNeutrino[a][iLogE]);
+	    for(int iLogE=0;iLogE<dimension;iLogE++) out.writeDouble(nuEToNuE[a][iLogE]);
+	    for(int c=0;c<NUMBER_OF_LEPTON_CHANNELS;c++){
+		double[] element = neutrinoToLepton[a][c].getElements( );
+		for(int ij=0;ij<element.length;ij++) out.writeDouble(element[ij]);
+	    }
+	}
+    }
+}
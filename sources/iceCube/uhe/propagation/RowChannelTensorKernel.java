@@ -0,0 +1,159 @@
+package iceCube.uhe.propagation;
+
+import java.util.Arrays;
+
+/**
+<pre>
+   The channel tensor product streaming the rows of right(m,b).
+   The element (iLogE,jLogE) of the product
+
+       sum_k left(a,m)(iLogE,kLogE)*right(m,b)(kLogE,jLogE)
+
+   is accumulated for all jLogE &lt;= kLogE at once, i.e.
+   the row kLogE of right(m,b), which is contiguous in the packed array,
+   is scaled by left(a,m)(iLogE,kLogE) and added to the row iLogE
+   of the result. The iLogE rows are taken by blocks of rowBlock rows
+   and the row kLogE is added to all the rows of the block and
+   all the input particles a while it stays in the cache.
+
+   When result is the same tensor as left (propagateDX( )),
+   the rows of the block are saved before the update. The product runs
+   on the saved elements and the diagonal term kLogE = jLogE of left(a,m)
+   with m &lt; b is corrected afterwards by the updated element.
+   The results agree with ColumnChannelTensorKernel within the rounding errors
+   since the terms are summed up in a different order.
+</pre>
+*/
+
+public class RowChannelTensorKernel extends ChannelTensorKernel {
+
+    /** Number of the iLogE rows sharing a row of right(m,b). */
+    protected static int rowBlock = 16;
+
+    public String getName( ){
+	return "row";
+    }
+
+    public void multiply(TriangularMatrix[][] left,
+			 TriangularMatrix[][] right,
+			 TriangularMatrix[][] sink,
+			 double[][] survival,
+			 int[][] intermediates,
+			 TriangularMatrix[][] result,
+			 int iLogEmin, int iLogEmax){
+	int[] propagatingParticles = PropagationMatrix.propagatingParticles;
+	boolean[] isSink = PropagationMatrix.isSink;
+	int numberOfParticles = PropagationMatrix.NUMBER_OF_PARTICLES;
+	boolean inPlace = (result == left);
+
+	// Work area of the largest block - the last one
+	int maxBlockSize = TriangularMatrix.rowOffset(iLogEmax) -
+	    TriangularMatrix.rowOffset(Math.max(iLogEmax-rowBlock,iLogEmin));
+	double[][] dN = new double[numberOfParticles][ ];
+	double[][][] saved = new double[numberOfParticles][numberOfParticles][ ];
+	for(int n=0;n<propagatingParticles.length;n++){
+	    int a = propagatingParticles[n];
+	    dN[a] = new double[maxBlockSize];
+	    if(inPlace){
+		for(int l=0;l<propagatingParticles.length;l++){
+		    saved[a][propagatingParticles[l]] = new double[maxBlockSize];
+		}
+	    }
+	}
+
+	int iLogE,jLogE,kLogE;
+	for(int iLogEfirst=iLogEmin;iLogEfirst<iLogEmax;iLogEfirst+=rowBlock){
+	    int iLogElast = Math.min(iLogEfirst+rowBlock,iLogEmax); // exclusive
+	    int blockOffset = TriangularMatrix.rowOffset(iLogEfirst);
+	    int blockSize = TriangularMatrix.rowOffset(iLogElast)-blockOffset;
+
+	    // The operand left(a,m) of the rows in the block : fromA[a][m][fromOffset+..]
+	    double[][][] fromA = saved;
+	    int fromOffset = 0;
+	    if(inPlace){
+		for(int n=0;n<propagatingParticles.length;n++){
+		    int a = propagatingParticles[n];
+		    for(int l=0;l<propagatingParticles.length;l++){
+			int m = propagatingParticles[l];
+			System.arraycopy(left[a][m].element,blockOffset,saved[a][m],0,blockSize);
+		    }
+		}
+	    }else{
+		fromA = new double[numberOfParticles][numberOfParticles][ ];
+		for(int n=0;n<propagatingParticles.length;n++){
+		    int a = propagatingParticles[n];
+		    for(int l=0;l<propagatingParticles.length;l++){
+			int m = propagatingParticles[l];
+			fromA[a][m] = left[a][m].element;
+		    }
+		}
+		fromOffset = blockOffset;
+	    }
+
+	    for(int b=0;b<numberOfParticles;b++){
+		int[] intermediate = intermediates[b];
+		for(int n=0;n<propagatingParticles.length;n++){
+		    Arrays.fill(dN[propagatingParticles[n]],0,blockSize,0.0);
+		}
+
+		// The products
+		for(int l=0;l<intermediate.length;l++){
+		    int m = intermediate[l];
+		    double[] toB = right[m][b].element;
+		    int kOffset = 0;
+		    for(kLogE=0;kLogE<iLogElast;kOffset+=(++kLogE)){
+			for(int n=0;n<propagatingParticles.length;n++){
+			    int a = propagatingParticles[n];
+			    double[] fromAM = fromA[a][m];
+			    double[] dNA = dN[a];
+			    iLogE = Math.max(kLogE,iLogEfirst);
+			    int iOffset = TriangularMatrix.rowOffset(iLogE)-blockOffset;
+			    for(;iLogE<iLogElast;iOffset+=(++iLogE)){
+				double f = fromAM[fromOffset+iOffset+kLogE];
+				if(f != 0.0) axpy(dNA,iOffset,f,toB,kOffset,kLogE+1);
+			    }
+			}
+		    }
+		}
+
+		// The diagonal correction, the sinks and the survival
+		for(int n=0;n<propagatingParticles.length;n++){
+		    int a = propagatingParticles[n];
+		    double[] dNA = dN[a];
+		    double[] resultAB = result[a][b].element;
+		    for(iLogE=iLogEfirst;iLogE<iLogElast;iLogE++){
+			int rowOffset = TriangularMatrix.rowOffset(iLogE);
+			int iOffset = rowOffset-blockOffset;
+			for(jLogE=0;jLogE<=iLogE;jLogE++){
+			    int ij = rowOffset+jLogE;
+			    double sum = dNA[iOffset+jLogE];
+			    if(inPlace){
+				int jj = TriangularMatrix.rowOffset(jLogE)+jLogE;
+				for(int l=0;l<intermediate.length;l++){
+				    int m = intermediate[l];
+				    if(m>=b) break;
+				    sum += (left[a][m].element[ij]-saved[a][m][iOffset+jLogE])*
+					right[m][b].element[jj];
+				}
+			    }
+			    if(isSink[b]){
+				sum += sink[a][b].element[ij];
+			    }else if(survival != null){
+				sum += left[a][b].element[ij]*survival[b][jLogE];
+			    }
+			    resultAB[ij] = sum;
+			}
+		    }
+		}
+	    }
+	}
+    }
+
+    /** y[yOffset+n] += alpha*x[xOffset+n] for n &lt; length. */
+    protected void axpy(double[] y, int yOffset, double alpha,
+			double[] x, int xOffset, int length){
+	for(int n=0;n<length;n++){
+	    y[yOffset+n] += alpha*x[xOffset+n];
+	}
+    }
+}
@@ -21,7 +21,7 @@ public class RunNeutrinoQuickPropagator {
 
         if(args.length<4){
             System.out.println(
-   "Usage: RunNeutrinoQuickPropagator medium(0 ice 1 rock) PropagationDistance[cm]/angle CCenhanceFactor switch(0 for distance, 1 for angle)");
+   "Usage: RunNeutrinoQuickPropagator medium(0 ice 1 rock) PropagationDistance[cm]/angle CCenhanceFactor switch(0 for distance, 1 for angle) (lepton-power-cache-directory)");
             System.exit(0);
         }else{
             material = Integer.valueOf(args[0]).intValue();
@@ -42,6 +42,9 @@ public class RunNeutrinoQuickPropagator {
 
 	// Generate the NeutrinoQuickPropagator class
 	NeutrinoQuickPropagator propagator = new NeutrinoQuickPropagator(s);
+	if(args.length>4){ // the lepton power cache spilled to the directory
+	    propagator.setLeptonPowerCache(new LeptonPowerCache(8,args[4]));
+	}
 
 	//
 	// Propagte the Neutrino
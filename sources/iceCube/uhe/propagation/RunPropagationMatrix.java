@@ -47,6 +47,11 @@ public class RunPropagationMatrix {
     /** Propagation Matrix object. */
     PropagationMatrix propMtx = null; 
 
+    /** Cache of the powered matrices used by traceParticlesByShells( ). null for no cache. */
+    PropagationMatrixCache cache = null;
+    /** System property of the cache directory for traceParticlesWithCache( ). */
+    public final static String CACHE_PROPERTY = "propagation.cache";
+
     /** 
 	<pre>
 	Constructor. Generate the relevant particles objects and 
@@ -87,6 +92,41 @@ public class RunPropagationMatrix {
 	}
     }
 
+    /** 
+	<pre>
+	Constructor for another nadir angle sharing the particles,
+	the interaction and decay matrices and the cache with the given run.
+	See PropagationMatrix(PropagationMatrix, ParticlePoint).
+	The medium must be the same as that of the given run.
+	Used by MainRunBatch to run many angles in one JVM.
+
+	double nadirAngle:   Nadir angle [deg] of trajectory of the incoming particles.
+	int mediumNumber:    Medium number 0 ice 1 rock
+	</pre>
+    */
+    public RunPropagationMatrix(RunPropagationMatrix shared, 
+				double nadirAngle, int mediumNumber){
+	this(shared,nadirAngle,mediumNumber,shared.propMtx.getStepParameters( ));
+    }
+
+    /** The same as RunPropagationMatrix(shared, nadirAngle, mediumNumber) with the step sizes
+	taken by PropagationMatrix.getStepParameters( ) before the given run started. */
+    public RunPropagationMatrix(RunPropagationMatrix shared, 
+				double nadirAngle, int mediumNumber, double[] stepParameters){
+
+	// Generate the ParticlePoint class.
+	s = new ParticlePoint(0.0, nadirAngle*Math.PI/180.0,mediumNumber);
+	System.err.println("Axis length of propagation trajectory " + s.getAxisLength( )
+			   + " [cm]");
+
+	nuE = shared.nuE; nuMu = shared.nuMu; nuTau = shared.nuTau;
+	e = shared.e; mu = shared.mu; tau = shared.tau; pi = shared.pi;
+	cache = shared.cache;
+
+	// Generate the Propagation Matrix without reading the files again
+	propMtx = new PropagationMatrix(shared.propMtx,s,stepParameters);
+    }
+
     /** Constructor to do nothing - for subclass modules */
     public RunPropagationMatrix(){};
 
@@ -155,7 +195,7 @@ public class RunPropagationMatrix {
 
 	double lNow = s.getParticleLocation( ); // The current particle location
 	                                        // along the trajectory
-	double deltaL;
+	ColumnDepthCalculator depth = s.getColumnDepthCalculator( );
 	double l;
 	double Xsum = 1.0;
 	int section;
@@ -170,21 +210,17 @@ public class RunPropagationMatrix {
 	    // Trace the propagation step until the particles reaches the end point
 	    // and obtain how many times (int n) step you need.
 	    int n = 0;
-	    l = lNow;
-	    while(l<(0.2*trajectoryLength*(double )(section))){
-		deltaL = propMtx.dX/s.getMediumDensity( ); 
-		l += deltaL;n++;
-		s.setParticleLocation(l);
+	    double lEnd = 0.2*trajectoryLength*(double )(section);
+	    if(lNow<lEnd){
+		n = (int )Math.ceil(depth.getColumnDepth(lNow,lEnd)/propMtx.dX);
 	    }
-	    s.setParticleLocation(lNow);
 
 
 	    // Propagate the particles over 10 x dX [g/cm^2].
 	    l = lNow;
 	    for(int i=0;i<10;i++){
-		deltaL = propMtx.dX/s.getMediumDensity( );// Propagation distance [cm]
 		propMtx.propagateDX( );                   // Propagate particles over DX[g/cm]
-		l += deltaL;
+		l = depth.getLocation(l,propMtx.dX);
 		s.setParticleLocation(l);
 
 		System.err.println("Location " + l/100.0 + " [m]" 
@@ -203,12 +239,9 @@ public class RunPropagationMatrix {
 	    System.err.println("Doubling the finite matrix by " + k + " times");
 	    for(int i=0;i<k;i++){
 		propMtx.propagateDXpowered( );
-		for(int j=0;j<times;j++){
-		    deltaL = X/s.getMediumDensity( ); 
-		    l += deltaL;
-		    if(index == 1) Xsum += X;
-		    s.setParticleLocation(l);
-		}
+		l = depth.getLocation(l,X*(double )times);
+		if(index == 1) Xsum += X*(double )times;
+		s.setParticleLocation(l);
 
 		if(l>(0.2*(3.0e-2+(double )(section-1))*trajectoryLength) 
 		   && index ==1){  
@@ -240,15 +273,15 @@ public class RunPropagationMatrix {
 
 	// Final steps. A Step propagate the particles over Xsum [g/cm].
 	while((l = s.getParticleLocation( ))<trajectoryLength){
-	    deltaL = Xsum/s.getMediumDensity( ); // propagation distance [cm]
 	    propMtx.propagateX( );
-	    l += deltaL;
+	    l = depth.getLocation(l,Xsum);      // propagation over Xsum [g/cm^2]
 	    s.setParticleLocation(l);
 	    System.err.println("Location " + l/100.0 + " [m]" 
 			       + (trajectoryLength-l)/100.0 + " [m] to go.");
 	    System.err.println("nuMu to nuMu " + propMtx.getFnuMuToNuMu(300,300) + 
 			       " nuMu to nuTau " + propMtx.getFnuMuToNuTau(300,300));
 	}
+	propMtx.printKernelPerformance( );
     }
 
 
@@ -266,6 +299,150 @@ public class RunPropagationMatrix {
     }
 
 
+    /** 
+	<pre>
+	Trace particles running from the current location l to the length of
+	the trajectory by the shells of piecewise-constant density
+	planned by PropagationPlanner.
+
+	(1) Divide the trajectory into the shells where the medium density
+	    varies less than the relative tolerance.
+	(2) For each shell, calculate the elementary transfer matrix
+	    at the density of the shell and choose the number of steps n
+	    so that the step size columnDepth/n does not exceed
+	    PropagationMatrix.getStepSize(density).
+	(3) Raise the propagation matrix over the step to the power of n
+	    by the binary powering and multiply the store matrix by it
+	    (PropagationMatrix.propagateLayer( )).
+	(4) Copy the store matrix, the product of all the shells, back to
+	    the main propagation matrix.
+
+	When a PropagationMatrixCache is set by setCache( ), (2) and (3)
+	are done by PropagationMatrixCache.propagateLayer( ) instead,
+	which reuses the powered matrices of the density bin calculated
+	by the former runs.
+
+	A shell takes O(log n) matrix products while traceParticles( )
+	spends the linear steps propagateX( ) in the final part of each section.
+
+	double trajectoryLength : the end point along the trajectory axis [cm]
+	double tolerance        : relative variation of the density allowed within a shell
+	</pre>
+    */
+    public void traceParticlesByShells(double trajectoryLength, double tolerance)
+	throws IOException {
+
+	System.err.println("Entering traceParticlesByShells."); 
+
+	double lNow = s.getParticleLocation( ); // The current particle location
+	PropagationPlanner planner = 
+	    new PropagationPlanner(s,lNow,trajectoryLength,tolerance);
+	double dX = propMtx.dX;
+	int numberOfProducts = 0;
+
+	propMtx.initALL( );
+	for(int shell=0;shell<planner.getNumberOfShells( );shell++){
+	    double density = planner.getMeanDensity(shell);
+	    s.setParticleLocation(planner.getRepresentativeLocation(shell));
+
+	    if(cache != null){
+		numberOfProducts += 
+		    cache.propagateLayer(propMtx,s.getMaterialNumber( ),density,
+					 planner.getColumnDepth(shell));
+	    }else{
+		long numberOfSteps = 
+		    planner.getNumberOfSteps(shell,propMtx.getStepSize(density));
+		// Building the elementary propagation matrix of the shell
+		propMtx.setDx(planner.getColumnDepth(shell)/(double )numberOfSteps);
+		propMtx.calculateTransferMatrix(density);
+		propMtx.propagateLayer(numberOfSteps);
+		numberOfProducts += PropagationPlanner.getNumberOfProducts(numberOfSteps);
+	    }
+
+	    s.setParticleLocation(planner.getShellEnd(shell));
+	    System.err.println("Shell " + shell + " density " + density + " [g/cm^3] " +
+			       planner.getColumnDepth(shell) + " [g/cm^2]. Location " + 
+			       planner.getShellEnd(shell)/100.0 + " [m] " +
+			       (trajectoryLength-planner.getShellEnd(shell))/100.0 + " [m] to go.");
+	}
+	propMtx.setDx(dX);
+
+	//Copy the stored matrix back to the main propagation matrix.
+	propMtx.copyTransferMatrixFromStore( );
+	s.setParticleLocation(trajectoryLength);
+	System.err.println(planner.getNumberOfShells( ) + " shells by " + 
+			   numberOfProducts + " matrix products");
+	if(cache != null){
+	    System.err.println(cache.getNumberOfLoads( ) + " matrices read from and " +
+			       cache.getNumberOfSaves( ) + " written to the cache so far");
+	}
+	System.err.println("nuMu to nuMu " + propMtx.getFnuMuToNuMu(300,300) + 
+			   " nuMu to nuTau " + propMtx.getFnuMuToNuTau(300,300));
+	propMtx.printKernelPerformance( );
+    }
+
+    /** traceParticlesByShells(trajectoryLength,tolerance) with the default tolerance
+	PropagationPlanner.DEFAULT_TOLERANCE. */
+    public void traceParticlesByShells(double trajectoryLength) throws IOException {
+	traceParticlesByShells(trajectoryLength,PropagationPlanner.DEFAULT_TOLERANCE);
+    }
+
+    /** traceParticlesByShells(trajectoryLength) to the point where the particles
+	emerged from the underground. */
+    public void traceParticlesByShells( ) throws IOException {
+	double trajectoryLength = s.getAxisLength( );
+	traceParticlesByShells(trajectoryLength);
+    }
+
+
+    /** 
+	<pre>
+	Trace the particles by traceParticlesByShells( ) with the PropagationMatrixCache
+	in the directory given by the system property propagation.cache,
+
+	   java -Dpropagation.cache=(directory) iceCube.uhe.propagation.MainRun ...
+
+	or by traceParticles( ) if it is not set. The drivers MainRun and MainRun2
+	call this method so that their runs share the cached matrices.
+	</pre>
+    */
+    public void traceParticlesWithCache(double trajectoryLength) throws IOException {
+	String cacheDirectory = System.getProperty(CACHE_PROPERTY);
+	if(cacheDirectory == null){
+	    traceParticles(trajectoryLength);
+	}else{
+	    if(cache == null) setCache(new PropagationMatrixCache(cacheDirectory));
+	    traceParticlesByShells(trajectoryLength);
+	}
+    }
+
+    /** traceParticlesWithCache(trajectoryLength) to the point where the particles
+	emerged from the underground. */
+    public void traceParticlesWithCache( ) throws IOException {
+	traceParticlesWithCache(s.getAxisLength( ));
+    }
+
+
+    /** Set the cache of the powered propagation matrices
+	shared with the other runs by traceParticlesByShells( ). */
+    public void setCache(PropagationMatrixCache cache){
+	this.cache = cache;
+    }
+
+
+    /** Set the number of threads to run the matrix products
+	in the PropagationMatrix object. 1 for the serial run. */
+    public void setParallelism(int parallelism){
+	propMtx.setParallelism(parallelism);
+    }
+
+    /** Set the backend of the matrix products in the PropagationMatrix object.
+	See ChannelTensorKernel for the backends. */
+    public void setKernelBackend(int backend){
+	propMtx.setKernelBackend(backend);
+    }
+
+
     /** Save the calculated propagatin matrix */
     public void saveMatrix(DataOutputStream out) throws IOException {
 	int dimension = Particle.getDimensionOfLogEnergyMatrix();
@@ -317,6 +494,12 @@ public class RunPropagationMatrix {
 
     }
 
+    /** Save the calculated propagation matrix in the format of PropagationMatrixFile
+	which is read by the readMatrix(String fileName) methods without the element-wise decoding. */
+    public void saveMatrixFile(String fileName) throws IOException {
+	PropagationMatrixFile.write(new File(fileName),propMtx.propagation,true);
+    }
+
 
 
 }
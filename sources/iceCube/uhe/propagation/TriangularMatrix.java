@@ -0,0 +1,110 @@
+package iceCube.uhe.propagation;
+
+import java.io.*;
+
+/**
+<pre>
+   Lower triangular matrix M(iLogE,jLogE) for the energy transfer
+   from the input particle with energy iLogE to the output particle
+   with energy jLogE. The particles only lose their energies
+   during the propagation so the elements with jLogE &gt; iLogE
+   are always zero and are not stored. The elements of jLogE &lt;= iLogE 
+   are packed row by row in a single contiguous array
+
+       element[iLogE*(iLogE+1)/2 + jLogE]
+
+   which halves the memory of the double[dimension][dimension] array
+   and lets the loops over jLogE (or kLogE) in a row run through
+   the consecutive memory.
+</pre>
+*/
+
+public class TriangularMatrix implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int dimension;
+    /** The packed elements. Package-private so that the matrix products
+	in this package can walk the rows with their own index. */
+    final double[] element;
+
+    /** Constructor. All the elements are initialized to be zero. */
+    public TriangularMatrix(int dimension){
+	this.dimension = dimension;
+	element = new double[size(dimension)];
+    }
+
+    /** Constructor. Copy all the elements of the given matrix. */
+    public TriangularMatrix(TriangularMatrix matrix){
+	this(matrix.dimension);
+	System.arraycopy(matrix.element,0,element,0,element.length);
+    }
+
+    /** Number of the elements stored for the given dimension. */
+    public static int size(int dimension){
+	return dimension*(dimension+1)/2;
+    }
+
+    /** Index of the element (iLogE,0) in the packed array. */
+    public static int rowOffset(int iLogE){
+	return iLogE*(iLogE+1)/2;
+    }
+
+    public int getDimension( ){
+	return dimension;
+    }
+
+    /** The packed array itself - not a copy. The element (iLogE,jLogE)
+	is found at rowOffset(iLogE)+jLogE. */
+    public double[] getElements( ){
+	return element;
+    }
+
+    /** Returns the element (iLogE,jLogE). Zero above the diagonal. */
+    public double get(int iLogE, int jLogE){
+	if(jLogE>iLogE) return 0.0;
+	return element[iLogE*(iLogE+1)/2+jLogE];
+    }
+
+    /** Set the element (iLogE,jLogE) where jLogE &lt;= iLogE. */
+    public void set(int iLogE, int jLogE, double value){
+	element[iLogE*(iLogE+1)/2+jLogE] = value;
+    }
+
+    /** Add the value to the element (iLogE,jLogE) where jLogE &lt;= iLogE. */
+    public void add(int iLogE, int jLogE, double value){
+	element[iLogE*(iLogE+1)/2+jLogE] += value;
+    }
+
+    /** Set all the elements to be zero. */
+    public void clear( ){
+	java.util.Arrays.fill(element,0.0);
+    }
+
+    /** True if all the elements are zero. */
+    public boolean isZero( ){
+	for(int i=0;i<element.length;i++){
+	    if(element[i] != 0.0) return false;
+	}
+	return true;
+    }
+
+    /** Set the unit matrix. */
+    public void setIdentity( ){
+	clear( );
+	for(int iLogE=0;iLogE<dimension;iLogE++){
+	    element[iLogE*(iLogE+1)/2+iLogE] = 1.0;
+	}
+    }
+
+    /** Copy all the elements from the given matrix with the same dimension. */
+    public void copy(TriangularMatrix matrix){
+	System.arraycopy(matrix.element,0,element,0,element.length);
+    }
+
+    /** Copy the rows [iLogEmin,iLogEmax) from the given matrix with the same dimension. */
+    public void copyRows(TriangularMatrix matrix, int iLogEmin, int iLogEmax){
+	int from = rowOffset(iLogEmin);
+	System.arraycopy(matrix.element,from,element,from,rowOffset(iLogEmax)-from);
+    }
+}
@@ -0,0 +1,74 @@
+package numRecipes;
+
+import java.io.*;
+
+/**
+   <pre>
+   Search of a cumulative table for the random number r,
+   i.e. the first bin j with r &lt; cumulative[j], as the linear scan
+
+        for(int j=0; j&lt;cumulative.length; j++) if(r&lt;cumulative[j]) return j;
+
+   but in O(1) on average by the guide table (the indexed search by Chen and Asau).
+   guide[k] is the first bin j with cumulative[j]*m &gt;= k, so that the bin of r
+   is between guide[(int)(r*m)] and guide[(int)(r*m)+1], which is
+   searched by bisection. The result is exactly that of the linear scan,
+   so that the events generated so far are reproduced with the same random numbers.
+
+   The table is not copied. It must not be changed after the guide table is built.
+   A table decreasing somewhere is searched by the linear scan.
+   </pre>
+*/
+
+public class GuideTable implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private double[] cumulative;
+    private int numberOfGuides;
+    private int[] guide;
+    private boolean monotonic = true;
+
+    /** Constructor. numberOfGuides is typically the number of the bins or less. */
+    public GuideTable(double[] cumulative, int numberOfGuides){
+	this.cumulative = cumulative;
+	this.numberOfGuides = (numberOfGuides>0) ? numberOfGuides : 1;
+	for(int j=1;j<cumulative.length;j++){
+	    if(!(cumulative[j]>=cumulative[j-1])) monotonic = false;
+	}
+	double m = (double )this.numberOfGuides;
+	guide = new int[this.numberOfGuides+1];
+	int j = 0;
+	for(int k=0;k<guide.length;k++){
+	    while(j<cumulative.length && cumulative[j]*m<(double )k) j++;
+	    guide[k] = j;
+	}
+    }
+
+    /** The first bin j with r &lt; cumulative[j]. -1 if r is beyond the last bin.
+	r is typically in (0,1). */
+    public int search(double r){
+	if(!monotonic){
+	    for(int j=0;j<cumulative.length;j++) if(r<cumulative[j]) return j;
+	    return -1;
+	}
+	int k = (int )(r*(double )numberOfGuides);
+	if(k<0) k = 0;
+	if(k>numberOfGuides) k = numberOfGuides;
+	int low = guide[k];     // cumulative[j] < r for j < low
+	int high = (k<numberOfGuides) ? guide[k+1] : cumulative.length;
+	// cumulative[high] > r unless high is beyond the table
+	if(high>=cumulative.length){
+	    high = cumulative.length;
+	    if(low>=high || !(r<cumulative[high-1])) return -1;
+	    high--;
+	}
+	// cumulative[high] > r. The first such bin in [low, high]
+	while(low<high){
+	    int middle = (low+high)>>>1;
+	    if(r<cumulative[middle]) high = middle;
+	    else low = middle+1;
+	}
+	return low;
+    }
+}
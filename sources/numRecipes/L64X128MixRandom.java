@@ -0,0 +1,153 @@
+package numRecipes;
+
+import java.io.*;
+
+/**
+   <pre>
+   L64X128MixRandom, the LXM generator of java.util.random in JDK17.
+   The sum of a 64 bit LCG and a 128 bit xoroshiro128 is mixed by lea64.
+   jump( ) advances the LCG by the composed affine map and the xoroshiro
+   by the polynomial jump of LinearJump. The period is 2^64(2^128-1),
+   which is split into the substreams of 2^64 numbers.
+   The state is initialized from a seed by SplitMix64.
+
+   State : {RandomGenerator.L64X128MIX, a, s, x0, x1}
+   </pre>
+*/
+
+public class L64X128MixRandom implements RandomSource, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** LCG multiplier */
+    private static final long M = 0xd1342543de82ef95L;
+    private static final int DEGREE = 128;
+    private static LinearJump linearJump = null;
+
+    /** LCG addend (odd) and state */
+    private long a, s;
+    /** xoroshiro128 state */
+    private long x0, x1;
+
+    /** Constructor with a seed. */
+    public L64X128MixRandom(long seed){
+	SplitMix64 mix = new SplitMix64(seed);
+	a = mix.nextLong( ) | 1L;
+	s = mix.nextLong( );
+	x0 = mix.nextLong( );
+	x1 = mix.nextLong( );
+	if((x0|x1) == 0L) x0 = 1L;
+    }
+
+    /** Constructor with the state by GetState( ). */
+    public L64X128MixRandom(long[] state){
+	a = state[1] | 1L;
+	s = state[2];
+	x0 = state[3];
+	x1 = state[4];
+	if((x0|x1) == 0L) x0 = 1L;
+    }
+
+    private static long mixLea64(long z){
+	z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+	z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+	return z ^ (z >>> 32);
+    }
+
+    public long nextLong( ){
+	long z = s + x0;
+	s = M * s + a;
+	stepXoroshiro( );
+	return mixLea64(z);
+    }
+
+    private void stepXoroshiro( ){
+	long q0 = x0, q1 = x1;
+	q1 ^= q0;
+	q0 = Long.rotateLeft(q0, 24);
+	q0 = q0 ^ q1 ^ (q1 << 16);
+	q1 = Long.rotateLeft(q1, 37);
+	x0 = q0;
+	x1 = q1;
+    }
+
+    public double nextDouble( ){
+	return ((double )(nextLong( ) >>> 11) + 0.5) * 0x1.0p-53;
+    }
+
+    public long[] GetState( ){
+	return new long[ ]{(long )RandomGenerator.L64X128MIX, a, s, x0, x1};
+    }
+
+    public RandomSource copy( ){
+	return new L64X128MixRandom(GetState( ));
+    }
+
+    public void copyState(RandomSource source){
+	L64X128MixRandom lxm = (L64X128MixRandom )source;
+	a = lxm.a;
+	s = lxm.s;
+	x0 = lxm.x0;
+	x1 = lxm.x1;
+    }
+
+    /** The characteristic polynomial of xoroshiro128 from the lowest bit of x0. */
+    private static synchronized LinearJump getLinearJump( ){
+	if(linearJump != null) return linearJump;
+	L64X128MixRandom generator = new L64X128MixRandom(1L);
+	boolean[] sequence = new boolean[2*DEGREE+64];
+	for(int i=0;i<sequence.length;i++){
+	    sequence[i] = (generator.x0 & 1L) != 0L;
+	    generator.stepXoroshiro( );
+	}
+	linearJump = new LinearJump(sequence,DEGREE,0);
+	return linearJump;
+    }
+
+    public void jump(long count, int log2Unit){
+	if(count<0L || log2Unit<0){
+	    throw new IllegalArgumentException("Negative jump " + count + "x2^" + log2Unit);
+	}
+	if(count == 0L) return;
+
+	// LCG : s -> multiplier s + addend for 2^log2Unit steps, then count times
+	long multiplier = M;
+	long addend = a;
+	for(int k=0;k<log2Unit && k<64;k++){
+	    addend = multiplier * addend + addend;
+	    multiplier *= multiplier;
+	}
+	if(log2Unit>=64){ // the period of the LCG
+	    multiplier = 1L;
+	    addend = 0L;
+	}
+	long totalMultiplier = 1L;
+	long totalAddend = 0L;
+	for(long c=count;c != 0L;c >>>= 1){
+	    if((c & 1L) != 0L){
+		totalAddend = multiplier * totalAddend + addend;
+		totalMultiplier *= multiplier;
+	    }
+	    addend = multiplier * addend + addend;
+	    multiplier *= multiplier;
+	}
+	s = totalMultiplier * s + totalAddend;
+
+	// xoroshiro128
+	long[] polynomial = getLinearJump( ).getPolynomial(count,log2Unit);
+	long t0 = 0L, t1 = 0L;
+	for(int b=0;b<DEGREE;b++){
+	    if(LinearJump.getBit(polynomial,b)){
+		t0 ^= x0;
+		t1 ^= x1;
+	    }
+	    stepXoroshiro( );
+	}
+	x0 = t0;
+	x1 = t1;
+    }
+
+    public int getStreamLog2( ){
+	return 64;
+    }
+}
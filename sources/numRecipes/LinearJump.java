@@ -0,0 +1,200 @@
+package numRecipes;
+
+import java.util.*;
+
+/**
+   <pre>
+   Polynomial jump-ahead of the random generators linear over GF(2)
+   (MT19937, xoshiro256, xoroshiro128). Advancing the state by J steps
+   is multiplying it by T^J, T the matrix of one step, and
+
+        T^J = r(T),  r(x) = x^J mod x^n p(x)
+
+   where p(x) is the characteristic polynomial of the generator.
+   x^n covers the bits of the state array which do not enter the later steps
+   (n = 1 for MT19937, 0 for the others).
+
+   p(x) is obtained by the Berlekamp-Massey algorithm from a sequence of
+   a bit of the state generated by the caller. x^(2^k) mod x^n p(x) are kept
+   once calculated, so r(x) for J = count*2^k costs a few polynomial products.
+   The generator evaluates r(T) on its state by its own steps.
+   </pre>
+*/
+
+class LinearJump {
+
+    /** x^n p(x) and its degree */
+    private long[] modulus;
+    private int degree;
+    /** modulus shifted by 0..63 bits */
+    private long[][] shiftedModulus;
+    /** Number of the words of the polynomials */
+    private int words;
+
+    /** x^(2^k) mod x^n p(x) */
+    private ArrayList<long[]> powerOfTwo = new ArrayList<long[]>( );
+
+    /**
+	Constructor.
+	<pre>
+	boolean[] sequence   : a bit of the state of the successive steps,
+	                       longer than twice the degree of p(x)
+	int expectedDegree   : degree of p(x), checked against the sequence
+	int nilpotentDegree  : n
+	</pre>
+    */
+    LinearJump(boolean[] sequence, int expectedDegree, int nilpotentDegree){
+	long[] connection = berlekampMassey(sequence);
+	int p = degree(connection);
+	if(p != expectedDegree){
+	    throw new IllegalStateException("characteristic polynomial of degree " + p +
+					    " while " + expectedDegree + " expected");
+	}
+
+	// x^n p(x) where p is the reciprocal of the connection polynomial
+	degree = p+nilpotentDegree;
+	words = (2*degree)/64+2;
+	modulus = new long[words];
+	for(int j=0;j<=p;j++){
+	    if(getBit(connection,j)) setBit(modulus,p-j+nilpotentDegree);
+	}
+	shiftedModulus = new long[64][ ];
+	for(int s=0;s<64;s++) shiftedModulus[s] = shiftLeft(modulus,s,words);
+
+	long[] x = new long[words];
+	setBit(x,1);
+	powerOfTwo.add(reduce(x));
+    }
+
+    /** Degree of x^n p(x). r(x) has the lower degree. */
+    int getDegree( ){
+	return degree;
+    }
+
+    /** r(x) = x^(count*2^log2Unit) mod x^n p(x). count must be positive. */
+    long[] getPolynomial(long count, int log2Unit){
+	if(count<=0L || log2Unit<0){
+	    throw new IllegalArgumentException("Jump " + count + "x2^" + log2Unit);
+	}
+	long[] polynomial = null;
+	for(int b=0;b<64;b++){
+	    if(((count>>>b) & 1L) == 0L) continue;
+	    long[] power = getPowerOfTwo(log2Unit+b);
+	    polynomial = (polynomial == null) ? power : multiply(polynomial,power);
+	}
+	return polynomial;
+    }
+
+    /** x^(2^k) mod x^n p(x) */
+    private synchronized long[] getPowerOfTwo(int k){
+	while(powerOfTwo.size( )<=k){
+	    long[] last = powerOfTwo.get(powerOfTwo.size( )-1);
+	    powerOfTwo.add(multiply(last,last));
+	}
+	return powerOfTwo.get(k);
+    }
+
+    /** a b mod x^n p(x) */
+    private long[] multiply(long[] a, long[] b){
+	int aDegree = degree(a);
+	int bWords = degree(b)/64+1;
+	long[][] shiftedB = new long[64][ ];
+	for(int s=0;s<64;s++) shiftedB[s] = shiftLeft(b,s,bWords+1);
+
+	long[] product = new long[words];
+	for(int i=0;i<=aDegree;i++){
+	    if(!getBit(a,i)) continue;
+	    long[] shifted = shiftedB[i & 63];
+	    int offset = i >>> 6;
+	    for(int w=0;w<shifted.length;w++) product[offset+w] ^= shifted[w];
+	}
+	return reduce(product);
+    }
+
+    private long[] reduce(long[] product){
+	for(int i=degree(product);i>=degree;i--){
+	    if(!getBit(product,i)) continue;
+	    int shift = i-degree;
+	    long[] shifted = shiftedModulus[shift & 63];
+	    int offset = shift >>> 6;
+	    for(int w=0;w+offset<words;w++) product[offset+w] ^= shifted[w];
+	}
+	return product;
+    }
+
+    /** The connection polynomial C(x) = 1 + c1 x + .. + cL x^L
+	of the shortest linear recurrence generating the sequence. */
+    private static long[] berlekampMassey(boolean[] sequence){
+	int n = sequence.length;
+	int size = n/64+2;
+	// reversed sequence so that s[i-j], j=0..L, are consecutive bits
+	long[] reversed = new long[size+1];
+	for(int i=0;i<n;i++) if(sequence[i]) setBit(reversed,n-1-i);
+
+	long[] c = new long[size];
+	long[] b = new long[size];
+	setBit(c,0);
+	setBit(b,0);
+	int length = 0;
+	int shift = 1;
+	for(int i=0;i<n;i++){
+	    // discrepancy = sum_j c_j s_(i-j) = sum_j c_j reversed[n-1-i+j]
+	    int offset = n-1-i;
+	    int wordOffset = offset >>> 6;
+	    int bitOffset = offset & 63;
+	    long parity = 0L;
+	    int cWords = length/64+1;
+	    for(int w=0;w<cWords;w++){
+		long bits = reversed[wordOffset+w] >>> bitOffset;
+		if(bitOffset != 0) bits |= reversed[wordOffset+w+1] << (64-bitOffset);
+		parity ^= bits & c[w];
+	    }
+	    if((Long.bitCount(parity) & 1) == 0){
+		shift++;
+		continue;
+	    }
+	    long[] previous = (2*length<=i) ? c.clone( ) : null;
+	    // c = c + x^shift b
+	    int wordShift = shift >>> 6;
+	    int bitShift = shift & 63;
+	    for(int w=size-1;w>=wordShift;w--){
+		long bits = b[w-wordShift] << bitShift;
+		if(bitShift != 0 && w-wordShift-1>=0) bits |= b[w-wordShift-1] >>> (64-bitShift);
+		c[w] ^= bits;
+	    }
+	    if(previous != null){
+		length = i+1-length;
+		b = previous;
+		shift = 1;
+	    }else{
+		shift++;
+	    }
+	}
+	return c;
+    }
+
+    private static long[] shiftLeft(long[] a, int shift, int length){
+	long[] shifted = new long[length];
+	for(int w=0;w<length;w++){
+	    long bits = (w<a.length) ? a[w] << shift : 0L;
+	    if(shift != 0 && w>0 && w-1<a.length) bits |= a[w-1] >>> (64-shift);
+	    shifted[w] = bits;
+	}
+	return shifted;
+    }
+
+    static int degree(long[] a){
+	for(int w=a.length-1;w>=0;w--){
+	    if(a[w] != 0L) return 64*w+63-Long.numberOfLeadingZeros(a[w]);
+	}
+	return -1;
+    }
+
+    static boolean getBit(long[] a, int i){
+	return ((a[i>>>6]>>>(i & 63)) & 1L) != 0L;
+    }
+
+    private static void setBit(long[] a, int i){
+	a[i>>>6] |= 1L<<(i & 63);
+    }
+}
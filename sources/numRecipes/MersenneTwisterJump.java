@@ -0,0 +1,92 @@
+package numRecipes;
+
+/**
+   <pre>
+   Jump-ahead of the MT19937 state used by RandomDouble.jump( ).
+
+   The state of 624 words (x_t, .., x_t+623), where x_t is the next word
+   to be tempered and returned, is advanced by one word by the linear recurrence
+
+        x_t+624 = x_t+397 ^ twist(upper bit of x_t | lower 31 bits of x_t+1)
+
+   over GF(2). The state is advanced by J words with the polynomial
+   r(x) = x^J mod x p(x) of LinearJump, p(x) the characteristic polynomial
+   of MT19937 of degree 19937, evaluated by the Horner scheme with
+   19938 steps of the recurrence. The factor x is there because the lower
+   31 bits of x_t are not in the future of the recurrence
+   (the state of 624 words has 19968 bits).
+   </pre>
+*/
+
+class MersenneTwisterJump {
+
+    private static final int N =  624;
+    private static final int M = 397;
+    private static final long MATRIX_A = 0x9908b0dfL;
+    private static final long UMASK = 0x80000000L;
+    private static final long LMASK = 0x7fffffffL;
+
+    /** Degree of the characteristic polynomial */
+    static final int DEGREE = 19937;
+
+    private static LinearJump linearJump = null;
+
+    /** Find the characteristic polynomial from
+	the most significant bits of the words generated from a seed. */
+    private static synchronized LinearJump getLinearJump( ){
+	if(linearJump != null) return linearJump;
+	int length = 2*DEGREE+64;
+	long[] window = new long[N];
+	window[0]= 5489L;
+	for (int j=1; j<N; j++) {
+	    window[j] = (1812433253L * (window[j-1] ^ (window[j-1] >> 30)) + (long )j);
+	    window[j] &= 0xffffffffL;
+	}
+	int position = 0;
+	for(int i=0;i<N;i++) position = step(window,position); // off the seed
+	boolean[] sequence = new boolean[length];
+	for(int i=0;i<length;i++){
+	    sequence[i] = (window[position] & UMASK) != 0L;
+	    position = step(window,position);
+	}
+	linearJump = new LinearJump(sequence,DEGREE,1);
+	return linearJump;
+    }
+
+    /** One step of the recurrence on the circular window. Returns the new position. */
+    static int step(long[] window, int position){
+	int next = (position+1 == N) ? 0 : position+1;
+	int middle = (position+M >= N) ? position+M-N : position+M;
+	long y = (window[position] & UMASK) | (window[next] & LMASK);
+	window[position] = window[middle] ^ (y >> 1) ^ (((y & 1L) != 0L) ? MATRIX_A : 0L);
+	return next;
+    }
+
+    /**
+	Advance the state (x_t, .., x_t+623) by count*2^log2Unit words.
+	The state array is overwritten by (x_t+J, .., x_t+J+623).
+    */
+    static void jump(long[] state, long count, int log2Unit){
+	if(count<0L || log2Unit<0){
+	    throw new IllegalArgumentException("Negative jump " + count + "x2^" + log2Unit);
+	}
+	if(count == 0L) return;
+	apply(state,getLinearJump( ).getPolynomial(count,log2Unit));
+    }
+
+    /** state = r(T) state by the Horner scheme */
+    private static void apply(long[] state, long[] polynomial){
+	long[] accumulated = new long[N];
+	int position = 0;
+	for(int i=LinearJump.degree(polynomial);i>=0;i--){
+	    position = step(accumulated,position);
+	    if(LinearJump.getBit(polynomial,i)){
+		for(int k=0;k<N-position;k++) accumulated[position+k] ^= state[k];
+		for(int k=N-position;k<N;k++) accumulated[position+k-N] ^= state[k];
+	    }
+	}
+	for(int k=0;k<N;k++){
+	    state[k] = accumulated[(position+k<N) ? position+k : position+k-N];
+	}
+    }
+}
@@ -56,7 +56,7 @@ import java.io.*;
   </pre>
 */
 
-public class RandomDouble implements Serializable{
+public class RandomDouble implements RandomSource, Serializable{
 
     private static final int N =  624;
     private static final int M = 397;
@@ -95,6 +95,63 @@ public class RandomDouble implements Serializable{
       left = (int) init_state[N+1];
     }
 
+    /** Constructor to copy the state of the source generator. */
+    public RandomDouble(RandomDouble source){
+      state = source.state.clone( );
+      selectedIndex = source.selectedIndex;
+      left = source.left;
+      initf = source.initf;
+    }
+
+    /** Skip the next steps numbers as if nextDouble( ) were called steps times. */
+    public void jump(long steps){
+	jump(steps,0);
+    }
+
+    /** 
+	Skip the next count*2^log2Unit numbers. The state is advanced
+	by the polynomial jump of MT19937 (see MersenneTwisterJump)
+	in about the time to generate 10^5 numbers, whatever the jump is,
+	so that the substreams far apart (e.g. 2^64 numbers) are
+	reached without generating the numbers in between.
+    */
+    public void jump(long count, int log2Unit){
+	if(count<0L || log2Unit<0){
+	    throw new IllegalArgumentException("Negative jump " + count + "x2^" + log2Unit);
+	}
+	if(log2Unit<20 && count<(1L<<(20-log2Unit))){ // cheaper to generate them
+	    for(long i=(count<<log2Unit);i>0L;i--){
+		if (--left == 0) nextState();
+		selectedIndex++;
+	    }
+	    return;
+	}
+	// state[ ] holds the N words from the start of the block, of which
+	// consumed = N-left+1 have been returned. Jump from the block start
+	// by consumed + count*2^log2Unit, and start the new block at its first word.
+	long consumed = (long )(N-left+1);
+	MersenneTwisterJump.jump(state,consumed,0);
+	MersenneTwisterJump.jump(state,count,log2Unit);
+	selectedIndex = 0;
+	left = N+1;
+    }
+
+    public RandomSource copy(){
+	return new RandomDouble(this);
+    }
+
+    public void copyState(RandomSource source){
+	RandomDouble mt = (RandomDouble )source;
+	System.arraycopy(mt.state,0,state,0,N);
+	selectedIndex = mt.selectedIndex;
+	left = mt.left;
+	initf = mt.initf;
+    }
+
+    public int getStreamLog2(){
+	return 64;
+    }
+
     public long[] GetState(){
       random_state = new long[N+2];
       System.arraycopy(state, 0, random_state, 0, N);
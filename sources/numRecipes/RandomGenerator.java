@@ -8,7 +8,16 @@ import java.util.*;
 
 public class RandomGenerator implements Serializable{
 
-    private RandomDouble generator = null;
+    /** The engines of the uniform numbers. See RandomSource. */
+    public final static int MERSENNE_TWISTER = 0;
+    public final static int XOSHIRO256PP = 1;
+    public final static int SPLITMIX64 = 2;
+    public final static int L64X128MIX = 3;
+    public final static String[] backendName = {
+	"MT19937", "xoshiro256++", "SplitMix64", "L64X128Mix"
+    };
+
+    private RandomSource generator = null;
     // private Random generatorUtil = null;
 
     private boolean haveNextNextGaussian = false;
@@ -35,13 +44,125 @@ public class RandomGenerator implements Serializable{
 
     }
 
+    /** constructor with a given seed by the engine of the backend code
+	(MERSENNE_TWISTER, XOSHIRO256PP, SPLITMIX64, L64X128MIX). */
+    public RandomGenerator(int backend, long seed) {
+	switch(backend){
+	case MERSENNE_TWISTER: generator = new RandomDouble(seed); break;
+	case XOSHIRO256PP: generator = new Xoshiro256PlusPlus(seed); break;
+	case SPLITMIX64: generator = new SplitMix64(seed); break;
+	case L64X128MIX: generator = new L64X128MixRandom(seed); break;
+	default:
+	    throw new IllegalArgumentException("Unknown random backend " + backend);
+	}
+    }
+
+    /** constructor for the stream of the given index split from the seed
+	by MT19937. The same as RandomGenerator(MERSENNE_TWISTER, seed, stream). */
+    public RandomGenerator(long seed, long stream) {
+	this(MERSENNE_TWISTER,seed,stream);
+    }
+
+    /** constructor for the stream of the given index split from the seed
+	by the engine of the backend code, i.e. getStream(stream) of the sequence
+	of RandomGenerator(backend, seed). The streams of a seed are the disjoint
+	substreams of 2^getStreamLog2( ) numbers reached by the jump-ahead,
+	so that the stream of an event index is the same whichever thread
+	or process runs the event. */
+    public RandomGenerator(int backend, long seed, long stream) {
+	this(backend,seed);
+	generator.jump(stream,generator.getStreamLog2( ));
+    }
+
 	/** constructor with a given random state. */
     public RandomGenerator(long[] random_state) {
 	    if(generator == null){ // Initialization
-	        generator = new RandomDouble(random_state);
+	        generator = createFromState(random_state);
 	    }
     }
 
+    /** constructor to copy the state of the source. */
+    public RandomGenerator(RandomGenerator source) {
+	generator = source.generator.copy( );
+    }
+
+    /** The engine of the state by GetState( ). The state of MT19937 has
+	N+2 words, and the others begin with their backend code. */
+    private static RandomSource createFromState(long[] random_state){
+	if(random_state.length == 624+2) return new RandomDouble(random_state);
+	switch((int )random_state[0]){
+	case XOSHIRO256PP: return new Xoshiro256PlusPlus(random_state);
+	case SPLITMIX64: return new SplitMix64(random_state);
+	case L64X128MIX: return new L64X128MixRandom(random_state);
+	default:
+	    throw new IllegalArgumentException("Unknown random state of " +
+					       random_state.length + " words");
+	}
+    }
+
+    /** Set the state to that of the source, reusing the engine of this generator
+	if it is of the same backend. */
+    public void setState(RandomGenerator source){
+	if(generator.getClass( ) == source.generator.getClass( )){
+	    generator.copyState(source.generator);
+	}else{
+	    generator = source.generator.copy( );
+	}
+	haveNextNextGaussian = source.haveNextNextGaussian;
+	nextNextGaussian = source.nextNextGaussian;
+    }
+
+    /** The engine of the uniform numbers. */
+    public RandomSource getRandomSource( ){
+	return generator;
+    }
+
+    /** log2 of the length of the substreams given by split( ) and getStream( ):
+	64 for MT19937 and L64X128Mix, 128 for xoshiro256++ and 32 for SplitMix64. */
+    public int getStreamLog2( ){
+	return generator.getStreamLog2( );
+    }
+
+    /** Skip the next steps random numbers. */
+    public void jump(long steps){
+	generator.jump(steps,0);
+	haveNextNextGaussian = false;
+    }
+
+    /**
+	Split off the substream starting at the current state.
+	The returned generator continues from the current state, and this generator
+	jumps 2^getStreamLog2( ) numbers ahead, so that the successive split( ) give
+	disjoint substreams of 2^getStreamLog2( ) numbers each
+	of the sequence of this generator.
+    */
+    public RandomGenerator split( ){
+	RandomGenerator substream = new RandomGenerator(this);
+	generator.jump(1L,generator.getStreamLog2( ));
+	haveNextNextGaussian = false;
+	return substream;
+    }
+
+    /** Skip the next count substreams of 2^getStreamLog2( ) numbers,
+	as count split( ) would do. */
+    public void jumpStreams(long count){
+	generator.jump(count,generator.getStreamLog2( ));
+	haveNextNextGaussian = false;
+    }
+
+    /**
+	The substream of the index, starting index*2^getStreamLog2( ) numbers
+	ahead of the current state. This generator is not changed.
+	getStream(i) is the same as the generator returned by the (i+1)-th split( ),
+	so that a node or an event can resume its substream
+	by its index without replaying the sequence.
+    */
+    public RandomGenerator getStream(long index){
+	RandomGenerator substream = new RandomGenerator(this);
+	substream.generator.jump(index,generator.getStreamLog2( ));
+	return substream;
+    }
+
     public long[] GetState(){
       long[] state = generator.GetState();
       return state;
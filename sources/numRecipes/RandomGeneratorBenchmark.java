@@ -0,0 +1,36 @@
+package numRecipes;
+
+import numRecipes.*;
+
+
+/** Compare the number of the draws per second of
+    RandomGenerator.GetRandomDouble( ) by the engines. */
+public class RandomGeneratorBenchmark{
+
+    public static void main(String[] args){
+
+	long draws = 100000000L;
+	int repeats = 5;
+	if(args.length>=1) draws = Long.valueOf(args[0]).longValue();
+	if(args.length>=2) repeats = Integer.valueOf(args[1]).intValue();
+
+	for(int backend=0;backend<RandomGenerator.backendName.length;backend++){
+	    RandomGenerator rand = new RandomGenerator(backend,123L);
+	    double sum = 0.0;
+	    // warm up
+	    for(long i=0;i<draws/10;i++) sum += rand.GetRandomDouble();
+
+	    double best = 0.0;
+	    for(int r=0;r<repeats;r++){
+		long start = System.nanoTime( );
+		for(long i=0;i<draws;i++) sum += rand.GetRandomDouble();
+		double rate = (double )draws/((double )(System.nanoTime( )-start)*1.0e-9);
+		if(rate>best) best = rate;
+	    }
+	    System.out.format("%-14s %10.3e draws/sec (mean %f)\n",
+			      RandomGenerator.backendName[backend], best,
+			      sum/((double )draws*(repeats+0.1)));
+	}
+    }
+
+}
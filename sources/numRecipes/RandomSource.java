@@ -0,0 +1,38 @@
+package numRecipes;
+
+/**
+   <pre>
+   The engine of the uniform pseudorandom numbers behind RandomGenerator.
+
+   RandomDouble (MT19937)      : the default, reproducing the runs so far
+   Xoshiro256PlusPlus          : xoshiro256++
+   SplitMix64                  : the algorithm of java.util.SplittableRandom
+   L64X128MixRandom            : LXM generator of java.util.random (JDK17)
+
+   Every engine advances its state by count*2^log2Unit numbers with jump( )
+   without generating them, and RandomGenerator uses it to split
+   the sequence into the substreams of 2^getStreamLog2( ) numbers.
+   </pre>
+*/
+
+public interface RandomSource {
+
+    /** generates a random number on (0,1)-real-interval */
+    double nextDouble( );
+
+    /** The state to resume the sequence by RandomGenerator(long[] ). */
+    long[] GetState( );
+
+    /** A copy of this engine at the current state. */
+    RandomSource copy( );
+
+    /** Set the state to that of the source engine of the same class
+	without allocating a new engine. */
+    void copyState(RandomSource source);
+
+    /** Skip the next count*2^log2Unit numbers. */
+    void jump(long count, int log2Unit);
+
+    /** log2 of the length of the substreams split from the sequence. */
+    int getStreamLog2( );
+}
@@ -0,0 +1,79 @@
+package numRecipes;
+
+import java.io.*;
+
+/**
+   <pre>
+   SplitMix64, the algorithm of java.util.SplittableRandom.
+   The state is a counter advanced by the odd gamma and the number is
+   the mix of the counter, so that jump( ) is a multiplication.
+   The period is 2^64, which is split into 2^32 substreams of 2^32 numbers.
+
+   State : {RandomGenerator.SPLITMIX64, seed, gamma}
+   </pre>
+*/
+
+public class SplitMix64 implements RandomSource, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The default gamma of SplittableRandom */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long gamma;
+
+    /** Constructor with a seed. */
+    public SplitMix64(long seed){
+	this.seed = seed;
+	this.gamma = GOLDEN_GAMMA;
+    }
+
+    /** Constructor with the state by GetState( ). */
+    public SplitMix64(long[] state){
+	seed = state[1];
+	gamma = state[2] | 1L;
+    }
+
+    /** The mix function of SplittableRandom (Stafford variant 13) */
+    static long mix64(long z){
+	z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+	z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+	return z ^ (z >>> 31);
+    }
+
+    public long nextLong( ){
+	seed += gamma;
+	return mix64(seed);
+    }
+
+    public double nextDouble( ){
+	return ((double )(nextLong( ) >>> 11) + 0.5) * 0x1.0p-53;
+    }
+
+    public long[] GetState( ){
+	return new long[ ]{(long )RandomGenerator.SPLITMIX64, seed, gamma};
+    }
+
+    public RandomSource copy( ){
+	return new SplitMix64(GetState( ));
+    }
+
+    public void copyState(RandomSource source){
+	SplitMix64 mix = (SplitMix64 )source;
+	seed = mix.seed;
+	gamma = mix.gamma;
+    }
+
+    public void jump(long count, int log2Unit){
+	if(count<0L || log2Unit<0){
+	    throw new IllegalArgumentException("Negative jump " + count + "x2^" + log2Unit);
+	}
+	if(log2Unit>=64) return; // the period
+	seed += gamma * (count << log2Unit);
+    }
+
+    public int getStreamLog2( ){
+	return 32;
+    }
+}
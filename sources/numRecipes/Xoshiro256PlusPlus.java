@@ -0,0 +1,119 @@
+package numRecipes;
+
+import java.io.*;
+
+/**
+   <pre>
+   xoshiro256++ by David Blackman and Sebastiano Vigna,
+   a linear generator over GF(2) of 256 bits of the state with the ++ scrambler.
+   The period is 2^256-1, which is split into the substreams of 2^128 numbers
+   (the jump( ) of the original code) by the polynomial jump of LinearJump.
+   The state is initialized from a seed by SplitMix64 as recommended.
+
+   State : {RandomGenerator.XOSHIRO256PP, s0, s1, s2, s3}
+   </pre>
+*/
+
+public class Xoshiro256PlusPlus implements RandomSource, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DEGREE = 256;
+    private static LinearJump linearJump = null;
+
+    private long s0, s1, s2, s3;
+
+    /** Constructor with a seed. */
+    public Xoshiro256PlusPlus(long seed){
+	SplitMix64 mix = new SplitMix64(seed);
+	s0 = mix.nextLong( );
+	s1 = mix.nextLong( );
+	s2 = mix.nextLong( );
+	s3 = mix.nextLong( );
+	if((s0|s1|s2|s3) == 0L) s0 = 1L;
+    }
+
+    /** Constructor with the state by GetState( ). */
+    public Xoshiro256PlusPlus(long[] state){
+	s0 = state[1];
+	s1 = state[2];
+	s2 = state[3];
+	s3 = state[4];
+	if((s0|s1|s2|s3) == 0L) s0 = 1L;
+    }
+
+    public long nextLong( ){
+	long result = Long.rotateLeft(s0 + s3, 23) + s0;
+	step( );
+	return result;
+    }
+
+    private void step( ){
+	long t = s1 << 17;
+	s2 ^= s0;
+	s3 ^= s1;
+	s1 ^= s2;
+	s0 ^= s3;
+	s2 ^= t;
+	s3 = Long.rotateLeft(s3, 45);
+    }
+
+    public double nextDouble( ){
+	return ((double )(nextLong( ) >>> 11) + 0.5) * 0x1.0p-53;
+    }
+
+    public long[] GetState( ){
+	return new long[ ]{(long )RandomGenerator.XOSHIRO256PP, s0, s1, s2, s3};
+    }
+
+    public RandomSource copy( ){
+	return new Xoshiro256PlusPlus(GetState( ));
+    }
+
+    public void copyState(RandomSource source){
+	Xoshiro256PlusPlus xoshiro = (Xoshiro256PlusPlus )source;
+	s0 = xoshiro.s0;
+	s1 = xoshiro.s1;
+	s2 = xoshiro.s2;
+	s3 = xoshiro.s3;
+    }
+
+    /** The characteristic polynomial from the lowest bit of s0. */
+    private static synchronized LinearJump getLinearJump( ){
+	if(linearJump != null) return linearJump;
+	Xoshiro256PlusPlus generator = new Xoshiro256PlusPlus(1L);
+	boolean[] sequence = new boolean[2*DEGREE+64];
+	for(int i=0;i<sequence.length;i++){
+	    sequence[i] = (generator.s0 & 1L) != 0L;
+	    generator.step( );
+	}
+	linearJump = new LinearJump(sequence,DEGREE,0);
+	return linearJump;
+    }
+
+    public void jump(long count, int log2Unit){
+	if(count<0L || log2Unit<0){
+	    throw new IllegalArgumentException("Negative jump " + count + "x2^" + log2Unit);
+	}
+	if(count == 0L) return;
+	long[] polynomial = getLinearJump( ).getPolynomial(count,log2Unit);
+	long t0 = 0L, t1 = 0L, t2 = 0L, t3 = 0L;
+	for(int b=0;b<DEGREE;b++){
+	    if(LinearJump.getBit(polynomial,b)){
+		t0 ^= s0;
+		t1 ^= s1;
+		t2 ^= s2;
+		t3 ^= s3;
+	    }
+	    step( );
+	}
+	s0 = t0;
+	s1 = t1;
+	s2 = t2;
+	s3 = t3;
+    }
+
+    public int getStreamLog2( ){
+	return 128;
+    }
+}